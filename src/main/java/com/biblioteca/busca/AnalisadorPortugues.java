@@ -0,0 +1,35 @@
+package com.biblioteca.busca;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseLightStemFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+/**
+ * Analisador de texto em português para o índice de busca
+ *
+ * Minúsculas → remoção de stopwords → remoção de acentos → stemming leve.
+ * Os acentos são removidos antes do stemming para que "ação" e "acao"
+ * gerem o mesmo termo, tanto na indexação quanto na consulta.
+ */
+public class AnalisadorPortugues extends Analyzer {
+
+    @Override
+    protected TokenStreamComponents createComponents(String campo) {
+        StandardTokenizer tokenizador = new StandardTokenizer();
+        TokenStream fluxo = new LowerCaseFilter(tokenizador);
+        fluxo = new StopFilter(fluxo, PortugueseAnalyzer.getDefaultStopSet());
+        fluxo = new ASCIIFoldingFilter(fluxo);
+        fluxo = new PortugueseLightStemFilter(fluxo);
+        return new TokenStreamComponents(tokenizador, fluxo);
+    }
+
+    @Override
+    protected TokenStream normalize(String campo, TokenStream entrada) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+    }
+}
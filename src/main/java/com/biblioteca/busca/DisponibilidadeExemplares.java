@@ -0,0 +1,124 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.dto.Disponibilidade;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores em memória de exemplares e empréstimos em aberto por ISBN do acervo
+ *
+ * Cada ISBN tem um único AtomicLong com as duas quantidades (exemplares nos 32
+ * bits altos, emprestados nos baixos), então a retirada confere e ocupa um
+ * exemplar em um só compareAndSet: retiradas simultâneas nunca passam do total,
+ * sem bloqueios. ISBNs sem exemplares cadastrados não são controlados.
+ */
+public class DisponibilidadeExemplares {
+
+    private static final long MASCARA = 0xFFFF_FFFFL;
+
+    private final ConcurrentHashMap<String, AtomicLong> porIsbn = new ConcurrentHashMap<>();
+
+    /**
+     * Indica se o ISBN pertence ao acervo (tem exemplares cadastrados)
+     */
+    public boolean controla(String isbn) {
+        return isbn != null && porIsbn.containsKey(isbn);
+    }
+
+    /**
+     * Ocupa um exemplar se houver algum disponível; false se todos estão emprestados
+     * (ou se o ISBN não pertence ao acervo)
+     */
+    public boolean reservar(String isbn) {
+        AtomicLong contadores = porIsbn.get(isbn);
+        if (contadores == null) {
+            return false;
+        }
+        long atual = contadores.get();
+        while (emprestados(atual) < exemplares(atual)) {
+            if (contadores.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+            atual = contadores.get();
+        }
+        return false;
+    }
+
+    /**
+     * Ocupa um exemplar sem conferir a disponibilidade (empréstimos já gravados, ex.: importação)
+     */
+    public void ocupar(String isbn) {
+        AtomicLong contadores = porIsbn.get(isbn);
+        if (contadores != null) {
+            contadores.incrementAndGet();
+        }
+    }
+
+    /**
+     * Libera um exemplar (devolução, exclusão ou retirada desfeita)
+     */
+    public void liberar(String isbn) {
+        AtomicLong contadores = porIsbn.get(isbn);
+        if (contadores == null) {
+            return;
+        }
+        long atual = contadores.get();
+        while (emprestados(atual) > 0 && !contadores.compareAndSet(atual, atual - 1)) {
+            atual = contadores.get();
+        }
+    }
+
+    /**
+     * Soma exemplares ao ISBN, incluindo-o no acervo se preciso
+     */
+    public void adicionarExemplares(String isbn, int quantidade) {
+        porIsbn.computeIfAbsent(isbn, chave -> new AtomicLong()).addAndGet((long) quantidade << 32);
+    }
+
+    /**
+     * Aplica correções às duas quantidades (reconciliação); as operações concorrentes
+     * são preservadas, pois só as diferenças são somadas
+     */
+    public void corrigir(String isbn, int exemplares, int emprestados) {
+        AtomicLong contadores = porIsbn.computeIfAbsent(isbn, chave -> new AtomicLong());
+        contadores.updateAndGet(atual -> empacotar(
+                Math.max(0, exemplares(atual) + exemplares), Math.max(0, emprestados(atual) + emprestados)));
+    }
+
+    /**
+     * Situação atual do ISBN, ou null se ele não pertence ao acervo
+     */
+    public Disponibilidade consultar(String isbn) {
+        AtomicLong contadores = isbn == null ? null : porIsbn.get(isbn);
+        if (contadores == null) {
+            return null;
+        }
+        long atual = contadores.get();
+        return new Disponibilidade(isbn, exemplares(atual), emprestados(atual));
+    }
+
+    public Set<String> isbns() {
+        return porIsbn.keySet();
+    }
+
+    /**
+     * Descarta todo o conteúdo
+     */
+    public void limpar() {
+        porIsbn.clear();
+    }
+
+    private static int exemplares(long contadores) {
+        return (int) (contadores >>> 32);
+    }
+
+    private static int emprestados(long contadores) {
+        return (int) (contadores & MASCARA);
+    }
+
+    private static long empacotar(int exemplares, int emprestados) {
+        return ((long) exemplares << 32) | (emprestados & MASCARA);
+    }
+}
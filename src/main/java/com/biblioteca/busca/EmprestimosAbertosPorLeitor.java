@@ -0,0 +1,67 @@
+package com.biblioteca.busca;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contadores em memória de empréstimos em aberto por leitor
+ *
+ * Um AtomicInteger por leitor: a retirada confere o limite e soma em um só
+ * compareAndSet, então retiradas simultâneas do mesmo leitor nunca passam do
+ * limite, sem bloqueios e sem consultar o banco.
+ */
+public class EmprestimosAbertosPorLeitor {
+
+    private final Map<Long, AtomicInteger> porLeitor = new ConcurrentHashMap<>();
+
+    /**
+     * Conta mais um empréstimo se o leitor ainda estiver abaixo do limite
+     */
+    public boolean ocupar(Long leitorId, int limite) {
+        AtomicInteger abertos = porLeitor.computeIfAbsent(leitorId, id -> new AtomicInteger());
+        int atual = abertos.get();
+        while (atual < limite) {
+            if (abertos.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+            atual = abertos.get();
+        }
+        return false;
+    }
+
+    /**
+     * Soma (ou subtrai) empréstimos sem conferir o limite; nunca fica negativo
+     */
+    public void somar(Long leitorId, int quantidade) {
+        porLeitor.computeIfAbsent(leitorId, id -> new AtomicInteger())
+                .updateAndGet(atual -> Math.max(0, atual + quantidade));
+    }
+
+    /**
+     * Descarta o contador do leitor (leitor excluído)
+     */
+    public void remover(Long leitorId) {
+        porLeitor.remove(leitorId);
+    }
+
+    public int abertos(Long leitorId) {
+        AtomicInteger abertos = porLeitor.get(leitorId);
+        return abertos == null ? 0 : abertos.get();
+    }
+
+    /**
+     * Leitores com contador (visão ao vivo das chaves)
+     */
+    public Set<Long> leitores() {
+        return porLeitor.keySet();
+    }
+
+    /**
+     * Descarta todo o conteúdo
+     */
+    public void limpar() {
+        porLeitor.clear();
+    }
+}
@@ -0,0 +1,283 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.domain.Reserva.Situacao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Filas de reserva por ISBN, em memória e sem bloqueios
+ *
+ * Cada título tem uma fila FIFO (ConcurrentLinkedQueue) das reservas aguardando
+ * e o conjunto das que já têm exemplar separado. Entrar na fila e atender o
+ * próximo custam O(1). A situação de cada reserva muda por compareAndSet sobre
+ * um estado imutável, então atender, cancelar e expirar a mesma reserva ao
+ * mesmo tempo resulta em uma única transição. Um leitor tem no máximo uma
+ * reserva ativa por ISBN.
+ */
+public class FilaReservas {
+
+    private final Map<String, Titulo> porIsbn = new ConcurrentHashMap<>();
+    private final Map<String, Entrada> ativas = new ConcurrentHashMap<>();
+    private final Map<Long, Entrada> porId = new ConcurrentHashMap<>();
+
+    /**
+     * Coloca o leitor no fim da fila do ISBN; null se ele já tem reserva ativa para o título
+     */
+    public Entrada adicionar(long id, long leitorId, String isbn, LocalDateTime criadaEm) {
+        Entrada nova = new Entrada(id, leitorId, isbn, criadaEm,
+                new Estado(Situacao.AGUARDANDO, null, null, null));
+        if (ativas.putIfAbsent(chave(isbn, leitorId), nova) != null) {
+            return null;
+        }
+        porId.put(id, nova);
+        titulo(isbn).aguardando.offer(nova);
+        return nova;
+    }
+
+    /**
+     * Remonta uma reserva ativa lida do banco (chamadas em ordem de ID)
+     */
+    public Entrada restaurar(Reserva reserva) {
+        Entrada entrada = new Entrada(reserva.getId(), reserva.getLeitorId(), reserva.getIsbn(), reserva.getCriadaEm(),
+                new Estado(reserva.getSituacao(), reserva.getDisponivelEm(), reserva.getPrazoRetirada(), null));
+        ativas.put(chave(entrada.isbn, entrada.leitorId), entrada);
+        porId.put(entrada.id, entrada);
+        Titulo titulo = titulo(entrada.isbn);
+        if (reserva.getSituacao() == Situacao.DISPONIVEL) {
+            titulo.separadas.add(entrada);
+        } else {
+            titulo.aguardando.offer(entrada);
+        }
+        return entrada;
+    }
+
+    /**
+     * Separa um exemplar para a primeira reserva aguardando do ISBN; null se a fila está vazia
+     */
+    public Entrada separarProximo(String isbn, LocalDateTime agora, LocalDateTime prazoRetirada) {
+        Titulo titulo = porIsbn.get(isbn);
+        if (titulo == null) {
+            return null;
+        }
+        Estado separada = new Estado(Situacao.DISPONIVEL, agora, prazoRetirada, null);
+        Entrada proxima;
+        while ((proxima = titulo.aguardando.poll()) != null) {
+            Estado atual = proxima.estado.get();
+            // Canceladas enquanto ainda na fila são só descartadas
+            if (atual.situacao == Situacao.AGUARDANDO && proxima.estado.compareAndSet(atual, separada)) {
+                titulo.separadas.add(proxima);
+                return proxima;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica se há reservas aguardando exemplar para o ISBN
+     */
+    public boolean temAguardando(String isbn) {
+        Titulo titulo = porIsbn.get(isbn);
+        return titulo != null && !titulo.aguardando.isEmpty();
+    }
+
+    /**
+     * Encerra a reserva se ela estiver na situação esperada
+     * false se outra operação já mudou a situação
+     */
+    public boolean encerrar(Entrada entrada, Situacao esperada, Situacao nova, LocalDateTime agora) {
+        Estado atual = entrada.estado.get();
+        if (atual.situacao != esperada
+                || !entrada.estado.compareAndSet(atual, new Estado(nova, atual.disponivelEm, atual.prazoRetirada, agora))) {
+            return false;
+        }
+        ativas.remove(chave(entrada.isbn, entrada.leitorId), entrada);
+        Titulo titulo = porIsbn.get(entrada.isbn);
+        if (esperada == Situacao.AGUARDANDO) {
+            titulo.aguardando.remove(entrada);
+        } else {
+            titulo.separadas.remove(entrada);
+        }
+        return true;
+    }
+
+    /**
+     * Desfaz o atendimento de uma reserva com exemplar separado (empréstimo desfeito)
+     */
+    public void reabrir(Entrada entrada) {
+        Estado atual = entrada.estado.get();
+        if (atual.situacao == Situacao.ATENDIDA && entrada.estado.compareAndSet(atual,
+                new Estado(Situacao.DISPONIVEL, atual.disponivelEm, atual.prazoRetirada, null))) {
+            ativas.putIfAbsent(chave(entrada.isbn, entrada.leitorId), entrada);
+            titulo(entrada.isbn).separadas.add(entrada);
+        }
+    }
+
+    /**
+     * Reserva ativa do leitor para o ISBN, ou null
+     */
+    public Entrada ativa(String isbn, Long leitorId) {
+        return isbn == null || leitorId == null ? null : ativas.get(chave(isbn, leitorId));
+    }
+
+    /**
+     * Reservas ativas do leitor em todos os títulos
+     */
+    public List<Entrada> ativasDoLeitor(long leitorId) {
+        List<Entrada> entradas = new ArrayList<>();
+        for (Entrada entrada : ativas.values()) {
+            if (entrada.leitorId == leitorId) {
+                entradas.add(entrada);
+            }
+        }
+        return entradas;
+    }
+
+    public Entrada buscar(Long id) {
+        return porId.get(id);
+    }
+
+    /**
+     * Esquece uma reserva encerrada (depois de gravada no banco)
+     */
+    public void descartar(Entrada entrada) {
+        porId.remove(entrada.id, entrada);
+    }
+
+    /**
+     * Reservas ativas do ISBN: primeiro as com exemplar separado, depois a fila em ordem
+     */
+    public List<Entrada> listar(String isbn) {
+        Titulo titulo = porIsbn.get(isbn);
+        if (titulo == null) {
+            return List.of();
+        }
+        List<Entrada> entradas = new ArrayList<>(titulo.separadas);
+        entradas.sort(Comparator.comparingLong(Entrada::getId));
+        for (Entrada entrada : titulo.aguardando) {
+            if (entrada.getSituacao() == Situacao.AGUARDANDO) {
+                entradas.add(entrada);
+            }
+        }
+        return entradas;
+    }
+
+    /**
+     * Posição da reserva na fila (1 = próxima), ou null se ela não está aguardando
+     */
+    public Integer posicao(Entrada entrada) {
+        Titulo titulo = porIsbn.get(entrada.isbn);
+        if (titulo == null || entrada.getSituacao() != Situacao.AGUARDANDO) {
+            return null;
+        }
+        int posicao = 0;
+        for (Entrada outra : titulo.aguardando) {
+            if (outra.getSituacao() == Situacao.AGUARDANDO) {
+                posicao++;
+            }
+            if (outra == entrada) {
+                return posicao;
+            }
+        }
+        return null;
+    }
+
+    public Set<String> isbns() {
+        return porIsbn.keySet();
+    }
+
+    /**
+     * Descarta todo o conteúdo
+     */
+    public void limpar() {
+        porIsbn.clear();
+        ativas.clear();
+        porId.clear();
+    }
+
+    private Titulo titulo(String isbn) {
+        return porIsbn.computeIfAbsent(isbn, chave -> new Titulo());
+    }
+
+    private static String chave(String isbn, long leitorId) {
+        return isbn + '#' + leitorId;
+    }
+
+    private static final class Titulo {
+        final Queue<Entrada> aguardando = new ConcurrentLinkedQueue<>();
+        final Set<Entrada> separadas = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Situação e datas de uma reserva, trocadas juntas por compareAndSet
+     */
+    private static final class Estado {
+        final Situacao situacao;
+        final LocalDateTime disponivelEm;
+        final LocalDateTime prazoRetirada;
+        final LocalDateTime encerradaEm;
+
+        Estado(Situacao situacao, LocalDateTime disponivelEm, LocalDateTime prazoRetirada, LocalDateTime encerradaEm) {
+            this.situacao = situacao;
+            this.disponivelEm = disponivelEm;
+            this.prazoRetirada = prazoRetirada;
+            this.encerradaEm = encerradaEm;
+        }
+    }
+
+    /**
+     * Reserva em memória: dados fixos mais o estado atual
+     */
+    public static final class Entrada {
+        private final long id;
+        private final long leitorId;
+        private final String isbn;
+        private final LocalDateTime criadaEm;
+        private final AtomicReference<Estado> estado;
+
+        Entrada(long id, long leitorId, String isbn, LocalDateTime criadaEm, Estado estado) {
+            this.id = id;
+            this.leitorId = leitorId;
+            this.isbn = isbn;
+            this.criadaEm = criadaEm;
+            this.estado = new AtomicReference<>(estado);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getIsbn() {
+            return isbn;
+        }
+
+        public Situacao getSituacao() {
+            return estado.get().situacao;
+        }
+
+        public LocalDateTime getPrazoRetirada() {
+            return estado.get().prazoRetirada;
+        }
+
+        /**
+         * Retrato da reserva com um estado consistente, desanexado do banco
+         */
+        public Reserva paraReserva() {
+            Estado atual = estado.get();
+            Reserva reserva = new Reserva(id, leitorId, isbn, atual.situacao, criadaEm);
+            reserva.setDisponivelEm(atual.disponivelEm);
+            reserva.setPrazoRetirada(atual.prazoRetirada);
+            reserva.setEncerradaEm(atual.encerradaEm);
+            return reserva;
+        }
+    }
+}
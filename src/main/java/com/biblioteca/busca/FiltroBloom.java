@@ -0,0 +1,107 @@
+package com.biblioteca.busca;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de textos (ex.: CPFs já cadastrados)
+ *
+ * Responde "com certeza não está" ou "talvez esteja": não há falsos negativos, e
+ * os falsos positivos ficam perto da taxa informada enquanto a quantidade de
+ * elementos não passar da capacidade. Não permite remoção. Os bits ficam em um
+ * AtomicLongArray, então adicionar e consultar podem ocorrer em paralelo.
+ */
+public class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray palavras;
+    private final long totalBits;
+    private final int funcoes;
+    private final AtomicLong adicionados = new AtomicLong();
+
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        if (capacidade <= 0 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidade e taxa de falso positivo inválidas");
+        }
+        // m = -n·ln(p) / ln(2)², arredondado para palavras de 64 bits; k = (m/n)·ln(2)
+        long bits = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (LN2 * LN2));
+        long quantidadePalavras = Math.max(1, (bits + 63) / 64);
+        if (quantidadePalavras > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacidade grande demais: " + capacidade);
+        }
+        this.palavras = new AtomicLongArray((int) quantidadePalavras);
+        this.totalBits = quantidadePalavras * 64;
+        this.funcoes = (int) Math.max(1, Math.round((double) totalBits / capacidade * LN2));
+    }
+
+    public void adicionar(String valor) {
+        long hash = hash(valor);
+        long h1 = misturar(hash);
+        long h2 = misturar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = palavras.get(indice);
+            while ((atual & mascara) == 0 && !palavras.compareAndSet(indice, atual, atual | mascara)) {
+                atual = palavras.get(indice);
+            }
+        }
+        adicionados.incrementAndGet();
+    }
+
+    /**
+     * false: o valor certamente nunca foi adicionado; true: talvez tenha sido
+     */
+    public boolean talvezContenha(String valor) {
+        long hash = hash(valor);
+        long h1 = misturar(hash);
+        long h2 = misturar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quantidade de chamadas a adicionar (valores repetidos contam de novo)
+     */
+    public long adicionados() {
+        return adicionados.get();
+    }
+
+    public int funcoes() {
+        return funcoes;
+    }
+
+    public long totalBits() {
+        return totalBits;
+    }
+
+    // ========== HASH ==========
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8
+    private static long hash(String valor) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do MurmurHash3 (fmix64): espalha os bits antes do hashing duplo
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85A4BL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
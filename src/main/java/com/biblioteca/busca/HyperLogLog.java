@@ -0,0 +1,236 @@
+package com.biblioteca.busca;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Estimativa da quantidade de IDs distintos (HyperLogLog) em memória fixa
+ *
+ * Cada ID passa por um hash de 64 bits: os primeiros "precisao" bits escolhem
+ * um dos 2^precisao registradores, que guarda o maior número de zeros à
+ * esquerda (+1) visto no restante. O erro padrão é 1,04 / raiz(registradores)
+ * (1,6% com precisão 12) e repetir um ID não muda nada. Enquanto há poucos IDs,
+ * só os registradores preenchidos são guardados (lista ordenada), e o vetor
+ * completo é criado quando a lista ocuparia o mesmo espaço. Dois HyperLogLog de
+ * mesma precisão se mesclam pelo máximo de cada registrador, o que estima a
+ * união dos IDs. Não é thread-safe.
+ */
+public class HyperLogLog {
+
+    private static final byte ESPARSO = 0;
+    private static final byte DENSO = 1;
+
+    private final int precisao;
+    private final int registradores;
+
+    // Modo esparso: (índice << 6 | valor) ordenado por índice; null no modo denso
+    private int[] esparso = new int[4];
+    private int preenchidos;
+    private byte[] denso;
+
+    public HyperLogLog(int precisao) {
+        if (precisao < 4 || precisao > 16) {
+            throw new IllegalArgumentException("precisao deve estar entre 4 e 16");
+        }
+        this.precisao = precisao;
+        this.registradores = 1 << precisao;
+    }
+
+    /**
+     * Adiciona o ID; retorna false se nenhum registrador mudou (ex.: ID repetido)
+     */
+    public boolean adicionar(long id) {
+        long hash = misturar(id);
+        int indice = (int) (hash >>> (64 - precisao));
+        int valor = Math.min(Long.numberOfLeadingZeros(hash << precisao), 64 - precisao) + 1;
+        return atualizar(indice, valor);
+    }
+
+    /**
+     * Quantidade estimada de IDs distintos adicionados
+     */
+    public long estimar() {
+        double soma = 0;
+        int zerados;
+        if (denso == null) {
+            zerados = registradores - preenchidos;
+            soma = zerados;
+            for (int i = 0; i < preenchidos; i++) {
+                soma += Math.scalb(1.0, -(esparso[i] & 0x3F));
+            }
+        } else {
+            zerados = 0;
+            for (byte valor : denso) {
+                soma += Math.scalb(1.0, -valor);
+                if (valor == 0) {
+                    zerados++;
+                }
+            }
+        }
+        double estimativa = alfa() * registradores * registradores / soma;
+        // Poucos IDs: contagem linear pelos registradores vazios, mais precisa nessa faixa
+        if (estimativa <= 2.5 * registradores && zerados > 0) {
+            estimativa = registradores * Math.log((double) registradores / zerados);
+        }
+        return Math.round(estimativa);
+    }
+
+    /**
+     * Erro padrão relativo da estimativa (ex.: 0,016 para 1,6%)
+     */
+    public double erroPadrao() {
+        return 1.04 / Math.sqrt(registradores);
+    }
+
+    /**
+     * Acrescenta os IDs do outro HyperLogLog (união); a precisão deve ser a mesma.
+     * Retorna false se nenhum registrador mudou
+     */
+    public boolean mesclar(HyperLogLog outro) {
+        if (outro.precisao != precisao) {
+            throw new IllegalArgumentException("HyperLogLog de precisões diferentes");
+        }
+        boolean alterado = false;
+        if (outro.denso == null) {
+            for (int i = 0; i < outro.preenchidos; i++) {
+                alterado |= atualizar(outro.esparso[i] >>> 6, outro.esparso[i] & 0x3F);
+            }
+        } else {
+            for (int indice = 0; indice < registradores; indice++) {
+                if (outro.denso[indice] != 0) {
+                    alterado |= atualizar(indice, outro.denso[indice]);
+                }
+            }
+        }
+        return alterado;
+    }
+
+    public HyperLogLog copiar() {
+        HyperLogLog copia = new HyperLogLog(precisao);
+        copia.esparso = esparso == null ? null : esparso.clone();
+        copia.preenchidos = preenchidos;
+        copia.denso = denso == null ? null : denso.clone();
+        return copia;
+    }
+
+    public int precisao() {
+        return precisao;
+    }
+
+    // ========== SERIALIZAÇÃO ==========
+
+    /**
+     * Registradores para gravação: precisão, formato e os registradores (lista ou vetor)
+     */
+    public byte[] paraBytes() {
+        if (denso == null) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 + preenchidos * Integer.BYTES);
+            buffer.put((byte) precisao).put(ESPARSO);
+            for (int i = 0; i < preenchidos; i++) {
+                buffer.putInt(esparso[i]);
+            }
+            return buffer.array();
+        }
+        byte[] bytes = new byte[2 + registradores];
+        bytes[0] = (byte) precisao;
+        bytes[1] = DENSO;
+        System.arraycopy(denso, 0, bytes, 2, registradores);
+        return bytes;
+    }
+
+    public static HyperLogLog deBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        HyperLogLog hll = new HyperLogLog(buffer.get());
+        if (buffer.get() == ESPARSO) {
+            while (buffer.remaining() >= Integer.BYTES) {
+                int entrada = buffer.getInt();
+                hll.atualizar(entrada >>> 6, entrada & 0x3F);
+            }
+        } else {
+            hll.denso = new byte[hll.registradores];
+            buffer.get(hll.denso);
+            hll.esparso = null;
+        }
+        return hll;
+    }
+
+    // ========== REGISTRADORES ==========
+
+    private boolean atualizar(int indice, int valor) {
+        if (denso != null) {
+            if (denso[indice] >= valor) {
+                return false;
+            }
+            denso[indice] = (byte) valor;
+            return true;
+        }
+        int posicao = buscar(indice);
+        if (posicao >= 0) {
+            if ((esparso[posicao] & 0x3F) >= valor) {
+                return false;
+            }
+            esparso[posicao] = indice << 6 | valor;
+            return true;
+        }
+        // A lista ordenada (4 bytes por registrador) passaria do vetor completo (1 byte cada)
+        if (preenchidos + 1 > registradores / Integer.BYTES) {
+            densificar();
+            denso[indice] = (byte) valor;
+            return true;
+        }
+        posicao = -posicao - 1;
+        if (preenchidos == esparso.length) {
+            esparso = Arrays.copyOf(esparso, Math.min(esparso.length * 2, registradores / Integer.BYTES));
+        }
+        System.arraycopy(esparso, posicao, esparso, posicao + 1, preenchidos - posicao);
+        esparso[posicao] = indice << 6 | valor;
+        preenchidos++;
+        return true;
+    }
+
+    private int buscar(int indice) {
+        int inicio = 0;
+        int fim = preenchidos - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            int atual = esparso[meio] >>> 6;
+            if (atual < indice) {
+                inicio = meio + 1;
+            } else if (atual > indice) {
+                fim = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(inicio + 1);
+    }
+
+    private void densificar() {
+        denso = new byte[registradores];
+        for (int i = 0; i < preenchidos; i++) {
+            denso[esparso[i] >>> 6] = (byte) (esparso[i] & 0x3F);
+        }
+        esparso = null;
+        preenchidos = 0;
+    }
+
+    private double alfa() {
+        return switch (registradores) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registradores);
+        };
+    }
+
+    // Finalizador do MurmurHash3: espalha IDs sequenciais pelos 64 bits
+    private static long misturar(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
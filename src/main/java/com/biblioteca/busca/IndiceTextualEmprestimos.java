@@ -0,0 +1,208 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.domain.Emprestimo;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índice de texto completo (Lucene, em memória) sobre título, autor e ISBN dos empréstimos
+ *
+ * Substitui o LIKE '%x%' por busca com relevância, stemming e sem acentos.
+ * Mantido em sincronia pelo EmprestimoService após cada commit.
+ */
+@Component
+public class IndiceTextualEmprestimos {
+
+    private static final String CAMPO_ID = "id";
+    private static final String CAMPO_TITULO = "titulo";
+    private static final String CAMPO_AUTOR = "autor";
+    private static final String CAMPO_ISBN = "isbn";
+
+    private static final float PESO_TITULO = 3.0f;
+    private static final float PESO_AUTOR = 2.0f;
+    private static final float PESO_ISBN = 10.0f;
+
+    private final Analyzer analisador = new AnalisadorPortugues();
+    private final ByteBuffersDirectory diretorio = new ByteBuffersDirectory();
+    private final IndexWriter escritor;
+    private final SearcherManager buscadores;
+
+    public IndiceTextualEmprestimos() throws IOException {
+        this.escritor = new IndexWriter(diretorio, new IndexWriterConfig(analisador));
+        this.buscadores = new SearcherManager(escritor, null);
+    }
+
+    /**
+     * Inclui ou substitui o documento de um empréstimo
+     */
+    public void indexar(Emprestimo emprestimo) {
+        try {
+            escritor.updateDocument(termoId(emprestimo.getId()), documento(emprestimo));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao indexar empréstimo " + emprestimo.getId(), e);
+        }
+    }
+
+    /**
+     * Remove o documento de um empréstimo
+     */
+    public void remover(Long id) {
+        try {
+            escritor.deleteDocuments(termoId(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao remover empréstimo " + id + " do índice", e);
+        }
+    }
+
+    /**
+     * Descarta todos os documentos (usado antes de uma reconstrução completa)
+     */
+    public void limpar() {
+        try {
+            escritor.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao limpar o índice de busca", e);
+        }
+    }
+
+    /**
+     * Busca por relevância; retorna os acertos a partir da posição "inicio"
+     */
+    public ResultadoBuscaTextual buscar(String texto, int inicio, int quantidade) {
+        Query consulta = montarConsulta(texto);
+        if (consulta == null) {
+            return new ResultadoBuscaTextual(List.of(), 0);
+        }
+
+        try {
+            buscadores.maybeRefreshBlocking();
+            IndexSearcher buscador = buscadores.acquire();
+            try {
+                TopDocs topo = buscador.search(consulta, inicio + quantidade);
+                List<ResultadoBuscaTextual.Acerto> acertos = new ArrayList<>();
+                ScoreDoc[] docs = topo.scoreDocs;
+                for (int i = inicio; i < docs.length; i++) {
+                    Document doc = buscador.storedFields().document(docs[i].doc);
+                    acertos.add(new ResultadoBuscaTextual.Acerto(
+                            Long.parseLong(doc.get(CAMPO_ID)), docs[i].score));
+                }
+                return new ResultadoBuscaTextual(acertos, topo.totalHits.value);
+            } finally {
+                buscadores.release(buscador);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha na busca textual", e);
+        }
+    }
+
+    /**
+     * Quantidade de documentos indexados
+     */
+    public long total() {
+        return escritor.getDocStats().numDocs;
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        buscadores.close();
+        escritor.close();
+        diretorio.close();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private Document documento(Emprestimo emprestimo) {
+        Document doc = new Document();
+        doc.add(new StringField(CAMPO_ID, String.valueOf(emprestimo.getId()), Field.Store.YES));
+        doc.add(new TextField(CAMPO_TITULO, emprestimo.getTituloLivro(), Field.Store.NO));
+        if (emprestimo.getAutor() != null) {
+            doc.add(new TextField(CAMPO_AUTOR, emprestimo.getAutor(), Field.Store.NO));
+        }
+        String isbn = normalizarIsbn(emprestimo.getIsbn());
+        if (!isbn.isEmpty()) {
+            doc.add(new StringField(CAMPO_ISBN, isbn, Field.Store.NO));
+        }
+        return doc;
+    }
+
+    /**
+     * Cada termo da consulta precisa aparecer no título ou no autor;
+     * um ISBN completo também é aceito como consulta
+     */
+    private Query montarConsulta(String texto) {
+        List<String> termos = analisar(texto);
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        boolean vazia = true;
+
+        if (!termos.isEmpty()) {
+            BooleanQuery.Builder todosOsTermos = new BooleanQuery.Builder();
+            for (String termo : termos) {
+                Query noTitulo = new BoostQuery(new TermQuery(new Term(CAMPO_TITULO, termo)), PESO_TITULO);
+                Query noAutor = new BoostQuery(new TermQuery(new Term(CAMPO_AUTOR, termo)), PESO_AUTOR);
+                todosOsTermos.add(new BooleanQuery.Builder()
+                        .add(noTitulo, BooleanClause.Occur.SHOULD)
+                        .add(noAutor, BooleanClause.Occur.SHOULD)
+                        .build(), BooleanClause.Occur.MUST);
+            }
+            consulta.add(todosOsTermos.build(), BooleanClause.Occur.SHOULD);
+            vazia = false;
+        }
+
+        String isbn = normalizarIsbn(texto);
+        if (isbn.length() >= 10) {
+            consulta.add(new BoostQuery(new TermQuery(new Term(CAMPO_ISBN, isbn)), PESO_ISBN),
+                    BooleanClause.Occur.SHOULD);
+            vazia = false;
+        }
+
+        return vazia ? null : consulta.build();
+    }
+
+    private List<String> analisar(String texto) {
+        List<String> termos = new ArrayList<>();
+        try (TokenStream fluxo = analisador.tokenStream(CAMPO_TITULO, texto)) {
+            CharTermAttribute termo = fluxo.addAttribute(CharTermAttribute.class);
+            fluxo.reset();
+            while (fluxo.incrementToken()) {
+                termos.add(termo.toString());
+            }
+            fluxo.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return termos;
+    }
+
+    private static String normalizarIsbn(String isbn) {
+        return isbn == null ? "" : isbn.replaceAll("[^0-9Xx]", "").toUpperCase();
+    }
+
+    private static Term termoId(Long id) {
+        return new Term(CAMPO_ID, String.valueOf(id));
+    }
+}
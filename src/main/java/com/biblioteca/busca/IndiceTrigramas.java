@@ -0,0 +1,321 @@
+package com.biblioteca.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de trigramas em memória para busca parcial de nomes (equivalente a LIKE '%x%')
+ *
+ * Cada nome normalizado (minúsculas, sem acentos) ocupa uma posição ("slot");
+ * cada trigrama aponta para a lista ordenada de slots que o contêm, guardada
+ * em arrays de int. A busca intersecta as listas dos trigramas da consulta e
+ * confirma os candidatos com contains() sobre o nome normalizado, parando ao
+ * atingir o limite de resultados.
+ *
+ * Alterações marcam o slot antigo como removido e ocupam um novo slot; quando
+ * os removidos passam da metade, o índice é compactado.
+ */
+public class IndiceTrigramas {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final Map<Long, ListaInt> postings = new HashMap<>();
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    private long[] idPorSlot = new long[1024];
+    private String[] nomePorSlot = new String[1024];
+    private final BitSet removidos = new BitSet();
+    private int quantidadeRemovidos;
+    private int proximoSlot;
+
+    /**
+     * Inclui ou atualiza o nome associado a um ID
+     */
+    public void indexar(Long id, String nome) {
+        trava.writeLock().lock();
+        try {
+            removerSemTrava(id);
+            if (nome == null) {
+                return;
+            }
+            int slot = proximoSlot++;
+            garantirCapacidade(slot);
+            String normalizado = normalizar(nome);
+            idPorSlot[slot] = id;
+            nomePorSlot[slot] = normalizado;
+            slotPorId.put(id, slot);
+            for (long trigrama : trigramas(normalizado)) {
+                postings.computeIfAbsent(trigrama, t -> new ListaInt()).adicionar(slot);
+            }
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove o nome associado a um ID
+     */
+    public void remover(Long id) {
+        trava.writeLock().lock();
+        try {
+            removerSemTrava(id);
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta todo o conteúdo do índice
+     */
+    public void limpar() {
+        trava.writeLock().lock();
+        try {
+            postings.clear();
+            slotPorId.clear();
+            removidos.clear();
+            quantidadeRemovidos = 0;
+            idPorSlot = new long[1024];
+            nomePorSlot = new String[1024];
+            proximoSlot = 0;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs cujo nome contém o trecho informado (sem diferenciar maiúsculas e acentos),
+     * em ordem de inclusão, limitados a "limite" resultados
+     */
+    public List<Long> buscar(String trecho, int limite) {
+        List<Long> ids = new ArrayList<>();
+        if (limite > 0) {
+            percorrer(normalizar(trecho), id -> {
+                ids.add(id);
+                return ids.size() < limite;
+            });
+        }
+        return ids;
+    }
+
+    /**
+     * IDs maiores que "aposId" cujo nome contém o trecho, em ordem crescente de ID,
+     * limitados a "limite" resultados (paginação por cursor sobre o ID)
+     *
+     * Os slots seguem a ordem de inclusão, não a de ID: a busca percorre todos os
+     * candidatos e guarda apenas os "limite" menores IDs acima do cursor
+     */
+    public List<Long> buscarAposId(String trecho, long aposId, int limite) {
+        PriorityQueue<Long> menores = new PriorityQueue<>(Comparator.reverseOrder());
+        if (limite > 0) {
+            percorrer(normalizar(trecho), id -> {
+                if (id > aposId && (menores.size() < limite || id < menores.peek())) {
+                    menores.add(id);
+                    if (menores.size() > limite) {
+                        menores.poll();
+                    }
+                }
+                return true;
+            });
+        }
+        List<Long> ids = new ArrayList<>(menores);
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+
+    /**
+     * Quantidade de nomes indexados
+     */
+    public int total() {
+        trava.readLock().lock();
+        try {
+            return slotPorId.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalização usada na indexação e na consulta: minúsculas, sem acentos, espaços simples
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase().trim()).replaceAll(" ");
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void removerSemTrava(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot != null) {
+            removidos.set(slot);
+            quantidadeRemovidos++;
+            nomePorSlot[slot] = null;
+        }
+    }
+
+    /**
+     * Entrega a "visitar" os IDs cujo nome normalizado contém a consulta, em ordem de
+     * slot, até ela devolver false
+     */
+    private void percorrer(String consulta, LongPredicate visitar) {
+        if (consulta.isEmpty()) {
+            return;
+        }
+        trava.readLock().lock();
+        try {
+            if (consulta.length() < 3) {
+                // Trechos curtos não formam trigrama: varredura sobre os nomes em memória
+                for (int slot = 0; slot < proximoSlot; slot++) {
+                    if (!removidos.get(slot) && nomePorSlot[slot].contains(consulta)
+                            && !visitar.test(idPorSlot[slot])) {
+                        return;
+                    }
+                }
+                return;
+            }
+            percorrerCandidatos(trigramas(consulta), consulta, visitar);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percorre a lista mais curta e avança as demais por salto exponencial até o
+     * mesmo slot; para assim que "visitar" recusa o próximo nome confirmado, sem
+     * materializar a interseção completa
+     */
+    private void percorrerCandidatos(long[] trigramasConsulta, String consulta, LongPredicate visitar) {
+        ListaInt[] listas = new ListaInt[trigramasConsulta.length];
+        for (int i = 0; i < trigramasConsulta.length; i++) {
+            listas[i] = postings.get(trigramasConsulta[i]);
+            if (listas[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(listas, (a, b) -> Integer.compare(a.tamanho, b.tamanho));
+
+        int[] posicoes = new int[listas.length];
+        ListaInt guia = listas[0];
+        candidatos:
+        for (int i = 0; i < guia.tamanho; i++) {
+            int slot = guia.valores[i];
+            for (int l = 1; l < listas.length; l++) {
+                posicoes[l] = listas[l].avancarAte(posicoes[l], slot);
+                if (posicoes[l] == listas[l].tamanho) {
+                    return;
+                }
+                if (listas[l].valores[posicoes[l]] != slot) {
+                    continue candidatos;
+                }
+            }
+            if (!removidos.get(slot) && nomePorSlot[slot].contains(consulta) && !visitar.test(idPorSlot[slot])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Trigramas distintos do texto, cada um codificado em um long (3 × 16 bits)
+     */
+    private static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] resultado = new long[texto.length() - 2];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = ((long) texto.charAt(i) << 32)
+                    | ((long) texto.charAt(i + 1) << 16)
+                    | texto.charAt(i + 2);
+        }
+        return Arrays.stream(resultado).distinct().toArray();
+    }
+
+    private void garantirCapacidade(int slot) {
+        if (slot >= idPorSlot.length) {
+            int novaCapacidade = idPorSlot.length * 2;
+            idPorSlot = Arrays.copyOf(idPorSlot, novaCapacidade);
+            nomePorSlot = Arrays.copyOf(nomePorSlot, novaCapacidade);
+        }
+    }
+
+    private void compactarSeNecessario() {
+        if (proximoSlot > 1024 && quantidadeRemovidos > proximoSlot / 2) {
+            compactar();
+        }
+    }
+
+    private void compactar() {
+        long[] ids = Arrays.copyOf(idPorSlot, proximoSlot);
+        String[] nomes = Arrays.copyOf(nomePorSlot, proximoSlot);
+        BitSet removidosAntes = (BitSet) removidos.clone();
+
+        postings.clear();
+        slotPorId.clear();
+        removidos.clear();
+        quantidadeRemovidos = 0;
+        proximoSlot = 0;
+
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (removidosAntes.get(slot)) {
+                continue;
+            }
+            int novo = proximoSlot++;
+            idPorSlot[novo] = ids[slot];
+            nomePorSlot[novo] = nomes[slot];
+            slotPorId.put(ids[slot], novo);
+            for (long trigrama : trigramas(nomes[slot])) {
+                postings.computeIfAbsent(trigrama, t -> new ListaInt()).adicionar(novo);
+            }
+        }
+        Arrays.fill(nomePorSlot, proximoSlot, nomePorSlot.length, null);
+    }
+
+    /**
+     * Lista crescente de int sem boxing; slots são sempre adicionados em ordem
+     */
+    private static final class ListaInt {
+
+        private int[] valores = new int[4];
+        private int tamanho;
+
+        void adicionar(int valor) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho + (tamanho >> 1) + 1);
+            }
+            valores[tamanho++] = valor;
+        }
+
+        /**
+         * Primeira posição a partir de "inicio" com valor >= alvo (salto exponencial + busca binária)
+         */
+        int avancarAte(int inicio, int alvo) {
+            int passo = 1;
+            int fim = inicio;
+            while (fim < tamanho && valores[fim] < alvo) {
+                inicio = fim + 1;
+                fim += passo;
+                passo <<= 1;
+            }
+            int pos = Arrays.binarySearch(valores, inicio, Math.min(fim + 1, tamanho), alvo);
+            return pos >= 0 ? pos : -pos - 1;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.VencimentoEmprestimo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice em memória dos empréstimos em aberto, ordenado pela data de devolução prevista
+ *
+ * Guarda uma cópia dos campos expostos pela API de cada empréstimo em aberto;
+ * os atrasados de uma data são o início do conjunto ordenado (previstas
+ * anteriores a ela), então a consulta custa O(atrasados) e não toca no banco.
+ * Leituras não bloqueiam; escritas são serializadas para manter o mapa por ID
+ * e o conjunto ordenado consistentes entre si.
+ */
+public class IndiceVencimentos {
+
+    private final NavigableSet<Entrada> ordenados = new ConcurrentSkipListSet<>(Entrada.ORDEM);
+    private final Map<Long, Entrada> porId = new ConcurrentHashMap<>();
+
+    /**
+     * Inclui ou atualiza um empréstimo em aberto
+     */
+    public void registrar(Emprestimo emprestimo) {
+        Long leitorId = emprestimo.getLeitor() == null ? null : emprestimo.getLeitor().getId();
+        registrar(new Entrada(emprestimo.getId(), leitorId, emprestimo.getTituloLivro(), emprestimo.getAutor(),
+                emprestimo.getIsbn(), emprestimo.getDataEmprestimo(), emprestimo.getDataDevolucaoPrevista()));
+    }
+
+    /**
+     * Inclui ou atualiza um empréstimo em aberto a partir da projeção do banco
+     */
+    public void registrar(VencimentoEmprestimo vencimento) {
+        registrar(Entrada.de(vencimento));
+    }
+
+    /**
+     * Retira um empréstimo (devolvido ou excluído)
+     */
+    public synchronized void remover(Long id) {
+        Entrada anterior = porId.remove(id);
+        if (anterior != null) {
+            ordenados.remove(anterior);
+        }
+    }
+
+    /**
+     * Descarta todo o conteúdo
+     */
+    public synchronized void limpar() {
+        porId.clear();
+        ordenados.clear();
+    }
+
+    /**
+     * Empréstimos com devolução prevista antes de "hoje", do mais antigo para o mais recente
+     * As instâncias são novas e desanexadas; o leitor traz apenas o ID
+     */
+    public List<Emprestimo> atrasadosEm(LocalDate hoje) {
+        List<Emprestimo> atrasados = new ArrayList<>();
+        for (Entrada entrada : ordenados.headSet(Entrada.limite(hoje))) {
+            atrasados.add(entrada.paraEmprestimo());
+        }
+        return atrasados;
+    }
+
+    /**
+     * Indica se o índice contém exatamente os dados da projeção informada
+     */
+    public boolean coincide(VencimentoEmprestimo vencimento) {
+        return Entrada.de(vencimento).equals(porId.get(vencimento.getId()));
+    }
+
+    /**
+     * IDs presentes no índice (cópia)
+     */
+    public List<Long> ids() {
+        return new ArrayList<>(porId.keySet());
+    }
+
+    /**
+     * Quantidade de empréstimos em aberto no índice
+     */
+    public int total() {
+        return porId.size();
+    }
+
+    private synchronized void registrar(Entrada entrada) {
+        Entrada anterior = porId.put(entrada.id, entrada);
+        if (anterior != null) {
+            ordenados.remove(anterior);
+        }
+        ordenados.add(entrada);
+    }
+
+    /**
+     * Cópia imutável de um empréstimo em aberto, ordenada por data prevista e ID
+     */
+    private static final class Entrada {
+
+        static final Comparator<Entrada> ORDEM =
+                Comparator.comparing((Entrada e) -> e.prevista).thenComparingLong(e -> e.id);
+
+        private final long id;
+        private final Long leitorId;
+        private final String titulo;
+        private final String autor;
+        private final String isbn;
+        private final LocalDate dataEmprestimo;
+        private final LocalDate prevista;
+
+        Entrada(long id, Long leitorId, String titulo, String autor, String isbn,
+                LocalDate dataEmprestimo, LocalDate prevista) {
+            this.id = id;
+            this.leitorId = leitorId;
+            this.titulo = titulo;
+            this.autor = autor;
+            this.isbn = isbn;
+            this.dataEmprestimo = dataEmprestimo;
+            this.prevista = prevista;
+        }
+
+        static Entrada de(VencimentoEmprestimo v) {
+            return new Entrada(v.getId(), v.getLeitorId(), v.getTituloLivro(), v.getAutor(), v.getIsbn(),
+                    v.getDataEmprestimo(), v.getDataDevolucaoPrevista());
+        }
+
+        /**
+         * Limite superior (exclusivo) para os atrasados de uma data
+         */
+        static Entrada limite(LocalDate hoje) {
+            return new Entrada(Long.MIN_VALUE, null, null, null, null, null, hoje);
+        }
+
+        Emprestimo paraEmprestimo() {
+            Emprestimo emprestimo = new Emprestimo();
+            emprestimo.setId(id);
+            if (leitorId != null) {
+                Leitor leitor = new Leitor();
+                leitor.setId(leitorId);
+                emprestimo.setLeitor(leitor);
+            }
+            emprestimo.setTituloLivro(titulo);
+            emprestimo.setAutor(autor);
+            emprestimo.setIsbn(isbn);
+            emprestimo.setDataEmprestimo(dataEmprestimo);
+            emprestimo.setDataDevolucaoPrevista(prevista);
+            emprestimo.setDevolvido(false);
+            return emprestimo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entrada outra)) {
+                return false;
+            }
+            return id == outra.id
+                    && Objects.equals(leitorId, outra.leitorId)
+                    && Objects.equals(titulo, outra.titulo)
+                    && Objects.equals(autor, outra.autor)
+                    && Objects.equals(isbn, outra.isbn)
+                    && Objects.equals(dataEmprestimo, outra.dataEmprestimo)
+                    && Objects.equals(prevista, outra.prevista);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+    }
+}
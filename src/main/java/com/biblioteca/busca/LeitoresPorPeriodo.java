@@ -0,0 +1,173 @@
+package com.biblioteca.busca;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leitores distintos por ISBN e por cidade, em um HyperLogLog por mês
+ *
+ * Um período de vários meses é a mescla (união) dos HyperLogLog dos meses, então
+ * um leitor que volta em meses diferentes conta uma vez. Os resumos alterados
+ * ficam pendentes até a próxima gravação; carregar um resumo gravado também é
+ * uma união, e reprocessar retiradas já contadas não muda nada.
+ */
+public class LeitoresPorPeriodo {
+
+    public enum Dimensao { TITULO, CIDADE }
+
+    private final int precisao;
+    private final Map<Chave, HyperLogLog> resumos = new ConcurrentHashMap<>();
+    private final Set<Chave> pendentes = ConcurrentHashMap.newKeySet();
+
+    public LeitoresPorPeriodo(int precisao) {
+        this.precisao = precisao;
+    }
+
+    public void registrar(Dimensao dimensao, String valor, YearMonth mes, long leitorId) {
+        if (valor == null || valor.isBlank()) {
+            return;
+        }
+        Chave chave = new Chave(dimensao, valor, mes);
+        HyperLogLog resumo = resumos.computeIfAbsent(chave, c -> new HyperLogLog(precisao));
+        boolean alterado;
+        synchronized (resumo) {
+            alterado = resumo.adicionar(leitorId);
+        }
+        if (alterado) {
+            pendentes.add(chave);
+        }
+    }
+
+    /**
+     * Une um resumo gravado ao da memória (sem marcá-lo como pendente)
+     */
+    public void carregar(Chave chave, HyperLogLog gravado) {
+        HyperLogLog resumo = resumos.computeIfAbsent(chave, c -> new HyperLogLog(precisao));
+        synchronized (resumo) {
+            resumo.mesclar(gravado);
+        }
+    }
+
+    /**
+     * Leitores distintos do ISBN ou da cidade entre os meses "de" e "ate" (inclusive)
+     */
+    public HyperLogLog periodo(Dimensao dimensao, String valor, YearMonth de, YearMonth ate) {
+        HyperLogLog uniao = new HyperLogLog(precisao);
+        for (YearMonth mes = de; !mes.isAfter(ate); mes = mes.plusMonths(1)) {
+            HyperLogLog resumo = resumos.get(new Chave(dimensao, valor, mes));
+            if (resumo != null) {
+                synchronized (resumo) {
+                    uniao.mesclar(resumo);
+                }
+            }
+        }
+        return uniao;
+    }
+
+    /**
+     * Leitores distintos de cada valor da dimensão entre os meses "de" e "ate"
+     * (percorre todos os resumos: para dimensões com poucos valores, como cidade)
+     */
+    public Map<String, HyperLogLog> periodoPorValor(Dimensao dimensao, YearMonth de, YearMonth ate) {
+        Map<String, HyperLogLog> uniao = new HashMap<>();
+        resumos.forEach((chave, resumo) -> {
+            if (chave.dimensao == dimensao && !chave.mes.isBefore(de) && !chave.mes.isAfter(ate)) {
+                HyperLogLog doValor = uniao.computeIfAbsent(chave.valor, v -> new HyperLogLog(precisao));
+                synchronized (resumo) {
+                    doValor.mesclar(resumo);
+                }
+            }
+        });
+        return uniao;
+    }
+
+    /**
+     * Retira e devolve os resumos alterados desde a última chamada, com a cópia de cada um
+     */
+    public Map<Chave, HyperLogLog> retirarPendentes() {
+        Map<Chave, HyperLogLog> retirados = new HashMap<>();
+        for (Chave chave : new ArrayList<>(pendentes)) {
+            pendentes.remove(chave);
+            HyperLogLog resumo = resumos.get(chave);
+            if (resumo != null) {
+                synchronized (resumo) {
+                    retirados.put(chave, resumo.copiar());
+                }
+            }
+        }
+        return retirados;
+    }
+
+    /**
+     * Devolve resumos à lista de pendentes (por exemplo, após falha na gravação)
+     */
+    public void marcarPendentes(Iterable<Chave> chaves) {
+        chaves.forEach(pendentes::add);
+    }
+
+    /**
+     * Descarta da memória os meses anteriores a "mes"
+     */
+    public void descartarAntesDe(YearMonth mes) {
+        resumos.keySet().removeIf(chave -> chave.mes.isBefore(mes));
+        pendentes.removeIf(chave -> chave.mes.isBefore(mes));
+    }
+
+    public int total() {
+        return resumos.size();
+    }
+
+    public int precisao() {
+        return precisao;
+    }
+
+    /**
+     * ISBN ou cidade e mês de um resumo
+     */
+    public static final class Chave {
+
+        private final Dimensao dimensao;
+        private final String valor;
+        private final YearMonth mes;
+
+        public Chave(Dimensao dimensao, String valor, YearMonth mes) {
+            this.dimensao = dimensao;
+            this.valor = valor;
+            this.mes = mes;
+        }
+
+        public Dimensao getDimensao() {
+            return dimensao;
+        }
+
+        public String getValor() {
+            return valor;
+        }
+
+        public YearMonth getMes() {
+            return mes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Chave outra)) {
+                return false;
+            }
+            return dimensao == outra.dimensao && valor.equals(outra.valor) && mes.equals(outra.mes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimensao, valor, mes);
+        }
+    }
+}
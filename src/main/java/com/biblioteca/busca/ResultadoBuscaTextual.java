@@ -0,0 +1,47 @@
+package com.biblioteca.busca;
+
+import java.util.List;
+
+/**
+ * Resultado bruto do índice textual: IDs ordenados por relevância e total de acertos
+ */
+public class ResultadoBuscaTextual {
+
+    private final List<Acerto> acertos;
+    private final long total;
+
+    public ResultadoBuscaTextual(List<Acerto> acertos, long total) {
+        this.acertos = acertos;
+        this.total = total;
+    }
+
+    public List<Acerto> getAcertos() {
+        return acertos;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * ID do empréstimo encontrado e sua pontuação de relevância
+     */
+    public static class Acerto {
+
+        private final Long id;
+        private final float relevancia;
+
+        public Acerto(Long id, float relevancia) {
+            this.id = id;
+            this.relevancia = relevancia;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public float getRelevancia() {
+            return relevancia;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.biblioteca.busca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumo Space-Saving das chaves mais frequentes de um fluxo, em memória fixa
+ *
+ * Guarda no máximo "capacidade" contadores em um heap mínimo por contagem.
+ * Com o resumo cheio, uma chave nova toma o lugar da de menor contagem e herda
+ * essa contagem como erro: a estimativa nunca fica abaixo da frequência real e
+ * passa dela no máximo pelo erro do contador, e qualquer chave fora do resumo
+ * ocorreu no máximo limiteAusentes() vezes. Resumos de períodos diferentes são
+ * mescláveis mantendo essas garantias. Não é thread-safe.
+ */
+public class ResumoFrequencias {
+
+    private final int capacidade;
+    private final Map<String, Contador> porChave;
+    private final Contador[] heap;
+    private int tamanho;
+    private long total;
+
+    // Limite das chaves fora do resumo herdado de uma mescla (0 em um fluxo simples)
+    private long limiteMesclado;
+
+    public ResumoFrequencias(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("capacidade deve ser positiva");
+        }
+        this.capacidade = capacidade;
+        this.porChave = new HashMap<>(capacidade * 2);
+        this.heap = new Contador[capacidade];
+    }
+
+    /**
+     * Soma "quantidade" ocorrências da chave; rotulo (ex.: título) acompanha a chave na resposta
+     */
+    public void registrar(String chave, String rotulo, long quantidade) {
+        total += quantidade;
+        Contador contador = porChave.get(chave);
+        if (contador != null) {
+            contador.contagem += quantidade;
+            if (rotulo != null) {
+                contador.rotulo = rotulo;
+            }
+            descer(contador.posicao);
+            return;
+        }
+
+        long base = limiteAusentes();
+        if (tamanho < capacidade) {
+            contador = new Contador(chave, rotulo, base + quantidade, base);
+            contador.posicao = tamanho;
+            heap[tamanho++] = contador;
+            porChave.put(chave, contador);
+            subir(contador.posicao);
+        } else {
+            // Substitui o menor: a chave nova pode ter ocorrido até "base" vezes antes
+            porChave.remove(heap[0].chave);
+            contador = new Contador(chave, rotulo, base + quantidade, base);
+            heap[0] = contador;
+            porChave.put(chave, contador);
+            descer(0);
+        }
+    }
+
+    /**
+     * Máximo de ocorrências de qualquer chave que não está no resumo
+     */
+    public long limiteAusentes() {
+        return tamanho < capacidade ? limiteMesclado : Math.max(limiteMesclado, heap[0].contagem);
+    }
+
+    /**
+     * Ocorrências registradas (exato)
+     */
+    public long total() {
+        return total;
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+
+    /**
+     * As "limite" chaves de maior estimativa, em ordem decrescente
+     */
+    public List<Estimativa> maiores(int limite) {
+        Contador[] ordenados = Arrays.copyOf(heap, tamanho);
+        Arrays.sort(ordenados, Contador.DECRESCENTE);
+        List<Estimativa> resultado = new ArrayList<>(Math.min(limite, tamanho));
+        for (int i = 0; i < Math.min(limite, tamanho); i++) {
+            Contador c = ordenados[i];
+            resultado.add(new Estimativa(c.chave, c.rotulo, c.contagem, c.erro));
+        }
+        return resultado;
+    }
+
+    /**
+     * Cópia independente (para ler fora do bloqueio de quem escreve)
+     */
+    public ResumoFrequencias copiar() {
+        ResumoFrequencias copia = new ResumoFrequencias(capacidade);
+        for (int i = 0; i < tamanho; i++) {
+            Contador c = heap[i];
+            Contador novo = new Contador(c.chave, c.rotulo, c.contagem, c.erro);
+            novo.posicao = i;
+            copia.heap[i] = novo;
+            copia.porChave.put(c.chave, novo);
+        }
+        copia.tamanho = tamanho;
+        copia.total = total;
+        copia.limiteMesclado = limiteMesclado;
+        return copia;
+    }
+
+    /**
+     * Mescla resumos de períodos disjuntos em um de "capacidade" contadores
+     *
+     * A estimativa de uma chave é a soma das estimativas dos resumos em que
+     * aparece mais o limiteAusentes() dos demais (o erro idem); ficam as maiores
+     * estimativas, e as descartadas passam a limitar as chaves ausentes.
+     */
+    public static ResumoFrequencias mesclar(List<ResumoFrequencias> resumos, int capacidade) {
+        long limiteTodos = 0;
+        long total = 0;
+        for (ResumoFrequencias resumo : resumos) {
+            limiteTodos += resumo.limiteAusentes();
+            total += resumo.total;
+        }
+
+        // Parte fixa (limiteTodos) somada no fim: cada resumo onde a chave aparece troca o seu limite pela contagem
+        Map<String, Contador> unidos = new HashMap<>();
+        for (ResumoFrequencias resumo : resumos) {
+            long limite = resumo.limiteAusentes();
+            for (int i = 0; i < resumo.tamanho; i++) {
+                Contador c = resumo.heap[i];
+                Contador unido = unidos.computeIfAbsent(c.chave, chave -> new Contador(chave, null, 0, 0));
+                unido.contagem += c.contagem - limite;
+                unido.erro += c.erro - limite;
+                if (c.rotulo != null) {
+                    unido.rotulo = c.rotulo;
+                }
+            }
+        }
+
+        Contador[] candidatos = unidos.values().toArray(new Contador[0]);
+        for (Contador c : candidatos) {
+            c.contagem += limiteTodos;
+            c.erro += limiteTodos;
+        }
+        Arrays.sort(candidatos, Contador.DECRESCENTE);
+
+        ResumoFrequencias mesclado = new ResumoFrequencias(capacidade);
+        int mantidos = Math.min(capacidade, candidatos.length);
+        for (int i = 0; i < mantidos; i++) {
+            mesclado.porChave.put(candidatos[i].chave, candidatos[i]);
+        }
+        // Em ordem decrescente, o vetor invertido já é um heap mínimo válido
+        for (int i = 0; i < mantidos; i++) {
+            Contador c = candidatos[mantidos - 1 - i];
+            c.posicao = i;
+            mesclado.heap[i] = c;
+        }
+        mesclado.tamanho = mantidos;
+        mesclado.total = total;
+        mesclado.limiteMesclado = mantidos < candidatos.length
+                ? Math.max(limiteTodos, candidatos[mantidos].contagem)
+                : limiteTodos;
+        return mesclado;
+    }
+
+    // ========== HEAP MÍNIMO ==========
+
+    private void subir(int i) {
+        Contador c = heap[i];
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (heap[pai].contagem <= c.contagem) {
+                break;
+            }
+            colocar(heap[pai], i);
+            i = pai;
+        }
+        colocar(c, i);
+    }
+
+    private void descer(int i) {
+        Contador c = heap[i];
+        while (true) {
+            int filho = 2 * i + 1;
+            if (filho >= tamanho) {
+                break;
+            }
+            if (filho + 1 < tamanho && heap[filho + 1].contagem < heap[filho].contagem) {
+                filho++;
+            }
+            if (c.contagem <= heap[filho].contagem) {
+                break;
+            }
+            colocar(heap[filho], i);
+            i = filho;
+        }
+        colocar(c, i);
+    }
+
+    private void colocar(Contador c, int posicao) {
+        heap[posicao] = c;
+        c.posicao = posicao;
+    }
+
+    /**
+     * Estimativa de uma chave: a frequência real está entre contagem - erro e contagem
+     */
+    public static final class Estimativa {
+
+        private final String chave;
+        private final String rotulo;
+        private final long contagem;
+        private final long erro;
+
+        Estimativa(String chave, String rotulo, long contagem, long erro) {
+            this.chave = chave;
+            this.rotulo = rotulo;
+            this.contagem = contagem;
+            this.erro = erro;
+        }
+
+        public String getChave() {
+            return chave;
+        }
+
+        public String getRotulo() {
+            return rotulo;
+        }
+
+        public long getContagem() {
+            return contagem;
+        }
+
+        public long getErro() {
+            return erro;
+        }
+    }
+
+    private static final class Contador {
+
+        static final Comparator<Contador> DECRESCENTE =
+                Comparator.comparingLong((Contador c) -> c.contagem).reversed().thenComparing(c -> c.chave);
+
+        final String chave;
+        String rotulo;
+        long contagem;
+        long erro;
+        int posicao;
+
+        Contador(String chave, String rotulo, long contagem, long erro) {
+            this.chave = chave;
+            this.rotulo = rotulo;
+            this.contagem = contagem;
+            this.erro = erro;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.biblioteca.busca;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Roda de temporização (hashed timing wheel) para vencimentos
+ *
+ * O tempo é dividido em ticks; cada item vai para o slot do tick em que vence
+ * (tick módulo a quantidade de slots), então agendar custa O(1) e cada avanço
+ * só percorre os slots dos ticks decorridos. Itens que vencem depois de uma
+ * volta completa ficam no mesmo slot até o seu tick chegar. Não há
+ * cancelamento: quem consome os vencidos confere se o item ainda vale.
+ */
+public class RodaTemporizacao<T> {
+
+    private final long tickMillis;
+    private final Queue<Agendamento<T>>[] slots;
+
+    // Próximo tick a ser processado por avancar
+    private volatile long proximoTick;
+
+    @SuppressWarnings("unchecked")
+    public RodaTemporizacao(long tickMillis, int quantidadeSlots, long inicioMillis) {
+        if (tickMillis <= 0 || quantidadeSlots <= 0) {
+            throw new IllegalArgumentException("Tick e quantidade de slots devem ser positivos");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new Queue[quantidadeSlots];
+        for (int i = 0; i < quantidadeSlots; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.proximoTick = Math.floorDiv(inicioMillis, tickMillis);
+    }
+
+    /**
+     * Agenda o item para o primeiro tick a partir do instante informado
+     * Instantes já passados vencem no próximo avanço (ou, se o avanço estiver em
+     * curso no mesmo slot, na volta seguinte da roda)
+     */
+    public void agendar(T item, long instanteMillis) {
+        long tick = Math.max(Math.floorDiv(instanteMillis + tickMillis - 1, tickMillis), proximoTick);
+        slots[slot(tick)].add(new Agendamento<>(item, tick));
+    }
+
+    /**
+     * Avança a roda até o instante informado e retorna os itens vencidos
+     */
+    public synchronized List<T> avancar(long agoraMillis) {
+        List<T> vencidos = new ArrayList<>();
+        long ultimo = Math.floorDiv(agoraMillis, tickMillis);
+        // Depois de uma pausa maior que uma volta, basta passar uma vez por todos os slots
+        long inicio = Math.max(proximoTick, ultimo - slots.length + 1);
+        for (long tick = inicio; tick <= ultimo; tick++) {
+            Iterator<Agendamento<T>> agendamentos = slots[slot(tick)].iterator();
+            while (agendamentos.hasNext()) {
+                Agendamento<T> agendamento = agendamentos.next();
+                if (agendamento.tick <= ultimo) {
+                    agendamentos.remove();
+                    vencidos.add(agendamento.item);
+                }
+            }
+        }
+        proximoTick = Math.max(proximoTick, ultimo + 1);
+        return vencidos;
+    }
+
+    /**
+     * Descarta todos os agendamentos
+     */
+    public synchronized void limpar() {
+        for (Queue<Agendamento<T>> slot : slots) {
+            slot.clear();
+        }
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+
+    private static final class Agendamento<T> {
+        final T item;
+        final long tick;
+
+        Agendamento(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
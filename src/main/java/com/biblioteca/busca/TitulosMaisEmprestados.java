@@ -0,0 +1,151 @@
+package com.biblioteca.busca;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Retiradas por ISBN nos últimos dias, para o ranking de títulos mais emprestados
+ *
+ * Um ResumoFrequencias por dia, em um anel de DIAS_MAXIMOS posições indexado
+ * pelo dia: a memória depende só da capacidade, não do acervo. Uma janela de N
+ * dias é a mescla dos N resumos diários; a mescla dos dias anteriores a hoje fica
+ * guardada por janela e só é refeita quando o dia vira ou um dia passado recebe
+ * retiradas, então a consulta mescla apenas esse resultado com o dia corrente.
+ */
+public class TitulosMaisEmprestados {
+
+    public static final int DIAS_MAXIMOS = 365;
+
+    private final int capacidade;
+    private final AtomicReferenceArray<Dia> dias = new AtomicReferenceArray<>(DIAS_MAXIMOS);
+
+    // Incrementada a cada retirada registrada em um dia anterior ao corrente
+    private final AtomicLong versaoPassado = new AtomicLong();
+    private final Map<Integer, MesclaPassado> mesclas = new ConcurrentHashMap<>();
+
+    public TitulosMaisEmprestados(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Registra retiradas do ISBN no dia; dias fora dos últimos DIAS_MAXIMOS (ou futuros) são ignorados
+     */
+    public void registrar(String isbn, String titulo, LocalDate dia, LocalDate hoje, long quantidade) {
+        long epochDia = dia.toEpochDay();
+        long epochHoje = hoje.toEpochDay();
+        if (isbn == null || epochDia > epochHoje || epochDia <= epochHoje - DIAS_MAXIMOS) {
+            return;
+        }
+        Dia resumoDia = diaParaEscrita(epochDia);
+        synchronized (resumoDia) {
+            resumoDia.resumo.registrar(isbn, titulo, quantidade);
+        }
+        if (epochDia < epochHoje) {
+            versaoPassado.incrementAndGet();
+        }
+    }
+
+    /**
+     * Resumo mesclado dos últimos "janela" dias, terminando em hoje
+     */
+    public ResumoFrequencias janela(int janela, LocalDate hoje) {
+        if (janela < 1 || janela > DIAS_MAXIMOS) {
+            throw new IllegalArgumentException("janela deve estar entre 1 e " + DIAS_MAXIMOS + " dias");
+        }
+        long epochHoje = hoje.toEpochDay();
+        List<ResumoFrequencias> partes = new ArrayList<>(2);
+        if (janela > 1) {
+            partes.add(passado(janela, epochHoje));
+        }
+        ResumoFrequencias corrente = copiaDoDia(epochHoje);
+        if (corrente != null) {
+            partes.add(corrente);
+        }
+        return ResumoFrequencias.mesclar(partes, capacidade);
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+
+    public synchronized void limpar() {
+        for (int i = 0; i < DIAS_MAXIMOS; i++) {
+            dias.set(i, null);
+        }
+        mesclas.clear();
+        versaoPassado.incrementAndGet();
+    }
+
+    private ResumoFrequencias passado(int janela, long epochHoje) {
+        long versao = versaoPassado.get();
+        MesclaPassado guardada = mesclas.get(janela);
+        if (guardada != null && guardada.epochHoje == epochHoje && guardada.versao == versao) {
+            return guardada.resumo;
+        }
+        List<ResumoFrequencias> resumos = new ArrayList<>(janela - 1);
+        for (long epochDia = epochHoje - janela + 1; epochDia < epochHoje; epochDia++) {
+            ResumoFrequencias copia = copiaDoDia(epochDia);
+            if (copia != null) {
+                resumos.add(copia);
+            }
+        }
+        ResumoFrequencias resumo = ResumoFrequencias.mesclar(resumos, capacidade);
+        // Versão lida antes da mescla: uma escrita concorrente invalida o resultado na próxima consulta
+        mesclas.put(janela, new MesclaPassado(epochHoje, versao, resumo));
+        return resumo;
+    }
+
+    private ResumoFrequencias copiaDoDia(long epochDia) {
+        Dia resumoDia = dias.get(posicao(epochDia));
+        if (resumoDia == null || resumoDia.epochDia != epochDia) {
+            return null;
+        }
+        synchronized (resumoDia) {
+            return resumoDia.resumo.copiar();
+        }
+    }
+
+    // A posição de um dia com mais de DIAS_MAXIMOS é reaproveitada com um resumo vazio
+    private synchronized Dia diaParaEscrita(long epochDia) {
+        int posicao = posicao(epochDia);
+        Dia resumoDia = dias.get(posicao);
+        if (resumoDia == null || resumoDia.epochDia != epochDia) {
+            resumoDia = new Dia(epochDia, new ResumoFrequencias(capacidade));
+            dias.set(posicao, resumoDia);
+        }
+        return resumoDia;
+    }
+
+    private static int posicao(long epochDia) {
+        return (int) Math.floorMod(epochDia, (long) DIAS_MAXIMOS);
+    }
+
+    private static final class Dia {
+
+        final long epochDia;
+        final ResumoFrequencias resumo;
+
+        Dia(long epochDia, ResumoFrequencias resumo) {
+            this.epochDia = epochDia;
+            this.resumo = resumo;
+        }
+    }
+
+    private static final class MesclaPassado {
+
+        final long epochHoje;
+        final long versao;
+        final ResumoFrequencias resumo;
+
+        MesclaPassado(long epochHoje, long versao, ResumoFrequencias resumo) {
+            this.epochHoje = epochHoje;
+            this.versao = versao;
+            this.resumo = resumo;
+        }
+    }
+}
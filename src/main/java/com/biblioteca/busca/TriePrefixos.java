@@ -0,0 +1,441 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.dto.Sugestao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Árvore de prefixos (radix trie) em memória para sugestões de autocompletar
+ *
+ * As chaves são normalizadas como no IndiceTrigramas (minúsculas, sem acentos) e
+ * guardam o texto original e sua frequência. As arestas são comprimidas, o que
+ * limita a árvore a no máximo dois nós por chave. Cada nó cuja subárvore tem mais
+ * de CAPACIDADE chaves mantém em cache as CAPACIDADE mais frequentes; subárvores
+ * menores são percorridas na hora. Assim uma sugestão custa a descida pelo
+ * prefixo, e uma alteração atualiza apenas os caches do caminho da chave.
+ */
+public class TriePrefixos {
+
+    /** Máximo de sugestões por consulta (tamanho do cache de cada nó) */
+    public static final int CAPACIDADE = 10;
+
+    private static final No[] SEM_NOS = new No[0];
+
+    private static final Comparator<No> POR_FREQUENCIA =
+            Comparator.comparingLong((No no) -> no.frequencia).reversed().thenComparing(no -> no.texto);
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private No raiz = new No("");
+    private int chaves;
+    private long ocorrencias;
+
+    /**
+     * Registra uma ocorrência do texto
+     */
+    public void adicionar(String texto) {
+        adicionar(texto, 1);
+    }
+
+    /**
+     * Registra "quantidade" ocorrências do texto
+     */
+    public void adicionar(String texto, long quantidade) {
+        String chave = IndiceTrigramas.normalizar(texto);
+        if (chave.isEmpty() || quantidade <= 0) {
+            return;
+        }
+
+        trava.writeLock().lock();
+        try {
+            List<No> caminho = new ArrayList<>();
+            No no = descerCriando(chave, caminho);
+            if (no.frequencia == 0) {
+                no.texto = texto.trim();
+                caminho.forEach(n -> n.terminais++);
+                chaves++;
+            }
+            no.frequencia += quantidade;
+            ocorrencias += quantidade;
+            promover(caminho, no);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove uma ocorrência do texto; a chave some quando a frequência chega a zero
+     */
+    public void remover(String texto) {
+        String chave = IndiceTrigramas.normalizar(texto);
+        if (chave.isEmpty()) {
+            return;
+        }
+
+        trava.writeLock().lock();
+        try {
+            List<No> caminho = localizarChave(chave);
+            No no = caminho == null ? null : caminho.get(caminho.size() - 1);
+            if (no == null || no.frequencia == 0) {
+                return;
+            }
+            no.frequencia--;
+            ocorrencias--;
+            if (no.frequencia == 0) {
+                no.texto = null;
+                caminho.forEach(n -> n.terminais--);
+                chaves--;
+                podar(caminho);
+            }
+            rebaixar(caminho, no);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Textos mais frequentes que começam com o prefixo (sem diferenciar maiúsculas e acentos)
+     * O limite é ajustado ao intervalo de 1 a CAPACIDADE
+     */
+    public List<Sugestao> sugerir(String prefixo, int limite) {
+        int quantidade = Math.max(1, Math.min(limite, CAPACIDADE));
+        String chave = IndiceTrigramas.normalizar(prefixo);
+
+        trava.readLock().lock();
+        try {
+            No alvo = localizarPrefixo(chave);
+            if (alvo == null) {
+                return List.of();
+            }
+            Selecao selecao = new Selecao();
+            coletarMelhores(alvo, selecao);
+
+            List<Sugestao> sugestoes = new ArrayList<>(quantidade);
+            for (int i = 0; i < selecao.tamanho && i < quantidade; i++) {
+                sugestoes.add(new Sugestao(selecao.itens[i].texto, selecao.itens[i].frequencia));
+            }
+            return sugestoes;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta todo o conteúdo
+     */
+    public void limpar() {
+        trava.writeLock().lock();
+        try {
+            raiz = new No("");
+            chaves = 0;
+            ocorrencias = 0;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quantidade de chaves distintas
+     */
+    public int total() {
+        trava.readLock().lock();
+        try {
+            return chaves;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Soma das frequências de todas as chaves
+     */
+    public long ocorrencias() {
+        trava.readLock().lock();
+        try {
+            return ocorrencias;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Desce pela chave criando (ou dividindo) arestas; retorna o caminho da raiz até o nó da chave
+     */
+    private No descerCriando(String chave, List<No> caminho) {
+        No no = raiz;
+        caminho.add(no);
+        int pos = 0;
+        while (pos < chave.length()) {
+            int indice = no.indiceFilho(chave.charAt(pos));
+            if (indice < 0) {
+                No folha = new No(chave.substring(pos));
+                no.inserirFilho(-indice - 1, folha);
+                caminho.add(folha);
+                return folha;
+            }
+
+            No filho = no.filhos[indice];
+            int comum = prefixoComum(filho.rotulo, chave, pos);
+            if (comum < filho.rotulo.length()) {
+                // A chave diverge no meio da aresta: o trecho comum vira um nó intermediário
+                No meio = new No(filho.rotulo.substring(0, comum));
+                filho.rotulo = filho.rotulo.substring(comum);
+                meio.filhos = new No[]{filho};
+                meio.terminais = filho.terminais;
+                no.filhos[indice] = meio;
+                filho = meio;
+            }
+            no = filho;
+            caminho.add(no);
+            pos += comum;
+        }
+        return no;
+    }
+
+    /**
+     * Caminho da raiz até o nó que representa exatamente a chave, ou null
+     */
+    private List<No> localizarChave(String chave) {
+        List<No> caminho = new ArrayList<>();
+        No no = raiz;
+        caminho.add(no);
+        int pos = 0;
+        while (pos < chave.length()) {
+            int indice = no.indiceFilho(chave.charAt(pos));
+            if (indice < 0) {
+                return null;
+            }
+            no = no.filhos[indice];
+            if (!chave.startsWith(no.rotulo, pos)) {
+                return null;
+            }
+            caminho.add(no);
+            pos += no.rotulo.length();
+        }
+        return caminho;
+    }
+
+    /**
+     * Nó cuja subárvore contém todas as chaves com o prefixo (o prefixo pode terminar no meio de uma aresta)
+     */
+    private No localizarPrefixo(String prefixo) {
+        No no = raiz;
+        int pos = 0;
+        while (pos < prefixo.length()) {
+            int indice = no.indiceFilho(prefixo.charAt(pos));
+            if (indice < 0) {
+                return null;
+            }
+            No filho = no.filhos[indice];
+            int comum = prefixoComum(filho.rotulo, prefixo, pos);
+            if (pos + comum == prefixo.length()) {
+                return filho;
+            }
+            if (comum < filho.rotulo.length()) {
+                return null;
+            }
+            no = filho;
+            pos += comum;
+        }
+        return no;
+    }
+
+    /**
+     * Remove nós que ficaram sem chave e sem filhos e funde os que ficaram com um único filho
+     */
+    private static void podar(List<No> caminho) {
+        for (int i = caminho.size() - 1; i > 0; i--) {
+            No no = caminho.get(i);
+            No pai = caminho.get(i - 1);
+            if (no.frequencia > 0 || no.filhos.length > 1) {
+                return;
+            }
+            int indice = pai.indiceFilho(no.rotulo.charAt(0));
+            if (no.filhos.length == 0) {
+                pai.removerFilho(indice);
+            } else {
+                No unico = no.filhos[0];
+                unico.rotulo = no.rotulo + unico.rotulo;
+                pai.filhos[indice] = unico;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atualiza os caches do caminho após a frequência de "chave" aumentar: basta
+     * reposicioná-la (ou inseri-la) em cada cache, sem recalcular a partir dos filhos
+     */
+    private static void promover(List<No> caminho, No chave) {
+        for (int i = caminho.size() - 1; i >= 0; i--) {
+            No no = caminho.get(i);
+            if (no.terminais <= CAPACIDADE) {
+                no.melhores = null;
+            } else if (no.melhores == null) {
+                atualizarMelhores(no); // acabou de passar da capacidade ou foi criado por divisão
+            } else {
+                int pos = indiceDe(no.melhores, chave);
+                if (pos < 0) {
+                    pos = no.melhores.length - 1;
+                    if (POR_FREQUENCIA.compare(chave, no.melhores[pos]) >= 0) {
+                        continue;
+                    }
+                    no.melhores[pos] = chave;
+                }
+                while (pos > 0 && POR_FREQUENCIA.compare(chave, no.melhores[pos - 1]) < 0) {
+                    no.melhores[pos] = no.melhores[pos - 1];
+                    no.melhores[--pos] = chave;
+                }
+            }
+        }
+    }
+
+    /**
+     * Atualiza os caches do caminho após a frequência de "chave" diminuir: só os
+     * caches que a contêm precisam ser recalculados
+     */
+    private static void rebaixar(List<No> caminho, No chave) {
+        for (int i = caminho.size() - 1; i >= 0; i--) {
+            No no = caminho.get(i);
+            if (no.terminais <= CAPACIDADE) {
+                no.melhores = null;
+            } else if (no.melhores == null || indiceDe(no.melhores, chave) >= 0) {
+                atualizarMelhores(no);
+            }
+        }
+    }
+
+    private static int indiceDe(No[] nos, No procurado) {
+        for (int i = 0; i < nos.length; i++) {
+            if (nos[i] == procurado) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void atualizarMelhores(No no) {
+        if (no.terminais <= CAPACIDADE) {
+            no.melhores = null;
+            return;
+        }
+        Selecao selecao = new Selecao();
+        if (no.frequencia > 0) {
+            selecao.oferecer(no);
+        }
+        for (No filho : no.filhos) {
+            coletarMelhores(filho, selecao);
+        }
+        no.melhores = Arrays.copyOf(selecao.itens, selecao.tamanho);
+    }
+
+    /**
+     * Chaves mais frequentes da subárvore: do cache, ou percorrendo-a quando é pequena
+     */
+    private static void coletarMelhores(No no, Selecao destino) {
+        if (no.melhores != null) {
+            // O cache já está ordenado: o primeiro recusado encerra a lista
+            for (No melhor : no.melhores) {
+                if (!destino.oferecer(melhor)) {
+                    return;
+                }
+            }
+            return;
+        }
+        if (no.frequencia > 0) {
+            destino.oferecer(no);
+        }
+        for (No filho : no.filhos) {
+            coletarMelhores(filho, destino);
+        }
+    }
+
+    private static int prefixoComum(String rotulo, String chave, int pos) {
+        int limite = Math.min(rotulo.length(), chave.length() - pos);
+        int i = 0;
+        while (i < limite && rotulo.charAt(i) == chave.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * As CAPACIDADE chaves mais frequentes vistas até agora, em ordem (inserção limitada, sem ordenar tudo)
+     */
+    private static final class Selecao {
+
+        private final No[] itens = new No[CAPACIDADE];
+        private int tamanho;
+
+        /**
+         * Retorna false se o nó não entrou na seleção
+         */
+        boolean oferecer(No no) {
+            if (tamanho == CAPACIDADE && POR_FREQUENCIA.compare(no, itens[tamanho - 1]) >= 0) {
+                return false;
+            }
+            int pos = tamanho < CAPACIDADE ? tamanho++ : CAPACIDADE - 1;
+            while (pos > 0 && POR_FREQUENCIA.compare(no, itens[pos - 1]) < 0) {
+                itens[pos] = itens[pos - 1];
+                pos--;
+            }
+            itens[pos] = no;
+            return true;
+        }
+    }
+
+    /**
+     * Nó da árvore; os filhos ficam ordenados pelo primeiro caractere do rótulo
+     */
+    private static final class No {
+
+        private String rotulo;
+        private No[] filhos = SEM_NOS;
+        private String texto;
+        private long frequencia;
+        private int terminais;
+        private No[] melhores;
+
+        No(String rotulo) {
+            this.rotulo = rotulo;
+        }
+
+        int indiceFilho(char c) {
+            int inicio = 0;
+            int fim = filhos.length - 1;
+            while (inicio <= fim) {
+                int meio = (inicio + fim) >>> 1;
+                char atual = filhos[meio].rotulo.charAt(0);
+                if (atual < c) {
+                    inicio = meio + 1;
+                } else if (atual > c) {
+                    fim = meio - 1;
+                } else {
+                    return meio;
+                }
+            }
+            return -(inicio + 1);
+        }
+
+        void inserirFilho(int posicao, No filho) {
+            No[] novos = new No[filhos.length + 1];
+            System.arraycopy(filhos, 0, novos, 0, posicao);
+            novos[posicao] = filho;
+            System.arraycopy(filhos, posicao, novos, posicao + 1, filhos.length - posicao);
+            filhos = novos;
+        }
+
+        void removerFilho(int posicao) {
+            No[] novos = Arrays.copyOf(filhos, filhos.length - 1);
+            System.arraycopy(filhos, posicao + 1, novos, posicao, filhos.length - posicao - 1);
+            filhos = novos;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.biblioteca.config;
+
+import com.biblioteca.exception.ServicoIndisponivelException;
+import com.biblioteca.loader.EstadoCarga;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Recusa requisições aos endpoints de dados enquanto a carga inicial não é concluída
+ * Durante a carga a resposta é 503 + Retry-After; se a carga falhou, 503 sem
+ * Retry-After (o banco ficou incompleto e os índices em memória não foram
+ * montados). A resposta é montada pelo GlobalExceptionHandler
+ */
+@Component
+public class BloqueioDuranteCarga implements HandlerInterceptor {
+
+    @Autowired
+    private EstadoCarga estadoCarga;
+
+    @Value("${biblioteca.carga.retry-after-segundos:5}")
+    private long retryAfterSegundos;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (estadoCarga.emAndamento()) {
+            throw new ServicoIndisponivelException(
+                    "Carga inicial dos dados em andamento (" + estadoCarga.etapa() + "). Tente novamente em instantes.",
+                    retryAfterSegundos);
+        }
+        if (!estadoCarga.concluida()) {
+            throw new ServicoIndisponivelException("Carga inicial dos dados falhou (" + estadoCarga.etapa() + "): "
+                    + estadoCarga.erro() + ". Os dados não estão disponíveis até a aplicação ser reiniciada.");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.biblioteca.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine)
+ *
+ * As regiões são criadas aqui com tamanho máximo e TTL configuráveis, em um
+ * CacheManager próprio do contexto. A região de timestamps não expira nem é
+ * limitada: é por ela que as consultas em cache são invalidadas quando as
+ * tabelas mudam. Acertos e faltas aparecem em /actuator/metrics/hibernate.*
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String LEITORES = "leitores";
+    public static final String LEITORES_CPF = "leitores-cpf";
+    public static final String BIBLIOTECARIOS = "bibliotecarios";
+    public static final String BIBLIOTECARIOS_CPF = "bibliotecarios-cpf";
+
+    @Value("${biblioteca.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximo;
+
+    @Value("${biblioteca.cache.ttl:PT10M}")
+    private Duration ttl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate() {
+        // URI única: contextos diferentes (ex.: testes) não compartilham regiões
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("biblioteca:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        List<String> regioes = List.of(LEITORES, LEITORES_CPF, BIBLIOTECARIOS, BIBLIOTECARIOS_CPF,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        for (String regiao : regioes) {
+            cacheManager.createCache(regiao, configuracao(
+                    OptionalLong.of(tamanhoMaximo), OptionalLong.of(ttl.toNanos())));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuracao(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerHibernate) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracao(OptionalLong tamanho, OptionalLong ttlNanos) {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(tamanho)
+                .setExpireAfterWrite(ttlNanos);
+    }
+}
@@ -0,0 +1,24 @@
+package com.biblioteca.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuração do Spring MVC
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private BloqueioDuranteCarga bloqueioDuranteCarga;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Health/métricas e console do H2 continuam acessíveis durante a carga
+        registry.addInterceptor(bloqueioDuranteCarga)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/actuator/**", "/h2-console/**", "/error");
+    }
+}
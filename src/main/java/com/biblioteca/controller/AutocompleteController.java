@@ -0,0 +1,38 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.busca.TriePrefixos;
+import com.biblioteca.dto.Sugestao;
+import com.biblioteca.service.EmprestimoService;
+import com.biblioteca.service.LeitorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * Sugestões de autocompletar para o balcão, consultadas a cada tecla digitada
+ */
+@RestController
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @GetMapping("/titulos")
+    public ResponseEntity<List<Sugestao>> sugerirTitulos(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "" + TriePrefixos.CAPACIDADE) int limite) {
+        return ResponseEntity.ok(emprestimoService.sugerirTitulos(prefixo, limite));
+    }
+
+    @GetMapping("/leitores")
+    public ResponseEntity<List<Sugestao>> sugerirLeitores(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "" + TriePrefixos.CAPACIDADE) int limite) {
+        return ResponseEntity.ok(leitorService.sugerirNomes(prefixo, limite));
+    }
+}
@@ -1,12 +1,15 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.dto.Pagina;
 import com.biblioteca.service.BibliotecarioService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -17,34 +20,48 @@ public class BibliotecarioController {
     private BibliotecarioService service;
 
     @GetMapping
-    public ResponseEntity<List<Bibliotecario>> listarTodos() {
-        return ResponseEntity.ok(service.listarTodos());
+    public ResponseEntity<List<Bibliotecario>> listarTodos(WebRequest request) {
+        return Etags.responder(request, etagLista(), service::listarTodos);
+    }
+
+    @GetMapping("/pagina")
+    public ResponseEntity<Pagina<Bibliotecario>> listarPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.listarPagina(cursor, tamanho));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Bibliotecario> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.buscarPorId(id));
+    public ResponseEntity<Bibliotecario> buscarPorId(@PathVariable Long id, WebRequest request) {
+        Bibliotecario bibliotecario = service.buscarPorId(id);
+        return Etags.responder(request, Etags.bibliotecario(bibliotecario), () -> bibliotecario);
     }
 
     @GetMapping("/cpf/{cpf}")
-    public ResponseEntity<Bibliotecario> buscarPorCpf(@PathVariable String cpf) {
-        return ResponseEntity.ok(service.buscarPorCpf(cpf));
+    public ResponseEntity<Bibliotecario> buscarPorCpf(@PathVariable String cpf, WebRequest request) {
+        Bibliotecario bibliotecario = service.buscarPorCpf(cpf);
+        return Etags.responder(request, Etags.bibliotecario(bibliotecario), () -> bibliotecario);
     }
 
     @GetMapping("/ativos")
-    public ResponseEntity<List<Bibliotecario>> listarAtivos() {
-        return ResponseEntity.ok(service.listarAtivos());
+    public ResponseEntity<List<Bibliotecario>> listarAtivos(WebRequest request) {
+        return Etags.responder(request, etagLista(), service::listarAtivos);
     }
 
     @GetMapping("/buscar")
-    public ResponseEntity<List<Bibliotecario>> buscarPorNome(@RequestParam String nome) {
-        return ResponseEntity.ok(service.buscarPorNome(nome));
+    public ResponseEntity<Pagina<Bibliotecario>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.buscarPorNome(nome, cursor, tamanho));
     }
 
     @GetMapping("/salario")
     public ResponseEntity<List<Bibliotecario>> buscarPorFaixaSalarial(
-            @RequestParam Double min, @RequestParam Double max) {
-        return ResponseEntity.ok(service.buscarPorFaixaSalarial(min, max));
+            @RequestParam Double min, @RequestParam Double max, WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.buscarPorFaixaSalarial(min, max));
     }
 
     @PostMapping
@@ -56,18 +73,33 @@ public class BibliotecarioController {
     @PutMapping("/{id}")
     public ResponseEntity<Bibliotecario> alterar(
             @PathVariable Long id,
-            @Valid @RequestBody Bibliotecario bibliotecario) {
-        return ResponseEntity.ok(service.alterar(id, bibliotecario));
+            @Valid @RequestBody Bibliotecario bibliotecario,
+            WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            Bibliotecario atual = service.buscarPorId(id);
+            if (request.checkNotModified(Etags.bibliotecario(atual))) {
+                return null;
+            }
+            // A versão conferida vai no UPDATE: alteração concorrente depois daqui resulta em 409
+            bibliotecario.setVersao(atual.getVersao());
+        }
+        return comEtag(service.alterar(id, bibliotecario));
     }
 
     @PatchMapping("/{id}/inativar")
-    public ResponseEntity<Bibliotecario> inativar(@PathVariable Long id) {
-        return ResponseEntity.ok(service.inativar(id));
+    public ResponseEntity<Bibliotecario> inativar(@PathVariable Long id, WebRequest request) {
+        if (Etags.precondicaoFalhou(request, () -> Etags.bibliotecario(service.buscarPorId(id)))) {
+            return null;
+        }
+        return comEtag(service.inativar(id));
     }
 
     @PatchMapping("/{id}/ativar")
-    public ResponseEntity<Bibliotecario> ativar(@PathVariable Long id) {
-        return ResponseEntity.ok(service.ativar(id));
+    public ResponseEntity<Bibliotecario> ativar(@PathVariable Long id, WebRequest request) {
+        if (Etags.precondicaoFalhou(request, () -> Etags.bibliotecario(service.buscarPorId(id)))) {
+            return null;
+        }
+        return comEtag(service.ativar(id));
     }
 
     @DeleteMapping("/{id}")
@@ -75,4 +107,12 @@ public class BibliotecarioController {
         service.excluir(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private String etagLista() {
+        return Etags.lista("bibliotecarios", service.versaoTabela());
+    }
+
+    private static ResponseEntity<Bibliotecario> comEtag(Bibliotecario bibliotecario) {
+        return ResponseEntity.ok().eTag(Etags.bibliotecario(bibliotecario)).body(bibliotecario);
+    }
+}
@@ -1,12 +1,31 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.dto.DevolucaoLote;
+import com.biblioteca.dto.EmprestimoEncontrado;
+import com.biblioteca.dto.Pagina;
+import com.biblioteca.dto.ResultadoDevolucao;
 import com.biblioteca.service.EmprestimoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,29 +35,93 @@ public class EmprestimoController {
     @Autowired
     private EmprestimoService service;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Só a exportação ganha um prazo maior que o das demais respostas assíncronas
+    @Value("${biblioteca.exportacao.timeout:30m}")
+    private Duration timeoutExportacao;
+
     @GetMapping
-    public ResponseEntity<List<Emprestimo>> listarTodos() {
-        return ResponseEntity.ok(service.listarTodos());
+    public ResponseEntity<List<Emprestimo>> listarTodos(WebRequest request) {
+        return Etags.responder(request, etagLista(), service::listarTodos);
+    }
+
+    @GetMapping("/pagina")
+    public ResponseEntity<Pagina<Emprestimo>> listarPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.listarPagina(cursor, tamanho));
+    }
+
+    /**
+     * Busca textual por título, autor ou ISBN, ordenada por relevância
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<Pagina<EmprestimoEncontrado>> buscarTexto(
+            @RequestParam String q,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.buscarTexto(q, cursor, tamanho));
+    }
+
+    /**
+     * Exporta os empréstimos em NDJSON (um objeto JSON por linha) via streaming
+     * Filtros opcionais: período do empréstimo (inicio/fim) e status de devolução
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) Boolean devolvido,
+            WebRequest request) {
+        service.validarFiltroExportacao(inicio, fim);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(timeoutExportacao.toMillis());
+
+        ObjectWriter escritor = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                gerador.setRootValueSeparator(null);
+                service.exportar(inicio, fim, devolvido, emprestimo -> {
+                    try {
+                        escritor.writeValue(gerador, emprestimo);
+                        gerador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Emprestimo> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.buscarPorId(id));
+    public ResponseEntity<Emprestimo> buscarPorId(@PathVariable Long id, WebRequest request) {
+        Emprestimo emprestimo = service.buscarPorId(id);
+        return Etags.responder(request, Etags.emprestimo(emprestimo), () -> emprestimo);
     }
 
     @GetMapping("/leitor/{leitorId}")
-    public ResponseEntity<List<Emprestimo>> listarPorLeitor(@PathVariable Long leitorId) {
-        return ResponseEntity.ok(service.listarPorLeitor(leitorId));
+    public ResponseEntity<List<Emprestimo>> listarPorLeitor(@PathVariable Long leitorId, WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.listarPorLeitor(leitorId));
     }
 
     @GetMapping("/ativos")
-    public ResponseEntity<List<Emprestimo>> listarAtivos() {
-        return ResponseEntity.ok(service.listarAtivos());
+    public ResponseEntity<List<Emprestimo>> listarAtivos(WebRequest request) {
+        return Etags.responder(request, etagLista(), service::listarAtivos);
     }
 
     @GetMapping("/atrasados")
-    public ResponseEntity<List<Emprestimo>> listarAtrasados() {
-        return ResponseEntity.ok(service.listarAtrasados());
+    public ResponseEntity<List<Emprestimo>> listarAtrasados(WebRequest request) {
+        return Etags.responder(request, etagLista(), service::listarAtrasados);
     }
 
     @PostMapping
@@ -47,16 +130,56 @@ public class EmprestimoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(novo);
     }
 
+    /**
+     * Inclui vários empréstimos em uma única transação (INSERTs em lote)
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<List<Emprestimo>> incluirLote(@RequestBody List<Emprestimo> emprestimos) {
+        List<Emprestimo> novos = service.incluirLote(emprestimos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(novos);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Emprestimo> alterar(
             @PathVariable Long id,
-            @Valid @RequestBody Emprestimo emprestimo) {
-        return ResponseEntity.ok(service.alterar(id, emprestimo));
+            @Valid @RequestBody Emprestimo emprestimo,
+            WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            Emprestimo atual = service.buscarPorId(id);
+            if (request.checkNotModified(Etags.emprestimo(atual))) {
+                return null;
+            }
+            // A versão conferida vai no UPDATE: alteração concorrente depois daqui resulta em 409
+            emprestimo.setVersao(atual.getVersao());
+        }
+        return comEtag(service.alterar(id, emprestimo));
     }
 
     @PatchMapping("/{id}/devolver")
-    public ResponseEntity<Emprestimo> registrarDevolucao(@PathVariable Long id) {
-        return ResponseEntity.ok(service.registrarDevolucao(id));
+    public ResponseEntity<Emprestimo> registrarDevolucao(@PathVariable Long id, WebRequest request) {
+        if (Etags.precondicaoFalhou(request, () -> Etags.emprestimo(service.buscarPorId(id)))) {
+            return null;
+        }
+        return comEtag(service.registrarDevolucao(id));
+    }
+
+    @PatchMapping("/{id}/renovar")
+    public ResponseEntity<Emprestimo> renovar(
+            @PathVariable Long id,
+            @RequestParam Integer dias,
+            WebRequest request) {
+        if (Etags.precondicaoFalhou(request, () -> Etags.emprestimo(service.buscarPorId(id)))) {
+            return null;
+        }
+        return comEtag(service.renovarEmprestimo(id, dias));
+    }
+
+    /**
+     * Registra a devolução de vários empréstimos (por IDs, ou CPF do leitor + ISBNs)
+     */
+    @PatchMapping("/devolver")
+    public ResponseEntity<List<ResultadoDevolucao>> registrarDevolucaoLote(@RequestBody DevolucaoLote pedido) {
+        return ResponseEntity.ok(service.registrarDevolucaoLote(pedido));
     }
 
     @DeleteMapping("/{id}")
@@ -64,4 +187,12 @@ public class EmprestimoController {
         service.excluir(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private String etagLista() {
+        return Etags.lista("emprestimos", service.versaoTabela());
+    }
+
+    private static ResponseEntity<Emprestimo> comEtag(Emprestimo emprestimo) {
+        return ResponseEntity.ok().eTag(Etags.emprestimo(emprestimo)).body(emprestimo);
+    }
+}
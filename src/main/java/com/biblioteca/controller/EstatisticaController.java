@@ -0,0 +1,95 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.dto.ContagemMes;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.EstatisticaDevolucoes;
+import com.biblioteca.dto.EstimativaLeitores;
+import com.biblioteca.dto.RankingTitulos;
+import com.biblioteca.service.EmprestimoService;
+import com.biblioteca.service.EstatisticaService;
+import com.biblioteca.service.LeitorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import java.util.List;
+
+/**
+ * Estatísticas de empréstimos (agregadas no banco, com ETag)
+ */
+@RestController
+@RequestMapping("/estatisticas")
+public class EstatisticaController {
+
+    @Autowired
+    private EstatisticaService service;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @GetMapping("/emprestimos-por-mes")
+    public ResponseEntity<List<ContagemMes>> emprestimosPorMes(WebRequest request) {
+        String etag = Etags.lista("estatisticas-mes", emprestimoService.versaoTabela());
+        return Etags.responder(request, etag, service::emprestimosPorMes);
+    }
+
+    @GetMapping("/emprestimos-por-fidelidade")
+    public ResponseEntity<List<ContagemTexto>> emprestimosPorFidelidade(WebRequest request) {
+        return Etags.responder(request, etagComLeitores("estatisticas-fidelidade"), service::emprestimosPorFidelidade);
+    }
+
+    @GetMapping("/emprestimos-por-cidade")
+    public ResponseEntity<List<ContagemTexto>> emprestimosPorCidade(WebRequest request) {
+        return Etags.responder(request, etagComLeitores("estatisticas-cidade"), service::emprestimosPorCidade);
+    }
+
+    /**
+     * Devoluções no prazo (quantidade e percentual) e duração média dos empréstimos devolvidos
+     */
+    @GetMapping("/devolucoes")
+    public ResponseEntity<EstatisticaDevolucoes> devolucoes(WebRequest request) {
+        String etag = Etags.lista("estatisticas-devolucoes", emprestimoService.versaoTabela());
+        return Etags.responder(request, etag, service::devolucoes);
+    }
+
+    /**
+     * Títulos mais emprestados nos últimos dias (janela=7d, 30d, 365d...), estimados em memória
+     * fixa: cada quantidade vem com o erro máximo. Sem ETag: a resposta muda a cada retirada
+     */
+    @GetMapping("/top-titulos")
+    public ResponseEntity<RankingTitulos> topTitulos(
+            @RequestParam(defaultValue = EstatisticaService.JANELA_PADRAO) String janela,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(service.topTitulos(janela, limite));
+    }
+
+    /**
+     * Leitores distintos que retiraram o ISBN nos últimos meses (estimativa HyperLogLog)
+     */
+    @GetMapping("/leitores-distintos/titulos/{isbn}")
+    public ResponseEntity<EstimativaLeitores> leitoresDistintosPorTitulo(
+            @PathVariable String isbn, @RequestParam(defaultValue = "12") int meses) {
+        return ResponseEntity.ok(service.leitoresDistintosPorTitulo(isbn, meses));
+    }
+
+    /**
+     * Leitores distintos com retiradas nos últimos meses, por cidade (estimativa HyperLogLog)
+     */
+    @GetMapping("/leitores-distintos/cidades")
+    public ResponseEntity<List<EstimativaLeitores>> leitoresDistintosPorCidade(
+            @RequestParam(defaultValue = "12") int meses) {
+        return ResponseEntity.ok(service.leitoresDistintosPorCidade(meses));
+    }
+
+    // Fidelidade e cidade são as atuais do leitor: alterações nos leitores também mudam a resposta
+    private String etagComLeitores(String tipo) {
+        return Etags.lista(tipo, emprestimoService.versaoTabela(), leitorService.versaoTabela());
+    }
+}
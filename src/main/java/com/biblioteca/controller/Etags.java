@@ -0,0 +1,75 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.dto.LeitorResumo;
+import com.biblioteca.dto.VersaoTabela;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * ETags e requisições condicionais (If-None-Match / If-Match)
+ *
+ * Entidades usam ETag forte a partir do ID e da @Version; listagens usam o
+ * retrato agregado das tabelas envolvidas (VersaoTabela) mais a data do dia,
+ * já que atrasos dependem dela. Com If-None-Match igual, a resposta é 304 sem
+ * consultar os dados da listagem nem serializar o corpo.
+ */
+final class Etags {
+
+    private Etags() {}
+
+    static String bibliotecario(Bibliotecario bibliotecario) {
+        return entidade("bibliotecario", bibliotecario.getId(), bibliotecario.getVersao());
+    }
+
+    /**
+     * "atrasado" é calculado com a data do dia, então entra na ETag junto com a versão
+     */
+    static String emprestimo(Emprestimo emprestimo) {
+        return entidade("emprestimo", emprestimo.getId(), emprestimo.getVersao())
+                + (emprestimo.isAtrasado() ? "-atrasado" : "");
+    }
+
+    /**
+     * O resumo do leitor também muda com os totais de empréstimos, não só com a versão do cadastro
+     */
+    static String resumo(LeitorResumo resumo) {
+        return entidade("leitor", resumo.getId(), resumo.getVersao()) + "-" + resumo.getTotalEmprestimos()
+                + "." + resumo.getEmprestimosAtivos() + "." + resumo.getEmprestimosAtrasados();
+    }
+
+    static String lista(String tipo, VersaoTabela... tabelas) {
+        StringBuilder etag = new StringBuilder(tipo).append('-').append(LocalDate.now());
+        for (VersaoTabela tabela : tabelas) {
+            etag.append('-').append(tabela);
+        }
+        return etag.toString();
+    }
+
+    private static String entidade(String tipo, Long id, Long versao) {
+        return tipo + "-" + id + "-v" + versao;
+    }
+
+    /**
+     * 200 com a ETag, ou 304 (corpo nem é montado) se o cliente já tem esta versão
+     */
+    static <T> ResponseEntity<T> responder(WebRequest request, String etag, Supplier<T> corpo) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(corpo.get());
+    }
+
+    /**
+     * Avalia o If-Match de uma alteração contra a ETag atual (calculada só se o cabeçalho vier)
+     * true: pré-condição falhou e a resposta 412 já foi preparada
+     */
+    static boolean precondicaoFalhou(WebRequest request, Supplier<String> etagAtual) {
+        return request.getHeader(HttpHeaders.IF_MATCH) != null && request.checkNotModified(etagAtual.get());
+    }
+}
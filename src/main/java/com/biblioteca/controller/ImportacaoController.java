@@ -0,0 +1,46 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.domain.Importacao;
+import com.biblioteca.service.ImportacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * Administração das importações em massa de empréstimos
+ */
+@RestController
+@RequestMapping("/admin/importacoes")
+public class ImportacaoController {
+
+    @Autowired
+    private ImportacaoService service;
+
+    /**
+     * Inicia (ou retoma) em segundo plano a importação de um arquivo do diretório de importação
+     */
+    @PostMapping
+    public ResponseEntity<Importacao> iniciar(@RequestParam String arquivo) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.iniciar(arquivo));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Importacao>> listarTodas() {
+        return ResponseEntity.ok(service.listarTodas());
+    }
+
+    /**
+     * Progresso: bytes gravados, percentual, linhas importadas/rejeitadas e linhas por segundo
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Importacao> buscarPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(service.buscarPorId(id));
+    }
+
+    @PatchMapping("/{id}/interromper")
+    public ResponseEntity<Importacao> interromper(@PathVariable Long id) {
+        return ResponseEntity.ok(service.interromper(id));
+    }
+}
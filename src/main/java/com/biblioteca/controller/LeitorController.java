@@ -1,12 +1,20 @@
 package com.biblioteca.controller;
 
+import com.biblioteca.domain.Emprestimo;
 import com.biblioteca.domain.Leitor;
+import com.biblioteca.domain.Multa;
+import com.biblioteca.dto.LeitorResumo;
+import com.biblioteca.dto.Pagina;
+import com.biblioteca.service.EmprestimoService;
 import com.biblioteca.service.LeitorService;
+import com.biblioteca.service.MultaService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -16,29 +24,68 @@ public class LeitorController {
     @Autowired
     private LeitorService service;
 
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private MultaService multaService;
+
     @GetMapping
-    public ResponseEntity<List<Leitor>> listarTodos() {
-        return ResponseEntity.ok(service.listarTodos());
+    public ResponseEntity<List<LeitorResumo>> listarTodos(WebRequest request) {
+        return Etags.responder(request, etagLista(), service::listarResumos);
+    }
+
+    @GetMapping("/pagina")
+    public ResponseEntity<Pagina<LeitorResumo>> listarPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.listarPaginaResumos(cursor, tamanho));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Leitor> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.buscarPorId(id));
+    public ResponseEntity<LeitorResumo> buscarPorId(@PathVariable Long id, WebRequest request) {
+        LeitorResumo resumo = service.buscarResumoPorId(id);
+        return Etags.responder(request, Etags.resumo(resumo), () -> resumo);
+    }
+
+    @GetMapping("/{id}/emprestimos")
+    public ResponseEntity<Pagina<Emprestimo>> listarEmprestimos(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        String etag = Etags.lista("leitor-" + id + "-emprestimos", emprestimoService.versaoTabela());
+        return Etags.responder(request, etag, () -> emprestimoService.listarPaginaPorLeitor(id, cursor, tamanho));
+    }
+
+    /**
+     * Razão de multas por atraso do leitor (lançamentos das apurações noturnas)
+     */
+    @GetMapping("/{id}/multas")
+    public ResponseEntity<List<Multa>> listarMultas(@PathVariable Long id) {
+        return ResponseEntity.ok(multaService.listarPorLeitor(id));
     }
 
     @GetMapping("/cpf/{cpf}")
-    public ResponseEntity<Leitor> buscarPorCpf(@PathVariable String cpf) {
-        return ResponseEntity.ok(service.buscarPorCpf(cpf));
+    public ResponseEntity<LeitorResumo> buscarPorCpf(@PathVariable String cpf, WebRequest request) {
+        LeitorResumo resumo = service.buscarResumoPorCpf(cpf);
+        return Etags.responder(request, Etags.resumo(resumo), () -> resumo);
     }
 
     @GetMapping("/fidelidade/{fidelidade}")
-    public ResponseEntity<List<Leitor>> buscarPorFidelidade(@PathVariable String fidelidade) {
-        return ResponseEntity.ok(service.buscarPorFidelidade(fidelidade));
+    public ResponseEntity<List<LeitorResumo>> buscarPorFidelidade(
+            @PathVariable String fidelidade, WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.buscarResumosPorFidelidade(fidelidade));
     }
 
     @GetMapping("/buscar")
-    public ResponseEntity<List<Leitor>> buscarPorNome(@RequestParam String nome) {
-        return ResponseEntity.ok(service.buscarPorNome(nome));
+    public ResponseEntity<Pagina<LeitorResumo>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return Etags.responder(request, etagLista(), () -> service.buscarResumosPorNome(nome, cursor, tamanho));
     }
 
     @PostMapping
@@ -50,14 +97,27 @@ public class LeitorController {
     @PutMapping("/{id}")
     public ResponseEntity<Leitor> alterar(
             @PathVariable Long id,
-            @Valid @RequestBody Leitor leitor) {
+            @Valid @RequestBody Leitor leitor,
+            WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            LeitorResumo atual = service.buscarResumoPorId(id);
+            if (request.checkNotModified(Etags.resumo(atual))) {
+                return null;
+            }
+            // A versão conferida vai no UPDATE: alteração concorrente depois daqui resulta em 409
+            leitor.setVersao(atual.getVersao());
+        }
         return ResponseEntity.ok(service.alterar(id, leitor));
     }
 
     @PatchMapping("/{id}/fidelidade")
     public ResponseEntity<Leitor> atualizarFidelidade(
             @PathVariable Long id,
-            @RequestParam String novaFidelidade) {
+            @RequestParam String novaFidelidade,
+            WebRequest request) {
+        if (Etags.precondicaoFalhou(request, () -> Etags.resumo(service.buscarResumoPorId(id)))) {
+            return null;
+        }
         return ResponseEntity.ok(service.atualizarFidelidade(id, novaFidelidade));
     }
 
@@ -66,4 +126,9 @@ public class LeitorController {
         service.excluir(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Listagens de resumos dependem dos leitores e dos totais de empréstimos
+    private String etagLista() {
+        return Etags.lista("leitores", service.versaoTabela(), emprestimoService.versaoTabela());
+    }
+}
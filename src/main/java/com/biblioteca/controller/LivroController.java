@@ -0,0 +1,63 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.dto.Disponibilidade;
+import com.biblioteca.service.ExemplarService;
+import com.biblioteca.service.ReservaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * Acervo físico por ISBN: exemplares cadastrados, disponibilidade para empréstimo
+ * e fila de reservas
+ */
+@RestController
+@RequestMapping("/livros")
+public class LivroController {
+
+    @Autowired
+    private ExemplarService service;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    /**
+     * Exemplares do ISBN, emprestados e disponíveis, respondido pelos contadores em memória
+     */
+    @GetMapping("/{isbn}/disponibilidade")
+    public ResponseEntity<Disponibilidade> consultarDisponibilidade(@PathVariable String isbn) {
+        return ResponseEntity.ok(service.consultarDisponibilidade(isbn));
+    }
+
+    @GetMapping("/{isbn}/exemplares")
+    public ResponseEntity<List<Exemplar>> listarExemplares(@PathVariable String isbn) {
+        return ResponseEntity.ok(service.listarPorIsbn(isbn));
+    }
+
+    @PostMapping("/{isbn}/exemplares")
+    public ResponseEntity<Exemplar> incluirExemplar(
+            @PathVariable String isbn,
+            @Valid @RequestBody Exemplar exemplar) {
+        Exemplar novo = service.incluir(isbn, exemplar);
+        return ResponseEntity.status(HttpStatus.CREATED).body(novo);
+    }
+
+    /**
+     * Coloca o leitor na fila do ISBN (com exemplar livre, a reserva já sai DISPONIVEL)
+     */
+    @PostMapping("/{isbn}/reservas")
+    public ResponseEntity<Reserva> reservar(@PathVariable String isbn, @RequestParam Long leitorId) {
+        Reserva nova = reservaService.reservar(isbn, leitorId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(nova);
+    }
+
+    @GetMapping("/{isbn}/reservas")
+    public ResponseEntity<List<Reserva>> listarReservas(@PathVariable String isbn) {
+        return ResponseEntity.ok(reservaService.listarPorIsbn(isbn));
+    }
+}
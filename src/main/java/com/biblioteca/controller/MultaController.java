@@ -0,0 +1,46 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.domain.ApuracaoMultas;
+import com.biblioteca.service.MultaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Administração das apurações de multas por atraso
+ */
+@RestController
+@RequestMapping("/admin/multas/apuracoes")
+public class MultaController {
+
+    @Autowired
+    private MultaService service;
+
+    /**
+     * Inicia em segundo plano a apuração da data (padrão: hoje) ou retoma suas partições não concluídas
+     * particoes só vale para uma apuração nova (padrão: biblioteca.multas.particoes)
+     */
+    @PostMapping
+    public ResponseEntity<ApuracaoMultas> iniciar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @RequestParam(required = false) Integer particoes) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.iniciar(data, particoes));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ApuracaoMultas>> listarTodas() {
+        return ResponseEntity.ok(service.listarApuracoes());
+    }
+
+    /**
+     * Progresso por partição: faixa de leitores, empréstimos processados, valor lançado e empréstimos por segundo
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApuracaoMultas> buscarPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(service.buscarPorId(id));
+    }
+}
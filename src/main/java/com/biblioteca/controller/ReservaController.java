@@ -0,0 +1,31 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.service.ReservaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Consulta e cancelamento de reservas (a inclusão fica em /livros/{isbn}/reservas)
+ */
+@RestController
+@RequestMapping("/reservas")
+public class ReservaController {
+
+    @Autowired
+    private ReservaService service;
+
+    /**
+     * Situação da reserva e, enquanto aguarda, a posição na fila
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Reserva> buscarPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(service.buscarPorId(id));
+    }
+
+    @PatchMapping("/{id}/cancelar")
+    public ResponseEntity<Reserva> cancelar(@PathVariable Long id) {
+        return ResponseEntity.ok(service.cancelar(id));
+    }
+}
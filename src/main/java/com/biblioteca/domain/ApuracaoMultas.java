@@ -0,0 +1,139 @@
+package com.biblioteca.domain;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Apuração das multas por atraso de uma data (POST /admin/multas/apuracoes)
+ * Dividida em partições por faixa de ID de leitor, executadas em paralelo
+ */
+@Entity
+@Table(name = "apuracoes_multas")
+public class ApuracaoMultas {
+
+    public enum Situacao {
+        EM_ANDAMENTO, INTERROMPIDA, CONCLUIDA, FALHOU
+    }
+
+    // Sequência apuracoes_multas_seq
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(name = "data_referencia", nullable = false, unique = true)
+    private LocalDate dataReferencia;
+
+    @Column(name = "valor_diario", nullable = false, precision = 12, scale = 2)
+    private BigDecimal valorDiario;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Situacao situacao;
+
+    @Column(length = 1000)
+    private String mensagem;
+
+    @Column(name = "iniciada_em", nullable = false)
+    private LocalDateTime iniciadaEm;
+
+    @Column(name = "atualizada_em", nullable = false)
+    private LocalDateTime atualizadaEm;
+
+    // Partições em ordem de número, apenas nas respostas
+    @Transient
+    private List<ParticaoApuracao> particoes = new ArrayList<>();
+
+    // Constructors
+    public ApuracaoMultas() {}
+
+    public ApuracaoMultas(LocalDate dataReferencia, BigDecimal valorDiario) {
+        this.dataReferencia = dataReferencia;
+        this.valorDiario = valorDiario;
+        this.situacao = Situacao.EM_ANDAMENTO;
+        this.iniciadaEm = LocalDateTime.now();
+        this.atualizadaEm = this.iniciadaEm;
+    }
+
+    /**
+     * Total de empréstimos atrasados processados nas partições
+     */
+    public long getEmprestimosProcessados() {
+        return particoes.stream().mapToLong(ParticaoApuracao::getEmprestimosProcessados).sum();
+    }
+
+    /**
+     * Total lançado no razão pelas partições
+     */
+    public BigDecimal getValorLancado() {
+        return particoes.stream().map(ParticaoApuracao::getValorLancado).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public void setDataReferencia(LocalDate dataReferencia) {
+        this.dataReferencia = dataReferencia;
+    }
+
+    public BigDecimal getValorDiario() {
+        return valorDiario;
+    }
+
+    public void setValorDiario(BigDecimal valorDiario) {
+        this.valorDiario = valorDiario;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    public void setSituacao(Situacao situacao) {
+        this.situacao = situacao;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public LocalDateTime getIniciadaEm() {
+        return iniciadaEm;
+    }
+
+    public void setIniciadaEm(LocalDateTime iniciadaEm) {
+        this.iniciadaEm = iniciadaEm;
+    }
+
+    public LocalDateTime getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    public void setAtualizadaEm(LocalDateTime atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
+
+    public List<ParticaoApuracao> getParticoes() {
+        return particoes;
+    }
+
+    public void setParticoes(List<ParticaoApuracao> particoes) {
+        this.particoes = particoes;
+    }
+}
@@ -2,10 +2,15 @@ package com.biblioteca.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "bibliotecarios")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bibliotecarios")
+@NaturalIdCache(region = "bibliotecarios-cpf")
 public class Bibliotecario extends Pessoa {
 
     @NotBlank(message = "Código de funcionário é obrigatório")
@@ -11,12 +11,13 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 @Table(name = "emprestimos")
 public class Emprestimo {
 
+    // Sequência emprestimos_seq, alocada em blocos de 50 (permite INSERTs em lote)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @NotNull(message = "Leitor é obrigatório")
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "leitor_id", nullable = false)
     @JsonBackReference
     private Leitor leitor;
@@ -40,6 +41,11 @@ public class Emprestimo {
 
     private Boolean devolvido;
 
+    // Incrementada a cada alteração (bloqueio otimista e ETag)
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     // Constructors
     public Emprestimo() {
         this.dataEmprestimo = LocalDate.now();
@@ -147,4 +153,12 @@ public class Emprestimo {
     public void setDevolvido(Boolean devolvido) {
         this.devolvido = devolvido;
     }
-}
\ No newline at end of file
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+}
@@ -0,0 +1,95 @@
+package com.biblioteca.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDate;
+
+/**
+ * Cópia física de um livro do acervo, identificada pelo código de tombo
+ * O ISBN agrupa as cópias de um mesmo título (disponibilidade por ISBN)
+ */
+@Entity
+@Table(name = "exemplares")
+public class Exemplar {
+
+    // Sequência exemplares_seq
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String isbn;
+
+    @NotBlank(message = "Código do exemplar é obrigatório")
+    @Column(nullable = false, length = 50)
+    private String codigo;
+
+    @NotBlank(message = "Título do livro é obrigatório")
+    @Column(name = "titulo_livro", nullable = false)
+    private String tituloLivro;
+
+    private String autor;
+
+    @Column(name = "data_aquisicao")
+    private LocalDate dataAquisicao;
+
+    // Constructors
+    public Exemplar() {}
+
+    public Exemplar(String isbn, String codigo, String tituloLivro, String autor) {
+        this.isbn = isbn;
+        this.codigo = codigo;
+        this.tituloLivro = tituloLivro;
+        this.autor = autor;
+        this.dataAquisicao = LocalDate.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getTituloLivro() {
+        return tituloLivro;
+    }
+
+    public void setTituloLivro(String tituloLivro) {
+        this.tituloLivro = tituloLivro;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+
+    public void setAutor(String autor) {
+        this.autor = autor;
+    }
+
+    public LocalDate getDataAquisicao() {
+        return dataAquisicao;
+    }
+
+    public void setDataAquisicao(LocalDate dataAquisicao) {
+        this.dataAquisicao = dataAquisicao;
+    }
+}
@@ -0,0 +1,186 @@
+package com.biblioteca.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Importação em massa de um arquivo de empréstimos (POST /admin/importacoes)
+ * posicaoBytes é o ponto de retomada: tudo antes dele já foi gravado
+ */
+@Entity
+@Table(name = "importacoes")
+public class Importacao {
+
+    public enum Situacao {
+        EM_ANDAMENTO, INTERROMPIDA, CONCLUIDA, FALHOU
+    }
+
+    // Sequência importacoes_seq
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false, length = 1024)
+    private String arquivo;
+
+    @Column(name = "tamanho_bytes", nullable = false)
+    private Long tamanhoBytes;
+
+    @Column(name = "posicao_bytes", nullable = false)
+    private Long posicaoBytes = 0L;
+
+    @Column(name = "linhas_importadas", nullable = false)
+    private Long linhasImportadas = 0L;
+
+    @Column(name = "linhas_rejeitadas", nullable = false)
+    private Long linhasRejeitadas = 0L;
+
+    // Vazão da execução atual (desde o último início ou retomada)
+    @Column(name = "linhas_por_segundo")
+    private Double linhasPorSegundo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Situacao situacao;
+
+    @Column(name = "ultima_rejeicao", length = 500)
+    private String ultimaRejeicao;
+
+    @Column(length = 1000)
+    private String mensagem;
+
+    @Column(name = "iniciada_em", nullable = false)
+    private LocalDateTime iniciadaEm;
+
+    @Column(name = "atualizada_em", nullable = false)
+    private LocalDateTime atualizadaEm;
+
+    // Constructors
+    public Importacao() {}
+
+    public Importacao(String arquivo, Long tamanhoBytes) {
+        this.arquivo = arquivo;
+        this.tamanhoBytes = tamanhoBytes;
+        this.situacao = Situacao.EM_ANDAMENTO;
+        this.iniciadaEm = LocalDateTime.now();
+        this.atualizadaEm = this.iniciadaEm;
+    }
+
+    /**
+     * Registra um bloco gravado e avança o ponto de retomada
+     */
+    public void avancar(long posicao, long importadas, long rejeitadas, double linhasPorSegundo) {
+        this.posicaoBytes = posicao;
+        this.linhasImportadas += importadas;
+        this.linhasRejeitadas += rejeitadas;
+        this.linhasPorSegundo = linhasPorSegundo;
+        this.atualizadaEm = LocalDateTime.now();
+    }
+
+    /**
+     * Percentual do arquivo já gravado
+     */
+    public double getPercentual() {
+        if (tamanhoBytes == null || tamanhoBytes == 0) {
+            return 100.0;
+        }
+        return Math.floor(posicaoBytes * 1000.0 / tamanhoBytes) / 10.0;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public void setArquivo(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public Long getTamanhoBytes() {
+        return tamanhoBytes;
+    }
+
+    public void setTamanhoBytes(Long tamanhoBytes) {
+        this.tamanhoBytes = tamanhoBytes;
+    }
+
+    public Long getPosicaoBytes() {
+        return posicaoBytes;
+    }
+
+    public void setPosicaoBytes(Long posicaoBytes) {
+        this.posicaoBytes = posicaoBytes;
+    }
+
+    public Long getLinhasImportadas() {
+        return linhasImportadas;
+    }
+
+    public void setLinhasImportadas(Long linhasImportadas) {
+        this.linhasImportadas = linhasImportadas;
+    }
+
+    public Long getLinhasRejeitadas() {
+        return linhasRejeitadas;
+    }
+
+    public void setLinhasRejeitadas(Long linhasRejeitadas) {
+        this.linhasRejeitadas = linhasRejeitadas;
+    }
+
+    public Double getLinhasPorSegundo() {
+        return linhasPorSegundo;
+    }
+
+    public void setLinhasPorSegundo(Double linhasPorSegundo) {
+        this.linhasPorSegundo = linhasPorSegundo;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    public void setSituacao(Situacao situacao) {
+        this.situacao = situacao;
+    }
+
+    public String getUltimaRejeicao() {
+        return ultimaRejeicao;
+    }
+
+    public void setUltimaRejeicao(String ultimaRejeicao) {
+        this.ultimaRejeicao = ultimaRejeicao;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public LocalDateTime getIniciadaEm() {
+        return iniciadaEm;
+    }
+
+    public void setIniciadaEm(LocalDateTime iniciadaEm) {
+        this.iniciadaEm = iniciadaEm;
+    }
+
+    public LocalDateTime getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    public void setAtualizadaEm(LocalDateTime atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
+}
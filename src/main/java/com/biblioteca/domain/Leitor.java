@@ -2,6 +2,9 @@ package com.biblioteca.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,6 +12,8 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
 @Table(name = "leitores")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "leitores")
+@NaturalIdCache(region = "leitores-cpf")
 public class Leitor extends Pessoa {
 
     @NotBlank(message = "Matrícula é obrigatória")
@@ -0,0 +1,98 @@
+package com.biblioteca.domain;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lançamento no razão de multas por atraso
+ * valor é o acréscimo da multa do empréstimo na data de referência (não o total)
+ */
+@Entity
+@Table(name = "multas")
+public class Multa {
+
+    // Sequência multas_seq; os lançamentos são gravados pela apuração em lotes JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(name = "emprestimo_id", nullable = false)
+    private Long emprestimoId;
+
+    @Column(name = "leitor_id", nullable = false)
+    private Long leitorId;
+
+    @Column(name = "data_referencia", nullable = false)
+    private LocalDate dataReferencia;
+
+    @Column(name = "dias_atraso", nullable = false)
+    private Integer diasAtraso;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "lancada_em", nullable = false)
+    private LocalDateTime lancadaEm;
+
+    // Constructors
+    public Multa() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEmprestimoId() {
+        return emprestimoId;
+    }
+
+    public void setEmprestimoId(Long emprestimoId) {
+        this.emprestimoId = emprestimoId;
+    }
+
+    public Long getLeitorId() {
+        return leitorId;
+    }
+
+    public void setLeitorId(Long leitorId) {
+        this.leitorId = leitorId;
+    }
+
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public void setDataReferencia(LocalDate dataReferencia) {
+        this.dataReferencia = dataReferencia;
+    }
+
+    public Integer getDiasAtraso() {
+        return diasAtraso;
+    }
+
+    public void setDiasAtraso(Integer diasAtraso) {
+        this.diasAtraso = diasAtraso;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public LocalDateTime getLancadaEm() {
+        return lancadaEm;
+    }
+
+    public void setLancadaEm(LocalDateTime lancadaEm) {
+        this.lancadaEm = lancadaEm;
+    }
+}
@@ -0,0 +1,186 @@
+package com.biblioteca.domain;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Partição de uma apuração de multas: os empréstimos atrasados dos leitores com
+ * ID entre leitorInicial e leitorFinal (inclusive)
+ * ultimoEmprestimoId é o ponto de retomada: os empréstimos até ele já foram lançados
+ */
+@Entity
+@Table(name = "particoes_apuracao")
+public class ParticaoApuracao {
+
+    // Sequência particoes_apuracao_seq
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(name = "apuracao_id", nullable = false)
+    private Long apuracaoId;
+
+    @Column(nullable = false)
+    private Integer numero;
+
+    @Column(name = "leitor_inicial", nullable = false)
+    private Long leitorInicial;
+
+    @Column(name = "leitor_final", nullable = false)
+    private Long leitorFinal;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ApuracaoMultas.Situacao situacao;
+
+    @Column(name = "ultimo_emprestimo_id", nullable = false)
+    private Long ultimoEmprestimoId = 0L;
+
+    @Column(name = "emprestimos_processados", nullable = false)
+    private Long emprestimosProcessados = 0L;
+
+    @Column(name = "multas_lancadas", nullable = false)
+    private Long multasLancadas = 0L;
+
+    @Column(name = "valor_lancado", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorLancado = BigDecimal.ZERO;
+
+    // Vazão da execução atual (desde o último início ou retomada da partição)
+    @Column(name = "emprestimos_por_segundo")
+    private Double emprestimosPorSegundo;
+
+    @Column(name = "duracao_ms")
+    private Long duracaoMs;
+
+    @Column(length = 1000)
+    private String mensagem;
+
+    @Column(name = "atualizada_em", nullable = false)
+    private LocalDateTime atualizadaEm;
+
+    // Constructors
+    public ParticaoApuracao() {}
+
+    public ParticaoApuracao(Long apuracaoId, Integer numero, Long leitorInicial, Long leitorFinal) {
+        this.apuracaoId = apuracaoId;
+        this.numero = numero;
+        this.leitorInicial = leitorInicial;
+        this.leitorFinal = leitorFinal;
+        this.situacao = ApuracaoMultas.Situacao.EM_ANDAMENTO;
+        this.atualizadaEm = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getApuracaoId() {
+        return apuracaoId;
+    }
+
+    public void setApuracaoId(Long apuracaoId) {
+        this.apuracaoId = apuracaoId;
+    }
+
+    public Integer getNumero() {
+        return numero;
+    }
+
+    public void setNumero(Integer numero) {
+        this.numero = numero;
+    }
+
+    public Long getLeitorInicial() {
+        return leitorInicial;
+    }
+
+    public void setLeitorInicial(Long leitorInicial) {
+        this.leitorInicial = leitorInicial;
+    }
+
+    public Long getLeitorFinal() {
+        return leitorFinal;
+    }
+
+    public void setLeitorFinal(Long leitorFinal) {
+        this.leitorFinal = leitorFinal;
+    }
+
+    public ApuracaoMultas.Situacao getSituacao() {
+        return situacao;
+    }
+
+    public void setSituacao(ApuracaoMultas.Situacao situacao) {
+        this.situacao = situacao;
+    }
+
+    public Long getUltimoEmprestimoId() {
+        return ultimoEmprestimoId;
+    }
+
+    public void setUltimoEmprestimoId(Long ultimoEmprestimoId) {
+        this.ultimoEmprestimoId = ultimoEmprestimoId;
+    }
+
+    public Long getEmprestimosProcessados() {
+        return emprestimosProcessados;
+    }
+
+    public void setEmprestimosProcessados(Long emprestimosProcessados) {
+        this.emprestimosProcessados = emprestimosProcessados;
+    }
+
+    public Long getMultasLancadas() {
+        return multasLancadas;
+    }
+
+    public void setMultasLancadas(Long multasLancadas) {
+        this.multasLancadas = multasLancadas;
+    }
+
+    public BigDecimal getValorLancado() {
+        return valorLancado;
+    }
+
+    public void setValorLancado(BigDecimal valorLancado) {
+        this.valorLancado = valorLancado;
+    }
+
+    public Double getEmprestimosPorSegundo() {
+        return emprestimosPorSegundo;
+    }
+
+    public void setEmprestimosPorSegundo(Double emprestimosPorSegundo) {
+        this.emprestimosPorSegundo = emprestimosPorSegundo;
+    }
+
+    public Long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public void setDuracaoMs(Long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public LocalDateTime getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    public void setAtualizadaEm(LocalDateTime atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
+}
@@ -4,18 +4,22 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import org.hibernate.annotations.NaturalId;
 
 @MappedSuperclass
 public abstract class Pessoa {
 
+    // Sequência por entidade (leitores_seq, bibliotecarios_seq), alocada em blocos de 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
     @Column(nullable = false)
     private String nome;
 
+    // Identificador natural: buscas por CPF passam pelo cache de natural-id
+    @NaturalId(mutable = true)
     @NotBlank(message = "CPF é obrigatório")
     @Pattern(regexp = "\\d{11}", message = "CPF deve conter 11 dígitos")
     @Column(nullable = false, unique = true, length = 11)
@@ -31,6 +35,11 @@ public abstract class Pessoa {
     @Embedded
     private Endereco endereco;
 
+    // Incrementada a cada alteração (bloqueio otimista e ETag)
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     // Constructors
     public Pessoa() {}
 
@@ -90,4 +99,12 @@ public abstract class Pessoa {
     public void setEndereco(Endereco endereco) {
         this.endereco = endereco;
     }
-}
\ No newline at end of file
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+}
@@ -0,0 +1,131 @@
+package com.biblioteca.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva de um título (ISBN) por um leitor, atendida em ordem de chegada
+ * DISPONIVEL: um exemplar foi separado para o leitor até prazoRetirada
+ */
+@Entity
+@Table(name = "reservas")
+public class Reserva {
+
+    public enum Situacao {
+        AGUARDANDO, DISPONIVEL, ATENDIDA, EXPIRADA, CANCELADA
+    }
+
+    // Atribuído pela aplicação ao entrar na fila (gravação posterior em lotes)
+    @Id
+    private Long id;
+
+    @Column(name = "leitor_id", nullable = false)
+    private Long leitorId;
+
+    @Column(nullable = false, length = 20)
+    private String isbn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Situacao situacao;
+
+    @Column(name = "criada_em", nullable = false)
+    private LocalDateTime criadaEm;
+
+    @Column(name = "disponivel_em")
+    private LocalDateTime disponivelEm;
+
+    @Column(name = "prazo_retirada")
+    private LocalDateTime prazoRetirada;
+
+    @Column(name = "encerrada_em")
+    private LocalDateTime encerradaEm;
+
+    // Posição na fila (1 = próximo a ser atendido), apenas nas respostas
+    @Transient
+    private Integer posicao;
+
+    // Constructors
+    public Reserva() {}
+
+    public Reserva(Long id, Long leitorId, String isbn, Situacao situacao, LocalDateTime criadaEm) {
+        this.id = id;
+        this.leitorId = leitorId;
+        this.isbn = isbn;
+        this.situacao = situacao;
+        this.criadaEm = criadaEm;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLeitorId() {
+        return leitorId;
+    }
+
+    public void setLeitorId(Long leitorId) {
+        this.leitorId = leitorId;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    public void setSituacao(Situacao situacao) {
+        this.situacao = situacao;
+    }
+
+    public LocalDateTime getCriadaEm() {
+        return criadaEm;
+    }
+
+    public void setCriadaEm(LocalDateTime criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+
+    public LocalDateTime getDisponivelEm() {
+        return disponivelEm;
+    }
+
+    public void setDisponivelEm(LocalDateTime disponivelEm) {
+        this.disponivelEm = disponivelEm;
+    }
+
+    public LocalDateTime getPrazoRetirada() {
+        return prazoRetirada;
+    }
+
+    public void setPrazoRetirada(LocalDateTime prazoRetirada) {
+        this.prazoRetirada = prazoRetirada;
+    }
+
+    public LocalDateTime getEncerradaEm() {
+        return encerradaEm;
+    }
+
+    public void setEncerradaEm(LocalDateTime encerradaEm) {
+        this.encerradaEm = encerradaEm;
+    }
+
+    public Integer getPosicao() {
+        return posicao;
+    }
+
+    public void setPosicao(Integer posicao) {
+        this.posicao = posicao;
+    }
+}
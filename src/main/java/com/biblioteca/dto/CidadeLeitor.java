@@ -0,0 +1,11 @@
+package com.biblioteca.dto;
+
+/**
+ * Projeção da cidade do endereço de um leitor
+ */
+public interface CidadeLeitor {
+
+    Long getId();
+
+    String getCidade();
+}
@@ -0,0 +1,11 @@
+package com.biblioteca.dto;
+
+/**
+ * Projeção de uma contagem agrupada por ID
+ */
+public interface ContagemId {
+
+    Long getId();
+
+    Long getQuantidade();
+}
@@ -0,0 +1,17 @@
+package com.biblioteca.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção das retiradas de um ISBN em um dia (GROUP BY ISBN e data da retirada)
+ */
+public interface ContagemIsbnDia {
+
+    String getIsbn();
+
+    String getTitulo();
+
+    LocalDate getDia();
+
+    Long getQuantidade();
+}
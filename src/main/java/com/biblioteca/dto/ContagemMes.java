@@ -0,0 +1,13 @@
+package com.biblioteca.dto;
+
+/**
+ * Projeção da quantidade de empréstimos de um mês (GROUP BY ano e mês da retirada)
+ */
+public interface ContagemMes {
+
+    Integer getAno();
+
+    Integer getMes();
+
+    Long getQuantidade();
+}
@@ -0,0 +1,11 @@
+package com.biblioteca.dto;
+
+/**
+ * Projeção de um texto e sua quantidade de ocorrências (GROUP BY), usada no autocompletar e nas estatísticas
+ */
+public interface ContagemTexto {
+
+    String getTexto();
+
+    Long getQuantidade();
+}
@@ -0,0 +1,37 @@
+package com.biblioteca.dto;
+
+import java.util.List;
+
+/**
+ * Pedido de devolução em lote: IDs de empréstimo, ou CPF do leitor + ISBNs dos livros
+ */
+public class DevolucaoLote {
+
+    private List<Long> ids;
+    private String cpf;
+    private List<String> isbns;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public void setCpf(String cpf) {
+        this.cpf = cpf;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public void setIsbns(List<String> isbns) {
+        this.isbns = isbns;
+    }
+}
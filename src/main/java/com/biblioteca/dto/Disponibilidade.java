@@ -0,0 +1,34 @@
+package com.biblioteca.dto;
+
+/**
+ * Disponibilidade de um ISBN do acervo (GET /livros/{isbn}/disponibilidade)
+ * emprestados inclui as retiradas em andamento; disponiveis nunca é negativo
+ */
+public class Disponibilidade {
+
+    private final String isbn;
+    private final int exemplares;
+    private final int emprestados;
+
+    public Disponibilidade(String isbn, int exemplares, int emprestados) {
+        this.isbn = isbn;
+        this.exemplares = exemplares;
+        this.emprestados = emprestados;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public int getExemplares() {
+        return exemplares;
+    }
+
+    public int getEmprestados() {
+        return emprestados;
+    }
+
+    public int getDisponiveis() {
+        return Math.max(0, exemplares - emprestados);
+    }
+}
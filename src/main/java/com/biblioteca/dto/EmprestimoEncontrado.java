@@ -0,0 +1,25 @@
+package com.biblioteca.dto;
+
+import com.biblioteca.domain.Emprestimo;
+
+/**
+ * Item do resultado da busca textual: o empréstimo e sua relevância
+ */
+public class EmprestimoEncontrado {
+
+    private final Emprestimo emprestimo;
+    private final float relevancia;
+
+    public EmprestimoEncontrado(Emprestimo emprestimo, float relevancia) {
+        this.emprestimo = emprestimo;
+        this.relevancia = relevancia;
+    }
+
+    public Emprestimo getEmprestimo() {
+        return emprestimo;
+    }
+
+    public float getRelevancia() {
+        return relevancia;
+    }
+}
@@ -0,0 +1,44 @@
+package com.biblioteca.dto;
+
+/**
+ * Devoluções registradas: quantas foram no prazo e a duração média dos empréstimos devolvidos
+ */
+public class EstatisticaDevolucoes {
+
+    private final long devolvidos;
+    private final long noPrazo;
+    private final double duracaoMediaDias;
+
+    public EstatisticaDevolucoes(Long devolvidos, Long noPrazo, Double duracaoMediaDias) {
+        // SUM e AVG sem linhas retornam null
+        this.devolvidos = devolvidos == null ? 0 : devolvidos;
+        this.noPrazo = noPrazo == null ? 0 : noPrazo;
+        this.duracaoMediaDias = duracaoMediaDias == null ? 0 : Math.round(duracaoMediaDias * 10) / 10.0;
+    }
+
+    public long getDevolvidos() {
+        return devolvidos;
+    }
+
+    public long getNoPrazo() {
+        return noPrazo;
+    }
+
+    public long getComAtraso() {
+        return devolvidos - noPrazo;
+    }
+
+    /**
+     * Percentual das devoluções feitas até a data prevista
+     */
+    public double getTaxaNoPrazo() {
+        return devolvidos == 0 ? 0 : Math.round(noPrazo * 1000.0 / devolvidos) / 10.0;
+    }
+
+    /**
+     * Média de dias entre a retirada e a devolução
+     */
+    public double getDuracaoMediaDias() {
+        return duracaoMediaDias;
+    }
+}
@@ -0,0 +1,53 @@
+package com.biblioteca.dto;
+
+import java.time.YearMonth;
+
+/**
+ * Leitores distintos estimados (HyperLogLog) de um ISBN ou de uma cidade entre dois meses
+ */
+public class EstimativaLeitores {
+
+    private final String valor;
+    private final YearMonth de;
+    private final YearMonth ate;
+    private final long leitores;
+    private final double erroPadraoPercentual;
+
+    public EstimativaLeitores(String valor, YearMonth de, YearMonth ate, long leitores, double erroPadrao) {
+        this.valor = valor;
+        this.de = de;
+        this.ate = ate;
+        this.leitores = leitores;
+        this.erroPadraoPercentual = Math.round(erroPadrao * 1000) / 10.0;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public YearMonth getDe() {
+        return de;
+    }
+
+    public YearMonth getAte() {
+        return ate;
+    }
+
+    public long getLeitores() {
+        return leitores;
+    }
+
+    /**
+     * Erro padrão relativo da estimativa, em percentual
+     */
+    public double getErroPadraoPercentual() {
+        return erroPadraoPercentual;
+    }
+
+    /**
+     * Margem de cerca de 95% (dois erros padrão), em leitores
+     */
+    public long getMargemErro() {
+        return Math.round(leitores * erroPadraoPercentual / 50);
+    }
+}
@@ -0,0 +1,119 @@
+package com.biblioteca.dto;
+
+import com.biblioteca.domain.Endereco;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção de leitor para listagens e consultas de detalhe
+ *
+ * Traz os dados cadastrais e os totais de empréstimos calculados pelo banco
+ * em uma única consulta, sem carregar a coleção de empréstimos do leitor.
+ */
+public class LeitorResumo {
+
+    private final Long id;
+    private final String nome;
+    private final String cpf;
+    private final String email;
+    private final String telefone;
+    private final String matricula;
+    private final String fidelidade;
+    private final Double limiteCredito;
+    private final Boolean ativo;
+    private final LocalDate dataCadastro;
+    private final LocalDate dataUltimaLeitura;
+    private final Endereco endereco;
+    private final Long versao;
+    private final long totalEmprestimos;
+    private final long emprestimosAtivos;
+    private final long emprestimosAtrasados;
+
+    public LeitorResumo(Long id, String nome, String cpf, String email, String telefone,
+                        String matricula, String fidelidade, Double limiteCredito, Boolean ativo,
+                        LocalDate dataCadastro, LocalDate dataUltimaLeitura, Endereco endereco, Long versao,
+                        Long totalEmprestimos, Long emprestimosAtivos, Long emprestimosAtrasados) {
+        this.id = id;
+        this.nome = nome;
+        this.cpf = cpf;
+        this.email = email;
+        this.telefone = telefone;
+        this.matricula = matricula;
+        this.fidelidade = fidelidade;
+        this.limiteCredito = limiteCredito;
+        this.ativo = ativo;
+        this.dataCadastro = dataCadastro;
+        this.dataUltimaLeitura = dataUltimaLeitura;
+        this.endereco = endereco;
+        this.versao = versao;
+        // SUM sobre LEFT JOIN sem empréstimos retorna null
+        this.totalEmprestimos = totalEmprestimos == null ? 0 : totalEmprestimos;
+        this.emprestimosAtivos = emprestimosAtivos == null ? 0 : emprestimosAtivos;
+        this.emprestimosAtrasados = emprestimosAtrasados == null ? 0 : emprestimosAtrasados;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public String getMatricula() {
+        return matricula;
+    }
+
+    public String getFidelidade() {
+        return fidelidade;
+    }
+
+    public Double getLimiteCredito() {
+        return limiteCredito;
+    }
+
+    public Boolean getAtivo() {
+        return ativo;
+    }
+
+    public LocalDate getDataCadastro() {
+        return dataCadastro;
+    }
+
+    public LocalDate getDataUltimaLeitura() {
+        return dataUltimaLeitura;
+    }
+
+    public Endereco getEndereco() {
+        return endereco;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public long getTotalEmprestimos() {
+        return totalEmprestimos;
+    }
+
+    public long getEmprestimosAtivos() {
+        return emprestimosAtivos;
+    }
+
+    public long getEmprestimosAtrasados() {
+        return emprestimosAtrasados;
+    }
+}
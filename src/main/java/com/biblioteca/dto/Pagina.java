@@ -0,0 +1,49 @@
+package com.biblioteca.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados com paginação por cursor (keyset)
+ *
+ * O cursor é o ID do último item entregue; a próxima página é obtida
+ * enviando esse valor em "cursor". Quando não há mais itens, proximoCursor é null.
+ *
+ * @param <T> Tipo dos itens da página
+ */
+public class Pagina<T> {
+
+    private final List<T> itens;
+    private final int tamanho;
+    private final Long proximoCursor;
+
+    public Pagina(List<T> itens, int tamanho, Long proximoCursor) {
+        this.itens = itens;
+        this.tamanho = tamanho;
+        this.proximoCursor = proximoCursor;
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou tamanho + 1 registros.
+     * O registro excedente indica que existe uma próxima página e é descartado.
+     */
+    public static <T> Pagina<T> de(List<T> resultado, int tamanho, Function<T, Long> extrairId) {
+        if (resultado.size() <= tamanho) {
+            return new Pagina<>(resultado, tamanho, null);
+        }
+        List<T> itens = resultado.subList(0, tamanho);
+        return new Pagina<>(itens, tamanho, extrairId.apply(itens.get(tamanho - 1)));
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public Long getProximoCursor() {
+        return proximoCursor;
+    }
+}
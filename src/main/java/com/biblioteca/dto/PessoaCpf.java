@@ -0,0 +1,11 @@
+package com.biblioteca.dto;
+
+/**
+ * Projeção mínima (ID e CPF) usada para resolver leitores pelo CPF na carga inicial
+ */
+public interface PessoaCpf {
+
+    Long getId();
+
+    String getCpf();
+}
@@ -0,0 +1,11 @@
+package com.biblioteca.dto;
+
+/**
+ * Projeção mínima (ID e nome) usada para alimentar os índices de nomes em memória
+ */
+public interface PessoaNome {
+
+    Long getId();
+
+    String getNome();
+}
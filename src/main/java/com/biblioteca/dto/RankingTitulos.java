@@ -0,0 +1,53 @@
+package com.biblioteca.dto;
+
+import java.util.List;
+
+/**
+ * Títulos mais emprestados em uma janela de dias, estimados por um resumo de memória fixa
+ */
+public class RankingTitulos {
+
+    private final String janela;
+    private final long totalEmprestimos;
+    private final int capacidade;
+    private final long limiteAusentes;
+    private final List<TituloFrequente> titulos;
+
+    public RankingTitulos(String janela, long totalEmprestimos, int capacidade, long limiteAusentes,
+                          List<TituloFrequente> titulos) {
+        this.janela = janela;
+        this.totalEmprestimos = totalEmprestimos;
+        this.capacidade = capacidade;
+        this.limiteAusentes = limiteAusentes;
+        this.titulos = titulos;
+    }
+
+    public String getJanela() {
+        return janela;
+    }
+
+    /**
+     * Retiradas na janela (exato)
+     */
+    public long getTotalEmprestimos() {
+        return totalEmprestimos;
+    }
+
+    /**
+     * Contadores mantidos por dia e por janela
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Máximo de retiradas de qualquer título que não aparece no resumo
+     */
+    public long getLimiteAusentes() {
+        return limiteAusentes;
+    }
+
+    public List<TituloFrequente> getTitulos() {
+        return titulos;
+    }
+}
@@ -0,0 +1,36 @@
+package com.biblioteca.dto;
+
+/**
+ * Resultado da devolução de um item do lote
+ * emprestimoId é nulo quando nenhum empréstimo foi encontrado para o ISBN
+ */
+public class ResultadoDevolucao {
+
+    public enum Situacao {
+        DEVOLVIDO,
+        JA_DEVOLVIDO,
+        NAO_ENCONTRADO
+    }
+
+    private final Long emprestimoId;
+    private final String isbn;
+    private final Situacao situacao;
+
+    public ResultadoDevolucao(Long emprestimoId, String isbn, Situacao situacao) {
+        this.emprestimoId = emprestimoId;
+        this.isbn = isbn;
+        this.situacao = situacao;
+    }
+
+    public Long getEmprestimoId() {
+        return emprestimoId;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+}
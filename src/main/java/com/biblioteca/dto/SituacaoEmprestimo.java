@@ -0,0 +1,15 @@
+package com.biblioteca.dto;
+
+/**
+ * Projeção mínima (ID, leitor, ISBN e status) usada na devolução em lote
+ */
+public interface SituacaoEmprestimo {
+
+    Long getId();
+
+    Long getLeitorId();
+
+    String getIsbn();
+
+    Boolean getDevolvido();
+}
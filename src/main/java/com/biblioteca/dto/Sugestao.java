@@ -0,0 +1,23 @@
+package com.biblioteca.dto;
+
+/**
+ * Sugestão de autocompletar: o texto e quantas vezes ele ocorre
+ */
+public class Sugestao {
+
+    private final String texto;
+    private final long frequencia;
+
+    public Sugestao(String texto, long frequencia) {
+        this.texto = texto;
+        this.frequencia = frequencia;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public long getFrequencia() {
+        return frequencia;
+    }
+}
@@ -0,0 +1,40 @@
+package com.biblioteca.dto;
+
+/**
+ * Título no ranking de mais emprestados: a quantidade real está entre
+ * quantidadeMinima e quantidade (estimativa com erro de no máximo erroMaximo)
+ */
+public class TituloFrequente {
+
+    private final String isbn;
+    private final String titulo;
+    private final long quantidade;
+    private final long erroMaximo;
+
+    public TituloFrequente(String isbn, String titulo, long quantidade, long erroMaximo) {
+        this.isbn = isbn;
+        this.titulo = titulo;
+        this.quantidade = quantidade;
+        this.erroMaximo = erroMaximo;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public long getErroMaximo() {
+        return erroMaximo;
+    }
+
+    public long getQuantidadeMinima() {
+        return quantidade - erroMaximo;
+    }
+}
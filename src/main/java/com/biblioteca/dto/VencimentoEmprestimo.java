@@ -0,0 +1,25 @@
+package com.biblioteca.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção dos campos de um empréstimo mantidos pelo índice de vencimentos
+ */
+public interface VencimentoEmprestimo {
+
+    Long getId();
+
+    Long getLeitorId();
+
+    String getTituloLivro();
+
+    String getAutor();
+
+    String getIsbn();
+
+    LocalDate getDataEmprestimo();
+
+    LocalDate getDataDevolucaoPrevista();
+
+    Boolean getDevolvido();
+}
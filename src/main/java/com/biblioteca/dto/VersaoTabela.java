@@ -0,0 +1,39 @@
+package com.biblioteca.dto;
+
+/**
+ * Retrato agregado de uma tabela para ETags de listagens
+ *
+ * Quantidade de linhas, maior ID e soma das versões: uma inclusão muda a
+ * quantidade e o maior ID, uma exclusão a quantidade e uma alteração a soma
+ * das versões, sem precisar ler as linhas em si.
+ */
+public class VersaoTabela {
+
+    private final long linhas;
+    private final long maiorId;
+    private final long somaVersoes;
+
+    public VersaoTabela(Long linhas, Long maiorId, Long somaVersoes) {
+        // MAX e SUM de tabela vazia retornam null
+        this.linhas = linhas == null ? 0 : linhas;
+        this.maiorId = maiorId == null ? 0 : maiorId;
+        this.somaVersoes = somaVersoes == null ? 0 : somaVersoes;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public long getMaiorId() {
+        return maiorId;
+    }
+
+    public long getSomaVersoes() {
+        return somaVersoes;
+    }
+
+    @Override
+    public String toString() {
+        return linhas + "." + maiorId + "." + somaVersoes;
+    }
+}
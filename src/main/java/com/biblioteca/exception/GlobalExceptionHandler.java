@@ -1,6 +1,8 @@
 package com.biblioteca.exception;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -129,6 +131,46 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    /**
+     * Trata alterações feitas sobre uma versão que já não é a atual (bloqueio otimista)
+     * Retorna: 409 CONFLICT
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConflitoDeVersao(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        ErrorResponse error = ErrorResponse.criar(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "O registro foi alterado por outra requisição; busque a versão atual e tente novamente",
+                extrairPath(request)
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Trata requisições recebidas antes de os dados estarem disponíveis
+     * Retorna: 503 SERVICE UNAVAILABLE com o cabeçalho Retry-After
+     */
+    @ExceptionHandler(ServicoIndisponivelException.class)
+    public ResponseEntity<ErrorResponse> handleServicoIndisponivel(
+            ServicoIndisponivelException ex, WebRequest request) {
+
+        ErrorResponse error = ErrorResponse.criar(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                extrairPath(request)
+        );
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getSegundosParaNovaTentativa() > 0) {
+            resposta.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getSegundosParaNovaTentativa()));
+        }
+        return resposta.body(error);
+    }
+
     /**
      * Trata exceções genéricas não capturadas pelos outros handlers
      * Retorna: 500 INTERNAL SERVER ERROR
@@ -0,0 +1,30 @@
+package com.biblioteca.exception;
+
+/**
+ * Exceção para requisições recebidas enquanto os dados ainda não estão disponíveis
+ * (por exemplo, durante a carga inicial em segundo plano)
+ * Indica ao cliente em quantos segundos tentar de novo (Retry-After), quando
+ * há previsão de o serviço voltar sozinho
+ */
+public class ServicoIndisponivelException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long segundosParaNovaTentativa;
+
+    public ServicoIndisponivelException(String mensagem, long segundosParaNovaTentativa) {
+        super(mensagem);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    /**
+     * Indisponibilidade sem previsão de retorno: a resposta não traz Retry-After
+     */
+    public ServicoIndisponivelException(String mensagem) {
+        this(mensagem, 0);
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
@@ -4,13 +4,10 @@ import com.biblioteca.domain.Bibliotecario;
 import com.biblioteca.domain.Endereco;
 import com.biblioteca.service.BibliotecarioService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.ApplicationArguments;
-import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Loader para carregar bibliotecários do arquivo bibliotecarios.txt
@@ -21,68 +18,52 @@ import java.io.InputStreamReader;
  */
 @Component
 @Order(1)
-public class BibliotecarioLoader implements ApplicationRunner {
+public class BibliotecarioLoader extends CarregadorArquivo<Bibliotecario> {
 
     @Autowired
     private BibliotecarioService service;
 
     @Override
-    public void run(ApplicationArguments args) throws Exception {
-        System.out.println("\n🔄 Carregando bibliotecários...");
-
-        InputStream is = getClass().getClassLoader()
-                .getResourceAsStream("data/bibliotecarios.txt");
-
-        if (is == null) {
-            System.out.println("⚠️  Arquivo bibliotecarios.txt não encontrado!");
-            return;
-        }
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-            String linha;
-            int contador = 0;
-
-            while ((linha = br.readLine()) != null) {
-                if (linha.trim().isEmpty() || linha.startsWith("#")) {
-                    continue;
-                }
-
-                String[] dados = linha.split(";");
-
-                // Criar endereço
-                Endereco endereco = new Endereco();
-                endereco.setCep(dados[6]);
-                endereco.setLogradouro(dados[7]);
-                endereco.setComplemento(dados[8]);
-                endereco.setNumero(dados[9]);
-                endereco.setBairro(dados[10]);
-                endereco.setCidade(dados[11]);
-                endereco.setEstado(dados[12]); // UF
-
-                // Criar bibliotecário
-                Bibliotecario bibliotecario = new Bibliotecario();
-                bibliotecario.setNome(dados[0]);
-                bibliotecario.setEmail(dados[1]);
-                bibliotecario.setCpf(dados[2]);
-                bibliotecario.setTelefone(dados[3]);
-                bibliotecario.setMatricula(dados[4]);
-                bibliotecario.setCodigoFuncionario(dados[5]);
-                bibliotecario.setSalario(Double.parseDouble(dados[14]));
-                bibliotecario.setAtivo(Boolean.parseBoolean(dados[15]));
-                if (dados.length > 16 && !dados[16].trim().isEmpty()) {
-                    bibliotecario.setTurno(dados[16]);
-                }
-                bibliotecario.setEndereco(endereco);
+    protected String arquivo() {
+        return "bibliotecarios.txt";
+    }
 
-                service.incluir(bibliotecario);
-                contador++;
-            }
+    @Override
+    protected String descricao() {
+        return "bibliotecários";
+    }
 
-            System.out.println("✅ " + contador + " bibliotecários carregados com sucesso!");
+    @Override
+    protected Bibliotecario converter(String[] dados) {
+        // Criar endereço
+        Endereco endereco = new Endereco();
+        endereco.setCep(dados[6]);
+        endereco.setLogradouro(dados[7]);
+        endereco.setComplemento(dados[8]);
+        endereco.setNumero(dados[9]);
+        endereco.setBairro(dados[10]);
+        endereco.setCidade(dados[11]);
+        endereco.setEstado(dados[12]); // UF
 
-        } catch (Exception e) {
-            System.err.println("❌ Erro ao carregar bibliotecários: " + e.getMessage());
-            e.printStackTrace();
+        // Criar bibliotecário
+        Bibliotecario bibliotecario = new Bibliotecario();
+        bibliotecario.setNome(dados[0]);
+        bibliotecario.setEmail(dados[1]);
+        bibliotecario.setCpf(dados[2]);
+        bibliotecario.setTelefone(dados[3]);
+        bibliotecario.setMatricula(dados[4]);
+        bibliotecario.setCodigoFuncionario(dados[5]);
+        bibliotecario.setSalario(Double.parseDouble(dados[14]));
+        bibliotecario.setAtivo(Boolean.parseBoolean(dados[15]));
+        if (dados.length > 16 && !dados[16].trim().isEmpty()) {
+            bibliotecario.setTurno(dados[16]);
         }
+        bibliotecario.setEndereco(endereco);
+        return bibliotecario;
+    }
+
+    @Override
+    protected Map<Integer, String> gravar(List<Bibliotecario> bibliotecarios) {
+        return service.incluirCarga(bibliotecarios);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.biblioteca.loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * Carga inicial dos dados: snapshot ou loaders (na ordem de @Order), seguida da
+ * reconstrução dos índices em memória (DadosCarregadosEvent)
+ *
+ * Com biblioteca.carga.assincrona=true a carga roda em segundo plano e a
+ * aplicação sobe imediatamente; até o fim dela, os endpoints de dados
+ * respondem 503 com Retry-After e o readiness fica fora de serviço (EstadoCarga).
+ * Uma falha na carga síncrona (padrão) interrompe a inicialização; em segundo
+ * plano ela só fica registrada no EstadoCarga, com os dados bloqueados.
+ */
+@Component
+public class CargaInicial implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaInicial.class);
+
+    @Autowired
+    private SnapshotDados snapshot;
+
+    @Autowired
+    private List<CarregadorArquivo<?>> carregadores;
+
+    @Autowired
+    private EstadoCarga estado;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Value("${biblioteca.carga.assincrona:false}")
+    private boolean assincrona;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!assincrona) {
+            carregar();
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                carregar();
+            } catch (RuntimeException e) {
+                // Já registrada no EstadoCarga: a aplicação segue no ar com os dados bloqueados
+            }
+        }, "carga-inicial");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("🔄 Carga inicial em segundo plano; endpoints de dados respondem 503 até o fim");
+    }
+
+    /**
+     * Executa a carga e relança a falha depois de registrá-la no EstadoCarga
+     */
+    void carregar() {
+        long inicio = System.nanoTime();
+        try {
+            estado.iniciarEtapa("snapshot");
+            boolean restaurado = snapshot.restaurar();
+            if (!restaurado) {
+                for (CarregadorArquivo<?> carregador : carregadores) {
+                    estado.iniciarEtapa(carregador.descricao());
+                    carregador.carregar();
+                }
+            }
+            long duracaoCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+
+            estado.iniciarEtapa("índices em memória");
+            eventos.publishEvent(new DadosCarregadosEvent(this));
+            estado.concluir();
+            log.info("✅ Carga inicial concluída em {} ms", (System.nanoTime() - inicio) / 1_000_000);
+
+            if (!restaurado) {
+                snapshot.gravar(duracaoCargaMs);
+            }
+        } catch (RuntimeException e) {
+            estado.falhar(e.getMessage());
+            log.error("❌ Falha na carga inicial ({}): {}", estado.etapa(), e.getMessage(), e);
+            throw e;
+        }
+    }
+}
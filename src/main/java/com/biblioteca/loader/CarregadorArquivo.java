@@ -0,0 +1,240 @@
+package com.biblioteca.loader;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Base dos loaders de data/*.txt: pipeline de carga em blocos (executado por CargaInicial)
+ *
+ * O arquivo (UTF-8) é lido em blocos de linhas; cada bloco é convertido e
+ * validado (Bean Validation) em paralelo enquanto o bloco anterior é gravado.
+ * A gravação de cada bloco é uma única transação no serviço, com INSERTs em
+ * lotes JDBC. Linhas rejeitadas não interrompem a carga: ao final é registrado
+ * um resumo com linhas por segundo e os motivos das rejeições.
+ *
+ * @param <T> entidade carregada
+ */
+abstract class CarregadorArquivo<T> {
+
+    private static final int EXEMPLOS_REJEICAO = 20;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private Validator validador;
+
+    @Value("${biblioteca.carga.tamanho-bloco:5000}")
+    private int tamanhoBloco;
+
+    /**
+     * Nome do arquivo dentro de data/
+     */
+    protected abstract String arquivo();
+
+    /**
+     * Descrição no plural usada no resumo ("leitores", "empréstimos"...)
+     */
+    protected abstract String descricao();
+
+    /**
+     * Converte os campos de uma linha na entidade; pode ser chamado em paralelo
+     */
+    protected abstract T converter(String[] dados);
+
+    /**
+     * Grava um bloco e devolve os itens rejeitados (posição no bloco → motivo)
+     */
+    protected abstract Map<Integer, String> gravar(List<T> itens);
+
+    /**
+     * Preparação antes da leitura (ex.: mapas de referência carregados de uma vez)
+     */
+    protected void preparar() {
+    }
+
+    /**
+     * Carrega o arquivo inteiro; chamado por CargaInicial, na ordem de @Order
+     */
+    public void carregar() {
+        InputStream is = getClass().getClassLoader().getResourceAsStream("data/" + arquivo());
+        if (is == null) {
+            log.warn("⚠️  Arquivo {} não encontrado!", arquivo());
+            return;
+        }
+
+        Resumo resumo = new Resumo();
+        long inicio = System.nanoTime();
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            preparar();
+            int[] numeroLinha = {0};
+            List<Linha> bloco = lerBloco(br, numeroLinha);
+            CompletableFuture<List<Convertida<T>>> emAndamento = bloco.isEmpty() ? null : converterEmParalelo(bloco);
+
+            while (emAndamento != null) {
+                List<Convertida<T>> atual = emAndamento.join();
+                // O próximo bloco é convertido enquanto o atual é gravado
+                bloco = lerBloco(br, numeroLinha);
+                emAndamento = bloco.isEmpty() ? null : converterEmParalelo(bloco);
+                gravarBloco(atual, resumo);
+            }
+        } catch (Exception e) {
+            log.error("❌ Erro ao carregar {}: {}", descricao(), e.getMessage(), e);
+        }
+
+        registrarResumo(resumo, System.nanoTime() - inicio);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private List<Linha> lerBloco(BufferedReader br, int[] numeroLinha) throws IOException {
+        List<Linha> bloco = new ArrayList<>(tamanhoBloco);
+        String texto;
+        while (bloco.size() < tamanhoBloco && (texto = br.readLine()) != null) {
+            numeroLinha[0]++;
+            if (texto.trim().isEmpty() || texto.startsWith("#")) {
+                continue;
+            }
+            bloco.add(new Linha(numeroLinha[0], texto));
+        }
+        return bloco;
+    }
+
+    private CompletableFuture<List<Convertida<T>>> converterEmParalelo(List<Linha> bloco) {
+        return CompletableFuture.supplyAsync(() -> bloco.parallelStream()
+                .map(this::converterLinha)
+                .toList());
+    }
+
+    private Convertida<T> converterLinha(Linha linha) {
+        T item;
+        try {
+            item = converter(linha.texto.split(";", -1));
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return Convertida.rejeitada(linha.numero, "Quantidade de campos insuficiente");
+        } catch (RuntimeException e) {
+            return Convertida.rejeitada(linha.numero, e.getMessage());
+        }
+
+        Set<ConstraintViolation<T>> violacoes = validador.validate(item);
+        if (!violacoes.isEmpty()) {
+            String motivo = violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return Convertida.rejeitada(linha.numero, motivo);
+        }
+        return new Convertida<>(linha.numero, item, null);
+    }
+
+    private void gravarBloco(List<Convertida<T>> convertidas, Resumo resumo) {
+        List<T> itens = new ArrayList<>(convertidas.size());
+        List<Integer> linhasDosItens = new ArrayList<>(convertidas.size());
+        for (Convertida<T> convertida : convertidas) {
+            if (convertida.motivo != null) {
+                resumo.rejeitar(convertida.numero, convertida.motivo);
+            } else {
+                itens.add(convertida.item);
+                linhasDosItens.add(convertida.numero);
+            }
+        }
+        if (itens.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Integer, String> rejeitados = gravar(itens);
+            rejeitados.forEach((posicao, motivo) -> resumo.rejeitar(linhasDosItens.get(posicao), motivo));
+            resumo.carregados += itens.size() - rejeitados.size();
+        } catch (RuntimeException e) {
+            // A transação do bloco foi desfeita: todas as suas linhas ficam de fora
+            String motivo = "Bloco não gravado: " + e.getMessage();
+            linhasDosItens.forEach(numero -> resumo.rejeitar(numero, motivo));
+        }
+    }
+
+    private void registrarResumo(Resumo resumo, long duracaoNanos) {
+        double segundos = duracaoNanos / 1e9;
+        int processadas = resumo.carregados + resumo.rejeitadas;
+        log.info("✅ {} {} carregados de {} em {} s ({} linhas/s)",
+                resumo.carregados, descricao(), arquivo(),
+                String.format(Locale.ROOT, "%.2f", segundos),
+                segundos > 0 ? Math.round(processadas / segundos) : processadas);
+
+        if (resumo.rejeitadas > 0) {
+            StringBuilder detalhes = new StringBuilder();
+            resumo.exemplos.forEach(exemplo -> detalhes.append("\n   ").append(exemplo));
+            if (resumo.rejeitadas > resumo.exemplos.size()) {
+                detalhes.append("\n   ... e mais ").append(resumo.rejeitadas - resumo.exemplos.size());
+            }
+            log.warn("⚠️  {} linhas rejeitadas em {}:{}", resumo.rejeitadas, arquivo(), detalhes);
+        }
+    }
+
+    /**
+     * Linha não vazia do arquivo, com sua numeração original
+     */
+    private static final class Linha {
+
+        private final int numero;
+        private final String texto;
+
+        private Linha(int numero, String texto) {
+            this.numero = numero;
+            this.texto = texto;
+        }
+    }
+
+    /**
+     * Resultado da conversão de uma linha: a entidade ou o motivo da rejeição
+     */
+    private static final class Convertida<T> {
+
+        private final int numero;
+        private final T item;
+        private final String motivo;
+
+        private Convertida(int numero, T item, String motivo) {
+            this.numero = numero;
+            this.item = item;
+            this.motivo = motivo;
+        }
+
+        private static <T> Convertida<T> rejeitada(int numero, String motivo) {
+            return new Convertida<>(numero, null, motivo);
+        }
+    }
+
+    /**
+     * Totais da carga; mantém apenas os primeiros exemplos de rejeição
+     */
+    private static final class Resumo {
+
+        private int carregados;
+        private int rejeitadas;
+        private final List<String> exemplos = new ArrayList<>();
+
+        private void rejeitar(int numero, String motivo) {
+            rejeitadas++;
+            if (exemplos.size() < EXEMPLOS_REJEICAO) {
+                exemplos.add("linha " + numero + ": " + motivo);
+            }
+        }
+    }
+}
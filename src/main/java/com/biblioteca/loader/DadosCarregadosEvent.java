@@ -0,0 +1,14 @@
+package com.biblioteca.loader;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Publicado quando a carga inicial (arquivos texto ou snapshot) termina
+ * Os serviços reconstroem seus índices em memória a partir do banco neste ponto
+ */
+public class DadosCarregadosEvent extends ApplicationEvent {
+
+    public DadosCarregadosEvent(Object origem) {
+        super(origem);
+    }
+}
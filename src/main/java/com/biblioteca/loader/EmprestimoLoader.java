@@ -2,18 +2,15 @@ package com.biblioteca.loader;
 
 import com.biblioteca.domain.Emprestimo;
 import com.biblioteca.domain.Leitor;
-import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.exception.DadosInvalidosException;
 import com.biblioteca.service.EmprestimoService;
+import com.biblioteca.service.LeitorService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.ApplicationArguments;
-import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Loader para carregar empréstimos do arquivo emprestimos.txt
@@ -24,71 +21,63 @@ import java.util.Optional;
  */
 @Component
 @Order(3)
-public class EmprestimoLoader implements ApplicationRunner {
+public class EmprestimoLoader extends CarregadorArquivo<Emprestimo> {
 
     @Autowired
     private EmprestimoService service;
 
     @Autowired
-    private LeitorRepository leitorRepository;
+    private LeitorService leitorService;
 
-    @Override
-    public void run(ApplicationArguments args) throws Exception {
-        System.out.println("\n🔄 Carregando empréstimos...");
-
-        InputStream is = getClass().getClassLoader()
-                .getResourceAsStream("data/emprestimos.txt");
-
-        if (is == null) {
-            System.out.println("⚠️  Arquivo emprestimos.txt não encontrado!");
-            return;
-        }
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-            String linha;
-            int contador = 0;
-
-            while ((linha = br.readLine()) != null) {
-                if (linha.trim().isEmpty() || linha.startsWith("#")) {
-                    continue;
-                }
+    // CPF → ID de todos os leitores, carregado uma vez antes da leitura (somente leitura depois)
+    private Map<String, Long> leitoresPorCpf = Map.of();
 
-                String[] dados = linha.split(";");
-
-                // Buscar leitor pelo CPF
-                String cpfLeitor = dados[0];
-                Optional<Leitor> leitorOpt = leitorRepository.findByCpf(cpfLeitor);
-
-                if (leitorOpt.isEmpty()) {
-                    System.err.println("⚠️  Leitor com CPF " + cpfLeitor + " não encontrado. Pulando empréstimo.");
-                    continue;
-                }
-
-                // Criar empréstimo
-                Emprestimo emprestimo = new Emprestimo();
-                emprestimo.setLeitor(leitorOpt.get());
-                emprestimo.setTituloLivro(dados[1]);
-                emprestimo.setAutor(dados[2]); // Autor adicionado
-                emprestimo.setIsbn(dados[3]);
-                emprestimo.setDataEmprestimo(LocalDate.parse(dados[4]));
-                emprestimo.setDataDevolucaoPrevista(LocalDate.parse(dados[5]));
+    @Override
+    protected String arquivo() {
+        return "emprestimos.txt";
+    }
 
-                // Data devolução real pode ser null
-                if (dados.length > 6 && !dados[6].trim().isEmpty() && !dados[6].equalsIgnoreCase("null")) {
-                    emprestimo.setDataDevolucaoEfetiva(LocalDate.parse(dados[6]));
-                }
+    @Override
+    protected String descricao() {
+        return "empréstimos";
+    }
 
-                emprestimo.setDevolvido(Boolean.parseBoolean(dados[7]));
+    @Override
+    protected void preparar() {
+        leitoresPorCpf = leitorService.mapearIdsPorCpf();
+    }
 
-                service.incluir(emprestimo);
-                contador++;
-            }
+    @Override
+    protected Emprestimo converter(String[] dados) {
+        // Resolver leitor pelo CPF
+        String cpfLeitor = dados[0];
+        Long leitorId = leitoresPorCpf.get(cpfLeitor);
+        if (leitorId == null) {
+            throw new DadosInvalidosException("Leitor com CPF " + cpfLeitor + " não encontrado");
+        }
+        Leitor leitor = new Leitor();
+        leitor.setId(leitorId);
+
+        // Criar empréstimo
+        Emprestimo emprestimo = new Emprestimo();
+        emprestimo.setLeitor(leitor);
+        emprestimo.setTituloLivro(dados[1]);
+        emprestimo.setAutor(dados[2]); // Autor adicionado
+        emprestimo.setIsbn(dados[3]);
+        emprestimo.setDataEmprestimo(LocalDate.parse(dados[4]));
+        emprestimo.setDataDevolucaoPrevista(LocalDate.parse(dados[5]));
+
+        // Data devolução real pode ser null
+        if (!dados[6].trim().isEmpty() && !dados[6].equalsIgnoreCase("null")) {
+            emprestimo.setDataDevolucaoEfetiva(LocalDate.parse(dados[6]));
+        }
 
-            System.out.println("✅ " + contador + " empréstimos carregados com sucesso!");
+        emprestimo.setDevolvido(Boolean.parseBoolean(dados[7]));
+        return emprestimo;
+    }
 
-        } catch (Exception e) {
-            System.err.println("❌ Erro ao carregar empréstimos: " + e.getMessage());
-            e.printStackTrace();
-        }
+    @Override
+    protected Map<Integer, String> gravar(List<Emprestimo> emprestimos) {
+        return service.incluirCarga(emprestimos);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.biblioteca.loader;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Situação da carga inicial, exposta como indicador de saúde "cargaDados"
+ *
+ * Fica OUT_OF_SERVICE enquanto a carga está em andamento e DOWN se ela falhou;
+ * como faz parte do grupo readiness, /actuator/health/readiness só responde UP
+ * depois de uma carga concluída.
+ */
+@Component("cargaDados")
+public class EstadoCarga implements HealthIndicator {
+
+    public enum Situacao {
+        EM_ANDAMENTO, CONCLUIDA, FALHOU
+    }
+
+    private volatile Situacao situacao = Situacao.EM_ANDAMENTO;
+    private volatile String etapa = "aguardando início";
+    private volatile String erro;
+
+    public boolean emAndamento() {
+        return situacao == Situacao.EM_ANDAMENTO;
+    }
+
+    public boolean concluida() {
+        return situacao == Situacao.CONCLUIDA;
+    }
+
+    public String etapa() {
+        return etapa;
+    }
+
+    public String erro() {
+        return erro;
+    }
+
+    void iniciarEtapa(String etapa) {
+        this.etapa = etapa;
+    }
+
+    void concluir() {
+        this.etapa = "concluída";
+        this.erro = null;
+        this.situacao = Situacao.CONCLUIDA;
+    }
+
+    void falhar(String erro) {
+        this.erro = erro;
+        this.situacao = Situacao.FALHOU;
+    }
+
+    @Override
+    public Health health() {
+        return switch (situacao) {
+            case EM_ANDAMENTO -> Health.outOfService().withDetail("etapa", etapa).build();
+            case CONCLUIDA -> Health.up().build();
+            case FALHOU -> Health.down().withDetail("etapa", etapa).withDetail("erro", String.valueOf(erro)).build();
+        };
+    }
+}
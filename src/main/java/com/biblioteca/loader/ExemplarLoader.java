@@ -0,0 +1,46 @@
+package com.biblioteca.loader;
+
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.service.ExemplarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loader para carregar o acervo físico do arquivo exemplares.txt
+ *
+ * Formato do arquivo (uma linha por cópia física):
+ * isbn;codigo;tituloLivro;autor;dataAquisicao
+ */
+@Component
+@Order(4)
+public class ExemplarLoader extends CarregadorArquivo<Exemplar> {
+
+    @Autowired
+    private ExemplarService service;
+
+    @Override
+    protected String arquivo() {
+        return "exemplares.txt";
+    }
+
+    @Override
+    protected String descricao() {
+        return "exemplares";
+    }
+
+    @Override
+    protected Exemplar converter(String[] dados) {
+        Exemplar exemplar = new Exemplar(dados[0], dados[1], dados[2], dados[3]);
+        exemplar.setDataAquisicao(LocalDate.parse(dados[4]));
+        return exemplar;
+    }
+
+    @Override
+    protected Map<Integer, String> gravar(List<Exemplar> exemplares) {
+        return service.incluirCarga(exemplares);
+    }
+}
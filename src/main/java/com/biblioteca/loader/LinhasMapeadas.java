@@ -0,0 +1,239 @@
+package com.biblioteca.loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Leitura de arquivos delimitados por ';' (UTF-8) mapeados em memória
+ *
+ * O arquivo é mapeado em janelas (256 MB por padrão) que avançam linha a linha;
+ * uma linha que cruza o fim da janela faz a janela ser remapeada a partir do seu
+ * início. Cada linha é separada em campos guardando apenas as posições de início
+ * e fim em arrays reaproveitados; números, datas e booleanos são lidos direto
+ * dos bytes, e só texto() cria String.
+ *
+ * posicao() é o byte logo após a linha atual: abrir o arquivo de novo a partir
+ * dele continua a leitura na linha seguinte. Linhas vazias e comentários (#)
+ * são ignorados. Não é thread-safe.
+ */
+public final class LinhasMapeadas implements Closeable {
+
+    static final long JANELA_PADRAO = 256L << 20;
+    private static final int MAXIMO_CAMPOS = 64;
+
+    private final FileChannel canal;
+    private final long tamanho;
+    private final long tamanhoJanela;
+
+    private MappedByteBuffer janela;
+    private long inicioJanela;
+    private int cursor;
+
+    private final int[] inicios = new int[MAXIMO_CAMPOS];
+    private final int[] fins = new int[MAXIMO_CAMPOS];
+    private int campos;
+    private long inicioLinha;
+    private byte[] auxiliar = new byte[256];
+
+    public LinhasMapeadas(Path arquivo, long posicaoInicial) throws IOException {
+        this(arquivo, posicaoInicial, JANELA_PADRAO);
+    }
+
+    LinhasMapeadas(Path arquivo, long posicaoInicial, long tamanhoJanela) throws IOException {
+        if (tamanhoJanela <= 0 || tamanhoJanela > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de janela inválido: " + tamanhoJanela);
+        }
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        this.tamanho = canal.size();
+        this.tamanhoJanela = tamanhoJanela;
+        if (posicaoInicial < 0 || posicaoInicial > tamanho) {
+            canal.close();
+            throw new IllegalArgumentException("Posição " + posicaoInicial + " fora do arquivo (" + tamanho + " bytes)");
+        }
+        mapear(posicaoInicial);
+    }
+
+    /**
+     * Avança para a próxima linha com conteúdo; false no fim do arquivo
+     */
+    public boolean proxima() throws IOException {
+        while (inicioJanela + cursor < tamanho) {
+            if (!separarLinha()) {
+                if (cursor == 0) {
+                    throw new IOException("Linha no byte " + inicioJanela
+                            + " maior que a janela de mapeamento (" + tamanhoJanela + " bytes)");
+                }
+                mapear(inicioJanela + cursor);
+                continue;
+            }
+            boolean vazia = campos == 1 && fins[0] == inicios[0];
+            if (!vazia && janela.get(inicios[0]) != '#') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Byte logo após a linha atual (ponto de retomada)
+     */
+    public long posicao() {
+        return inicioJanela + cursor;
+    }
+
+    /**
+     * Byte onde começa a linha atual
+     */
+    public long inicioLinha() {
+        return inicioLinha;
+    }
+
+    public long tamanho() {
+        return tamanho;
+    }
+
+    public int campos() {
+        return campos;
+    }
+
+    public String texto(int campo) {
+        int inicio = inicio(campo);
+        int comprimento = fins[campo] - inicio;
+        if (comprimento > auxiliar.length) {
+            auxiliar = new byte[Math.max(comprimento, auxiliar.length * 2)];
+        }
+        janela.get(inicio, auxiliar, 0, comprimento);
+        return new String(auxiliar, 0, comprimento, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Campo vazio ou com o literal "null"
+     */
+    public boolean nulo(int campo) {
+        int inicio = inicio(campo);
+        int comprimento = fins[campo] - inicio;
+        return comprimento == 0 || (comprimento == 4
+                && (janela.get(inicio) | 0x20) == 'n'
+                && (janela.get(inicio + 1) | 0x20) == 'u'
+                && (janela.get(inicio + 2) | 0x20) == 'l'
+                && (janela.get(inicio + 3) | 0x20) == 'l');
+    }
+
+    /**
+     * Inteiro não negativo formado apenas por dígitos (até 18)
+     */
+    public long numero(int campo) {
+        int inicio = inicio(campo);
+        int fim = fins[campo];
+        if (fim == inicio || fim - inicio > 18) {
+            throw new IllegalArgumentException("Campo " + (campo + 1) + " não é um número válido");
+        }
+        long valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            int digito = janela.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new IllegalArgumentException("Campo " + (campo + 1) + " não é um número válido");
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    /**
+     * Data no formato ISO (aaaa-mm-dd)
+     */
+    public LocalDate data(int campo) {
+        int inicio = inicio(campo);
+        if (fins[campo] - inicio != 10 || janela.get(inicio + 4) != '-' || janela.get(inicio + 7) != '-') {
+            throw new IllegalArgumentException("Campo " + (campo + 1) + " não é uma data (aaaa-mm-dd)");
+        }
+        return LocalDate.of(digitos(inicio, 4, campo), digitos(inicio + 5, 2, campo), digitos(inicio + 8, 2, campo));
+    }
+
+    /**
+     * true apenas para "true" (sem diferenciar maiúsculas), como Boolean.parseBoolean
+     */
+    public boolean booleano(int campo) {
+        int inicio = inicio(campo);
+        return fins[campo] - inicio == 4
+                && (janela.get(inicio) | 0x20) == 't'
+                && (janela.get(inicio + 1) | 0x20) == 'r'
+                && (janela.get(inicio + 2) | 0x20) == 'u'
+                && (janela.get(inicio + 3) | 0x20) == 'e';
+    }
+
+    @Override
+    public void close() throws IOException {
+        janela = null;
+        canal.close();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void mapear(long posicao) throws IOException {
+        inicioJanela = posicao;
+        cursor = 0;
+        janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(tamanhoJanela, tamanho - posicao));
+    }
+
+    /**
+     * Separa os campos da linha que começa no cursor; false se ela não termina dentro da janela
+     */
+    private boolean separarLinha() {
+        int limite = janela.limit();
+        campos = 0;
+        inicios[0] = cursor;
+        for (int i = cursor; i < limite; i++) {
+            byte b = janela.get(i);
+            if (b == ';') {
+                if (campos < MAXIMO_CAMPOS - 1) {
+                    fins[campos++] = i;
+                    inicios[campos] = i + 1;
+                }
+            } else if (b == '\n') {
+                fecharLinha(i, i + 1);
+                return true;
+            }
+        }
+        if (inicioJanela + limite < tamanho) {
+            return false;
+        }
+        // Última linha do arquivo, sem quebra de linha no final
+        fecharLinha(limite, limite);
+        return true;
+    }
+
+    private void fecharLinha(int fim, int proximoCursor) {
+        if (fim > inicios[campos] && janela.get(fim - 1) == '\r') {
+            fim--;
+        }
+        fins[campos++] = fim;
+        inicioLinha = inicioJanela + cursor;
+        cursor = proximoCursor;
+    }
+
+    private int inicio(int campo) {
+        if (campo >= campos) {
+            throw new IllegalArgumentException("Quantidade de campos insuficiente");
+        }
+        return inicios[campo];
+    }
+
+    private int digitos(int inicio, int quantidade, int campo) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + quantidade; i++) {
+            int digito = janela.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new IllegalArgumentException("Campo " + (campo + 1) + " não é uma data (aaaa-mm-dd)");
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,375 @@
+package com.biblioteca.loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot binário das tabelas carregadas de data/*.txt, para reinícios rápidos
+ *
+ * Consultado por CargaInicial antes dos loaders: se o snapshot existe, o banco
+ * está vazio e o checksum (SHA-256) dos arquivos de dados é o mesmo gravado no
+ * snapshot, as tabelas são restauradas direto por JDBC em lote e os loaders
+ * não são executados. Caso contrário os loaders carregam os arquivos texto
+ * normalmente e, se o banco estava vazio antes deles, um novo snapshot é
+ * gravado; com dados já presentes (banco persistente ou compartilhado), o
+ * snapshot não é restaurado nem regravado.
+ *
+ * Formato (GZIP): cabeçalho com versão, checksum e duração da carga original;
+ * depois, por tabela, as colunas (nome e tipo) e as linhas, cada uma precedida
+ * de um marcador. Os índices em memória são reconstruídos pelos serviços a
+ * partir do banco, como em qualquer inicialização.
+ */
+@Component
+public class SnapshotDados {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotDados.class);
+
+    private static final int VERSAO = 1;
+    private static final String[] ARQUIVOS = {"bibliotecarios.txt", "leitores.txt", "emprestimos.txt", "exemplares.txt"};
+    // Ordem de restauração respeita a chave estrangeira emprestimos → leitores
+    private static final String[] TABELAS = {"bibliotecarios", "leitores", "emprestimos", "exemplares"};
+    // Mesmo incremento das sequências (V3): a próxima reserva do Hibernate começa após o maior ID
+    private static final int ALOCACAO_IDS = 50;
+    private static final int LOTE_INSERT = 1_000;
+
+    private static final byte LINHA = 1;
+    private static final byte FIM_TABELA = 0;
+
+    private static final byte NULO = 0;
+    private static final byte INTEIRO = 1;
+    private static final byte DECIMAL = 2;
+    private static final byte BOOLEANO = 3;
+    private static final byte DATA = 4;
+    private static final byte DATA_HORA = 5;
+    private static final byte TEXTO = 6;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${biblioteca.snapshot.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${biblioteca.snapshot.arquivo:${user.home}/.biblioteca/biblioteca.snapshot}")
+    private Path arquivo;
+
+    private byte[] checksum;
+
+    // O snapshot só é gravado quando os loaders encheram um banco que estava vazio
+    private boolean bancoVazioNaCarga;
+
+    /**
+     * Restaura as tabelas do snapshot se ele corresponde aos arquivos de dados atuais;
+     * true se os dados vieram do snapshot (a carga dos arquivos texto deve ser pulada)
+     */
+    public boolean restaurar() {
+        if (!habilitado) {
+            return false;
+        }
+        try {
+            checksum = calcularChecksum();
+            bancoVazioNaCarga = bancoVazio();
+            if (!bancoVazioNaCarga) {
+                log.info("Banco já contém dados; snapshot não será restaurado nem gravado");
+                return false;
+            }
+            return Files.isRegularFile(arquivo) && restaurarArquivo();
+        } catch (Exception e) {
+            log.warn("⚠️  Snapshot ignorado ({}); carregando dos arquivos texto", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Grava o snapshot depois de uma carga feita pelos loaders em banco vazio
+     */
+    public void gravar(long duracaoCargaMs) {
+        if (!habilitado || checksum == null || !bancoVazioNaCarga) {
+            return;
+        }
+        try {
+            long inicio = System.nanoTime();
+            long linhas = gravarArquivo(duracaoCargaMs);
+            log.info("💾 Snapshot gravado em {}: {} linhas em {} ms", arquivo, linhas,
+                    (System.nanoTime() - inicio) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("⚠️  Não foi possível gravar o snapshot: {}", e.getMessage());
+        }
+    }
+
+    // ========== GRAVAÇÃO ==========
+
+    private long gravarArquivo(long duracaoCargaMs) throws IOException, SQLException {
+        Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        Path temporario = arquivo.toAbsolutePath().resolveSibling(arquivo.getFileName() + ".tmp");
+        long linhas = 0;
+
+        try (Connection conexao = dataSource.getConnection();
+             DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(
+                     new GZIPOutputStream(Files.newOutputStream(temporario), 1 << 16)))) {
+            saida.writeInt(VERSAO);
+            saida.writeInt(checksum.length);
+            saida.write(checksum);
+            saida.writeLong(duracaoCargaMs);
+
+            for (String tabela : TABELAS) {
+                try (Statement consulta = conexao.createStatement();
+                     ResultSet rs = consulta.executeQuery("SELECT * FROM " + tabela + " ORDER BY id")) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    byte[] tipos = new byte[meta.getColumnCount()];
+                    saida.writeUTF(tabela);
+                    saida.writeInt(tipos.length);
+                    for (int i = 0; i < tipos.length; i++) {
+                        tipos[i] = tipo(meta.getColumnType(i + 1), tabela + "." + meta.getColumnName(i + 1));
+                        saida.writeUTF(meta.getColumnName(i + 1).toLowerCase());
+                        saida.writeByte(tipos[i]);
+                    }
+                    while (rs.next()) {
+                        saida.writeByte(LINHA);
+                        for (int i = 0; i < tipos.length; i++) {
+                            escreverValor(saida, rs, i + 1, tipos[i]);
+                        }
+                        linhas++;
+                    }
+                    saida.writeByte(FIM_TABELA);
+                }
+            }
+        }
+
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return linhas;
+    }
+
+    private static void escreverValor(DataOutputStream saida, ResultSet rs, int coluna, byte tipo)
+            throws IOException, SQLException {
+        Object valor = rs.getObject(coluna);
+        if (valor == null) {
+            saida.writeByte(NULO);
+            return;
+        }
+        saida.writeByte(tipo);
+        switch (tipo) {
+            case INTEIRO -> saida.writeLong(rs.getLong(coluna));
+            case DECIMAL -> saida.writeDouble(rs.getDouble(coluna));
+            case BOOLEANO -> saida.writeBoolean(rs.getBoolean(coluna));
+            case DATA -> saida.writeLong(rs.getDate(coluna).toLocalDate().toEpochDay());
+            case DATA_HORA -> {
+                Timestamp instante = rs.getTimestamp(coluna);
+                saida.writeLong(instante.getTime());
+                saida.writeInt(instante.getNanos());
+            }
+            default -> saida.writeUTF(rs.getString(coluna));
+        }
+    }
+
+    private static byte tipo(int tipoSql, String coluna) {
+        return switch (tipoSql) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> INTEIRO;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> DECIMAL;
+            case Types.BOOLEAN, Types.BIT -> BOOLEANO;
+            case Types.DATE -> DATA;
+            case Types.TIMESTAMP -> DATA_HORA;
+            case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR, Types.NVARCHAR -> TEXTO;
+            default -> throw new IllegalStateException("Tipo SQL " + tipoSql + " não suportado em " + coluna);
+        };
+    }
+
+    // ========== RESTAURAÇÃO ==========
+
+    private boolean restaurarArquivo() throws IOException, SQLException {
+        long inicio = System.nanoTime();
+        long linhas = 0;
+        long duracaoCargaMs;
+
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(arquivo), 1 << 16)));
+             Connection conexao = dataSource.getConnection()) {
+            if (entrada.readInt() != VERSAO) {
+                log.info("Snapshot em versão antiga; carregando dos arquivos texto");
+                return false;
+            }
+            byte[] checksumGravado = new byte[entrada.readInt()];
+            entrada.readFully(checksumGravado);
+            if (!Arrays.equals(checksumGravado, checksum)) {
+                log.info("Arquivos de dados alterados desde o snapshot; carregando dos arquivos texto");
+                return false;
+            }
+            duracaoCargaMs = entrada.readLong();
+
+            Map<String, Long> maioresIds = new LinkedHashMap<>();
+            boolean autoCommit = conexao.getAutoCommit();
+            conexao.setAutoCommit(false);
+            try {
+                for (String tabela : TABELAS) {
+                    linhas += restaurarTabela(entrada, conexao, tabela, maioresIds);
+                }
+                conexao.commit();
+            } catch (IOException | SQLException | RuntimeException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                conexao.setAutoCommit(autoCommit);
+            }
+
+            // DDL confirma a transação no H2: as sequências só são ajustadas depois dos dados
+            try (Statement ajuste = conexao.createStatement()) {
+                for (Map.Entry<String, Long> maiorId : maioresIds.entrySet()) {
+                    ajuste.execute("ALTER SEQUENCE " + maiorId.getKey() + "_seq RESTART WITH "
+                            + (maiorId.getValue() + ALOCACAO_IDS + 1));
+                }
+            }
+        }
+        // Gravação direta via JDBC: nada do que estiver no cache de segundo nível vale mais
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("♻️  Snapshot restaurado: {} linhas em {} ms (carga dos arquivos texto: {} ms; economia de {} ms)",
+                linhas, duracaoMs, duracaoCargaMs, Math.max(0, duracaoCargaMs - duracaoMs));
+        return true;
+    }
+
+    private long restaurarTabela(DataInputStream entrada, Connection conexao, String tabela,
+                                 Map<String, Long> maioresIds) throws IOException, SQLException {
+        String gravada = entrada.readUTF();
+        if (!gravada.equals(tabela)) {
+            throw new IllegalStateException("tabela " + gravada + " fora de ordem");
+        }
+        int quantidade = entrada.readInt();
+        List<String> colunas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            colunas.add(entrada.readUTF());
+            entrada.readByte();
+        }
+        if (!colunas.equals(colunasAtuais(conexao, tabela))) {
+            throw new IllegalStateException("colunas de " + tabela + " mudaram desde o snapshot");
+        }
+
+        String sql = "INSERT INTO " + tabela + " (" + String.join(", ", colunas) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(quantidade, "?")) + ")";
+        long linhas = 0;
+        long maiorId = 0;
+        try (PreparedStatement insert = conexao.prepareStatement(sql)) {
+            while (entrada.readByte() == LINHA) {
+                for (int i = 1; i <= quantidade; i++) {
+                    Object valor = lerValor(entrada);
+                    insert.setObject(i, valor);
+                    if (i == 1 && valor instanceof Long id) {
+                        maiorId = Math.max(maiorId, id);
+                    }
+                }
+                insert.addBatch();
+                if (++linhas % LOTE_INSERT == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        maioresIds.put(tabela, maiorId);
+        return linhas;
+    }
+
+    private static Object lerValor(DataInputStream entrada) throws IOException {
+        return switch (entrada.readByte()) {
+            case NULO -> null;
+            case INTEIRO -> entrada.readLong();
+            case DECIMAL -> entrada.readDouble();
+            case BOOLEANO -> entrada.readBoolean();
+            case DATA -> Date.valueOf(LocalDate.ofEpochDay(entrada.readLong()));
+            case DATA_HORA -> {
+                Timestamp instante = new Timestamp(entrada.readLong());
+                instante.setNanos(entrada.readInt());
+                yield instante;
+            }
+            case TEXTO -> entrada.readUTF();
+            default -> throw new IOException("Valor com tipo desconhecido no snapshot");
+        };
+    }
+
+    // ========== AUXILIARES ==========
+
+    private List<String> colunasAtuais(Connection conexao, String tabela) throws SQLException {
+        try (Statement consulta = conexao.createStatement();
+             ResultSet rs = consulta.executeQuery("SELECT * FROM " + tabela + " WHERE 1 = 0")) {
+            ResultSetMetaData meta = rs.getMetaData();
+            List<String> colunas = new ArrayList<>(meta.getColumnCount());
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                colunas.add(meta.getColumnName(i).toLowerCase());
+            }
+            return colunas;
+        }
+    }
+
+    private boolean bancoVazio() throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement consulta = conexao.createStatement()) {
+            for (String tabela : TABELAS) {
+                try (ResultSet rs = consulta.executeQuery("SELECT COUNT(*) FROM " + tabela)) {
+                    if (rs.next() && rs.getLong(1) > 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * SHA-256 do conteúdo dos arquivos de dados, na ordem de carga
+     */
+    private byte[] calcularChecksum() throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = new byte[1 << 16];
+        for (String nome : ARQUIVOS) {
+            digest.update(nome.getBytes(StandardCharsets.UTF_8));
+            InputStream is = getClass().getClassLoader().getResourceAsStream("data/" + nome);
+            if (is == null) {
+                continue;
+            }
+            try (DigestInputStream leitura = new DigestInputStream(is, digest)) {
+                while (leitura.read(buffer) != -1) {
+                    // o digest é atualizado pela própria leitura
+                }
+            }
+        }
+        return digest.digest();
+    }
+}
@@ -0,0 +1,18 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.domain.ApuracaoMultas;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ApuracaoMultasRepository extends JpaRepository<ApuracaoMultas, Long> {
+
+    List<ApuracaoMultas> findAllByOrderByIdDesc();
+
+    Optional<ApuracaoMultas> findByDataReferencia(LocalDate dataReferencia);
+
+    List<ApuracaoMultas> findBySituacao(ApuracaoMultas.Situacao situacao);
+}
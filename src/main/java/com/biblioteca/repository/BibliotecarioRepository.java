@@ -1,10 +1,17 @@
 package com.biblioteca.repository;
 
 import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.dto.PessoaNome;
+import com.biblioteca.dto.VersaoTabela;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BibliotecarioRepository extends JpaRepository<Bibliotecario, Long> {
@@ -16,10 +23,37 @@ public interface BibliotecarioRepository extends JpaRepository<Bibliotecario, Lo
 
     List<Bibliotecario> findByAtivoTrue();
 
-    List<Bibliotecario> findByNomeContainingIgnoreCase(String nome);
-
     List<Bibliotecario> findBySalarioBetween(Double salarioMin, Double salarioMax);
 
-    List<Bibliotecario> findByNomeContainingIgnoreCaseAndAtivo(String nome, Boolean ativo);
-}
+    // Paginação por cursor (keyset) sobre o ID
+    List<Bibliotecario> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limite);
+
+    List<Bibliotecario> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    List<Bibliotecario> findByIdInAndAtivoOrderByIdAsc(Collection<Long> ids, Boolean ativo);
+
+    // Alimentação dos índices de nomes em memória
+    @Query("SELECT b.id AS id, b.nome AS nome FROM Bibliotecario b ORDER BY b.id")
+    Stream<PessoaNome> streamNomes();
+
+    // Carga inicial: verificação de duplicidade por bloco
+    @Query("SELECT b.cpf FROM Bibliotecario b WHERE b.cpf IN :cpfs")
+    List<String> buscarCpfsExistentes(@Param("cpfs") Collection<String> cpfs);
 
+    @Query("SELECT b.matricula FROM Bibliotecario b WHERE b.matricula IN :matriculas")
+    List<String> buscarMatriculasExistentes(@Param("matriculas") Collection<String> matriculas);
+
+    @Query("SELECT b.email FROM Bibliotecario b WHERE b.email IN :emails")
+    List<String> buscarEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT b.codigoFuncionario FROM Bibliotecario b WHERE b.codigoFuncionario IN :codigos")
+    List<String> buscarCodigosFuncionarioExistentes(@Param("codigos") Collection<String> codigos);
+
+    // Alimentação do filtro de Bloom de CPFs
+    @Query("SELECT b.cpf FROM Bibliotecario b")
+    Stream<String> streamCpfs();
+
+    // ETag das listagens: retrato agregado da tabela
+    @Query("SELECT new com.biblioteca.dto.VersaoTabela(COUNT(b), MAX(b.id), SUM(b.versao)) FROM Bibliotecario b")
+    VersaoTabela versaoTabela();
+}
@@ -2,10 +2,29 @@ package com.biblioteca.repository;
 
 import com.biblioteca.domain.Emprestimo;
 import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.ContagemId;
+import com.biblioteca.dto.ContagemIsbnDia;
+import com.biblioteca.dto.ContagemMes;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.EstatisticaDevolucoes;
+import com.biblioteca.dto.SituacaoEmprestimo;
+import com.biblioteca.dto.VencimentoEmprestimo;
+import com.biblioteca.dto.VersaoTabela;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmprestimoRepository extends JpaRepository<Emprestimo, Long> {
@@ -24,4 +43,125 @@ public interface EmprestimoRepository extends JpaRepository<Emprestimo, Long> {
     List<Emprestimo> findByLeitorIdAndDevolvido(Long leitorId, Boolean devolvido);
 
     List<Emprestimo> findByDataDevolucaoPrevistaBeforeAndDevolvidoFalse(LocalDate data);
-}
\ No newline at end of file
+
+    // Paginação por cursor (keyset) sobre o ID
+    List<Emprestimo> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limite);
+
+    List<Emprestimo> findByLeitorIdAndIdGreaterThanOrderByIdAsc(Long leitorId, Long cursor, Limit limite);
+
+    // Exportação em streaming: cursor JDBC com fetch size, sem materializar a lista
+    String FETCH_SIZE_EXPORTACAO = "1000";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Emprestimo> streamByOrderByIdAsc();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Emprestimo> streamByDevolvidoOrderByIdAsc(Boolean devolvido);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Emprestimo> streamByDataEmprestimoBetweenOrderByIdAsc(LocalDate inicio, LocalDate fim);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Emprestimo> streamByDataEmprestimoBetweenAndDevolvidoOrderByIdAsc(
+            LocalDate inicio, LocalDate fim, Boolean devolvido);
+
+    // Alimentação do autocompletar: frequência de cada título
+    @Query("SELECT e.tituloLivro AS texto, COUNT(e) AS quantidade FROM Emprestimo e GROUP BY e.tituloLivro")
+    List<ContagemTexto> contarPorTitulo();
+
+    // Disponibilidade: empréstimos em aberto de cada ISBN do acervo
+    @Query("SELECT e.isbn AS texto, COUNT(e) AS quantidade FROM Emprestimo e "
+            + "WHERE e.devolvido = false AND e.isbn IN (SELECT x.isbn FROM Exemplar x) GROUP BY e.isbn")
+    List<ContagemTexto> contarAbertosPorIsbnDoAcervo();
+
+    // Limite por leitor: empréstimos em aberto de cada leitor
+    @Query("SELECT e.leitor.id AS id, COUNT(e) AS quantidade FROM Emprestimo e "
+            + "WHERE e.devolvido = false GROUP BY e.leitor.id")
+    List<ContagemId> contarAbertosPorLeitor();
+
+    // Estatísticas: agregadas no banco, sem carregar os empréstimos
+    @Query("SELECT YEAR(e.dataEmprestimo) AS ano, MONTH(e.dataEmprestimo) AS mes, COUNT(e) AS quantidade "
+            + "FROM Emprestimo e WHERE e.dataEmprestimo IS NOT NULL "
+            + "GROUP BY YEAR(e.dataEmprestimo), MONTH(e.dataEmprestimo) ORDER BY ano, mes")
+    List<ContagemMes> contarPorMes();
+
+    @Query("SELECT l.fidelidade AS texto, COUNT(e) AS quantidade FROM Emprestimo e JOIN e.leitor l "
+            + "GROUP BY l.fidelidade ORDER BY quantidade DESC, texto")
+    List<ContagemTexto> contarPorFidelidade();
+
+    @Query("SELECT l.endereco.cidade AS texto, COUNT(e) AS quantidade FROM Emprestimo e JOIN e.leitor l "
+            + "GROUP BY l.endereco.cidade ORDER BY quantidade DESC, texto")
+    List<ContagemTexto> contarPorCidade();
+
+    @Query("SELECT new com.biblioteca.dto.EstatisticaDevolucoes(COUNT(e), "
+            + "SUM(CASE WHEN e.dataDevolucaoEfetiva <= e.dataDevolucaoPrevista THEN 1 ELSE 0 END), "
+            + "AVG((e.dataDevolucaoEfetiva - e.dataEmprestimo) BY DAY)) "
+            + "FROM Emprestimo e WHERE e.devolvido = true "
+            + "AND e.dataEmprestimo IS NOT NULL AND e.dataDevolucaoEfetiva IS NOT NULL "
+            + "AND e.dataDevolucaoPrevista IS NOT NULL")
+    EstatisticaDevolucoes resumirDevolucoes();
+
+    // Carga do ranking de títulos mais emprestados: retiradas por ISBN e dia desde a data
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.isbn AS isbn, MAX(e.tituloLivro) AS titulo, e.dataEmprestimo AS dia, COUNT(e) AS quantidade "
+            + "FROM Emprestimo e WHERE e.isbn IS NOT NULL AND e.dataEmprestimo >= :desde "
+            + "GROUP BY e.isbn, e.dataEmprestimo")
+    Stream<ContagemIsbnDia> streamRetiradasPorIsbnEDia(@Param("desde") LocalDate desde);
+
+    // Devolução em lote: lê a situação com bloqueio (FOR UPDATE) e devolve com um UPDATE set-based
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id AS id, e.leitor.id AS leitorId, e.isbn AS isbn, e.devolvido AS devolvido "
+            + "FROM Emprestimo e WHERE e.id IN :ids")
+    List<SituacaoEmprestimo> bloquearSituacaoPorIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id AS id, e.leitor.id AS leitorId, e.isbn AS isbn, e.devolvido AS devolvido "
+            + "FROM Emprestimo e WHERE e.leitor.id = :leitorId AND e.isbn IN :isbns ORDER BY e.id")
+    List<SituacaoEmprestimo> bloquearSituacaoPorLeitorEIsbns(
+            @Param("leitorId") Long leitorId, @Param("isbns") Collection<String> isbns);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Emprestimo e SET e.devolvido = true, e.dataDevolucaoEfetiva = :data, e.versao = e.versao + 1 "
+            + "WHERE e.id IN :ids AND e.devolvido = false")
+    int marcarDevolvidos(@Param("ids") Collection<Long> ids, @Param("data") LocalDate data);
+
+    // Renovação atômica: o prazo só avança se o empréstimo ainda estiver em aberto
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Emprestimo e SET e.dataDevolucaoPrevista = e.dataDevolucaoPrevista + :dias day, "
+            + "e.versao = e.versao + 1 WHERE e.id = :id AND e.devolvido = false")
+    int renovar(@Param("id") Long id, @Param("dias") int dias);
+
+    // Índice de vencimentos: carga/reconciliação dos empréstimos em aberto e releitura de IDs divergentes
+    String SELECT_VENCIMENTO = "SELECT e.id AS id, e.leitor.id AS leitorId, e.tituloLivro AS tituloLivro, "
+            + "e.autor AS autor, e.isbn AS isbn, e.dataEmprestimo AS dataEmprestimo, "
+            + "e.dataDevolucaoPrevista AS dataDevolucaoPrevista, e.devolvido AS devolvido FROM Emprestimo e ";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_VENCIMENTO + "WHERE e.devolvido = false ORDER BY e.id")
+    Stream<VencimentoEmprestimo> streamVencimentosEmAberto();
+
+    @Query(SELECT_VENCIMENTO + "WHERE e.id IN :ids")
+    List<VencimentoEmprestimo> buscarVencimentosPorIds(@Param("ids") Collection<Long> ids);
+
+    // ETag das listagens: retrato agregado da tabela
+    @Query("SELECT new com.biblioteca.dto.VersaoTabela(COUNT(e), MAX(e.id), SUM(e.versao)) FROM Emprestimo e")
+    VersaoTabela versaoTabela();
+}
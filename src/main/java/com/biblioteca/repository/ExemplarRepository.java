@@ -0,0 +1,18 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.dto.ContagemTexto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ExemplarRepository extends JpaRepository<Exemplar, Long> {
+
+    List<Exemplar> findByIsbnOrderByIdAsc(String isbn);
+
+    // Disponibilidade: quantidade de exemplares de cada ISBN
+    @Query("SELECT x.isbn AS texto, COUNT(x) AS quantidade FROM Exemplar x GROUP BY x.isbn")
+    List<ContagemTexto> contarPorIsbn();
+}
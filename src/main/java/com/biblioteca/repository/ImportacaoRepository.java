@@ -0,0 +1,20 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.domain.Importacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImportacaoRepository extends JpaRepository<Importacao, Long> {
+
+    List<Importacao> findAllByOrderByIdDesc();
+
+    // Última importação do arquivo que ainda pode ser retomada
+    Optional<Importacao> findFirstByArquivoAndSituacaoInOrderByIdDesc(String arquivo,
+                                                                       Collection<Importacao.Situacao> situacoes);
+
+    List<Importacao> findBySituacao(Importacao.Situacao situacao);
+}
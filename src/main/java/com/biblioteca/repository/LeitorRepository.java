@@ -1,11 +1,25 @@
 package com.biblioteca.repository;
 
 import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.CidadeLeitor;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.LeitorResumo;
+import com.biblioteca.dto.PessoaCpf;
+import com.biblioteca.dto.PessoaNome;
+import com.biblioteca.dto.VersaoTabela;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LeitorRepository extends JpaRepository<Leitor, Long> {
@@ -13,13 +27,82 @@ public interface LeitorRepository extends JpaRepository<Leitor, Long> {
     // Query Methods personalizados
     Optional<Leitor> findByCpf(String cpf);
 
+    // Consultas por fidelidade no cache de consultas (invalidadas quando as tabelas mudam)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Leitor> findByFidelidade(String fidelidade);
 
-    List<Leitor> findByNomeContainingIgnoreCase(String nome);
-
     List<Leitor> findByLimiteCreditoGreaterThanEqual(Double limiteMinimo);
 
     List<Leitor> findByDataUltimaLeituraAfter(LocalDate data);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Leitor> findByFidelidadeAndLimiteCreditoGreaterThan(String fidelidade, Double limite);
-}
\ No newline at end of file
+
+    // Paginação por cursor (keyset) sobre o ID
+    List<Leitor> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limite);
+
+    // Projeções com totais de empréstimos em uma única consulta (sem N+1)
+    String SELECT_RESUMO = "SELECT new com.biblioteca.dto.LeitorResumo("
+            + "l.id, l.nome, l.cpf, l.email, l.telefone, l.matricula, l.fidelidade, l.limiteCredito, "
+            + "l.ativo, l.dataCadastro, l.dataUltimaLeitura, l.endereco, l.versao, "
+            + "COUNT(e), "
+            + "SUM(CASE WHEN e.devolvido = false THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN e.devolvido = false AND e.dataDevolucaoPrevista < :hoje THEN 1 ELSE 0 END)) "
+            + "FROM Leitor l LEFT JOIN l.emprestimos e ";
+
+    String GROUP_BY_RESUMO = " GROUP BY l ORDER BY l.id";
+
+    @Query(SELECT_RESUMO + GROUP_BY_RESUMO)
+    List<LeitorResumo> listarResumos(@Param("hoje") LocalDate hoje);
+
+    @Query(SELECT_RESUMO + "WHERE l.id > :cursor" + GROUP_BY_RESUMO)
+    List<LeitorResumo> listarResumosAposId(@Param("cursor") Long cursor, @Param("hoje") LocalDate hoje, Limit limite);
+
+    @Query(SELECT_RESUMO + "WHERE l.id = :id" + GROUP_BY_RESUMO)
+    Optional<LeitorResumo> buscarResumoPorId(@Param("id") Long id, @Param("hoje") LocalDate hoje);
+
+    @Query(SELECT_RESUMO + "WHERE l.cpf = :cpf" + GROUP_BY_RESUMO)
+    Optional<LeitorResumo> buscarResumoPorCpf(@Param("cpf") String cpf, @Param("hoje") LocalDate hoje);
+
+    @Query(SELECT_RESUMO + "WHERE l.fidelidade = :fidelidade" + GROUP_BY_RESUMO)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<LeitorResumo> buscarResumosPorFidelidade(@Param("fidelidade") String fidelidade, @Param("hoje") LocalDate hoje);
+
+    @Query(SELECT_RESUMO + "WHERE l.id IN :ids" + GROUP_BY_RESUMO)
+    List<LeitorResumo> buscarResumosPorIds(@Param("ids") Collection<Long> ids, @Param("hoje") LocalDate hoje);
+
+    List<Leitor> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Alimentação dos índices de nomes em memória
+    @Query("SELECT l.id AS id, l.nome AS nome FROM Leitor l ORDER BY l.id")
+    Stream<PessoaNome> streamNomes();
+
+    // Alimentação do autocompletar: frequência de cada nome
+    @Query("SELECT l.nome AS texto, COUNT(l) AS quantidade FROM Leitor l GROUP BY l.nome")
+    List<ContagemTexto> contarPorNome();
+
+    // Cidade dos leitores de um bloco de empréstimos (leitores de carga associados só por referência)
+    @Query("SELECT l.id AS id, l.endereco.cidade AS cidade FROM Leitor l WHERE l.id IN :ids")
+    List<CidadeLeitor> buscarCidades(@Param("ids") Collection<Long> ids);
+
+    // Carga inicial: resolução CPF → ID e verificação de duplicidade por bloco
+    @Query("SELECT l.id AS id, l.cpf AS cpf FROM Leitor l")
+    List<PessoaCpf> listarCpfs();
+
+    @Query("SELECT l.cpf FROM Leitor l WHERE l.cpf IN :cpfs")
+    List<String> buscarCpfsExistentes(@Param("cpfs") Collection<String> cpfs);
+
+    @Query("SELECT l.email FROM Leitor l WHERE l.email IN :emails")
+    List<String> buscarEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT l.matricula FROM Leitor l WHERE l.matricula IN :matriculas")
+    List<String> buscarMatriculasExistentes(@Param("matriculas") Collection<String> matriculas);
+
+    // Alimentação do filtro de Bloom de CPFs
+    @Query("SELECT l.cpf FROM Leitor l")
+    Stream<String> streamCpfs();
+
+    // ETag das listagens: retrato agregado da tabela
+    @Query("SELECT new com.biblioteca.dto.VersaoTabela(COUNT(l), MAX(l.id), SUM(l.versao)) FROM Leitor l")
+    VersaoTabela versaoTabela();
+}
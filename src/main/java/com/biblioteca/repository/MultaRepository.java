@@ -0,0 +1,18 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.domain.Multa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface MultaRepository extends JpaRepository<Multa, Long> {
+
+    List<Multa> findByLeitorIdOrderByIdAsc(Long leitorId);
+
+    @Query("SELECT COALESCE(SUM(m.valor), 0) FROM Multa m WHERE m.leitorId = :leitorId")
+    BigDecimal somarPorLeitor(@Param("leitorId") Long leitorId);
+}
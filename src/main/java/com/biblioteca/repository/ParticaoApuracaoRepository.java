@@ -0,0 +1,18 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.domain.ApuracaoMultas;
+import com.biblioteca.domain.ParticaoApuracao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ParticaoApuracaoRepository extends JpaRepository<ParticaoApuracao, Long> {
+
+    List<ParticaoApuracao> findByApuracaoIdOrderByNumeroAsc(Long apuracaoId);
+
+    List<ParticaoApuracao> findByApuracaoIdAndSituacaoNotOrderByNumeroAsc(Long apuracaoId,
+                                                                          ApuracaoMultas.Situacao situacao);
+
+    List<ParticaoApuracao> findBySituacao(ApuracaoMultas.Situacao situacao);
+}
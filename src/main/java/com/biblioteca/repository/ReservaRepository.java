@@ -0,0 +1,24 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.dto.ContagemTexto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+
+    // Reservas ativas em ordem de chegada, para remontar as filas na inicialização
+    List<Reserva> findBySituacaoInOrderByIdAsc(Collection<Reserva.Situacao> situacoes);
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM Reserva r")
+    long buscarMaiorId();
+
+    // Disponibilidade: exemplares separados para reservas, por ISBN
+    @Query("SELECT r.isbn AS texto, COUNT(r) AS quantidade FROM Reserva r " +
+           "WHERE r.situacao = com.biblioteca.domain.Reserva.Situacao.DISPONIVEL GROUP BY r.isbn")
+    List<ContagemTexto> contarSeparadasPorIsbn();
+}
@@ -0,0 +1,45 @@
+package com.biblioteca.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Agenda ações para depois do commit da transação corrente
+ * Usado para manter estruturas em memória (índices) consistentes com o banco:
+ * se a transação sofrer rollback, a ação não é executada. Alterações feitas em
+ * memória antes do commit registram a compensação com seRollback.
+ */
+final class AposCommit {
+
+    private AposCommit() {}
+
+    static void executar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    /**
+     * Executa a ação (compensação) somente se a transação corrente for desfeita
+     */
+    static void seRollback(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    acao.run();
+                }
+            }
+        });
+    }
+}
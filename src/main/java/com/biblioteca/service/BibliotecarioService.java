@@ -1,14 +1,36 @@
 package com.biblioteca.service;
 
+import com.biblioteca.busca.FiltroBloom;
+import com.biblioteca.busca.IndiceTrigramas;
 import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.dto.Pagina;
+import com.biblioteca.dto.PessoaNome;
+import com.biblioteca.dto.VersaoTabela;
 import com.biblioteca.exception.DadosInvalidosException;
 import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.loader.DadosCarregadosEvent;
 import com.biblioteca.repository.BibliotecarioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Serviço para gerenciar Bibliotecários
@@ -21,6 +43,24 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
     @Autowired
     private BibliotecarioRepository repository;
 
+    @Autowired
+    private Paginacao paginacao;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Índice de trigramas sobre o nome, para buscas parciais sem varrer a tabela
+    private final IndiceTrigramas indiceNomes = new IndiceTrigramas();
+
+    @Value("${biblioteca.cpf-filtro.capacidade:1000000}")
+    private long capacidadeFiltroCpfs;
+
+    @Value("${biblioteca.cpf-filtro.taxa-falso-positivo:0.01}")
+    private double taxaFalsoPositivoCpfs;
+
+    // Filtro de Bloom dos CPFs cadastrados: dispensa a consulta prévia da maioria das inclusões
+    private volatile FiltroBloom cpfsCadastrados;
+
     /**
      * Inclui um novo bibliotecário no sistema
      * Feature 2 - Validações e verificação de duplicidade
@@ -29,17 +69,79 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
     public Bibliotecario incluir(Bibliotecario bibliotecario) {
         validarBibliotecario(bibliotecario);
 
-        // Verifica duplicidade de CPF
-        if (repository.findByCpf(bibliotecario.getCpf()).isPresent()) {
+        // Só CPFs que o filtro de Bloom aponta como possivelmente cadastrados são consultados antes;
+        // CPF e matrícula duplicados, inclusive entre inclusões concorrentes, são barrados pelas restrições no banco
+        if (cpfsCadastrados.talvezContenha(bibliotecario.getCpf())
+                && buscarOpcionalPorCpf(bibliotecario.getCpf()).isPresent()) {
             throw new DadosInvalidosException("CPF já cadastrado: " + bibliotecario.getCpf());
         }
 
-        // Verifica duplicidade de matrícula
-        if (repository.findByMatricula(bibliotecario.getMatricula()).isPresent()) {
-            throw new DadosInvalidosException("Matrícula já cadastrada: " + bibliotecario.getMatricula());
+        Bibliotecario salvo = gravar(bibliotecario);
+        AposCommit.executar(() -> {
+            cpfsCadastrados.adicionar(salvo.getCpf());
+            indiceNomes.indexar(salvo.getId(), salvo.getNome());
+        });
+        return salvo;
+    }
+
+    /**
+     * Inclui um bloco de bibliotecários da carga inicial em uma única transação
+     * CPF, e-mail, código de funcionário e matrícula já cadastrados são verificados com
+     * uma consulta (IN) cada para o bloco, e valores repetidos dentro do bloco valem só
+     * na primeira linha; itens inválidos são descartados e devolvidos com o motivo, pela
+     * posição na lista
+     */
+    public Map<Integer, String> incluirCarga(List<Bibliotecario> bibliotecarios) {
+        Set<String> cpfs = existentes(
+                bibliotecarios.stream().map(Bibliotecario::getCpf).filter(Objects::nonNull).toList(),
+                repository::buscarCpfsExistentes);
+        Set<String> emails = existentes(
+                bibliotecarios.stream().map(Bibliotecario::getEmail).filter(Objects::nonNull).toList(),
+                repository::buscarEmailsExistentes);
+        Set<String> codigos = existentes(
+                bibliotecarios.stream().map(Bibliotecario::getCodigoFuncionario).filter(Objects::nonNull).toList(),
+                repository::buscarCodigosFuncionarioExistentes);
+        Set<String> matriculas = existentes(
+                bibliotecarios.stream().map(Bibliotecario::getMatricula).filter(Objects::nonNull).toList(),
+                repository::buscarMatriculasExistentes);
+
+        Map<Integer, String> rejeitados = new LinkedHashMap<>();
+        List<Bibliotecario> validos = new ArrayList<>(bibliotecarios.size());
+        for (int i = 0; i < bibliotecarios.size(); i++) {
+            Bibliotecario bibliotecario = bibliotecarios.get(i);
+            try {
+                validarBibliotecario(bibliotecario);
+                if (cpfs.contains(bibliotecario.getCpf())) {
+                    throw new DadosInvalidosException("CPF já cadastrado: " + bibliotecario.getCpf());
+                }
+                if (bibliotecario.getEmail() != null && emails.contains(bibliotecario.getEmail())) {
+                    throw new DadosInvalidosException("Email já cadastrado: " + bibliotecario.getEmail());
+                }
+                if (codigos.contains(bibliotecario.getCodigoFuncionario())) {
+                    throw new DadosInvalidosException(
+                            "Código de funcionário já cadastrado: " + bibliotecario.getCodigoFuncionario());
+                }
+                if (matriculas.contains(bibliotecario.getMatricula())) {
+                    throw new DadosInvalidosException("Matrícula já cadastrada: " + bibliotecario.getMatricula());
+                }
+                cpfs.add(bibliotecario.getCpf());
+                if (bibliotecario.getEmail() != null) {
+                    emails.add(bibliotecario.getEmail());
+                }
+                codigos.add(bibliotecario.getCodigoFuncionario());
+                matriculas.add(bibliotecario.getMatricula());
+                validos.add(bibliotecario);
+            } catch (DadosInvalidosException e) {
+                rejeitados.put(i, e.getMessage());
+            }
         }
 
-        return repository.save(bibliotecario);
+        List<Bibliotecario> salvos = repository.saveAll(validos);
+        AposCommit.executar(() -> salvos.forEach(salvo -> {
+            cpfsCadastrados.adicionar(salvo.getCpf());
+            indiceNomes.indexar(salvo.getId(), salvo.getNome());
+        }));
+        return rejeitados;
     }
 
     /**
@@ -55,7 +157,17 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
         // Mantém o ID original
         bibliotecario.setId(existente.getId());
 
-        return repository.save(bibliotecario);
+        // Sem versão no corpo vale a atual; com ela, alterações concorrentes são barradas (bloqueio otimista)
+        if (bibliotecario.getVersao() == null) {
+            bibliotecario.setVersao(existente.getVersao());
+        }
+
+        Bibliotecario salvo = gravar(bibliotecario);
+        AposCommit.executar(() -> {
+            cpfsCadastrados.adicionar(salvo.getCpf());
+            indiceNomes.indexar(salvo.getId(), salvo.getNome());
+        });
+        return salvo;
     }
 
     /**
@@ -80,6 +192,27 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
         return repository.findAll();
     }
 
+    /**
+     * Lista os bibliotecários em páginas, usando o ID como cursor
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<Bibliotecario> listarPagina(Long cursor, Integer tamanho) {
+        int tamanhoPagina = paginacao.normalizarTamanho(tamanho);
+        List<Bibliotecario> resultado = repository.findByIdGreaterThanOrderByIdAsc(
+                paginacao.normalizarCursor(cursor), paginacao.limiteConsulta(tamanhoPagina));
+        return Pagina.de(resultado, tamanhoPagina, Bibliotecario::getId);
+    }
+
+    /**
+     * Retrato agregado da tabela, para as ETags das listagens
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VersaoTabela versaoTabela() {
+        return repository.versaoTabela();
+    }
+
     /**
      * Exclui um bibliotecário
      * Feature 2 - Operação DELETE
@@ -88,6 +221,7 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
     public void excluir(Long id) {
         buscarPorId(id); // Verifica se existe
         repository.deleteById(id);
+        AposCommit.executar(() -> indiceNomes.remover(id));
     }
 
     // ========== MÉTODOS ESPECÍFICOS (além do CRUD) ==========
@@ -120,11 +254,19 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
      */
     @Transactional(readOnly = true)
     public Bibliotecario buscarPorCpf(String cpf) {
-        return repository.findByCpf(cpf)
+        return buscarOpcionalPorCpf(cpf)
                 .orElseThrow(() -> new RecursoNaoEncontradoException(
                         "Bibliotecário não encontrado com CPF: " + cpf));
     }
 
+    /**
+     * Busca pelo CPF (identificador natural): CPF → ID vem do cache de natural-id
+     * e a entidade do cache de segundo nível, sem consulta ao banco quando ambos acertam
+     */
+    private Optional<Bibliotecario> buscarOpcionalPorCpf(String cpf) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Bibliotecario.class).loadOptional(cpf);
+    }
+
     /**
      * Lista apenas bibliotecários ativos
      * Feature 4 - Query Method
@@ -135,12 +277,13 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
     }
 
     /**
-     * Busca bibliotecários por nome (parcial, case insensitive)
-     * Feature 4 - Query Method com Containing e IgnoreCase
+     * Busca bibliotecários por nome (parcial, sem diferenciar maiúsculas e acentos)
+     * Responde pelo índice de trigramas, em páginas por cursor, e carrega apenas os IDs encontrados
      */
     @Transactional(readOnly = true)
-    public List<Bibliotecario> buscarPorNome(String nome) {
-        return repository.findByNomeContainingIgnoreCase(nome);
+    public Pagina<Bibliotecario> buscarPorNome(String nome, Long cursor, Integer tamanho) {
+        return paginacao.paginarBusca(indiceNomes, nome, cursor, tamanho,
+                repository::findByIdInOrderByIdAsc, Bibliotecario::getId);
     }
 
     /**
@@ -158,14 +301,77 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
     /**
      * Busca bibliotecários por nome e status ativo
      * Feature 4 - Query Method com múltiplos critérios
+     * O status é filtrado bloco a bloco, até completar a página
+     */
+    @Transactional(readOnly = true)
+    public Pagina<Bibliotecario> buscarPorNomeEAtivo(String nome, Boolean ehAtivo, Long cursor, Integer tamanho) {
+        return paginacao.paginarBusca(indiceNomes, nome, cursor, tamanho,
+                ids -> repository.findByIdInAndAtivoOrderByIdAsc(ids, ehAtivo), Bibliotecario::getId);
+    }
+
+    // ========== ÍNDICE DE NOMES ==========
+
+    /**
+     * Reconstrói o índice de nomes se ele divergir do banco na inicialização
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void sincronizarIndiceNomes() {
+        if (indiceNomes.total() == repository.count()) {
+            return;
+        }
+        indiceNomes.limpar();
+        try (Stream<PessoaNome> nomes = repository.streamNomes()) {
+            nomes.forEach(pessoa -> indiceNomes.indexar(pessoa.getId(), pessoa.getNome()));
+        }
+    }
+
+    // ========== FILTRO DE CPFS ==========
+
+    /**
+     * Cria o filtro de CPFs ao subir o contexto (vazio: nenhuma inclusão é recusada por ele)
+     */
+    @PostConstruct
+    void criarFiltroCpfs() {
+        cpfsCadastrados = new FiltroBloom(capacidadeFiltroCpfs, taxaFalsoPositivoCpfs);
+    }
+
+    /**
+     * Recria o filtro de CPFs a partir do banco se faltarem CPFs nele (ex.: dados restaurados do snapshot)
      */
+    @EventListener(DadosCarregadosEvent.class)
     @Transactional(readOnly = true)
-    public List<Bibliotecario> buscarPorNomeEAtivo(String nome, Boolean ehAtivo) {
-        return repository.findByNomeContainingIgnoreCaseAndAtivo(nome, ehAtivo);
+    public void sincronizarFiltroCpfs() {
+        long total = repository.count();
+        if (cpfsCadastrados.adicionados() >= total) {
+            return;
+        }
+        FiltroBloom filtro = new FiltroBloom(Math.max(capacidadeFiltroCpfs, total * 2), taxaFalsoPositivoCpfs);
+        try (Stream<String> cpfs = repository.streamCpfs()) {
+            cpfs.forEach(filtro::adicionar);
+        }
+        cpfsCadastrados = filtro;
     }
 
     // ========== VALIDAÇÕES PRIVADAS ==========
 
+    /**
+     * Grava com flush para que violações das restrições UNIQUE virem DadosInvalidosException aqui
+     */
+    private Bibliotecario gravar(Bibliotecario bibliotecario) {
+        return RestricoesUnicas.gravar(() -> repository.saveAndFlush(bibliotecario), Map.of(
+                "uk_bibliotecarios_cpf", "CPF já cadastrado: " + bibliotecario.getCpf(),
+                "uk_bibliotecarios_matricula", "Matrícula já cadastrada: " + bibliotecario.getMatricula(),
+                "uk_bibliotecarios_codigo_funcionario",
+                "Código de funcionário já cadastrado: " + bibliotecario.getCodigoFuncionario(),
+                "uk_bibliotecarios_email", "Email já cadastrado: " + bibliotecario.getEmail()));
+    }
+
+    // Valores do bloco que já estão no banco (uma consulta IN; nenhuma para bloco vazio)
+    private static Set<String> existentes(List<String> valores, Function<Collection<String>, List<String>> consulta) {
+        return valores.isEmpty() ? new HashSet<>() : new HashSet<>(consulta.apply(valores));
+    }
+
     /**
      * Valida os dados de um bibliotecário
      * Feature 2 - Validações de negócio
@@ -175,6 +381,10 @@ public class BibliotecarioService implements CrudService<Bibliotecario, Long> {
             throw new DadosInvalidosException("Nome é obrigatório");
         }
 
+        if (bibliotecario.getCodigoFuncionario() == null || bibliotecario.getCodigoFuncionario().trim().isEmpty()) {
+            throw new DadosInvalidosException("Código de funcionário é obrigatório");
+        }
+
         // Matrícula é String na entidade; validação por não vazio e formato opcional (apenas dígitos, mínimo 4)
         if (bibliotecario.getMatricula() == null || bibliotecario.getMatricula().trim().isEmpty()) {
             throw new DadosInvalidosException("Matrícula é obrigatória");
@@ -1,5 +1,8 @@
 package com.biblioteca.service;
 
+import com.biblioteca.dto.Pagina;
+import com.biblioteca.dto.VersaoTabela;
+
 import java.util.List;
 
 /**
@@ -40,6 +43,20 @@ public interface CrudService<T, ID> {
      */
     List<T> listarTodos();
 
+    /**
+     * Lista as entidades em páginas ordenadas por ID (paginação por cursor)
+     * @param cursor ID do último item da página anterior (null para a primeira página)
+     * @param tamanho Quantidade de itens por página (null para o padrão configurado)
+     * @return Página com os itens e o cursor da próxima página
+     */
+    Pagina<T> listarPagina(ID cursor, Integer tamanho);
+
+    /**
+     * Retrato agregado da tabela (linhas, maior ID e soma das versões), usado nas ETags das listagens
+     * @return Versão da tabela; muda a cada inclusão, alteração ou exclusão
+     */
+    VersaoTabela versaoTabela();
+
     /**
      * Exclui uma entidade
      * @param id Identificador da entidade a ser excluída
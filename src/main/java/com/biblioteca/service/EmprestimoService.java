@@ -1,16 +1,55 @@
 package com.biblioteca.service;
 
+import com.biblioteca.busca.EmprestimosAbertosPorLeitor;
+import com.biblioteca.busca.IndiceTextualEmprestimos;
+import com.biblioteca.busca.IndiceVencimentos;
+import com.biblioteca.busca.ResultadoBuscaTextual;
+import com.biblioteca.busca.TriePrefixos;
 import com.biblioteca.domain.Emprestimo;
 import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.ContagemId;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.DevolucaoLote;
+import com.biblioteca.dto.EmprestimoEncontrado;
+import com.biblioteca.dto.Pagina;
+import com.biblioteca.dto.ResultadoDevolucao;
+import com.biblioteca.dto.SituacaoEmprestimo;
+import com.biblioteca.dto.VencimentoEmprestimo;
+import com.biblioteca.dto.Sugestao;
+import com.biblioteca.dto.VersaoTabela;
 import com.biblioteca.exception.DadosInvalidosException;
 import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.loader.DadosCarregadosEvent;
 import com.biblioteca.repository.EmprestimoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Serviço para gerenciar Empréstimos
@@ -20,12 +59,77 @@ import java.util.List;
 @Transactional
 public class EmprestimoService implements CrudService<Emprestimo, Long> {
 
+    private static final int PROFUNDIDADE_MAXIMA_BUSCA = 10_000;
+
+    // Tamanho das listas IN usadas nas operações por lista de IDs
+    private static final int BLOCO_DEVOLUCAO = 1_000;
+
     @Autowired
     private EmprestimoRepository repository;
 
+    @Autowired
+    private Paginacao paginacao;
+
     @Autowired
     private LeitorService leitorService;
 
+    @Autowired
+    private ExemplarService exemplarService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private IndiceTextualEmprestimos indiceTextual;
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${biblioteca.lote.tamanho-maximo:10000}")
+    private int tamanhoMaximoLote;
+
+    // Árvore de prefixos dos títulos, ordenada pela quantidade de empréstimos
+    private final TriePrefixos autocompleteTitulos = new TriePrefixos();
+
+    // Empréstimos em aberto ordenados pela data prevista, para /emprestimos/atrasados
+    private final IndiceVencimentos indiceVencimentos = new IndiceVencimentos();
+
+    // Divergência encontrada na última reconciliação do índice de vencimentos
+    private final AtomicInteger divergenciaVencimentos = new AtomicInteger();
+
+    private Counter correcoesVencimentos;
+
+    // Empréstimos em aberto de cada leitor, para o limite por fidelidade
+    private final EmprestimosAbertosPorLeitor abertosPorLeitor = new EmprestimosAbertosPorLeitor();
+
+    @Value("${biblioteca.emprestimos.limite.bronze:3}")
+    private int limiteBronze;
+
+    @Value("${biblioteca.emprestimos.limite.prata:5}")
+    private int limitePrata;
+
+    @Value("${biblioteca.emprestimos.limite.ouro:8}")
+    private int limiteOuro;
+
+    @Value("${biblioteca.emprestimos.limite.diamante:12}")
+    private int limiteDiamante;
+
+    private Counter recusadosPorLimite;
+    private Counter correcoesLimite;
+
+    // Divergências dos contadores de abertos por leitor vistas na última reconciliação
+    private volatile Map<Long, Integer> divergenciasLimitePendentes = Map.of();
+
+    // Devoluções/renovações recusadas porque o empréstimo já estava devolvido
+    private Counter conflitosDevolucao;
+    private Counter conflitosRenovacao;
+
+    @Autowired
+    private MeterRegistry metricas;
+
     /**
      * Inclui um novo empréstimo no sistema
      * Feature 4 - Validações e associação com Leitor
@@ -40,7 +144,105 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
             emprestimo.setLeitor(leitor);
         }
 
-        return repository.save(emprestimo);
+        if (emAberto(emprestimo)) {
+            ocuparLimite(emprestimo.getLeitor());
+            reservaService.retirar(emprestimo.getIsbn(), leitorId(emprestimo));
+        }
+
+        Emprestimo salvo = repository.save(emprestimo);
+        estatisticaService.registrarRetiradas(List.of(salvo));
+        AposCommit.executar(() -> {
+            indiceTextual.indexar(salvo);
+            autocompleteTitulos.adicionar(salvo.getTituloLivro());
+            atualizarVencimento(salvo);
+        });
+        return salvo;
+    }
+
+    /**
+     * Inclui vários empréstimos em uma única transação
+     * Os leitores são carregados com uma só consulta (IN) e os INSERTs seguem
+     * em lotes JDBC (IDs por sequência + hibernate.jdbc.batch_size)
+     */
+    public List<Emprestimo> incluirLote(List<Emprestimo> emprestimos) {
+        if (emprestimos == null || emprestimos.isEmpty()) {
+            throw new DadosInvalidosException("Informe ao menos um empréstimo");
+        }
+        if (emprestimos.size() > tamanhoMaximoLote) {
+            throw new DadosInvalidosException(
+                    "O lote permite no máximo " + tamanhoMaximoLote + " empréstimos");
+        }
+
+        for (int i = 0; i < emprestimos.size(); i++) {
+            try {
+                validarEmprestimo(emprestimos.get(i));
+            } catch (DadosInvalidosException e) {
+                throw new DadosInvalidosException("Item " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+
+        Set<Long> leitorIds = emprestimos.stream()
+                .map(emprestimo -> emprestimo.getLeitor().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Leitor> leitores = leitorService.buscarPorIds(leitorIds);
+        emprestimos.forEach(emprestimo -> emprestimo.setLeitor(leitores.get(emprestimo.getLeitor().getId())));
+
+        // Um item sem exemplar disponível ou acima do limite do leitor desfaz o lote
+        // (e libera os exemplares e as vagas já ocupados)
+        for (int i = 0; i < emprestimos.size(); i++) {
+            if (emAberto(emprestimos.get(i))) {
+                try {
+                    ocuparLimite(emprestimos.get(i).getLeitor());
+                    reservaService.retirar(emprestimos.get(i).getIsbn(), leitorId(emprestimos.get(i)));
+                } catch (DadosInvalidosException e) {
+                    throw new DadosInvalidosException("Item " + (i + 1) + ": " + e.getMessage());
+                }
+            }
+        }
+
+        List<Emprestimo> salvos = repository.saveAll(emprestimos);
+        estatisticaService.registrarRetiradas(salvos);
+        AposCommit.executar(() -> salvos.forEach(salvo -> {
+            indiceTextual.indexar(salvo);
+            autocompleteTitulos.adicionar(salvo.getTituloLivro());
+            atualizarVencimento(salvo);
+        }));
+        return salvos;
+    }
+
+    /**
+     * Inclui um bloco de empréstimos da carga inicial em uma única transação
+     * O leitor de cada item já vem resolvido pelo ID (mapa CPF → ID do loader) e é
+     * associado por referência, sem SELECT; itens inválidos são descartados e
+     * devolvidos com o motivo, pela posição na lista
+     */
+    public Map<Integer, String> incluirCarga(List<Emprestimo> emprestimos) {
+        Map<Integer, String> rejeitados = new LinkedHashMap<>();
+        List<Emprestimo> validos = new ArrayList<>(emprestimos.size());
+        for (int i = 0; i < emprestimos.size(); i++) {
+            Emprestimo emprestimo = emprestimos.get(i);
+            try {
+                validarEmprestimo(emprestimo);
+                emprestimo.setLeitor(entityManager.getReference(Leitor.class, emprestimo.getLeitor().getId()));
+                validos.add(emprestimo);
+            } catch (DadosInvalidosException e) {
+                rejeitados.put(i, e.getMessage());
+            }
+        }
+
+        List<Emprestimo> salvos = repository.saveAll(validos);
+        estatisticaService.registrarRetiradas(salvos);
+        salvos.stream().filter(EmprestimoService::emAberto)
+                .forEach(salvo -> exemplarService.ocuparAposCommit(salvo.getIsbn()));
+        AposCommit.executar(() -> salvos.forEach(salvo -> {
+            if (emAberto(salvo)) {
+                abertosPorLeitor.somar(leitorId(salvo), 1);
+            }
+            indiceTextual.indexar(salvo);
+            autocompleteTitulos.adicionar(salvo.getTituloLivro());
+            atualizarVencimento(salvo);
+        }));
+        return rejeitados;
     }
 
     /**
@@ -49,18 +251,52 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
     @Override
     public Emprestimo alterar(Long id, Emprestimo emprestimo) {
         Emprestimo existente = buscarPorId(id);
+        String tituloAnterior = existente.getTituloLivro();
+        String isbnAnterior = existente.getIsbn();
+        Long leitorAnterior = leitorId(existente);
+        boolean abertoAntes = emAberto(existente);
         validarEmprestimo(emprestimo);
 
         // Mantém o ID original
         emprestimo.setId(existente.getId());
 
+        // Sem versão no corpo vale a atual; com ela, alterações concorrentes são barradas (bloqueio otimista)
+        if (emprestimo.getVersao() == null) {
+            emprestimo.setVersao(existente.getVersao());
+        }
+
         // Verifica se o leitor existe
         if (emprestimo.getLeitor() != null && emprestimo.getLeitor().getId() != null) {
             Leitor leitor = leitorService.buscarPorId(emprestimo.getLeitor().getId());
             emprestimo.setLeitor(leitor);
         }
 
-        return repository.save(emprestimo);
+        // Troca de ISBN ou reabertura ocupa um exemplar; troca ou devolução libera o anterior
+        boolean mesmoExemplar = abertoAntes && emAberto(emprestimo) && Objects.equals(isbnAnterior, emprestimo.getIsbn());
+        if (emAberto(emprestimo) && !mesmoExemplar) {
+            reservaService.retirar(emprestimo.getIsbn(), leitorId(emprestimo));
+        }
+        if (abertoAntes && !mesmoExemplar) {
+            reservaService.liberarAposCommit(isbnAnterior);
+        }
+
+        // Mesma regra para a vaga no limite do leitor (troca de leitor, reabertura ou devolução)
+        boolean mesmoLeitor = abertoAntes && emAberto(emprestimo) && Objects.equals(leitorAnterior, leitorId(emprestimo));
+        if (emAberto(emprestimo) && !mesmoLeitor) {
+            ocuparLimite(emprestimo.getLeitor());
+        }
+        if (abertoAntes && !mesmoLeitor) {
+            liberarLimiteAposCommit(leitorAnterior);
+        }
+
+        Emprestimo salvo = repository.save(emprestimo);
+        AposCommit.executar(() -> {
+            indiceTextual.indexar(salvo);
+            autocompleteTitulos.remover(tituloAnterior);
+            autocompleteTitulos.adicionar(salvo.getTituloLivro());
+            atualizarVencimento(salvo);
+        });
+        return salvo;
     }
 
     /**
@@ -83,13 +319,67 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
         return repository.findAll();
     }
 
+    /**
+     * Lista os empréstimos em páginas, usando o ID como cursor
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<Emprestimo> listarPagina(Long cursor, Integer tamanho) {
+        int tamanhoPagina = paginacao.normalizarTamanho(tamanho);
+        List<Emprestimo> resultado = repository.findByIdGreaterThanOrderByIdAsc(
+                paginacao.normalizarCursor(cursor), paginacao.limiteConsulta(tamanhoPagina));
+        return Pagina.de(resultado, tamanhoPagina, Emprestimo::getId);
+    }
+
+    /**
+     * Retrato agregado da tabela, para as ETags das listagens
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VersaoTabela versaoTabela() {
+        return repository.versaoTabela();
+    }
+
     /**
      * Exclui um empréstimo
      */
     @Override
     public void excluir(Long id) {
-        buscarPorId(id); // Verifica se existe
+        Emprestimo emprestimo = buscarPorId(id); // Verifica se existe
+        String titulo = emprestimo.getTituloLivro();
         repository.deleteById(id);
+        if (emAberto(emprestimo)) {
+            reservaService.liberarAposCommit(emprestimo.getIsbn());
+            liberarLimiteAposCommit(leitorId(emprestimo));
+        }
+        AposCommit.executar(() -> {
+            indiceTextual.remover(id);
+            autocompleteTitulos.remover(titulo);
+            indiceVencimentos.remover(id);
+        });
+    }
+
+    /**
+     * Empréstimos removidos junto com o leitor (cascade): depois do commit saem dos
+     * índices em memória, como em excluir, os exemplares dos que estavam em aberto
+     * são liberados e o contador de abertos do leitor é descartado
+     */
+    @EventListener
+    public void leitorExcluido(LeitorExcluidoEvent evento) {
+        Long leitorId = evento.getLeitorId();
+        AposCommit.executar(() -> abertosPorLeitor.remover(leitorId));
+        for (Emprestimo emprestimo : repository.findByLeitorId(evento.getLeitorId())) {
+            Long id = emprestimo.getId();
+            String titulo = emprestimo.getTituloLivro();
+            if (emAberto(emprestimo)) {
+                reservaService.liberarAposCommit(emprestimo.getIsbn());
+            }
+            AposCommit.executar(() -> {
+                indiceTextual.remover(id);
+                autocompleteTitulos.remover(titulo);
+                indiceVencimentos.remover(id);
+            });
+        }
     }
 
     // ========== MÉTODOS ESPECÍFICOS ==========
@@ -97,18 +387,44 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
     /**
      * Registra a devolução de um livro
      * Feature 4 - Método específico (PATCH)
+     *
+     * UPDATE condicional (devolvido = false no WHERE): entre devoluções simultâneas
+     * do mesmo empréstimo só uma o encontra em aberto, sem ler e gravar a linha inteira
      */
     public Emprestimo registrarDevolucao(Long id) {
-        Emprestimo emprestimo = buscarPorId(id);
-
-        if (emprestimo.getDevolvido()) {
+        if (repository.marcarDevolvidos(List.of(id), LocalDate.now()) == 0) {
+            buscarPorId(id);
+            conflitosDevolucao.increment();
             throw new DadosInvalidosException("Este livro já foi devolvido anteriormente");
         }
 
-        emprestimo.setDevolvido(true);
-        emprestimo.setDataDevolucaoReal(LocalDate.now());
+        Emprestimo devolvido = buscarPorId(id);
+        reservaService.liberarAposCommit(devolvido.getIsbn());
+        liberarLimiteAposCommit(leitorId(devolvido));
+        AposCommit.executar(() -> indiceVencimentos.remover(id));
+        return devolvido;
+    }
 
-        return repository.save(emprestimo);
+    /**
+     * Registra a devolução de vários empréstimos com UPDATEs set-based em blocos
+     * Aceita IDs de empréstimo, ou CPF do leitor + ISBNs; retorna a situação de cada item
+     */
+    public List<ResultadoDevolucao> registrarDevolucaoLote(DevolucaoLote pedido) {
+        boolean porIds = pedido.getIds() != null && !pedido.getIds().isEmpty();
+        boolean porIsbns = pedido.getIsbns() != null && !pedido.getIsbns().isEmpty();
+        if (porIds == porIsbns) {
+            throw new DadosInvalidosException("Informe os IDs dos empréstimos ou o CPF do leitor e os ISBNs");
+        }
+        int quantidade = porIds ? pedido.getIds().size() : pedido.getIsbns().size();
+        if (quantidade > tamanhoMaximoLote) {
+            throw new DadosInvalidosException(
+                    "O lote permite no máximo " + tamanhoMaximoLote + " itens");
+        }
+
+        LocalDate hoje = LocalDate.now();
+        return porIds
+                ? devolverPorIds(pedido.getIds(), hoje)
+                : devolverPorIsbns(pedido.getCpf(), pedido.getIsbns(), hoje);
     }
 
     /**
@@ -116,20 +432,112 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
      * Método específico adicional (PATCH)
      */
     public Emprestimo renovarEmprestimo(Long id, Integer diasAdicionais) {
-        Emprestimo emprestimo = buscarPorId(id);
+        if (diasAdicionais == null || diasAdicionais <= 0 || diasAdicionais > 30) {
+            throw new DadosInvalidosException("Dias adicionais deve estar entre 1 e 30");
+        }
 
-        if (emprestimo.getDevolvido()) {
+        // O prazo avança no próprio UPDATE, que só vale para empréstimo em aberto:
+        // renovações simultâneas se somam e nenhuma passa depois de uma devolução
+        if (repository.renovar(id, diasAdicionais) == 0) {
+            buscarPorId(id);
+            conflitosRenovacao.increment();
             throw new DadosInvalidosException("Não é possível renovar um livro já devolvido");
         }
 
-        if (diasAdicionais <= 0 || diasAdicionais > 30) {
-            throw new DadosInvalidosException("Dias adicionais deve estar entre 1 e 30");
-        }
+        Emprestimo salvo = buscarPorId(id);
+        AposCommit.executar(() -> atualizarVencimento(salvo));
+        return salvo;
+    }
 
-        LocalDate novaData = emprestimo.getDataDevolucaoPrevista().plusDays(diasAdicionais);
-        emprestimo.setDataDevolucaoPrevista(novaData);
+    @PostConstruct
+    void registrarMetricasConflitos() {
+        conflitosDevolucao = contadorConflitos("devolucao");
+        conflitosRenovacao = contadorConflitos("renovacao");
+    }
+
+    private Counter contadorConflitos(String operacao) {
+        return Counter.builder("biblioteca.emprestimos.conflitos")
+                .description("Operações recusadas porque o empréstimo já estava devolvido")
+                .tag("operacao", operacao)
+                .register(metricas);
+    }
+
+    private List<ResultadoDevolucao> devolverPorIds(List<Long> ids, LocalDate hoje) {
+        List<Long> distintos = ids.stream().distinct().toList();
+        List<ResultadoDevolucao> resultados = new ArrayList<>(distintos.size());
+
+        for (int inicio = 0; inicio < distintos.size(); inicio += BLOCO_DEVOLUCAO) {
+            List<Long> bloco = distintos.subList(inicio, Math.min(inicio + BLOCO_DEVOLUCAO, distintos.size()));
+            Map<Long, SituacaoEmprestimo> situacoes = repository.bloquearSituacaoPorIds(bloco).stream()
+                    .collect(Collectors.toMap(SituacaoEmprestimo::getId, Function.identity()));
+
+            List<Long> pendentes = new ArrayList<>();
+            for (Long id : bloco) {
+                SituacaoEmprestimo situacao = situacoes.get(id);
+                if (situacao == null) {
+                    resultados.add(new ResultadoDevolucao(id, null, ResultadoDevolucao.Situacao.NAO_ENCONTRADO));
+                } else if (Boolean.TRUE.equals(situacao.getDevolvido())) {
+                    resultados.add(new ResultadoDevolucao(id, situacao.getIsbn(), ResultadoDevolucao.Situacao.JA_DEVOLVIDO));
+                } else {
+                    pendentes.add(id);
+                    reservaService.liberarAposCommit(situacao.getIsbn());
+                    liberarLimiteAposCommit(situacao.getLeitorId());
+                    resultados.add(new ResultadoDevolucao(id, situacao.getIsbn(), ResultadoDevolucao.Situacao.DEVOLVIDO));
+                }
+            }
+            if (!pendentes.isEmpty()) {
+                repository.marcarDevolvidos(pendentes, hoje);
+                AposCommit.executar(() -> pendentes.forEach(indiceVencimentos::remover));
+            }
+        }
+        return resultados;
+    }
 
-        return repository.save(emprestimo);
+    /**
+     * Para cada ISBN, devolve os empréstimos em aberto do leitor; sem nenhum em aberto,
+     * informa o empréstimo mais recente como já devolvido
+     */
+    private List<ResultadoDevolucao> devolverPorIsbns(String cpf, List<String> isbns, LocalDate hoje) {
+        if (cpf == null || cpf.isBlank()) {
+            throw new DadosInvalidosException("Informe o CPF do leitor para devolver por ISBN");
+        }
+        Long leitorId = leitorService.buscarPorCpf(cpf).getId();
+        List<String> distintos = isbns.stream().distinct().toList();
+        List<ResultadoDevolucao> resultados = new ArrayList<>(distintos.size());
+
+        for (int inicio = 0; inicio < distintos.size(); inicio += BLOCO_DEVOLUCAO) {
+            List<String> bloco = distintos.subList(inicio, Math.min(inicio + BLOCO_DEVOLUCAO, distintos.size()));
+            Map<String, List<SituacaoEmprestimo>> porIsbn = repository
+                    .bloquearSituacaoPorLeitorEIsbns(leitorId, bloco).stream()
+                    .collect(Collectors.groupingBy(SituacaoEmprestimo::getIsbn));
+
+            List<Long> pendentes = new ArrayList<>();
+            for (String isbn : bloco) {
+                List<SituacaoEmprestimo> emprestimos = porIsbn.getOrDefault(isbn, List.of());
+                List<Long> abertos = emprestimos.stream()
+                        .filter(situacao -> !Boolean.TRUE.equals(situacao.getDevolvido()))
+                        .map(SituacaoEmprestimo::getId)
+                        .toList();
+                if (emprestimos.isEmpty()) {
+                    resultados.add(new ResultadoDevolucao(null, isbn, ResultadoDevolucao.Situacao.NAO_ENCONTRADO));
+                } else if (abertos.isEmpty()) {
+                    Long maisRecente = emprestimos.get(emprestimos.size() - 1).getId();
+                    resultados.add(new ResultadoDevolucao(maisRecente, isbn, ResultadoDevolucao.Situacao.JA_DEVOLVIDO));
+                } else {
+                    pendentes.addAll(abertos);
+                    abertos.forEach(id -> {
+                        reservaService.liberarAposCommit(isbn);
+                        liberarLimiteAposCommit(leitorId);
+                        resultados.add(new ResultadoDevolucao(id, isbn, ResultadoDevolucao.Situacao.DEVOLVIDO));
+                    });
+                }
+            }
+            if (!pendentes.isEmpty()) {
+                repository.marcarDevolvidos(pendentes, hoje);
+                AposCommit.executar(() -> pendentes.forEach(indiceVencimentos::remover));
+            }
+        }
+        return resultados;
     }
 
     // ========== QUERY METHODS ==========
@@ -143,6 +551,18 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
         return repository.findByLeitorId(leitorId);
     }
 
+    /**
+     * Lista empréstimos de um leitor em páginas, usando o ID como cursor
+     */
+    @Transactional(readOnly = true)
+    public Pagina<Emprestimo> listarPaginaPorLeitor(Long leitorId, Long cursor, Integer tamanho) {
+        leitorService.buscarPorId(leitorId); // Verifica se existe
+        int tamanhoPagina = paginacao.normalizarTamanho(tamanho);
+        List<Emprestimo> resultado = repository.findByLeitorIdAndIdGreaterThanOrderByIdAsc(
+                leitorId, paginacao.normalizarCursor(cursor), paginacao.limiteConsulta(tamanhoPagina));
+        return Pagina.de(resultado, tamanhoPagina, Emprestimo::getId);
+    }
+
     /**
      * Lista empréstimos ativos (não devolvidos)
      * Feature 4 - Query Method
@@ -170,6 +590,46 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
         return repository.findByTituloLivroContainingIgnoreCase(titulo);
     }
 
+    /**
+     * Busca textual por título, autor ou ISBN, ordenada por relevância
+     * Usa o índice Lucene; o cursor é a posição do próximo item no ranking
+     */
+    @Transactional(readOnly = true)
+    public Pagina<EmprestimoEncontrado> buscarTexto(String texto, Long cursor, Integer tamanho) {
+        if (texto == null || texto.trim().isEmpty()) {
+            throw new DadosInvalidosException("Informe o texto da busca");
+        }
+
+        int tamanhoPagina = paginacao.normalizarTamanho(tamanho);
+        long posicao = paginacao.normalizarCursor(cursor);
+        if (posicao > PROFUNDIDADE_MAXIMA_BUSCA) {
+            throw new DadosInvalidosException(
+                    "A busca permite navegar até a posição " + PROFUNDIDADE_MAXIMA_BUSCA + "; refine o texto");
+        }
+        int inicio = (int) posicao;
+        ResultadoBuscaTextual resultado = indiceTextual.buscar(texto, inicio, tamanhoPagina);
+
+        List<Long> ids = resultado.getAcertos().stream().map(ResultadoBuscaTextual.Acerto::getId).toList();
+        Map<Long, Emprestimo> porId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Emprestimo::getId, Function.identity()));
+
+        List<EmprestimoEncontrado> itens = resultado.getAcertos().stream()
+                .filter(acerto -> porId.containsKey(acerto.getId()))
+                .map(acerto -> new EmprestimoEncontrado(porId.get(acerto.getId()), acerto.getRelevancia()))
+                .toList();
+
+        long fim = inicio + resultado.getAcertos().size();
+        return new Pagina<>(itens, tamanhoPagina, fim < resultado.getTotal() ? fim : null);
+    }
+
+    /**
+     * Sugestões de títulos que começam com o prefixo, dos mais emprestados para os menos
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Sugestao> sugerirTitulos(String prefixo, int limite) {
+        return autocompleteTitulos.sugerir(prefixo, limite);
+    }
+
     /**
      * Busca empréstimos em um período
      * Feature 4 - Query Method com Between
@@ -184,11 +644,11 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
 
     /**
      * Lista empréstimos atrasados (não devolvidos e com prazo vencido)
-     * Feature 4 - Query Method complexo com múltiplos critérios
+     * Respondido pelo índice de vencimentos em memória, em ordem de data prevista
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Emprestimo> listarAtrasados() {
-        return repository.findByDataDevolucaoPrevistaBeforeAndDevolvidoFalse(LocalDate.now());
+        return indiceVencimentos.atrasadosEm(LocalDate.now());
     }
 
     /**
@@ -200,6 +660,292 @@ public class EmprestimoService implements CrudService<Emprestimo, Long> {
         return repository.findByLeitorIdAndDevolvido(leitorId, devolvido);
     }
 
+    // ========== EXPORTAÇÃO ==========
+
+    /**
+     * Valida os filtros da exportação antes de iniciar o streaming
+     * O período é opcional, mas se informado precisa ter início e fim
+     */
+    public void validarFiltroExportacao(LocalDate inicio, LocalDate fim) {
+        if ((inicio == null) != (fim == null)) {
+            throw new DadosInvalidosException("Informe data inicial e data final para filtrar por período");
+        }
+        if (inicio != null && inicio.isAfter(fim)) {
+            throw new DadosInvalidosException("Data inicial não pode ser posterior à data final");
+        }
+    }
+
+    /**
+     * Percorre os empréstimos em streaming, entregando um a um ao destino
+     * Cada entidade é desanexada após o uso e o contexto de persistência é
+     * limpo periodicamente, mantendo o consumo de memória constante
+     */
+    @Transactional(readOnly = true)
+    public long exportar(LocalDate inicio, LocalDate fim, Boolean devolvido, Consumer<Emprestimo> destino) {
+        validarFiltroExportacao(inicio, fim);
+        int limpeza = Integer.parseInt(EmprestimoRepository.FETCH_SIZE_EXPORTACAO);
+        long total = 0;
+
+        try (Stream<Emprestimo> emprestimos = abrirStreamExportacao(inicio, fim, devolvido)) {
+            Iterator<Emprestimo> iterador = emprestimos.iterator();
+            while (iterador.hasNext()) {
+                Emprestimo emprestimo = iterador.next();
+                destino.accept(emprestimo);
+                entityManager.detach(emprestimo);
+                if (++total % limpeza == 0) {
+                    entityManager.clear(); // libera também os leitores carregados
+                }
+            }
+        }
+        return total;
+    }
+
+    private Stream<Emprestimo> abrirStreamExportacao(LocalDate inicio, LocalDate fim, Boolean devolvido) {
+        if (inicio != null && devolvido != null) {
+            return repository.streamByDataEmprestimoBetweenAndDevolvidoOrderByIdAsc(inicio, fim, devolvido);
+        }
+        if (inicio != null) {
+            return repository.streamByDataEmprestimoBetweenOrderByIdAsc(inicio, fim);
+        }
+        if (devolvido != null) {
+            return repository.streamByDevolvidoOrderByIdAsc(devolvido);
+        }
+        return repository.streamByOrderByIdAsc();
+    }
+
+    // ========== ÍNDICE TEXTUAL ==========
+
+    /**
+     * Reconstrói o índice textual se ele divergir do banco na inicialização
+     * (por exemplo, dados inseridos fora do serviço)
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void sincronizarIndiceTextual() {
+        if (indiceTextual.total() == repository.count()) {
+            return;
+        }
+        indiceTextual.limpar();
+        exportar(null, null, null, indiceTextual::indexar);
+    }
+
+    /**
+     * Monta o autocompletar de títulos a partir das contagens agrupadas no banco
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void sincronizarAutocompleteTitulos() {
+        if (autocompleteTitulos.ocorrencias() == repository.count()) {
+            return;
+        }
+        autocompleteTitulos.limpar();
+        for (ContagemTexto contagem : repository.contarPorTitulo()) {
+            autocompleteTitulos.adicionar(contagem.getTexto(), contagem.getQuantidade());
+        }
+    }
+
+    // ========== ÍNDICE DE VENCIMENTOS ==========
+
+    @PostConstruct
+    void registrarMetricasVencimentos() {
+        Gauge.builder("biblioteca.atrasados.indice.tamanho", indiceVencimentos, IndiceVencimentos::total)
+                .description("Empréstimos em aberto no índice de vencimentos")
+                .register(metricas);
+        Gauge.builder("biblioteca.atrasados.indice.divergencia", divergenciaVencimentos, AtomicInteger::get)
+                .description("Entradas corrigidas na última reconciliação com o banco")
+                .register(metricas);
+        correcoesVencimentos = Counter.builder("biblioteca.atrasados.indice.correcoes")
+                .description("Total de entradas corrigidas pelas reconciliações")
+                .register(metricas);
+    }
+
+    /**
+     * Carrega o índice de vencimentos com os empréstimos em aberto na inicialização
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void carregarIndiceVencimentos() {
+        indiceVencimentos.limpar();
+        try (Stream<VencimentoEmprestimo> abertos = repository.streamVencimentosEmAberto()) {
+            abertos.forEach(indiceVencimentos::registrar);
+        }
+    }
+
+    /**
+     * Confere o índice de vencimentos com o banco e corrige as divergências
+     * (por exemplo, alterações feitas fora do serviço). Percorre os abertos em
+     * ordem de ID junto com os IDs do índice; os divergentes são relidos antes
+     * da correção, para não desfazer alterações confirmadas durante a varredura.
+     * Retorna a quantidade de entradas corrigidas.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.atrasados.reconciliacao-intervalo:PT5M}",
+            initialDelayString = "${biblioteca.atrasados.reconciliacao-intervalo:PT5M}")
+    @Transactional(readOnly = true)
+    public int reconciliarIndiceVencimentos() {
+        long[] noIndice = indiceVencimentos.ids().stream().mapToLong(Long::longValue).sorted().toArray();
+        List<Long> divergentes = new ArrayList<>();
+        int[] posicao = {0};
+
+        try (Stream<VencimentoEmprestimo> abertos = repository.streamVencimentosEmAberto()) {
+            abertos.forEach(v -> {
+                // IDs do índice menores que o atual não estão em aberto no banco
+                while (posicao[0] < noIndice.length && noIndice[posicao[0]] < v.getId()) {
+                    divergentes.add(noIndice[posicao[0]++]);
+                }
+                if (posicao[0] < noIndice.length && noIndice[posicao[0]] == v.getId()) {
+                    posicao[0]++;
+                }
+                if (!indiceVencimentos.coincide(v)) {
+                    divergentes.add(v.getId());
+                }
+            });
+        }
+        while (posicao[0] < noIndice.length) {
+            divergentes.add(noIndice[posicao[0]++]);
+        }
+
+        for (int inicio = 0; inicio < divergentes.size(); inicio += BLOCO_DEVOLUCAO) {
+            List<Long> bloco = divergentes.subList(inicio, Math.min(inicio + BLOCO_DEVOLUCAO, divergentes.size()));
+            Map<Long, VencimentoEmprestimo> atuais = repository.buscarVencimentosPorIds(bloco).stream()
+                    .collect(Collectors.toMap(VencimentoEmprestimo::getId, Function.identity()));
+            for (Long id : bloco) {
+                VencimentoEmprestimo atual = atuais.get(id);
+                if (atual == null || Boolean.TRUE.equals(atual.getDevolvido())) {
+                    indiceVencimentos.remover(id);
+                } else {
+                    indiceVencimentos.registrar(atual);
+                }
+            }
+        }
+
+        divergenciaVencimentos.set(divergentes.size());
+        correcoesVencimentos.increment(divergentes.size());
+        return divergentes.size();
+    }
+
+    private void atualizarVencimento(Emprestimo emprestimo) {
+        if (Boolean.TRUE.equals(emprestimo.getDevolvido())) {
+            indiceVencimentos.remover(emprestimo.getId());
+        } else {
+            indiceVencimentos.registrar(emprestimo);
+        }
+    }
+
+    // ========== LIMITE DE EMPRÉSTIMOS POR LEITOR ==========
+
+    @PostConstruct
+    void registrarMetricasLimite() {
+        recusadosPorLimite = Counter.builder("biblioteca.emprestimos.limite-recusados")
+                .description("Empréstimos recusados porque o leitor atingiu o limite da fidelidade")
+                .register(metricas);
+        correcoesLimite = Counter.builder("biblioteca.emprestimos.limite.reconciliacao.correcoes")
+                .description("Leitores cujo contador de abertos foi corrigido pela reconciliação")
+                .register(metricas);
+    }
+
+    /**
+     * Monta os contadores de empréstimos em aberto por leitor na inicialização
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void carregarAbertosPorLeitor() {
+        abertosPorLeitor.limpar();
+        for (ContagemId contagem : repository.contarAbertosPorLeitor()) {
+            abertosPorLeitor.somar(contagem.getId(), contagem.getQuantidade().intValue());
+        }
+        divergenciasLimitePendentes = Map.of();
+    }
+
+    /**
+     * Confere os contadores de abertos por leitor com o banco (por exemplo, SQL
+     * direto ou ajuste após o commit que não chegou a rodar). Como nos contadores
+     * de exemplares, uma divergência só é corrigida quando aparece igual na rodada
+     * anterior, e a correção é somada ao contador, sem sobrescrever retiradas e
+     * devoluções concorrentes. Retorna a quantidade de leitores corrigidos.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.emprestimos.limite.reconciliacao-intervalo:PT5M}",
+            initialDelayString = "${biblioteca.emprestimos.limite.reconciliacao-intervalo:PT5M}")
+    @Transactional(readOnly = true)
+    public int reconciliarAbertosPorLeitor() {
+        Map<Long, Integer> noBanco = new HashMap<>();
+        for (ContagemId contagem : repository.contarAbertosPorLeitor()) {
+            noBanco.put(contagem.getId(), contagem.getQuantidade().intValue());
+        }
+
+        Set<Long> leitores = new HashSet<>(noBanco.keySet());
+        leitores.addAll(abertosPorLeitor.leitores());
+        Map<Long, Integer> anteriores = divergenciasLimitePendentes;
+        Map<Long, Integer> pendentes = new HashMap<>();
+        int corrigidos = 0;
+        for (Long leitorId : leitores) {
+            int diferenca = noBanco.getOrDefault(leitorId, 0) - abertosPorLeitor.abertos(leitorId);
+            if (diferenca == 0) {
+                continue;
+            }
+            if (Integer.valueOf(diferenca).equals(anteriores.get(leitorId))) {
+                abertosPorLeitor.somar(leitorId, diferenca);
+                corrigidos++;
+            } else {
+                pendentes.put(leitorId, diferenca);
+            }
+        }
+        divergenciasLimitePendentes = pendentes;
+
+        correcoesLimite.increment(corrigidos);
+        return corrigidos;
+    }
+
+    /**
+     * Empréstimos em aberto do leitor, pelo contador em memória
+     */
+    public int contarAbertosDoLeitor(Long leitorId) {
+        return abertosPorLeitor.abertos(leitorId);
+    }
+
+    /**
+     * Máximo de empréstimos em aberto para a fidelidade do leitor (sem fidelidade: BRONZE)
+     */
+    int limiteEmprestimos(String fidelidade) {
+        if (fidelidade == null) {
+            return limiteBronze;
+        }
+        return switch (fidelidade) {
+            case "PRATA" -> limitePrata;
+            case "OURO" -> limiteOuro;
+            case "DIAMANTE" -> limiteDiamante;
+            default -> limiteBronze;
+        };
+    }
+
+    /**
+     * Ocupa uma vaga no limite do leitor na transação corrente; desfeita no rollback
+     * O leitor já vem carregado (cache de segundo nível), então não há consulta a mais
+     */
+    private void ocuparLimite(Leitor leitor) {
+        Long id = leitor.getId();
+        int limite = limiteEmprestimos(leitor.getFidelidade());
+        if (!abertosPorLeitor.ocupar(id, limite)) {
+            recusadosPorLimite.increment();
+            throw new DadosInvalidosException("O leitor atingiu o limite de " + limite
+                    + " empréstimos em aberto da fidelidade " + (leitor.getFidelidade() == null ? "BRONZE" : leitor.getFidelidade()));
+        }
+        AposCommit.seRollback(() -> abertosPorLeitor.somar(id, -1));
+    }
+
+    private void liberarLimiteAposCommit(Long leitorId) {
+        if (leitorId != null) {
+            AposCommit.executar(() -> abertosPorLeitor.somar(leitorId, -1));
+        }
+    }
+
+    private static Long leitorId(Emprestimo emprestimo) {
+        return emprestimo.getLeitor() == null ? null : emprestimo.getLeitor().getId();
+    }
+
+    private static boolean emAberto(Emprestimo emprestimo) {
+        return !Boolean.TRUE.equals(emprestimo.getDevolvido());
+    }
+
     // ========== VALIDAÇÕES PRIVADAS ==========
 
     /**
@@ -0,0 +1,345 @@
+package com.biblioteca.service;
+
+import com.biblioteca.busca.HyperLogLog;
+import com.biblioteca.busca.LeitoresPorPeriodo;
+import com.biblioteca.busca.ResumoFrequencias;
+import com.biblioteca.busca.TitulosMaisEmprestados;
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.ContagemIsbnDia;
+import com.biblioteca.dto.ContagemMes;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.EstatisticaDevolucoes;
+import com.biblioteca.dto.EstimativaLeitores;
+import com.biblioteca.dto.RankingTitulos;
+import com.biblioteca.dto.TituloFrequente;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.loader.DadosCarregadosEvent;
+import com.biblioteca.repository.EmprestimoRepository;
+import com.biblioteca.repository.LeitorRepository;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Estatísticas de empréstimos
+ *
+ * Cada número é uma consulta agregada (GROUP BY) no banco: nenhum empréstimo é
+ * carregado e o resultado tem uma linha por grupo. Fidelidade e cidade são as
+ * atuais do leitor. Os controllers respondem com ETag do retrato das tabelas,
+ * então clientes que repetem a consulta sem mudanças recebem 304 sem agregar de novo.
+ * O ranking de títulos mais emprestados e os leitores distintos são a exceção:
+ * vêm de resumos em memória, alimentados a cada retirada confirmada.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EstatisticaService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticaService.class);
+
+    public static final String JANELA_PADRAO = "30d";
+    private static final Pattern JANELA = Pattern.compile("(\\d{1,3})d");
+    private static final int BLOCO_GRAVACAO = 1_000;
+
+    private static final String SQL_GRAVAR_LEITORES = "MERGE INTO leitores_distintos "
+            + "(dimensao, valor, mes, registros, estimativa, ultimo_emprestimo_id, atualizado_em) "
+            + "KEY (dimensao, valor, mes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_RESUMOS_GRAVADOS = "SELECT dimensao, valor, mes, registros, "
+            + "ultimo_emprestimo_id FROM leitores_distintos WHERE mes >= ?";
+
+    // Cidade atual do leitor: a da época da retirada só existe nos resumos gravados
+    private static final String SQL_RETIRADAS_POSTERIORES = "SELECT e.id, e.leitor_id, e.isbn, l.cidade, "
+            + "COALESCE(e.data_emprestimo, CURRENT_DATE) FROM emprestimos e JOIN leitores l ON l.id = e.leitor_id "
+            + "WHERE e.id > ? AND COALESCE(e.data_emprestimo, CURRENT_DATE) >= ?";
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @Value("${biblioteca.estatisticas.top-titulos.capacidade:256}")
+    private int capacidadeTopTitulos;
+
+    @Value("${biblioteca.estatisticas.leitores-distintos.precisao:12}")
+    private int precisaoLeitoresDistintos;
+
+    @Value("${biblioteca.estatisticas.leitores-distintos.meses:24}")
+    private int mesesLeitoresDistintos;
+
+    private TitulosMaisEmprestados topTitulos;
+
+    private LeitoresPorPeriodo leitoresDistintos;
+
+    // Maior empréstimo contado nos leitores distintos (gravado junto com os resumos)
+    private final AtomicLong ultimoEmprestimoContado = new AtomicLong();
+
+    // Só grava depois de unir os resumos já gravados, para não sobrescrevê-los
+    private volatile boolean leitoresDistintosCarregados;
+
+    @PostConstruct
+    void criarResumos() {
+        topTitulos = new TitulosMaisEmprestados(capacidadeTopTitulos);
+        leitoresDistintos = new LeitoresPorPeriodo(precisaoLeitoresDistintos);
+    }
+
+    /**
+     * Empréstimos por mês de retirada, em ordem cronológica
+     */
+    public List<ContagemMes> emprestimosPorMes() {
+        return emprestimoRepository.contarPorMes();
+    }
+
+    /**
+     * Empréstimos por categoria de fidelidade do leitor, da maior quantidade para a menor
+     */
+    public List<ContagemTexto> emprestimosPorFidelidade() {
+        return emprestimoRepository.contarPorFidelidade();
+    }
+
+    /**
+     * Empréstimos por cidade do endereço do leitor, da maior quantidade para a menor
+     */
+    public List<ContagemTexto> emprestimosPorCidade() {
+        return emprestimoRepository.contarPorCidade();
+    }
+
+    /**
+     * Taxa de devolução no prazo e duração média dos empréstimos devolvidos
+     */
+    public EstatisticaDevolucoes devolucoes() {
+        return emprestimoRepository.resumirDevolucoes();
+    }
+
+    // ========== TÍTULOS MAIS EMPRESTADOS ==========
+
+    /**
+     * Títulos mais emprestados na janela ("7d", "30d", "365d"...), com o erro máximo de cada contagem
+     */
+    public RankingTitulos topTitulos(String janela, int limite) {
+        String informada = janela == null || janela.isBlank() ? JANELA_PADRAO : janela.trim().toLowerCase();
+        Matcher matcher = JANELA.matcher(informada);
+        int dias = matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+        if (dias < 1 || dias > TitulosMaisEmprestados.DIAS_MAXIMOS) {
+            throw new DadosInvalidosException("Janela inválida: use a quantidade de dias seguida de 'd', de 1d a "
+                    + TitulosMaisEmprestados.DIAS_MAXIMOS + "d (ex.: 7d, 30d, 365d)");
+        }
+        if (limite < 1 || limite > topTitulos.capacidade()) {
+            throw new DadosInvalidosException("O limite deve estar entre 1 e " + topTitulos.capacidade());
+        }
+
+        ResumoFrequencias resumo = topTitulos.janela(dias, LocalDate.now());
+        List<TituloFrequente> titulos = resumo.maiores(limite).stream()
+                .map(e -> new TituloFrequente(e.getChave(), e.getRotulo(), e.getContagem(), e.getErro()))
+                .toList();
+        return new RankingTitulos(dias + "d", resumo.total(), resumo.capacidade(), resumo.limiteAusentes(), titulos);
+    }
+
+    /**
+     * Conta as retiradas no ranking e nos leitores distintos após o commit da inclusão
+     * Chamado dentro da transação: a cidade de leitores associados só por referência
+     * (carga) é lida aqui, com uma consulta para o bloco
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    void registrarRetiradas(List<Emprestimo> emprestimos) {
+        Map<Long, String> cidades = cidadesDosLeitores(emprestimos);
+        AposCommit.executar(() -> {
+            LocalDate hoje = LocalDate.now();
+            for (Emprestimo emprestimo : emprestimos) {
+                LocalDate dia = emprestimo.getDataEmprestimo() != null ? emprestimo.getDataEmprestimo() : hoje;
+                topTitulos.registrar(emprestimo.getIsbn(), emprestimo.getTituloLivro(), dia, hoje, 1);
+                Long leitorId = emprestimo.getLeitor().getId();
+                contarLeitor(emprestimo.getId(), leitorId, emprestimo.getIsbn(), cidades.get(leitorId), dia);
+            }
+        });
+    }
+
+    /**
+     * Monta o ranking com as retiradas dos últimos dias, agrupadas por ISBN e dia no banco
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    public void carregarTopTitulos() {
+        LocalDate hoje = LocalDate.now();
+        topTitulos.limpar();
+        try (Stream<ContagemIsbnDia> retiradas = emprestimoRepository.streamRetiradasPorIsbnEDia(
+                hoje.minusDays(TitulosMaisEmprestados.DIAS_MAXIMOS - 1))) {
+            retiradas.forEach(r -> topTitulos.registrar(r.getIsbn(), r.getTitulo(), r.getDia(), hoje,
+                    r.getQuantidade()));
+        }
+    }
+
+    // ========== LEITORES DISTINTOS ==========
+
+    /**
+     * Leitores distintos que retiraram o ISBN nos últimos "meses" meses (incluindo o atual)
+     */
+    public EstimativaLeitores leitoresDistintosPorTitulo(String isbn, int meses) {
+        YearMonth ate = YearMonth.now();
+        YearMonth de = inicioPeriodo(ate, meses);
+        HyperLogLog uniao = leitoresDistintos.periodo(LeitoresPorPeriodo.Dimensao.TITULO, isbn, de, ate);
+        return new EstimativaLeitores(isbn, de, ate, uniao.estimar(), uniao.erroPadrao());
+    }
+
+    /**
+     * Leitores distintos com retiradas nos últimos "meses" meses, por cidade, da maior quantidade para a menor
+     */
+    public List<EstimativaLeitores> leitoresDistintosPorCidade(int meses) {
+        YearMonth ate = YearMonth.now();
+        YearMonth de = inicioPeriodo(ate, meses);
+        return leitoresDistintos.periodoPorValor(LeitoresPorPeriodo.Dimensao.CIDADE, de, ate).entrySet().stream()
+                .map(e -> new EstimativaLeitores(e.getKey(), de, ate, e.getValue().estimar(), e.getValue().erroPadrao()))
+                .sorted(Comparator.comparingLong(EstimativaLeitores::getLeitores).reversed()
+                        .thenComparing(EstimativaLeitores::getValor))
+                .toList();
+    }
+
+    /**
+     * Carrega os resumos gravados e relê só os empréstimos posteriores ao último gravado
+     * (sem resumos gravados, todos os empréstimos dos meses mantidos)
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    public void carregarLeitoresDistintos() {
+        YearMonth primeiroMes = inicioPeriodo(YearMonth.now(), mesesLeitoresDistintos);
+        long[] gravadoAte = {0};
+        jdbc.query(SQL_RESUMOS_GRAVADOS, rs -> {
+            leitoresDistintos.carregar(new LeitoresPorPeriodo.Chave(
+                            LeitoresPorPeriodo.Dimensao.valueOf(rs.getString(1)), rs.getString(2),
+                            YearMonth.from(rs.getDate(3).toLocalDate())),
+                    HyperLogLog.deBytes(rs.getBytes(4)));
+            gravadoAte[0] = Math.max(gravadoAte[0], rs.getLong(5));
+        }, Date.valueOf(primeiroMes.atDay(1)));
+
+        jdbc.query(conexao -> {
+            PreparedStatement comando = conexao.prepareStatement(
+                    SQL_RETIRADAS_POSTERIORES, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            comando.setLong(1, gravadoAte[0]);
+            comando.setDate(2, Date.valueOf(primeiroMes.atDay(1)));
+            comando.setFetchSize(BLOCO_GRAVACAO);
+            return comando;
+        }, rs -> {
+            contarLeitor(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getDate(5).toLocalDate());
+        });
+        ultimoEmprestimoContado.accumulateAndGet(gravadoAte[0], Math::max);
+        leitoresDistintosCarregados = true;
+        log.info("Leitores distintos: {} resumos mensais em memória", leitoresDistintos.total());
+    }
+
+    /**
+     * Grava no banco os resumos alterados desde a última gravação, em lotes
+     * Se a gravação de um lote falhar, os resumos dele continuam pendentes.
+     * Retorna a quantidade de resumos gravados.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.estatisticas.leitores-distintos.gravacao-intervalo:PT5M}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public synchronized int gravarLeitoresDistintos() {
+        if (!leitoresDistintosCarregados) {
+            return 0;
+        }
+        leitoresDistintos.descartarAntesDe(inicioPeriodo(YearMonth.now(), mesesLeitoresDistintos));
+        // Lido antes de retirar os pendentes: todo empréstimo até aqui já está nos resumos retirados
+        long ultimoEmprestimo = ultimoEmprestimoContado.get();
+        List<Map.Entry<LeitoresPorPeriodo.Chave, HyperLogLog>> pendentes =
+                new ArrayList<>(leitoresDistintos.retirarPendentes().entrySet());
+
+        TransactionTemplate transacao = new TransactionTemplate(gerenciadorTransacoes);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        int gravados = 0;
+        for (int inicio = 0; inicio < pendentes.size(); inicio += BLOCO_GRAVACAO) {
+            List<Map.Entry<LeitoresPorPeriodo.Chave, HyperLogLog>> bloco =
+                    pendentes.subList(inicio, Math.min(inicio + BLOCO_GRAVACAO, pendentes.size()));
+            List<Object[]> linhas = bloco.stream()
+                    .map(e -> new Object[]{e.getKey().getDimensao().name(), e.getKey().getValor(),
+                            Date.valueOf(e.getKey().getMes().atDay(1)), e.getValue().paraBytes(),
+                            e.getValue().estimar(), ultimoEmprestimo, agora})
+                    .toList();
+            try {
+                transacao.executeWithoutResult(status -> jdbc.batchUpdate(SQL_GRAVAR_LEITORES, linhas));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar {} resumos de leitores distintos; nova tentativa na próxima rodada",
+                        bloco.size(), e);
+                leitoresDistintos.marcarPendentes(bloco.stream().map(Map.Entry::getKey).toList());
+                continue;
+            }
+            gravados += bloco.size();
+        }
+        return gravados;
+    }
+
+    private void contarLeitor(Long emprestimoId, Long leitorId, String isbn, String cidade, LocalDate dia) {
+        YearMonth mes = YearMonth.from(dia);
+        if (leitorId == null || mes.isBefore(inicioPeriodo(YearMonth.now(), mesesLeitoresDistintos))) {
+            return;
+        }
+        leitoresDistintos.registrar(LeitoresPorPeriodo.Dimensao.TITULO, isbn, mes, leitorId);
+        leitoresDistintos.registrar(LeitoresPorPeriodo.Dimensao.CIDADE, cidade == null ? null : cidade.trim(),
+                mes, leitorId);
+        if (emprestimoId != null) {
+            ultimoEmprestimoContado.accumulateAndGet(emprestimoId, Math::max);
+        }
+    }
+
+    private Map<Long, String> cidadesDosLeitores(List<Emprestimo> emprestimos) {
+        Map<Long, String> cidades = new HashMap<>();
+        Set<Long> naoCarregados = new HashSet<>();
+        for (Emprestimo emprestimo : emprestimos) {
+            Leitor leitor = emprestimo.getLeitor();
+            if (leitor == null || leitor.getId() == null) {
+                continue;
+            }
+            if (Hibernate.isInitialized(leitor)) {
+                cidades.put(leitor.getId(), leitor.getEndereco() == null ? null : leitor.getEndereco().getCidade());
+            } else {
+                naoCarregados.add(leitor.getId());
+            }
+        }
+        if (!naoCarregados.isEmpty()) {
+            leitorRepository.buscarCidades(naoCarregados)
+                    .forEach(c -> cidades.put(c.getId(), c.getCidade()));
+        }
+        return cidades;
+    }
+
+    private YearMonth inicioPeriodo(YearMonth ate, int meses) {
+        if (meses < 1 || meses > mesesLeitoresDistintos) {
+            throw new DadosInvalidosException("O período deve ter entre 1 e " + mesesLeitoresDistintos + " meses");
+        }
+        return ate.minusMonths(meses - 1);
+    }
+}
@@ -0,0 +1,255 @@
+package com.biblioteca.service;
+
+import com.biblioteca.busca.DisponibilidadeExemplares;
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.Disponibilidade;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.loader.DadosCarregadosEvent;
+import com.biblioteca.repository.EmprestimoRepository;
+import com.biblioteca.repository.ExemplarRepository;
+import com.biblioteca.repository.ReservaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Acervo físico (exemplares por ISBN) e disponibilidade para empréstimo
+ *
+ * A disponibilidade fica em contadores em memória (DisponibilidadeExemplares):
+ * a retirada ocupa um exemplar antes do INSERT do empréstimo e o libera se a
+ * transação for desfeita; devoluções e exclusões liberam após o commit. Uma
+ * reconciliação periódica compara os contadores com o banco e corrige as
+ * divergências que se repetem em duas rodadas seguidas, para não confundir
+ * retiradas em andamento com erro. Exemplares separados para reservas
+ * (ReservaService) contam como emprestados até a retirada.
+ */
+@Service
+@Transactional
+public class ExemplarService {
+
+    @Autowired
+    private ExemplarRepository repository;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MeterRegistry metricas;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    private final DisponibilidadeExemplares disponibilidade = new DisponibilidadeExemplares();
+
+    // Divergências da última reconciliação (ISBN → {exemplares, emprestados}), aguardando confirmação
+    private volatile Map<String, int[]> divergenciasPendentes = Map.of();
+
+    private Counter retiradasRecusadas;
+    private Counter correcoesDisponibilidade;
+
+    /**
+     * Cadastra um exemplar do ISBN
+     */
+    public Exemplar incluir(String isbn, Exemplar exemplar) {
+        if (isbn == null || isbn.isBlank()) {
+            throw new DadosInvalidosException("ISBN é obrigatório");
+        }
+        exemplar.setId(null);
+        exemplar.setIsbn(isbn.trim());
+        if (exemplar.getDataAquisicao() == null) {
+            exemplar.setDataAquisicao(LocalDate.now());
+        }
+
+        Exemplar salvo = RestricoesUnicas.gravar(() -> repository.saveAndFlush(exemplar),
+                Map.of("uk_exemplares_codigo", "Código de exemplar já cadastrado: " + exemplar.getCodigo()));
+        AposCommit.executar(() -> {
+            disponibilidade.adicionarExemplares(salvo.getIsbn(), 1);
+            eventos.publishEvent(new ExemplaresIncluidosEvent(this, salvo.getIsbn()));
+        });
+        return salvo;
+    }
+
+    /**
+     * Inclui um bloco de exemplares da carga inicial em uma única transação
+     */
+    public Map<Integer, String> incluirCarga(List<Exemplar> exemplares) {
+        List<Exemplar> salvos = repository.saveAll(exemplares);
+        AposCommit.executar(() -> salvos.forEach(salvo -> disponibilidade.adicionarExemplares(salvo.getIsbn(), 1)));
+        return Map.of();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Exemplar> listarPorIsbn(String isbn) {
+        List<Exemplar> exemplares = repository.findByIsbnOrderByIdAsc(isbn);
+        if (exemplares.isEmpty()) {
+            throw new RecursoNaoEncontradoException("ISBN não cadastrado no acervo: " + isbn);
+        }
+        return exemplares;
+    }
+
+    /**
+     * Disponibilidade do ISBN, respondida pelos contadores em memória (sem SQL)
+     */
+    public Disponibilidade consultarDisponibilidade(String isbn) {
+        Disponibilidade atual = disponibilidade.consultar(isbn);
+        if (atual == null) {
+            throw new RecursoNaoEncontradoException("ISBN não cadastrado no acervo: " + isbn);
+        }
+        return atual;
+    }
+
+    // ========== RETIRADA E DEVOLUÇÃO ==========
+
+    /**
+     * Ocupa um exemplar para um novo empréstimo na transação corrente
+     * ISBNs fora do acervo não são controlados; sem exemplar livre lança DadosInvalidosException
+     */
+    void reservar(String isbn) {
+        if (!disponibilidade.controla(isbn)) {
+            return;
+        }
+        if (!disponibilidade.reservar(isbn)) {
+            retiradasRecusadas.increment();
+            throw new DadosInvalidosException("Nenhum exemplar disponível para o ISBN " + isbn);
+        }
+        AposCommit.seRollback(() -> disponibilidade.liberar(isbn));
+    }
+
+    /**
+     * Conta um empréstimo em aberto já gravado sem conferir a disponibilidade (carga e importação)
+     */
+    void ocuparAposCommit(String isbn) {
+        if (isbn != null) {
+            AposCommit.executar(() -> disponibilidade.ocupar(isbn));
+        }
+    }
+
+    /**
+     * Indica se o ISBN tem exemplares cadastrados
+     */
+    boolean pertenceAoAcervo(String isbn) {
+        return disponibilidade.controla(isbn);
+    }
+
+    /**
+     * Ocupa um exemplar livre para uma reserva; false se não houver
+     */
+    boolean separar(String isbn) {
+        return disponibilidade.reservar(isbn);
+    }
+
+    /**
+     * Devolve um exemplar ao conjunto dos disponíveis (chamado após o commit)
+     */
+    void liberar(String isbn) {
+        if (isbn != null) {
+            disponibilidade.liberar(isbn);
+        }
+    }
+
+    // ========== CONTADORES EM MEMÓRIA ==========
+
+    @PostConstruct
+    void registrarMetricas() {
+        retiradasRecusadas = Counter.builder("biblioteca.exemplares.retiradas-recusadas")
+                .description("Empréstimos recusados por falta de exemplar disponível")
+                .register(metricas);
+        correcoesDisponibilidade = Counter.builder("biblioteca.exemplares.reconciliacao.correcoes")
+                .description("ISBNs cujos contadores foram corrigidos pela reconciliação")
+                .register(metricas);
+    }
+
+    /**
+     * Monta os contadores a partir do banco na inicialização
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Order(1)
+    @Transactional(readOnly = true)
+    public void carregarDisponibilidade() {
+        disponibilidade.limpar();
+        Map<String, Integer> ocupados = contarOcupados();
+        contar(repository.contarPorIsbn()).forEach((isbn, exemplares) ->
+                disponibilidade.corrigir(isbn, exemplares, ocupados.getOrDefault(isbn, 0)));
+        divergenciasPendentes = Map.of();
+    }
+
+    /**
+     * Confere os contadores com o banco. Uma divergência só é corrigida quando
+     * aparece igual na rodada anterior: diferenças passageiras (retiradas e
+     * devoluções entre o commit e a atualização em memória) não se repetem.
+     * As correções são somadas aos contadores, sem sobrescrever operações
+     * concorrentes. Retorna a quantidade de ISBNs corrigidos.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.exemplares.reconciliacao-intervalo:PT5M}",
+            initialDelayString = "${biblioteca.exemplares.reconciliacao-intervalo:PT5M}")
+    @Transactional(readOnly = true)
+    public int reconciliarDisponibilidade() {
+        Map<String, Integer> exemplares = contar(repository.contarPorIsbn());
+        Map<String, Integer> ocupados = contarOcupados();
+
+        Set<String> isbns = new HashSet<>(exemplares.keySet());
+        isbns.addAll(disponibilidade.isbns());
+        Map<String, int[]> divergencias = new HashMap<>();
+        for (String isbn : isbns) {
+            Disponibilidade atual = disponibilidade.consultar(isbn);
+            int diferencaExemplares = exemplares.getOrDefault(isbn, 0) - (atual == null ? 0 : atual.getExemplares());
+            int diferencaEmprestados = ocupados.getOrDefault(isbn, 0) - (atual == null ? 0 : atual.getEmprestados());
+            if (diferencaExemplares != 0 || diferencaEmprestados != 0) {
+                divergencias.put(isbn, new int[]{diferencaExemplares, diferencaEmprestados});
+            }
+        }
+
+        Map<String, int[]> anteriores = divergenciasPendentes;
+        Map<String, int[]> pendentes = new HashMap<>();
+        int corrigidos = 0;
+        for (Map.Entry<String, int[]> divergencia : divergencias.entrySet()) {
+            int[] diferenca = divergencia.getValue();
+            if (Arrays.equals(diferenca, anteriores.get(divergencia.getKey()))) {
+                disponibilidade.corrigir(divergencia.getKey(), diferenca[0], diferenca[1]);
+                corrigidos++;
+            } else {
+                pendentes.put(divergencia.getKey(), diferenca);
+            }
+        }
+        divergenciasPendentes = pendentes;
+
+        correcoesDisponibilidade.increment(corrigidos);
+        return corrigidos;
+    }
+
+    /**
+     * Exemplares ocupados por ISBN: empréstimos em aberto mais reservas com exemplar separado
+     */
+    private Map<String, Integer> contarOcupados() {
+        Map<String, Integer> ocupados = new HashMap<>(contar(emprestimoRepository.contarAbertosPorIsbnDoAcervo()));
+        contar(reservaRepository.contarSeparadasPorIsbn()).forEach((isbn, separadas) ->
+                ocupados.merge(isbn, separadas, Integer::sum));
+        return ocupados;
+    }
+
+    private static Map<String, Integer> contar(List<ContagemTexto> contagens) {
+        return contagens.stream().collect(Collectors.toMap(
+                ContagemTexto::getTexto, contagem -> contagem.getQuantidade().intValue()));
+    }
+}
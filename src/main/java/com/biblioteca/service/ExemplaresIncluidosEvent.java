@@ -0,0 +1,21 @@
+package com.biblioteca.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Publicado após o commit da inclusão de exemplares de um ISBN
+ * A fila de reservas do título é atendida com os novos exemplares
+ */
+public class ExemplaresIncluidosEvent extends ApplicationEvent {
+
+    private final String isbn;
+
+    public ExemplaresIncluidosEvent(Object origem, String isbn) {
+        super(origem);
+        this.isbn = isbn;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+}
@@ -0,0 +1,427 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Importacao;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.loader.LinhasMapeadas;
+import com.biblioteca.repository.ImportacaoRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de empréstimos a partir de arquivos no sistema de arquivos
+ *
+ * Formato igual ao de data/emprestimos.txt. O arquivo é lido mapeado em memória
+ * (LinhasMapeadas) e gravado em blocos; cada bloco e o ponto de retomada (byte
+ * após a última linha do bloco) são confirmados na mesma transação. Uma
+ * importação interrompida (pedido, desligamento ou falha) é retomada desse
+ * ponto ao ser iniciada de novo para o mesmo arquivo. Linhas inválidas são
+ * contadas e descartadas sem interromper a importação.
+ *
+ * Retomar depois de reiniciar a aplicação exige um datasource persistente: com o
+ * H2 em memória padrão, a tabela importacoes some junto com o processo.
+ *
+ * Os empréstimos importados são histórico: o limite por fidelidade e a
+ * disponibilidade de exemplares não são conferidos (como na carga inicial),
+ * mas os contadores em memória de ambos passam a incluí-los.
+ *
+ * Os arquivos ficam restritos ao diretório biblioteca.importacao.diretorio e
+ * uma importação roda por vez, em segundo plano.
+ */
+@Service
+public class ImportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoService.class);
+
+    private static final int REJEICOES_REGISTRADAS_NO_LOG = 20;
+
+    // Tamanhos das colunas ultima_rejeicao e mensagem (V4__importacoes.sql)
+    private static final int TAMANHO_ULTIMA_REJEICAO = 500;
+    private static final int TAMANHO_MENSAGEM = 1000;
+
+    private static final Set<Importacao.Situacao> RETOMAVEIS = EnumSet.of(
+            Importacao.Situacao.EM_ANDAMENTO, Importacao.Situacao.INTERROMPIDA, Importacao.Situacao.FALHOU);
+
+    @Autowired
+    private ImportacaoRepository repository;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private Validator validador;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @Value("${biblioteca.importacao.diretorio:importacao}")
+    private Path diretorio;
+
+    @Value("${biblioteca.carga.tamanho-bloco:5000}")
+    private int tamanhoBloco;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "importacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Vaga única de execução, ocupada com compareAndSet antes de criar ou retomar a importação
+    private final AtomicBoolean ocupado = new AtomicBoolean();
+
+    // Importações em execução e seus sinais de interrupção
+    private final Map<Long, AtomicBoolean> emExecucao = new ConcurrentHashMap<>();
+
+    /**
+     * Inicia a importação do arquivo ou retoma a última importação não concluída dele
+     */
+    public Importacao iniciar(String nomeArquivo) {
+        Path caminho = resolverArquivo(nomeArquivo);
+        if (!ocupado.compareAndSet(false, true)) {
+            throw new DadosInvalidosException("Já existe uma importação em andamento"
+                    + emExecucao.keySet().stream().findFirst().map(id -> ": " + id).orElse(""));
+        }
+        try {
+            return disparar(nomeArquivo, caminho);
+        } catch (RuntimeException e) {
+            ocupado.set(false);
+            throw e;
+        }
+    }
+
+    private Importacao disparar(String nomeArquivo, Path caminho) {
+        long tamanho;
+        try {
+            tamanho = Files.size(caminho);
+        } catch (IOException e) {
+            throw new DadosInvalidosException("Não foi possível ler o arquivo: " + nomeArquivo);
+        }
+
+        Importacao importacao = repository
+                .findFirstByArquivoAndSituacaoInOrderByIdDesc(caminho.toString(), RETOMAVEIS)
+                .filter(anterior -> anterior.getPosicaoBytes() <= tamanho)
+                .orElseGet(() -> new Importacao(caminho.toString(), tamanho));
+        importacao.setTamanhoBytes(tamanho);
+        importacao.setSituacao(Importacao.Situacao.EM_ANDAMENTO);
+        importacao.setMensagem(null);
+        importacao.setLinhasPorSegundo(null);
+        importacao.setAtualizadaEm(LocalDateTime.now());
+        Importacao salva = repository.save(importacao);
+
+        AtomicBoolean interromper = new AtomicBoolean();
+        emExecucao.put(salva.getId(), interromper);
+        executor.execute(() -> executar(salva.getId(), caminho, interromper));
+        return salva;
+    }
+
+    /**
+     * Pede a interrupção de uma importação em andamento; o bloco atual não é gravado
+     */
+    public Importacao interromper(Long id) {
+        Importacao importacao = buscarPorId(id);
+        AtomicBoolean interromper = emExecucao.get(id);
+        if (interromper == null) {
+            throw new DadosInvalidosException("A importação " + id + " não está em andamento");
+        }
+        interromper.set(true);
+        return importacao;
+    }
+
+    public Importacao buscarPorId(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Importação não encontrada com ID: " + id));
+    }
+
+    public List<Importacao> listarTodas() {
+        return repository.findAllByOrderByIdDesc();
+    }
+
+    /**
+     * Importações que estavam em andamento quando a aplicação parou ficam como interrompidas
+     * (só há o que marcar com datasource persistente)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void marcarInterrompidas() {
+        for (Importacao importacao : repository.findBySituacao(Importacao.Situacao.EM_ANDAMENTO)) {
+            if (!emExecucao.containsKey(importacao.getId())) {
+                importacao.setSituacao(Importacao.Situacao.INTERROMPIDA);
+                repository.save(importacao);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        emExecucao.values().forEach(interromper -> interromper.set(true));
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // ========== EXECUÇÃO ==========
+
+    private void executar(Long id, Path caminho, AtomicBoolean interromper) {
+        long inicio = System.nanoTime();
+        long processadas = 0;
+        int rejeicoesNoLog = 0;
+        try (LinhasMapeadas linhas = new LinhasMapeadas(caminho, buscarPorId(id).getPosicaoBytes())) {
+            MapaCpf leitores = MapaCpf.de(leitorService.mapearIdsPorCpf());
+            List<Emprestimo> bloco = new ArrayList<>(tamanhoBloco);
+            int rejeitadas = 0;
+            String ultimaRejeicao = null;
+
+            while (!interromper.get() && linhas.proxima()) {
+                try {
+                    bloco.add(converter(linhas, leitores));
+                } catch (RuntimeException e) {
+                    rejeitadas++;
+                    ultimaRejeicao = "byte " + linhas.inicioLinha() + ": " + e.getMessage();
+                    if (rejeicoesNoLog++ < REJEICOES_REGISTRADAS_NO_LOG) {
+                        log.warn("Importação {}: linha rejeitada no {}", id, ultimaRejeicao);
+                    }
+                }
+                if (bloco.size() + rejeitadas >= tamanhoBloco) {
+                    processadas += bloco.size() + rejeitadas;
+                    gravarBloco(id, bloco, rejeitadas, ultimaRejeicao, linhas.posicao(), processadas, inicio);
+                    bloco = new ArrayList<>(tamanhoBloco);
+                    rejeitadas = 0;
+                }
+            }
+
+            if (interromper.get()) {
+                finalizar(id, Importacao.Situacao.INTERROMPIDA, null);
+                return;
+            }
+            processadas += bloco.size() + rejeitadas;
+            gravarBloco(id, bloco, rejeitadas, ultimaRejeicao, linhas.posicao(), processadas, inicio);
+            finalizar(id, Importacao.Situacao.CONCLUIDA, null);
+        } catch (Exception e) {
+            log.error("Importação {} falhou: {}", id, e.getMessage(), e);
+            finalizar(id, Importacao.Situacao.FALHOU, e.getMessage());
+        } finally {
+            emExecucao.remove(id);
+            ocupado.set(false);
+        }
+    }
+
+    private Emprestimo converter(LinhasMapeadas linhas, MapaCpf leitores) {
+        // cpfLeitor;tituloLivro;autor;isbn;dataEmprestimo;dataDevolucaoPrevista;dataDevolucaoReal;devolvido
+        long leitorId = leitores.buscar(linhas.numero(0));
+        if (leitorId < 0) {
+            throw new DadosInvalidosException("Leitor com CPF " + linhas.texto(0) + " não encontrado");
+        }
+        Leitor leitor = new Leitor();
+        leitor.setId(leitorId);
+
+        Emprestimo emprestimo = new Emprestimo();
+        emprestimo.setLeitor(leitor);
+        emprestimo.setTituloLivro(linhas.texto(1));
+        emprestimo.setAutor(linhas.texto(2));
+        emprestimo.setIsbn(linhas.texto(3));
+        emprestimo.setDataEmprestimo(linhas.data(4));
+        emprestimo.setDataDevolucaoPrevista(linhas.data(5));
+        if (!linhas.nulo(6)) {
+            emprestimo.setDataDevolucaoEfetiva(linhas.data(6));
+        }
+        emprestimo.setDevolvido(linhas.booleano(7));
+
+        Set<ConstraintViolation<Emprestimo>> violacoes = validador.validate(emprestimo);
+        if (!violacoes.isEmpty()) {
+            throw new DadosInvalidosException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return emprestimo;
+    }
+
+    /**
+     * Grava o bloco e avança o ponto de retomada na mesma transação
+     *
+     * Se o banco recusar o bloco (ex.: leitor excluído depois de montado o mapa CPF → ID),
+     * cada linha é conferida sozinha e o bloco é gravado sem as recusadas, contadas como
+     * rejeitadas; sem isso, toda retomada tentaria o mesmo bloco e falharia de novo
+     */
+    private void gravarBloco(Long id, List<Emprestimo> bloco, int rejeitadas, String ultimaRejeicao,
+                             long posicao, long processadas, long inicio) {
+        try {
+            gravarNaTransacao(id, bloco, rejeitadas, ultimaRejeicao, posicao, processadas, inicio);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Importação {}: bloco recusado pelo banco ({}); conferindo linha a linha", id,
+                    e.getMostSpecificCause().getMessage());
+            List<Emprestimo> aceitas = new ArrayList<>(bloco.size());
+            for (Emprestimo emprestimo : bloco) {
+                tornarNova(emprestimo);
+                String recusa = recusaDoBanco(emprestimo);
+                if (recusa == null) {
+                    aceitas.add(emprestimo);
+                } else {
+                    rejeitadas++;
+                    ultimaRejeicao = recusa;
+                }
+            }
+            gravarNaTransacao(id, aceitas, rejeitadas, ultimaRejeicao, posicao, processadas, inicio);
+        }
+    }
+
+    private void gravarNaTransacao(Long id, List<Emprestimo> bloco, int rejeitadas, String ultimaRejeicao,
+                                   long posicao, long processadas, long inicio) {
+        new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> {
+            Map<Integer, String> rejeitadasNoServico = bloco.isEmpty() ? Map.of() : emprestimoService.incluirCarga(bloco);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            Importacao importacao = buscarPorId(id);
+            importacao.avancar(posicao, bloco.size() - rejeitadasNoServico.size(),
+                    rejeitadas + rejeitadasNoServico.size(), Math.round(processadas / Math.max(segundos, 1e-3)));
+            if (!rejeitadasNoServico.isEmpty()) {
+                importacao.setUltimaRejeicao(truncar(rejeitadasNoServico.values().iterator().next(),
+                        TAMANHO_ULTIMA_REJEICAO));
+            } else if (ultimaRejeicao != null) {
+                importacao.setUltimaRejeicao(truncar(ultimaRejeicao, TAMANHO_ULTIMA_REJEICAO));
+            }
+        });
+    }
+
+    /**
+     * Grava só a linha em uma transação desfeita logo após o flush; devolve o motivo se
+     * o banco a recusar, ou null
+     */
+    private String recusaDoBanco(Emprestimo emprestimo) {
+        try {
+            new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> {
+                emprestimoService.incluirCarga(List.of(emprestimo));
+                status.flush();
+                status.setRollbackOnly();
+            });
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            return "leitor ID " + emprestimo.getLeitor().getId() + " recusado pelo banco: "
+                    + e.getMostSpecificCause().getMessage();
+        } finally {
+            tornarNova(emprestimo);
+        }
+    }
+
+    // Descarta ID e versão atribuídos por uma gravação desfeita
+    private static void tornarNova(Emprestimo emprestimo) {
+        emprestimo.setId(null);
+        emprestimo.setVersao(null);
+    }
+
+    private void finalizar(Long id, Importacao.Situacao situacao, String mensagem) {
+        try {
+            Importacao importacao = buscarPorId(id);
+            importacao.setSituacao(situacao);
+            importacao.setMensagem(truncar(mensagem, TAMANHO_MENSAGEM));
+            importacao.setAtualizadaEm(LocalDateTime.now());
+            repository.save(importacao);
+            log.info("Importação {} {}: {} linhas importadas, {} rejeitadas ({}%)", id, situacao,
+                    importacao.getLinhasImportadas(), importacao.getLinhasRejeitadas(), importacao.getPercentual());
+        } catch (RuntimeException e) {
+            log.error("Não foi possível registrar a situação da importação {}: {}", id, e.getMessage());
+        }
+    }
+
+    private static String truncar(String texto, int tamanho) {
+        return texto == null ? null : texto.substring(0, Math.min(texto.length(), tamanho));
+    }
+
+    /**
+     * Caminho do arquivo dentro do diretório de importação (sem sair dele)
+     */
+    private Path resolverArquivo(String nomeArquivo) {
+        if (nomeArquivo == null || nomeArquivo.isBlank()) {
+            throw new DadosInvalidosException("Informe o arquivo a importar");
+        }
+        Path base = diretorio.toAbsolutePath().normalize();
+        Path caminho = base.resolve(nomeArquivo).normalize();
+        if (!caminho.startsWith(base) || !Files.isRegularFile(caminho)) {
+            throw new DadosInvalidosException("Arquivo não encontrado no diretório de importação: " + nomeArquivo);
+        }
+        return caminho;
+    }
+
+    /**
+     * Mapa CPF → ID de leitor com chaves long em endereçamento aberto (sem boxing na busca)
+     */
+    private static final class MapaCpf {
+
+        private final long[] chaves;
+        private final long[] valores;
+        private final int mascara;
+
+        private MapaCpf(int capacidade) {
+            int tamanho = Integer.highestOneBit(Math.max(capacidade * 2, 2) - 1) << 1;
+            chaves = new long[tamanho];
+            valores = new long[tamanho];
+            mascara = tamanho - 1;
+            Arrays.fill(chaves, -1L);
+        }
+
+        static MapaCpf de(Map<String, Long> idsPorCpf) {
+            MapaCpf mapa = new MapaCpf(idsPorCpf.size());
+            idsPorCpf.forEach((cpf, id) -> mapa.colocar(Long.parseLong(cpf), id));
+            return mapa;
+        }
+
+        /**
+         * ID do leitor ou -1 se o CPF não existir
+         */
+        long buscar(long cpf) {
+            for (int i = posicao(cpf); ; i = (i + 1) & mascara) {
+                if (chaves[i] == cpf) {
+                    return valores[i];
+                }
+                if (chaves[i] == -1L) {
+                    return -1L;
+                }
+            }
+        }
+
+        private void colocar(long cpf, long id) {
+            int i = posicao(cpf);
+            while (chaves[i] != -1L && chaves[i] != cpf) {
+                i = (i + 1) & mascara;
+            }
+            chaves[i] = cpf;
+            valores[i] = id;
+        }
+
+        private int posicao(long cpf) {
+            long h = cpf * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.biblioteca.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Publicado na transação da exclusão de um leitor, antes de a linha ser removida
+ * Os empréstimos do leitor saem junto (cascade) sem passar pelo EmprestimoService:
+ * os ouvintes registram a limpeza das estruturas em memória para depois do commit
+ */
+public class LeitorExcluidoEvent extends ApplicationEvent {
+
+    private final Long leitorId;
+
+    public LeitorExcluidoEvent(Object origem, Long leitorId) {
+        super(origem);
+        this.leitorId = leitorId;
+    }
+
+    public Long getLeitorId() {
+        return leitorId;
+    }
+}
@@ -1,15 +1,46 @@
 package com.biblioteca.service;
 
+import com.biblioteca.busca.FiltroBloom;
+import com.biblioteca.busca.IndiceTrigramas;
+import com.biblioteca.busca.TriePrefixos;
 import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.LeitorResumo;
+import com.biblioteca.dto.Pagina;
+import com.biblioteca.dto.PessoaCpf;
+import com.biblioteca.dto.PessoaNome;
+import com.biblioteca.dto.Sugestao;
+import com.biblioteca.dto.VersaoTabela;
 import com.biblioteca.exception.DadosInvalidosException;
 import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.loader.DadosCarregadosEvent;
 import com.biblioteca.repository.LeitorRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Serviço para gerenciar Leitores
@@ -22,6 +53,31 @@ public class LeitorService implements CrudService<Leitor, Long> {
     @Autowired
     private LeitorRepository repository;
 
+    @Autowired
+    private Paginacao paginacao;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+
+    // Índice de trigramas sobre o nome, para buscas parciais sem varrer a tabela
+    private final IndiceTrigramas indiceNomes = new IndiceTrigramas();
+
+    // Árvore de prefixos dos nomes, para o autocompletar
+    private final TriePrefixos autocompleteNomes = new TriePrefixos();
+
+    @Value("${biblioteca.cpf-filtro.capacidade:1000000}")
+    private long capacidadeFiltroCpfs;
+
+    @Value("${biblioteca.cpf-filtro.taxa-falso-positivo:0.01}")
+    private double taxaFalsoPositivoCpfs;
+
+    // Filtro de Bloom dos CPFs cadastrados: dispensa a consulta prévia da maioria das inclusões
+    private volatile FiltroBloom cpfsCadastrados;
+
     /**
      * Inclui um novo leitor no sistema
      */
@@ -29,12 +85,71 @@ public class LeitorService implements CrudService<Leitor, Long> {
     public Leitor incluir(Leitor leitor) {
         validarLeitor(leitor);
 
-        // Verifica duplicidade de CPF
-        if (repository.findByCpf(leitor.getCpf()).isPresent()) {
+        // Só CPFs que o filtro de Bloom aponta como possivelmente cadastrados são consultados antes;
+        // a garantia de unicidade, inclusive entre inclusões concorrentes, é da restrição no banco
+        if (cpfsCadastrados.talvezContenha(leitor.getCpf()) && buscarOpcionalPorCpf(leitor.getCpf()).isPresent()) {
             throw new DadosInvalidosException("CPF já cadastrado: " + leitor.getCpf());
         }
 
-        return repository.save(leitor);
+        Leitor salvo = gravar(leitor);
+        AposCommit.executar(() -> {
+            cpfsCadastrados.adicionar(salvo.getCpf());
+            indiceNomes.indexar(salvo.getId(), salvo.getNome());
+            autocompleteNomes.adicionar(salvo.getNome());
+        });
+        return salvo;
+    }
+
+    /**
+     * Inclui um bloco de leitores da carga inicial em uma única transação
+     * CPF, e-mail e matrícula já cadastrados são verificados com uma consulta (IN) cada
+     * para o bloco, e valores repetidos dentro do bloco valem só na primeira linha;
+     * itens inválidos são descartados e devolvidos com o motivo, pela posição na lista
+     */
+    public Map<Integer, String> incluirCarga(List<Leitor> leitores) {
+        Set<String> cpfs = existentes(leitores.stream().map(Leitor::getCpf).filter(Objects::nonNull).toList(),
+                repository::buscarCpfsExistentes);
+        Set<String> emails = existentes(leitores.stream().map(Leitor::getEmail).filter(Objects::nonNull).toList(),
+                repository::buscarEmailsExistentes);
+        Set<String> matriculas = existentes(
+                leitores.stream().map(Leitor::getMatricula).filter(Objects::nonNull).toList(),
+                repository::buscarMatriculasExistentes);
+
+        Map<Integer, String> rejeitados = new LinkedHashMap<>();
+        List<Leitor> validos = new ArrayList<>(leitores.size());
+        for (int i = 0; i < leitores.size(); i++) {
+            Leitor leitor = leitores.get(i);
+            try {
+                validarLeitor(leitor);
+                if (cpfs.contains(leitor.getCpf())) {
+                    throw new DadosInvalidosException("CPF já cadastrado: " + leitor.getCpf());
+                }
+                if (leitor.getEmail() != null && emails.contains(leitor.getEmail())) {
+                    throw new DadosInvalidosException("Email já cadastrado: " + leitor.getEmail());
+                }
+                if (leitor.getMatricula() != null && matriculas.contains(leitor.getMatricula())) {
+                    throw new DadosInvalidosException("Matrícula já cadastrada: " + leitor.getMatricula());
+                }
+                cpfs.add(leitor.getCpf());
+                if (leitor.getEmail() != null) {
+                    emails.add(leitor.getEmail());
+                }
+                if (leitor.getMatricula() != null) {
+                    matriculas.add(leitor.getMatricula());
+                }
+                validos.add(leitor);
+            } catch (DadosInvalidosException e) {
+                rejeitados.put(i, e.getMessage());
+            }
+        }
+
+        List<Leitor> salvos = repository.saveAll(validos);
+        AposCommit.executar(() -> salvos.forEach(salvo -> {
+            cpfsCadastrados.adicionar(salvo.getCpf());
+            indiceNomes.indexar(salvo.getId(), salvo.getNome());
+            autocompleteNomes.adicionar(salvo.getNome());
+        }));
+        return rejeitados;
     }
 
     /**
@@ -43,12 +158,25 @@ public class LeitorService implements CrudService<Leitor, Long> {
     @Override
     public Leitor alterar(Long id, Leitor leitor) {
         Leitor existente = buscarPorId(id);
+        String nomeAnterior = existente.getNome();
         validarLeitor(leitor);
 
         // Mantém o ID original
         leitor.setId(existente.getId());
 
-        return repository.save(leitor);
+        // Sem versão no corpo vale a atual; com ela, alterações concorrentes são barradas (bloqueio otimista)
+        if (leitor.getVersao() == null) {
+            leitor.setVersao(existente.getVersao());
+        }
+
+        Leitor salvo = gravar(leitor);
+        AposCommit.executar(() -> {
+            cpfsCadastrados.adicionar(salvo.getCpf());
+            indiceNomes.indexar(salvo.getId(), salvo.getNome());
+            autocompleteNomes.remover(nomeAnterior);
+            autocompleteNomes.adicionar(salvo.getNome());
+        });
+        return salvo;
     }
 
     /**
@@ -62,6 +190,33 @@ public class LeitorService implements CrudService<Leitor, Long> {
                         "Leitor não encontrado com ID: " + id));
     }
 
+    /**
+     * Busca vários leitores com uma única consulta (IN), indexados pelo ID
+     * Lança RecursoNaoEncontradoException se algum dos IDs não existir
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Leitor> buscarPorIds(Collection<Long> ids) {
+        Map<Long, Leitor> leitores = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Leitor::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!leitores.containsKey(id)) {
+                throw new RecursoNaoEncontradoException("Leitor não encontrado com ID: " + id);
+            }
+        }
+        return leitores;
+    }
+
+    /**
+     * Mapa CPF → ID de todos os leitores, montado com uma só consulta (projeção)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> mapearIdsPorCpf() {
+        List<PessoaCpf> cpfs = repository.listarCpfs();
+        Map<String, Long> ids = new HashMap<>(cpfs.size() * 4 / 3 + 1);
+        cpfs.forEach(pessoa -> ids.put(pessoa.getCpf(), pessoa.getId()));
+        return ids;
+    }
+
     /**
      * Lista todos os leitores
      */
@@ -71,13 +226,41 @@ public class LeitorService implements CrudService<Leitor, Long> {
         return repository.findAll();
     }
 
+    /**
+     * Lista os leitores em páginas, usando o ID como cursor
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<Leitor> listarPagina(Long cursor, Integer tamanho) {
+        int tamanhoPagina = paginacao.normalizarTamanho(tamanho);
+        List<Leitor> resultado = repository.findByIdGreaterThanOrderByIdAsc(
+                paginacao.normalizarCursor(cursor), paginacao.limiteConsulta(tamanhoPagina));
+        return Pagina.de(resultado, tamanhoPagina, Leitor::getId);
+    }
+
+    /**
+     * Retrato agregado da tabela, para as ETags das listagens
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VersaoTabela versaoTabela() {
+        return repository.versaoTabela();
+    }
+
     /**
      * Exclui um leitor
+     * Os empréstimos saem junto (cascade); as estruturas em memória que dependem
+     * deles são atualizadas pelos ouvintes de LeitorExcluidoEvent
      */
     @Override
     public void excluir(Long id) {
-        buscarPorId(id); // Verifica se existe
+        String nome = buscarPorId(id).getNome(); // Verifica se existe
+        eventos.publishEvent(new LeitorExcluidoEvent(this, id));
         repository.deleteById(id);
+        AposCommit.executar(() -> {
+            indiceNomes.remover(id);
+            autocompleteNomes.remover(nome);
+        });
     }
 
     // ========== MÉTODOS ESPECÍFICOS ==========
@@ -122,11 +305,19 @@ public class LeitorService implements CrudService<Leitor, Long> {
      */
     @Transactional(readOnly = true)
     public Leitor buscarPorCpf(String cpf) {
-        return repository.findByCpf(cpf)
+        return buscarOpcionalPorCpf(cpf)
                 .orElseThrow(() -> new RecursoNaoEncontradoException(
                         "Leitor não encontrado com CPF: " + cpf));
     }
 
+    /**
+     * Busca pelo CPF (identificador natural): CPF → ID vem do cache de natural-id
+     * e a entidade do cache de segundo nível, sem consulta ao banco quando ambos acertam
+     */
+    private Optional<Leitor> buscarOpcionalPorCpf(String cpf) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Leitor.class).loadOptional(cpf);
+    }
+
     /**
      * Busca leitores por categoria de fidelidade
      * Feature 4 - Query Method
@@ -137,12 +328,13 @@ public class LeitorService implements CrudService<Leitor, Long> {
     }
 
     /**
-     * Busca leitores por nome (parcial, case insensitive)
-     * Feature 4 - Query Method com Containing e IgnoreCase
+     * Busca leitores por nome (parcial, sem diferenciar maiúsculas e acentos)
+     * Responde pelo índice de trigramas, em páginas por cursor, e carrega apenas os IDs encontrados
      */
     @Transactional(readOnly = true)
-    public List<Leitor> buscarPorNome(String nome) {
-        return repository.findByNomeContainingIgnoreCase(nome);
+    public Pagina<Leitor> buscarPorNome(String nome, Long cursor, Integer tamanho) {
+        return paginacao.paginarBusca(indiceNomes, nome, cursor, tamanho,
+                repository::findByIdInOrderByIdAsc, Leitor::getId);
     }
 
     /**
@@ -172,8 +364,150 @@ public class LeitorService implements CrudService<Leitor, Long> {
         return repository.findByFidelidadeAndLimiteCreditoGreaterThan(fidelidade, limiteMinimo);
     }
 
+    // ========== PROJEÇÕES (RESUMOS) ==========
+
+    /**
+     * Lista os leitores com totais de empréstimos, sem carregar as coleções
+     */
+    @Transactional(readOnly = true)
+    public List<LeitorResumo> listarResumos() {
+        return repository.listarResumos(LocalDate.now());
+    }
+
+    /**
+     * Lista os resumos de leitores em páginas, usando o ID como cursor
+     */
+    @Transactional(readOnly = true)
+    public Pagina<LeitorResumo> listarPaginaResumos(Long cursor, Integer tamanho) {
+        int tamanhoPagina = paginacao.normalizarTamanho(tamanho);
+        List<LeitorResumo> resultado = repository.listarResumosAposId(
+                paginacao.normalizarCursor(cursor), LocalDate.now(), paginacao.limiteConsulta(tamanhoPagina));
+        return Pagina.de(resultado, tamanhoPagina, LeitorResumo::getId);
+    }
+
+    /**
+     * Busca o resumo de um leitor por ID
+     */
+    @Transactional(readOnly = true)
+    public LeitorResumo buscarResumoPorId(Long id) {
+        return repository.buscarResumoPorId(id, LocalDate.now())
+                .orElseThrow(() -> new RecursoNaoEncontradoException(
+                        "Leitor não encontrado com ID: " + id));
+    }
+
+    /**
+     * Busca o resumo de um leitor por CPF
+     */
+    @Transactional(readOnly = true)
+    public LeitorResumo buscarResumoPorCpf(String cpf) {
+        return repository.buscarResumoPorCpf(cpf, LocalDate.now())
+                .orElseThrow(() -> new RecursoNaoEncontradoException(
+                        "Leitor não encontrado com CPF: " + cpf));
+    }
+
+    /**
+     * Busca resumos de leitores por categoria de fidelidade
+     */
+    @Transactional(readOnly = true)
+    public List<LeitorResumo> buscarResumosPorFidelidade(String fidelidade) {
+        return repository.buscarResumosPorFidelidade(fidelidade, LocalDate.now());
+    }
+
+    /**
+     * Busca resumos de leitores por nome (parcial, sem diferenciar maiúsculas e acentos),
+     * em páginas por cursor
+     */
+    @Transactional(readOnly = true)
+    public Pagina<LeitorResumo> buscarResumosPorNome(String nome, Long cursor, Integer tamanho) {
+        LocalDate hoje = LocalDate.now();
+        return paginacao.paginarBusca(indiceNomes, nome, cursor, tamanho,
+                ids -> repository.buscarResumosPorIds(ids, hoje), LeitorResumo::getId);
+    }
+
+    /**
+     * Sugestões de nomes de leitores que começam com o prefixo, dos mais frequentes para os menos
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Sugestao> sugerirNomes(String prefixo, int limite) {
+        return autocompleteNomes.sugerir(prefixo, limite);
+    }
+
+    // ========== ÍNDICE DE NOMES ==========
+
+    /**
+     * Reconstrói o índice de nomes se ele divergir do banco na inicialização
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void sincronizarIndiceNomes() {
+        if (indiceNomes.total() == repository.count()) {
+            return;
+        }
+        indiceNomes.limpar();
+        try (Stream<PessoaNome> nomes = repository.streamNomes()) {
+            nomes.forEach(pessoa -> indiceNomes.indexar(pessoa.getId(), pessoa.getNome()));
+        }
+    }
+
+    /**
+     * Monta o autocompletar de nomes a partir das contagens agrupadas no banco
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void sincronizarAutocompleteNomes() {
+        if (autocompleteNomes.ocorrencias() == repository.count()) {
+            return;
+        }
+        autocompleteNomes.limpar();
+        for (ContagemTexto contagem : repository.contarPorNome()) {
+            autocompleteNomes.adicionar(contagem.getTexto(), contagem.getQuantidade());
+        }
+    }
+
+    // ========== FILTRO DE CPFS ==========
+
+    /**
+     * Cria o filtro de CPFs ao subir o contexto (vazio: nenhuma inclusão é recusada por ele)
+     */
+    @PostConstruct
+    void criarFiltroCpfs() {
+        cpfsCadastrados = new FiltroBloom(capacidadeFiltroCpfs, taxaFalsoPositivoCpfs);
+    }
+
+    /**
+     * Recria o filtro de CPFs a partir do banco se faltarem CPFs nele (ex.: dados restaurados do snapshot)
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Transactional(readOnly = true)
+    public void sincronizarFiltroCpfs() {
+        long total = repository.count();
+        if (cpfsCadastrados.adicionados() >= total) {
+            return;
+        }
+        FiltroBloom filtro = new FiltroBloom(Math.max(capacidadeFiltroCpfs, total * 2), taxaFalsoPositivoCpfs);
+        try (Stream<String> cpfs = repository.streamCpfs()) {
+            cpfs.forEach(filtro::adicionar);
+        }
+        cpfsCadastrados = filtro;
+    }
+
     // ========== VALIDAÇÕES PRIVADAS ==========
 
+    /**
+     * Grava com flush para que violações das restrições UNIQUE virem DadosInvalidosException aqui
+     */
+    private Leitor gravar(Leitor leitor) {
+        return RestricoesUnicas.gravar(() -> repository.saveAndFlush(leitor), Map.of(
+                "uk_leitores_cpf", "CPF já cadastrado: " + leitor.getCpf(),
+                "uk_leitores_matricula", "Matrícula já cadastrada: " + leitor.getMatricula(),
+                "uk_leitores_email", "Email já cadastrado: " + leitor.getEmail()));
+    }
+
+    // Valores do bloco que já estão no banco (uma consulta IN; nenhuma para bloco vazio)
+    private static Set<String> existentes(List<String> valores, Function<Collection<String>, List<String>> consulta) {
+        return valores.isEmpty() ? new HashSet<>() : new HashSet<>(consulta.apply(valores));
+    }
+
     /**
      * Valida os dados de um leitor
      */
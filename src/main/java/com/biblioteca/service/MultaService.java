@@ -0,0 +1,531 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.ApuracaoMultas;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.domain.Multa;
+import com.biblioteca.domain.ParticaoApuracao;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.repository.ApuracaoMultasRepository;
+import com.biblioteca.repository.MultaRepository;
+import com.biblioteca.repository.ParticaoApuracaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Apuração noturna das multas por atraso, debitadas do limite de crédito do leitor
+ *
+ * A multa de um empréstimo em aberto atrasado é dias de atraso × valor diário.
+ * Cada apuração lança no razão (multas) só a diferença entre esse valor e o que
+ * já foi lançado para o empréstimo, e debita a mesma diferença do limite de
+ * crédito do leitor (que não fica negativo): uma noite sem apuração é coberta
+ * pela seguinte, e repetir uma data não cobra de novo.
+ *
+ * Os leitores são divididos em faixas de ID (partições) apuradas em paralelo.
+ * Cada partição percorre seus atrasados em ordem de ID e grava, por bloco e em
+ * uma transação, os lançamentos e os débitos em lotes JDBC junto com o ponto de
+ * retomada. Uma apuração interrompida ou com falha retoma apenas as partições
+ * não concluídas, cada uma do último bloco confirmado. A vazão de cada partição
+ * (empréstimos por segundo) fica registrada nela e no log.
+ */
+@Service
+public class MultaService {
+
+    private static final Logger log = LoggerFactory.getLogger(MultaService.class);
+
+    private static final int MAXIMO_PARTICOES = 256;
+
+    // Atrasados da partição após o ponto de retomada, com o total já lançado para cada um
+    private static final String SQL_ATRASADOS =
+            "SELECT e.id, e.leitor_id, e.data_devolucao_prevista, "
+            + "(SELECT COALESCE(SUM(m.valor), 0) FROM multas m WHERE m.emprestimo_id = e.id) "
+            + "FROM emprestimos e "
+            + "WHERE e.devolvido = FALSE AND e.data_devolucao_prevista < ? "
+            + "AND e.leitor_id BETWEEN ? AND ? AND e.id > ? "
+            + "ORDER BY e.id";
+
+    private static final String SQL_LANCAR =
+            "INSERT INTO multas (emprestimo_id, leitor_id, data_referencia, dias_atraso, valor, lancada_em) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Também incrementa a versão: ETags e bloqueio otimista enxergam o débito
+    private static final String SQL_DEBITAR =
+            "UPDATE leitores SET limite_credito = GREATEST(COALESCE(limite_credito, 0) - ?, 0), "
+            + "versao = versao + 1 WHERE id = ?";
+
+    private static final String SQL_AVANCAR =
+            "UPDATE particoes_apuracao SET ultimo_emprestimo_id = ?, "
+            + "emprestimos_processados = emprestimos_processados + ?, multas_lancadas = multas_lancadas + ?, "
+            + "valor_lancado = valor_lancado + ?, emprestimos_por_segundo = ?, atualizada_em = ? WHERE id = ?";
+
+    @Autowired
+    private ApuracaoMultasRepository apuracoes;
+
+    @Autowired
+    private ParticaoApuracaoRepository particoes;
+
+    @Autowired
+    private MultaRepository multas;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry metricas;
+
+    @Value("${biblioteca.multas.valor-diario:1.00}")
+    private BigDecimal valorDiario;
+
+    @Value("${biblioteca.multas.particoes:8}")
+    private int quantidadeParticoes;
+
+    @Value("${biblioteca.multas.threads:4}")
+    private int threads;
+
+    @Value("${biblioteca.multas.tamanho-bloco:5000}")
+    private int tamanhoBloco;
+
+    // Coordena uma apuração por vez; as partições rodam em executorParticoes
+    private final ExecutorService coordenador = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "multas");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExecutorService executorParticoes;
+
+    // Apuração em execução e seu sinal de interrupção
+    private final Map<Long, AtomicBoolean> emExecucao = new HashMap<>();
+
+    private Counter lancadas;
+
+    /**
+     * Inicia em segundo plano a apuração da data (hoje, se nula) ou retoma suas partições não concluídas
+     * Uma apuração já concluída é devolvida sem nova execução
+     */
+    public ApuracaoMultas iniciar(LocalDate data, Integer particoesPedidas) {
+        return buscarPorId(disparar(data, particoesPedidas).apuracaoId);
+    }
+
+    /**
+     * Como iniciar, mas aguarda o fim da apuração
+     */
+    public ApuracaoMultas apurar(LocalDate data, Integer particoesPedidas) {
+        Disparo disparo = disparar(data, particoesPedidas);
+        try {
+            disparo.conclusao.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera pela apuração de multas interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Apuração de multas falhou", e.getCause());
+        }
+        return buscarPorId(disparo.apuracaoId);
+    }
+
+    /**
+     * Apuração com suas partições (faixas, progresso e vazão)
+     */
+    public ApuracaoMultas buscarPorId(Long id) {
+        ApuracaoMultas apuracao = apuracoes.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Apuração de multas não encontrada com ID: " + id));
+        apuracao.setParticoes(particoes.findByApuracaoIdOrderByNumeroAsc(id));
+        return apuracao;
+    }
+
+    public List<ApuracaoMultas> listarApuracoes() {
+        List<ApuracaoMultas> lista = apuracoes.findAllByOrderByIdDesc();
+        lista.forEach(apuracao -> apuracao.setParticoes(particoes.findByApuracaoIdOrderByNumeroAsc(apuracao.getId())));
+        return lista;
+    }
+
+    /**
+     * Lançamentos do razão de um leitor, do mais antigo para o mais recente
+     */
+    public List<Multa> listarPorLeitor(Long leitorId) {
+        leitorService.buscarPorId(leitorId); // Verifica se existe
+        return multas.findByLeitorIdOrderByIdAsc(leitorId);
+    }
+
+    /**
+     * Apuração noturna (biblioteca.multas.cron) da data corrente
+     */
+    @Scheduled(cron = "${biblioteca.multas.cron:0 30 1 * * *}")
+    public void apurarNoturna() {
+        try {
+            iniciar(LocalDate.now(), null);
+        } catch (DadosInvalidosException e) {
+            log.warn("Apuração noturna de multas não iniciada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apurações e partições que estavam em andamento quando a aplicação parou ficam como interrompidas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void marcarInterrompidas() {
+        for (ApuracaoMultas apuracao : apuracoes.findBySituacao(ApuracaoMultas.Situacao.EM_ANDAMENTO)) {
+            if (!emExecucao.containsKey(apuracao.getId())) {
+                apuracao.setSituacao(ApuracaoMultas.Situacao.INTERROMPIDA);
+                apuracoes.save(apuracao);
+            }
+        }
+        for (ParticaoApuracao particao : particoes.findBySituacao(ApuracaoMultas.Situacao.EM_ANDAMENTO)) {
+            if (!emExecucao.containsKey(particao.getApuracaoId())) {
+                particao.setSituacao(ApuracaoMultas.Situacao.INTERROMPIDA);
+                particoes.save(particao);
+            }
+        }
+    }
+
+    @PostConstruct
+    void iniciarExecutor() {
+        AtomicInteger numero = new AtomicInteger();
+        executorParticoes = Executors.newFixedThreadPool(Math.max(threads, 1), tarefa -> {
+            Thread thread = new Thread(tarefa, "multas-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        lancadas = Counter.builder("biblioteca.multas.lancadas")
+                .description("Lançamentos gravados no razão de multas por atraso")
+                .register(metricas);
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        synchronized (this) {
+            emExecucao.values().forEach(interromper -> interromper.set(true));
+        }
+        coordenador.shutdown();
+        coordenador.awaitTermination(30, TimeUnit.SECONDS);
+        executorParticoes.shutdown();
+    }
+
+    // ========== EXECUÇÃO ==========
+
+    private synchronized Disparo disparar(LocalDate data, Integer particoesPedidas) {
+        LocalDate dataReferencia = data == null ? LocalDate.now() : data;
+        if (dataReferencia.isAfter(LocalDate.now())) {
+            throw new DadosInvalidosException("A data da apuração de multas não pode ser futura");
+        }
+        if (particoesPedidas != null && (particoesPedidas < 1 || particoesPedidas > MAXIMO_PARTICOES)) {
+            throw new DadosInvalidosException("A quantidade de partições deve estar entre 1 e " + MAXIMO_PARTICOES);
+        }
+        if (!emExecucao.isEmpty()) {
+            throw new DadosInvalidosException(
+                    "Já existe uma apuração de multas em andamento: " + emExecucao.keySet().iterator().next());
+        }
+
+        ApuracaoMultas existente = apuracoes.findByDataReferencia(dataReferencia).orElse(null);
+        if (existente != null && existente.getSituacao() == ApuracaoMultas.Situacao.CONCLUIDA) {
+            return new Disparo(existente.getId(), CompletableFuture.completedFuture(null));
+        }
+
+        Long id = new TransactionTemplate(gerenciadorTransacoes).execute(status -> existente == null
+                ? criar(dataReferencia, particoesPedidas == null ? quantidadeParticoes : particoesPedidas)
+                : reabrir(existente));
+
+        AtomicBoolean interromper = new AtomicBoolean();
+        emExecucao.put(id, interromper);
+        Future<?> conclusao;
+        try {
+            conclusao = coordenador.submit(() -> executar(id, interromper));
+        } catch (RuntimeException e) {
+            emExecucao.remove(id);
+            throw e;
+        }
+        return new Disparo(id, conclusao);
+    }
+
+    /**
+     * Nova apuração com os leitores existentes divididos em faixas de ID de tamanho igual
+     * A última faixa fica aberta para cobrir leitores incluídos depois
+     */
+    private Long criar(LocalDate dataReferencia, int quantidade) {
+        ApuracaoMultas apuracao = apuracoes.save(new ApuracaoMultas(dataReferencia, valorDiario.setScale(2)));
+        long[] faixa = jdbc.query("SELECT MIN(id), MAX(id) FROM leitores",
+                rs -> rs.next() && rs.getObject(1) != null ? new long[]{rs.getLong(1), rs.getLong(2)} : null);
+        if (faixa != null) {
+            long total = faixa[1] - faixa[0] + 1;
+            int n = (int) Math.min(quantidade, total);
+            long largura = (total + n - 1) / n;
+            for (int i = 0; i < n; i++) {
+                long inicial = faixa[0] + i * largura;
+                long fim = i == n - 1 ? Long.MAX_VALUE : inicial + largura - 1;
+                particoes.save(new ParticaoApuracao(apuracao.getId(), i + 1, inicial, fim));
+            }
+        }
+        return apuracao.getId();
+    }
+
+    private Long reabrir(ApuracaoMultas apuracao) {
+        apuracao.setSituacao(ApuracaoMultas.Situacao.EM_ANDAMENTO);
+        apuracao.setMensagem(null);
+        apuracao.setAtualizadaEm(LocalDateTime.now());
+        apuracoes.save(apuracao);
+        for (ParticaoApuracao particao : particoes.findByApuracaoIdAndSituacaoNotOrderByNumeroAsc(
+                apuracao.getId(), ApuracaoMultas.Situacao.CONCLUIDA)) {
+            particao.setSituacao(ApuracaoMultas.Situacao.EM_ANDAMENTO);
+            particao.setMensagem(null);
+            particao.setAtualizadaEm(LocalDateTime.now());
+            particoes.save(particao);
+        }
+        return apuracao.getId();
+    }
+
+    private void executar(Long id, AtomicBoolean interromper) {
+        long inicio = System.nanoTime();
+        try {
+            ApuracaoMultas apuracao = buscarPorId(id);
+            long centavosDia = apuracao.getValorDiario().movePointRight(2).longValueExact();
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (ParticaoApuracao particao : particoes.findByApuracaoIdAndSituacaoNotOrderByNumeroAsc(
+                    id, ApuracaoMultas.Situacao.CONCLUIDA)) {
+                ExecucaoParticao execucao = new ExecucaoParticao(
+                        particao, apuracao.getDataReferencia(), centavosDia, interromper);
+                tarefas.add(executorParticoes.submit(execucao::executar));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+
+            List<ParticaoApuracao> resultado = particoes.findByApuracaoIdOrderByNumeroAsc(id);
+            String falhas = numeros(resultado, ApuracaoMultas.Situacao.FALHOU);
+            if (!falhas.isEmpty()) {
+                finalizar(id, ApuracaoMultas.Situacao.FALHOU, "Partições com falha: " + falhas, inicio);
+            } else if (!numeros(resultado, ApuracaoMultas.Situacao.INTERROMPIDA).isEmpty()) {
+                finalizar(id, ApuracaoMultas.Situacao.INTERROMPIDA, null, inicio);
+            } else {
+                finalizar(id, ApuracaoMultas.Situacao.CONCLUIDA, null, inicio);
+            }
+        } catch (Exception e) {
+            log.error("Apuração de multas {} falhou: {}", id, e.getMessage(), e);
+            finalizar(id, ApuracaoMultas.Situacao.FALHOU, e.getMessage(), inicio);
+        } finally {
+            synchronized (this) {
+                emExecucao.remove(id);
+            }
+        }
+    }
+
+    private static String numeros(List<ParticaoApuracao> lista, ApuracaoMultas.Situacao situacao) {
+        return lista.stream()
+                .filter(particao -> particao.getSituacao() == situacao)
+                .map(particao -> String.valueOf(particao.getNumero()))
+                .collect(Collectors.joining(", "));
+    }
+
+    private void finalizar(Long id, ApuracaoMultas.Situacao situacao, String mensagem, long inicio) {
+        try {
+            ApuracaoMultas apuracao = apuracoes.findById(id).orElseThrow();
+            apuracao.setSituacao(situacao);
+            apuracao.setMensagem(mensagem == null ? null : mensagem.substring(0, Math.min(mensagem.length(), 1000)));
+            apuracao.setAtualizadaEm(LocalDateTime.now());
+            apuracoes.save(apuracao);
+            apuracao.setParticoes(particoes.findByApuracaoIdOrderByNumeroAsc(id));
+            log.info("Apuração de multas {} ({}) {} em {} ms: {} empréstimos atrasados, R$ {} lançados",
+                    id, apuracao.getDataReferencia(), situacao, (System.nanoTime() - inicio) / 1_000_000,
+                    apuracao.getEmprestimosProcessados(), apuracao.getValorLancado());
+        } catch (RuntimeException e) {
+            log.error("Não foi possível registrar a situação da apuração de multas {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Percorre os atrasados de uma partição gravando um bloco a cada tamanhoBloco empréstimos
+     */
+    private final class ExecucaoParticao implements RowCallbackHandler {
+
+        private final ParticaoApuracao particao;
+        private final LocalDate dataReferencia;
+        private final long centavosDia;
+        private final AtomicBoolean interromper;
+        private long inicio;
+        private final LocalDateTime lancadaEm = LocalDateTime.now();
+
+        private long processados;
+
+        // Bloco atual: lançamentos, débitos em centavos por leitor e último empréstimo lido
+        private final List<Object[]> lancamentos = new ArrayList<>();
+        private final Map<Long, Long> debitos = new HashMap<>();
+        private long centavosBloco;
+        private int lidosBloco;
+        private long ultimoId;
+
+        ExecucaoParticao(ParticaoApuracao particao, LocalDate dataReferencia, long centavosDia,
+                         AtomicBoolean interromper) {
+            this.particao = particao;
+            this.dataReferencia = dataReferencia;
+            this.centavosDia = centavosDia;
+            this.interromper = interromper;
+            this.ultimoId = particao.getUltimoEmprestimoId();
+        }
+
+        void executar() {
+            inicio = System.nanoTime();
+            try {
+                jdbc.query(conexao -> {
+                    PreparedStatement comando = conexao.prepareStatement(
+                            SQL_ATRASADOS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    comando.setFetchSize(tamanhoBloco);
+                    comando.setObject(1, dataReferencia);
+                    comando.setLong(2, particao.getLeitorInicial());
+                    comando.setLong(3, particao.getLeitorFinal());
+                    comando.setLong(4, particao.getUltimoEmprestimoId());
+                    return comando;
+                }, this);
+                gravarBloco();
+                encerrar(ApuracaoMultas.Situacao.CONCLUIDA, null);
+            } catch (Interrompida e) {
+                encerrar(ApuracaoMultas.Situacao.INTERROMPIDA, null);
+            } catch (RuntimeException e) {
+                log.error("Apuração de multas {}, partição {} falhou: {}",
+                        particao.getApuracaoId(), particao.getNumero(), e.getMessage(), e);
+                encerrar(ApuracaoMultas.Situacao.FALHOU, e.getMessage());
+            }
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (interromper.get()) {
+                throw new Interrompida();
+            }
+            long emprestimoId = rs.getLong(1);
+            long leitorId = rs.getLong(2);
+            long dias = ChronoUnit.DAYS.between(rs.getObject(3, LocalDate.class), dataReferencia);
+            long devido = dias * centavosDia;
+            long jaLancado = rs.getBigDecimal(4).movePointRight(2).longValue();
+            if (devido > jaLancado) {
+                long valor = devido - jaLancado;
+                lancamentos.add(new Object[]{emprestimoId, leitorId, dataReferencia, (int) dias,
+                        BigDecimal.valueOf(valor, 2), lancadaEm});
+                debitos.merge(leitorId, valor, Long::sum);
+                centavosBloco += valor;
+            }
+            ultimoId = emprestimoId;
+            if (++lidosBloco >= tamanhoBloco) {
+                gravarBloco();
+            }
+        }
+
+        /**
+         * Lançamentos, débitos e ponto de retomada do bloco na mesma transação
+         */
+        private void gravarBloco() {
+            processados += lidosBloco;
+            double segundos = Math.max((System.nanoTime() - inicio) / 1e9, 1e-3);
+            List<Object[]> ajustes = new ArrayList<>(debitos.size());
+            debitos.forEach((leitorId, centavos) -> ajustes.add(new Object[]{centavos / 100.0, leitorId}));
+
+            new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> {
+                if (!lancamentos.isEmpty()) {
+                    jdbc.batchUpdate(SQL_LANCAR, lancamentos);
+                    jdbc.batchUpdate(SQL_DEBITAR, ajustes);
+                }
+                jdbc.update(SQL_AVANCAR, ultimoId, lidosBloco, lancamentos.size(),
+                        BigDecimal.valueOf(centavosBloco, 2), Math.round(processados / segundos * 10) / 10.0,
+                        LocalDateTime.now(), particao.getId());
+            });
+
+            // Os débitos não passam pelo Hibernate: os leitores alterados saem do cache de segundo nível,
+            // e as consultas em cache (por fidelidade e limite, resumos com o limite) são descartadas
+            if (!debitos.isEmpty()) {
+                Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+                debitos.keySet().forEach(leitorId -> cache.evictEntityData(Leitor.class, leitorId));
+                cache.evictQueryRegions();
+            }
+            lancadas.increment(lancamentos.size());
+            lancamentos.clear();
+            debitos.clear();
+            centavosBloco = 0;
+            lidosBloco = 0;
+        }
+
+        private void encerrar(ApuracaoMultas.Situacao situacao, String mensagem) {
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            double porSegundo = Math.round(processados / Math.max(duracaoMs / 1000.0, 1e-3) * 10) / 10.0;
+            try {
+                new TransactionTemplate(gerenciadorTransacoes).executeWithoutResult(status -> {
+                    ParticaoApuracao atual = particoes.findById(particao.getId()).orElseThrow();
+                    atual.setSituacao(situacao);
+                    atual.setMensagem(mensagem == null ? null : mensagem.substring(0, Math.min(mensagem.length(), 1000)));
+                    atual.setDuracaoMs(duracaoMs);
+                    atual.setEmprestimosPorSegundo(porSegundo);
+                    atual.setAtualizadaEm(LocalDateTime.now());
+                });
+            } catch (RuntimeException e) {
+                log.error("Não foi possível registrar a situação da partição {} da apuração de multas {}: {}",
+                        particao.getNumero(), particao.getApuracaoId(), e.getMessage());
+            }
+            log.info("Apuração de multas {}, partição {} [leitores {}-{}] {}: {} empréstimos em {} ms ({}/s)",
+                    particao.getApuracaoId(), particao.getNumero(), particao.getLeitorInicial(),
+                    particao.getLeitorFinal() == Long.MAX_VALUE ? "" : particao.getLeitorFinal(),
+                    situacao, processados, duracaoMs, porSegundo);
+        }
+    }
+
+    /**
+     * Sinal de interrupção lançado do meio da leitura dos atrasados
+     */
+    private static final class Interrompida extends RuntimeException {
+        Interrompida() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Disparo {
+        private final Long apuracaoId;
+        private final Future<?> conclusao;
+
+        Disparo(Long apuracaoId, Future<?> conclusao) {
+            this.apuracaoId = apuracaoId;
+            this.conclusao = conclusao;
+        }
+    }
+}
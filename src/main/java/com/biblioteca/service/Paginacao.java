@@ -0,0 +1,78 @@
+package com.biblioteca.service;
+
+import com.biblioteca.busca.IndiceTrigramas;
+import com.biblioteca.dto.Pagina;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Configuração compartilhada da paginação por cursor
+ * Tamanho padrão e máximo definidos em application.properties
+ */
+@Component
+public class Paginacao {
+
+    @Value("${biblioteca.paginacao.tamanho-padrao:50}")
+    private int tamanhoPadrao;
+
+    @Value("${biblioteca.paginacao.tamanho-maximo:500}")
+    private int tamanhoMaximo;
+
+    /**
+     * Ajusta o tamanho solicitado ao intervalo permitido
+     */
+    public int normalizarTamanho(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) {
+            return tamanhoPadrao;
+        }
+        return Math.min(tamanho, tamanhoMaximo);
+    }
+
+    /**
+     * Cursor inicial quando o cliente não informa nenhum
+     */
+    public long normalizarCursor(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    /**
+     * Limite da consulta: um registro a mais para detectar se há próxima página
+     */
+    public Limit limiteConsulta(int tamanho) {
+        return Limit.of(tamanho + 1);
+    }
+
+    /**
+     * Página de uma busca por nome no índice de trigramas: pede ao índice os próximos
+     * IDs após o cursor e carrega os registros em blocos até reunir tamanho + 1 ou
+     * esgotar o índice. O carregamento pode descartar IDs (bibliotecários inativos,
+     * pessoas já excluídas) sem encurtar a página.
+     *
+     * @param carregar Registros dos IDs informados, em ordem de ID
+     */
+    public <T> Pagina<T> paginarBusca(IndiceTrigramas indice, String trecho, Long cursor, Integer tamanho,
+                                      Function<List<Long>, List<T>> carregar, Function<T, Long> extrairId) {
+        int tamanhoPagina = normalizarTamanho(tamanho);
+        int quantidade = tamanhoPagina + 1;
+        long aposId = normalizarCursor(cursor);
+        List<T> resultado = new ArrayList<>();
+        while (resultado.size() < quantidade) {
+            List<Long> ids = indice.buscarAposId(trecho, aposId, quantidade);
+            if (ids.isEmpty()) {
+                break;
+            }
+            resultado.addAll(carregar.apply(ids));
+            if (ids.size() < quantidade) {
+                break;
+            }
+            aposId = ids.get(ids.size() - 1);
+        }
+        return Pagina.de(resultado.size() > quantidade ? resultado.subList(0, quantidade) : resultado,
+                tamanhoPagina, extrairId);
+    }
+}
@@ -0,0 +1,390 @@
+package com.biblioteca.service;
+
+import com.biblioteca.busca.FilaReservas;
+import com.biblioteca.busca.RodaTemporizacao;
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.loader.DadosCarregadosEvent;
+import com.biblioteca.repository.ReservaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reservas de títulos (fila de espera por ISBN)
+ *
+ * As filas ficam em memória (FilaReservas) e são a referência durante a
+ * execução; as alterações são gravadas em lotes a cada
+ * biblioteca.reservas.gravacao-intervalo (write-behind) e remontadas do banco
+ * na inicialização. Quando um exemplar volta (devolução, exclusão, novo
+ * exemplar), ele é separado para a primeira reserva da fila em vez de voltar
+ * aos disponíveis; o leitor tem até biblioteca.reservas.prazo-retirada para
+ * retirá-lo, e os prazos vencidos são apurados por uma roda de temporização.
+ */
+@Service
+public class ReservaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservaService.class);
+
+    private static final int SLOTS_RODA = 512;
+
+    // Reservas por transação na gravação em lotes
+    private static final int BLOCO_GRAVACAO = 1_000;
+
+    @Autowired
+    private ReservaRepository repository;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private ExemplarService exemplarService;
+
+    @Autowired
+    private MeterRegistry metricas;
+
+    @Autowired
+    private PlatformTransactionManager gerenciadorTransacoes;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${biblioteca.reservas.prazo-retirada:P3D}")
+    private Duration prazoRetirada;
+
+    @Value("${biblioteca.reservas.verificacao-intervalo:PT1M}")
+    private Duration intervaloVerificacao;
+
+    private final FilaReservas fila = new FilaReservas();
+
+    // IDs são atribuídos em memória: a reserva responde antes de chegar ao banco
+    private final AtomicLong ultimoId = new AtomicLong();
+
+    // Reservas alteradas em memória e ainda não gravadas
+    private final Map<Long, FilaReservas.Entrada> pendentes = new ConcurrentHashMap<>();
+
+    // Reservas com exemplar separado, pelo prazo de retirada
+    private RodaTemporizacao<FilaReservas.Entrada> vencimentos;
+
+    private Counter expiradas;
+
+    /**
+     * Coloca o leitor na fila do ISBN; se houver exemplar livre, ele já é separado
+     */
+    public Reserva reservar(String isbn, Long leitorId) {
+        if (isbn == null || isbn.isBlank()) {
+            throw new DadosInvalidosException("ISBN é obrigatório");
+        }
+        if (leitorId == null) {
+            throw new DadosInvalidosException("Leitor é obrigatório");
+        }
+        leitorService.buscarPorId(leitorId);
+        String chave = isbn.trim();
+        if (!exemplarService.pertenceAoAcervo(chave)) {
+            throw new RecursoNaoEncontradoException("ISBN não cadastrado no acervo: " + chave);
+        }
+
+        FilaReservas.Entrada entrada = fila.adicionar(ultimoId.incrementAndGet(), leitorId, chave, LocalDateTime.now());
+        if (entrada == null) {
+            throw new DadosInvalidosException("O leitor já tem uma reserva ativa para o ISBN " + chave);
+        }
+        pendentes.put(entrada.getId(), entrada);
+        atenderFila(chave);
+        return entrada.paraReserva();
+    }
+
+    public Reserva buscarPorId(Long id) {
+        FilaReservas.Entrada entrada = fila.buscar(id);
+        if (entrada == null) {
+            return repository.findById(id)
+                    .orElseThrow(() -> new RecursoNaoEncontradoException("Reserva não encontrada com ID: " + id));
+        }
+        Reserva reserva = entrada.paraReserva();
+        reserva.setPosicao(fila.posicao(entrada));
+        return reserva;
+    }
+
+    /**
+     * Reservas ativas do ISBN: as com exemplar separado e depois a fila, na ordem de atendimento
+     */
+    public List<Reserva> listarPorIsbn(String isbn) {
+        List<Reserva> reservas = new ArrayList<>();
+        int posicao = 0;
+        for (FilaReservas.Entrada entrada : fila.listar(isbn)) {
+            Reserva reserva = entrada.paraReserva();
+            if (reserva.getSituacao() == Reserva.Situacao.AGUARDANDO) {
+                reserva.setPosicao(++posicao);
+            }
+            reservas.add(reserva);
+        }
+        return reservas;
+    }
+
+    /**
+     * Cancela a reserva; um exemplar já separado passa para a próxima da fila
+     */
+    public Reserva cancelar(Long id) {
+        FilaReservas.Entrada entrada = fila.buscar(id);
+        if (entrada == null) {
+            buscarPorId(id);
+            throw new DadosInvalidosException("A reserva " + id + " já foi encerrada");
+        }
+        if (!cancelarAtiva(entrada)) {
+            throw new DadosInvalidosException("A reserva " + id + " já foi encerrada");
+        }
+        return entrada.paraReserva();
+    }
+
+    /**
+     * Leitor excluído: depois do commit, as reservas ativas dele são canceladas e
+     * os exemplares já separados passam para a próxima reserva da fila
+     */
+    @EventListener
+    public void leitorExcluido(LeitorExcluidoEvent evento) {
+        Long leitorId = evento.getLeitorId();
+        AposCommit.executar(() -> fila.ativasDoLeitor(leitorId)
+                .forEach(this::cancelarAtiva));
+    }
+
+    /**
+     * Cancela uma reserva aguardando ou com exemplar separado (que é repassado)
+     * false se ela já tinha sido encerrada por outra operação
+     */
+    private boolean cancelarAtiva(FilaReservas.Entrada entrada) {
+        LocalDateTime agora = LocalDateTime.now();
+        if (fila.encerrar(entrada, Reserva.Situacao.AGUARDANDO, Reserva.Situacao.CANCELADA, agora)) {
+            pendentes.put(entrada.getId(), entrada);
+        } else if (fila.encerrar(entrada, Reserva.Situacao.DISPONIVEL, Reserva.Situacao.CANCELADA, agora)) {
+            pendentes.put(entrada.getId(), entrada);
+            repassar(entrada.getIsbn());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    // ========== RETIRADA E DEVOLUÇÃO ==========
+
+    /**
+     * Ocupa um exemplar para um novo empréstimo na transação corrente: usa o
+     * exemplar separado para a reserva do leitor, se houver, ou um livre
+     */
+    void retirar(String isbn, Long leitorId) {
+        FilaReservas.Entrada separada = fila.ativa(isbn, leitorId);
+        if (separada != null
+                && fila.encerrar(separada, Reserva.Situacao.DISPONIVEL, Reserva.Situacao.ATENDIDA, LocalDateTime.now())) {
+            pendentes.put(separada.getId(), separada);
+            AposCommit.seRollback(() -> {
+                fila.reabrir(separada);
+                pendentes.put(separada.getId(), separada);
+                agendarVencimento(separada);
+            });
+            return;
+        }
+        exemplarService.reservar(isbn);
+    }
+
+    /**
+     * Exemplar devolvido ou liberado: após o commit, vai para a fila do ISBN ou volta aos disponíveis
+     */
+    void liberarAposCommit(String isbn) {
+        if (isbn != null) {
+            AposCommit.executar(() -> repassar(isbn));
+        }
+    }
+
+    @EventListener
+    public void exemplaresIncluidos(ExemplaresIncluidosEvent evento) {
+        atenderFila(evento.getIsbn());
+    }
+
+    /**
+     * Passa um exemplar que já estava ocupado para a próxima reserva, em O(1);
+     * sem ninguém na fila ele volta aos disponíveis
+     */
+    private void repassar(String isbn) {
+        if (separarParaProxima(isbn)) {
+            return;
+        }
+        exemplarService.liberar(isbn);
+        // Uma reserva pode ter entrado na fila entre a consulta acima e a liberação
+        atenderFila(isbn);
+    }
+
+    /**
+     * Separa exemplares livres para as reservas aguardando, enquanto houver ambos
+     * Quem entra na fila e quem libera um exemplar chamam este método depois de
+     * publicar sua parte, então nenhum dos dois fica esperando pelo outro
+     */
+    private void atenderFila(String isbn) {
+        while (fila.temAguardando(isbn) && exemplarService.separar(isbn)) {
+            if (!separarParaProxima(isbn)) {
+                exemplarService.liberar(isbn);
+                return;
+            }
+        }
+    }
+
+    private boolean separarParaProxima(String isbn) {
+        LocalDateTime agora = LocalDateTime.now();
+        FilaReservas.Entrada proxima = fila.separarProximo(isbn, agora, agora.plus(prazoRetirada));
+        if (proxima == null) {
+            return false;
+        }
+        pendentes.put(proxima.getId(), proxima);
+        agendarVencimento(proxima);
+        return true;
+    }
+
+    // ========== PRAZOS DE RETIRADA ==========
+
+    @PostConstruct
+    void iniciar() {
+        vencimentos = new RodaTemporizacao<>(intervaloVerificacao.toMillis(), SLOTS_RODA, System.currentTimeMillis());
+        expiradas = Counter.builder("biblioteca.reservas.expiradas")
+                .description("Reservas com exemplar separado que não foram retiradas no prazo")
+                .register(metricas);
+        Gauge.builder("biblioteca.reservas.gravacao.pendentes", pendentes, Map::size)
+                .description("Reservas alteradas em memória aguardando gravação no banco")
+                .register(metricas);
+    }
+
+    /**
+     * Expira as reservas cujo prazo de retirada venceu e repassa os exemplares
+     * Retorna a quantidade de reservas expiradas
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.reservas.verificacao-intervalo:PT1M}")
+    public int expirarVencidas() {
+        LocalDateTime agora = LocalDateTime.now();
+        int quantidade = 0;
+        for (FilaReservas.Entrada entrada : vencimentos.avancar(System.currentTimeMillis())) {
+            // Retiradas, canceladas e reabertas com novo agendamento são ignoradas
+            if (!agora.isBefore(entrada.getPrazoRetirada())
+                    && fila.encerrar(entrada, Reserva.Situacao.DISPONIVEL, Reserva.Situacao.EXPIRADA, agora)) {
+                pendentes.put(entrada.getId(), entrada);
+                repassar(entrada.getIsbn());
+                quantidade++;
+            }
+        }
+        expiradas.increment(quantidade);
+        return quantidade;
+    }
+
+    private void agendarVencimento(FilaReservas.Entrada entrada) {
+        vencimentos.agendar(entrada,
+                entrada.getPrazoRetirada().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    // ========== GRAVAÇÃO (WRITE-BEHIND) ==========
+
+    /**
+     * Grava no banco as reservas alteradas desde a última gravação, em lotes
+     * Uma reserva alterada de novo durante a gravação volta a ficar pendente;
+     * se a gravação falhar, o lote continua pendente para a próxima rodada.
+     * Retorna a quantidade de reservas gravadas.
+     */
+    @Scheduled(fixedDelayString = "${biblioteca.reservas.gravacao-intervalo:PT1S}")
+    public synchronized int gravarPendentes() {
+        List<FilaReservas.Entrada> lote = new ArrayList<>();
+        for (Iterator<FilaReservas.Entrada> iterador = pendentes.values().iterator(); iterador.hasNext(); ) {
+            lote.add(iterador.next());
+            iterador.remove();
+        }
+
+        TransactionTemplate transacao = new TransactionTemplate(gerenciadorTransacoes);
+        int gravadas = 0;
+        for (int inicio = 0; inicio < lote.size(); inicio += BLOCO_GRAVACAO) {
+            List<FilaReservas.Entrada> bloco = lote.subList(inicio, Math.min(inicio + BLOCO_GRAVACAO, lote.size()));
+            try {
+                transacao.executeWithoutResult(status -> gravar(bloco));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar {} reservas; nova tentativa na próxima rodada", bloco.size(), e);
+                bloco.forEach(entrada -> pendentes.putIfAbsent(entrada.getId(), entrada));
+                continue;
+            }
+            gravadas += bloco.size();
+            for (FilaReservas.Entrada entrada : bloco) {
+                if (encerrada(entrada) && !pendentes.containsKey(entrada.getId())) {
+                    fila.descartar(entrada);
+                }
+            }
+        }
+        return gravadas;
+    }
+
+    private void gravar(List<FilaReservas.Entrada> bloco) {
+        Map<Long, Reserva> gravadas = repository.findAllById(bloco.stream().map(FilaReservas.Entrada::getId).toList())
+                .stream().collect(Collectors.toMap(Reserva::getId, Function.identity()));
+        for (FilaReservas.Entrada entrada : bloco) {
+            Reserva retrato = entrada.paraReserva();
+            Reserva gravada = gravadas.get(retrato.getId());
+            if (gravada == null) {
+                entityManager.persist(retrato);
+            } else {
+                gravada.setSituacao(retrato.getSituacao());
+                gravada.setDisponivelEm(retrato.getDisponivelEm());
+                gravada.setPrazoRetirada(retrato.getPrazoRetirada());
+                gravada.setEncerradaEm(retrato.getEncerradaEm());
+            }
+        }
+    }
+
+    private static boolean encerrada(FilaReservas.Entrada entrada) {
+        Reserva.Situacao situacao = entrada.getSituacao();
+        return situacao != Reserva.Situacao.AGUARDANDO && situacao != Reserva.Situacao.DISPONIVEL;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarPendentes();
+    }
+
+    /**
+     * Remonta as filas a partir do banco na inicialização (depois dos contadores
+     * de disponibilidade, que já contam os exemplares separados) e atende as
+     * filas de títulos que tenham exemplares livres
+     */
+    @EventListener(DadosCarregadosEvent.class)
+    @Order(2)
+    public void carregarFilas() {
+        fila.limpar();
+        vencimentos.limpar();
+        pendentes.clear();
+        ultimoId.set(repository.buscarMaiorId());
+        for (Reserva reserva : repository.findBySituacaoInOrderByIdAsc(
+                List.of(Reserva.Situacao.AGUARDANDO, Reserva.Situacao.DISPONIVEL))) {
+            FilaReservas.Entrada entrada = fila.restaurar(reserva);
+            if (reserva.getSituacao() == Reserva.Situacao.DISPONIVEL) {
+                agendarVencimento(entrada);
+            }
+        }
+        fila.isbns().forEach(this::atenderFila);
+    }
+}
@@ -0,0 +1,46 @@
+package com.biblioteca.service;
+
+import com.biblioteca.exception.DadosInvalidosException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Gravação com as restrições UNIQUE do banco como fonte da verdade
+ * Em vez de consultar antes de gravar (check-then-act, sujeito a corrida),
+ * grava direto e traduz a violação da restrição para DadosInvalidosException
+ */
+final class RestricoesUnicas {
+
+    private RestricoesUnicas() {}
+
+    /**
+     * Executa a gravação (que deve incluir o flush) e traduz violações das restrições
+     * informadas (nome da restrição → mensagem); outras violações seguem como estão
+     */
+    static <T> T gravar(Supplier<T> gravacao, Map<String, String> mensagens) {
+        try {
+            return gravacao.get();
+        } catch (DataIntegrityViolationException e) {
+            String restricao = nomeRestricao(e);
+            for (Map.Entry<String, String> mensagem : mensagens.entrySet()) {
+                if (restricao.contains(mensagem.getKey())) {
+                    throw new DadosInvalidosException(mensagem.getValue(), e);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static String nomeRestricao(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+                return violacao.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,69 @@
+-- ================================================
+-- V1 - Esquema inicial
+-- Equivalente ao que o Hibernate gerava com ddl-auto=update
+-- ================================================
+
+CREATE TABLE bibliotecarios (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome               VARCHAR(255) NOT NULL,
+    cpf                VARCHAR(11)  NOT NULL,
+    email              VARCHAR(255),
+    telefone           VARCHAR(255),
+    logradouro         VARCHAR(255),
+    numero             VARCHAR(255),
+    complemento        VARCHAR(255),
+    bairro             VARCHAR(255),
+    cidade             VARCHAR(255),
+    estado             VARCHAR(255),
+    cep                VARCHAR(255),
+    codigo_funcionario VARCHAR(255) NOT NULL,
+    data_admissao      DATE,
+    turno              VARCHAR(255),
+    ativo              BOOLEAN,
+    salario            FLOAT(53),
+    matricula          VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_bibliotecarios PRIMARY KEY (id),
+    CONSTRAINT uk_bibliotecarios_cpf UNIQUE (cpf),
+    CONSTRAINT uk_bibliotecarios_email UNIQUE (email),
+    CONSTRAINT uk_bibliotecarios_codigo_funcionario UNIQUE (codigo_funcionario),
+    CONSTRAINT uk_bibliotecarios_matricula UNIQUE (matricula)
+);
+
+CREATE TABLE leitores (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome                VARCHAR(255) NOT NULL,
+    cpf                 VARCHAR(11)  NOT NULL,
+    email               VARCHAR(255),
+    telefone            VARCHAR(255),
+    logradouro          VARCHAR(255),
+    numero              VARCHAR(255),
+    complemento         VARCHAR(255),
+    bairro              VARCHAR(255),
+    cidade              VARCHAR(255),
+    estado              VARCHAR(255),
+    cep                 VARCHAR(255),
+    matricula           VARCHAR(255) NOT NULL,
+    data_cadastro       DATE,
+    ativo               BOOLEAN,
+    fidelidade          VARCHAR(255),
+    limite_credito      FLOAT(53),
+    data_ultima_leitura DATE,
+    CONSTRAINT pk_leitores PRIMARY KEY (id),
+    CONSTRAINT uk_leitores_cpf UNIQUE (cpf),
+    CONSTRAINT uk_leitores_email UNIQUE (email),
+    CONSTRAINT uk_leitores_matricula UNIQUE (matricula)
+);
+
+CREATE TABLE emprestimos (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    leitor_id               BIGINT       NOT NULL,
+    titulo_livro            VARCHAR(255) NOT NULL,
+    autor                   VARCHAR(255),
+    isbn                    VARCHAR(255),
+    data_emprestimo         DATE,
+    data_devolucao_prevista DATE,
+    data_devolucao_efetiva  DATE,
+    devolvido               BOOLEAN,
+    CONSTRAINT pk_emprestimos PRIMARY KEY (id),
+    CONSTRAINT fk_emprestimos_leitor FOREIGN KEY (leitor_id) REFERENCES leitores (id)
+);
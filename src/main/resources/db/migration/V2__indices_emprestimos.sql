@@ -0,0 +1,12 @@
+-- ================================================
+-- V2 - Índices para as consultas mais frequentes de empréstimos
+-- ================================================
+
+-- findByDataDevolucaoPrevistaBeforeAndDevolvidoFalse / findByDevolvido
+CREATE INDEX idx_emprestimos_devolvido_prevista ON emprestimos (devolvido, data_devolucao_prevista);
+
+-- findByLeitorIdAndDevolvido / findByLeitorId (cobre também a FK)
+CREATE INDEX idx_emprestimos_leitor_devolvido ON emprestimos (leitor_id, devolvido);
+
+-- findByDataEmprestimoBetween
+CREATE INDEX idx_emprestimos_data_emprestimo ON emprestimos (data_emprestimo);
@@ -0,0 +1,22 @@
+-- ================================================
+-- V3 - IDs gerados por sequência
+-- Com IDENTITY o Hibernate precisa executar cada INSERT para conhecer o ID,
+-- o que desativa o batching JDBC. Com sequências (incremento 50, otimizador
+-- pooled) os IDs são reservados em blocos e os INSERTs seguem em lote.
+-- O DEFAULT das colunas passa a usar a mesma sequência, então INSERTs feitos
+-- direto em SQL não colidem com os blocos reservados pelo Hibernate.
+-- O banco é criado vazio (H2 em memória), por isso as sequências começam em 1.
+-- ================================================
+
+CREATE SEQUENCE bibliotecarios_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE leitores_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE emprestimos_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE bibliotecarios ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bibliotecarios ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bibliotecarios_seq;
+
+ALTER TABLE leitores ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE leitores ALTER COLUMN id SET DEFAULT NEXT VALUE FOR leitores_seq;
+
+ALTER TABLE emprestimos ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE emprestimos ALTER COLUMN id SET DEFAULT NEXT VALUE FOR emprestimos_seq;
@@ -0,0 +1,25 @@
+-- ================================================
+-- V4 - Controle das importações em massa de arquivos
+-- Cada importação guarda o byte até onde o arquivo já foi gravado; o ponto de
+-- retomada é atualizado na mesma transação de cada bloco de empréstimos, então
+-- uma importação interrompida continua exatamente do último bloco confirmado.
+-- ================================================
+
+CREATE SEQUENCE importacoes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE importacoes (
+    id                 BIGINT        DEFAULT NEXT VALUE FOR importacoes_seq PRIMARY KEY,
+    arquivo            VARCHAR(1024) NOT NULL,
+    tamanho_bytes      BIGINT        NOT NULL,
+    posicao_bytes      BIGINT        NOT NULL,
+    linhas_importadas  BIGINT        NOT NULL,
+    linhas_rejeitadas  BIGINT        NOT NULL,
+    linhas_por_segundo DOUBLE PRECISION,
+    situacao           VARCHAR(20)   NOT NULL,
+    ultima_rejeicao    VARCHAR(500),
+    mensagem           VARCHAR(1000),
+    iniciada_em        TIMESTAMP     NOT NULL,
+    atualizada_em      TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX idx_importacoes_arquivo ON importacoes (arquivo);
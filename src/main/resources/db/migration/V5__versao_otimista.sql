@@ -0,0 +1,9 @@
+-- ================================================
+-- V5 - Versão das linhas (@Version)
+-- Incrementada a cada alteração: serve de ETag forte nas respostas da API,
+-- de pré-condição para If-Match e de bloqueio otimista nas gravações.
+-- ================================================
+
+ALTER TABLE bibliotecarios ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE leitores ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE emprestimos ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,22 @@
+-- ================================================
+-- V6 - Acervo físico: exemplares por ISBN
+-- Cada linha é uma cópia física (código de tombo único). A disponibilidade de
+-- um ISBN é a quantidade de exemplares menos os empréstimos em aberto dele;
+-- o índice (isbn, devolvido) atende a contagem dos abertos por ISBN.
+-- ================================================
+
+CREATE SEQUENCE exemplares_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE exemplares (
+    id              BIGINT       DEFAULT NEXT VALUE FOR exemplares_seq PRIMARY KEY,
+    isbn            VARCHAR(20)  NOT NULL,
+    codigo          VARCHAR(50)  NOT NULL,
+    titulo_livro    VARCHAR(255) NOT NULL,
+    autor           VARCHAR(255),
+    data_aquisicao  DATE,
+    CONSTRAINT uk_exemplares_codigo UNIQUE (codigo)
+);
+
+CREATE INDEX idx_exemplares_isbn ON exemplares (isbn);
+
+CREATE INDEX idx_emprestimos_isbn_devolvido ON emprestimos (isbn, devolvido);
@@ -0,0 +1,22 @@
+-- ================================================
+-- V7 - Reservas (fila de espera por ISBN)
+-- A fila fica em memória e é gravada em lotes logo depois (write-behind):
+-- o ID é atribuído pela aplicação ao entrar na fila (maior ID + 1), por isso
+-- não há sequência, e leitor_id não tem chave estrangeira, já que a linha pode
+-- chegar ao banco depois de o leitor ser alterado. Reservas DISPONIVEL
+-- ocupam um exemplar até a retirada ou o fim do prazo.
+-- ================================================
+
+CREATE TABLE reservas (
+    id               BIGINT       PRIMARY KEY,
+    leitor_id        BIGINT       NOT NULL,
+    isbn             VARCHAR(20)  NOT NULL,
+    situacao         VARCHAR(20)  NOT NULL,
+    criada_em        TIMESTAMP    NOT NULL,
+    disponivel_em    TIMESTAMP,
+    prazo_retirada   TIMESTAMP,
+    encerrada_em     TIMESTAMP
+);
+
+CREATE INDEX idx_reservas_situacao_isbn ON reservas (situacao, isbn);
+CREATE INDEX idx_reservas_leitor ON reservas (leitor_id);
@@ -0,0 +1,58 @@
+-- ================================================
+-- V8 - Multas por atraso (razão de lançamentos e apurações noturnas)
+-- Cada lançamento é o valor devido por um empréstimo atrasado até a data da
+-- apuração menos o que já foi lançado para ele, e é debitado do limite de
+-- crédito do leitor na mesma transação. A apuração é dividida em partições
+-- por faixa de ID de leitor; cada partição guarda o último empréstimo
+-- confirmado e é retomada dele. multas não tem chave estrangeira para
+-- emprestimos: o empréstimo pode ser excluído e o lançamento permanece.
+-- ================================================
+
+CREATE SEQUENCE multas_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE multas (
+    id               BIGINT        DEFAULT NEXT VALUE FOR multas_seq PRIMARY KEY,
+    emprestimo_id    BIGINT        NOT NULL,
+    leitor_id        BIGINT        NOT NULL,
+    data_referencia  DATE          NOT NULL,
+    dias_atraso      INTEGER       NOT NULL,
+    valor            DECIMAL(12,2) NOT NULL,
+    lancada_em       TIMESTAMP     NOT NULL,
+    CONSTRAINT uk_multas_emprestimo_data UNIQUE (emprestimo_id, data_referencia)
+);
+
+CREATE INDEX idx_multas_leitor ON multas (leitor_id);
+
+CREATE SEQUENCE apuracoes_multas_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE apuracoes_multas (
+    id               BIGINT        DEFAULT NEXT VALUE FOR apuracoes_multas_seq PRIMARY KEY,
+    data_referencia  DATE          NOT NULL,
+    valor_diario     DECIMAL(12,2) NOT NULL,
+    situacao         VARCHAR(20)   NOT NULL,
+    mensagem         VARCHAR(1000),
+    iniciada_em      TIMESTAMP     NOT NULL,
+    atualizada_em    TIMESTAMP     NOT NULL,
+    CONSTRAINT uk_apuracoes_multas_data UNIQUE (data_referencia)
+);
+
+CREATE SEQUENCE particoes_apuracao_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE particoes_apuracao (
+    id                       BIGINT        DEFAULT NEXT VALUE FOR particoes_apuracao_seq PRIMARY KEY,
+    apuracao_id              BIGINT        NOT NULL,
+    numero                   INTEGER       NOT NULL,
+    leitor_inicial           BIGINT        NOT NULL,
+    leitor_final             BIGINT        NOT NULL,
+    situacao                 VARCHAR(20)   NOT NULL,
+    ultimo_emprestimo_id     BIGINT        NOT NULL,
+    emprestimos_processados  BIGINT        NOT NULL,
+    multas_lancadas          BIGINT        NOT NULL,
+    valor_lancado            DECIMAL(14,2) NOT NULL,
+    emprestimos_por_segundo  DOUBLE PRECISION,
+    duracao_ms               BIGINT,
+    mensagem                 VARCHAR(1000),
+    atualizada_em            TIMESTAMP     NOT NULL,
+    CONSTRAINT fk_particoes_apuracao FOREIGN KEY (apuracao_id) REFERENCES apuracoes_multas (id),
+    CONSTRAINT uk_particoes_apuracao_numero UNIQUE (apuracao_id, numero)
+);
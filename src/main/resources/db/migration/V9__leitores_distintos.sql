@@ -0,0 +1,22 @@
+-- ================================================
+-- V9 - Leitores distintos por ISBN e por cidade (HyperLogLog por mês)
+-- Os resumos ficam em memória, são atualizados a cada retirada e gravados
+-- periodicamente (MERGE por dimensão, valor e mês). registros é o
+-- HyperLogLog serializado; estimativa é só informativa. ultimo_emprestimo_id
+-- é o maior empréstimo contado na gravação: na inicialização, os resumos
+-- gravados são carregados e só os empréstimos posteriores são relidos.
+-- ================================================
+
+CREATE SEQUENCE leitores_distintos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE leitores_distintos (
+    id                    BIGINT           DEFAULT NEXT VALUE FOR leitores_distintos_seq PRIMARY KEY,
+    dimensao              VARCHAR(10)      NOT NULL,
+    valor                 VARCHAR(255)     NOT NULL,
+    mes                   DATE             NOT NULL,
+    registros             VARBINARY(65538) NOT NULL,
+    estimativa            BIGINT           NOT NULL,
+    ultimo_emprestimo_id  BIGINT           NOT NULL,
+    atualizado_em         TIMESTAMP        NOT NULL,
+    CONSTRAINT uk_leitores_distintos UNIQUE (dimensao, valor, mes)
+);
@@ -0,0 +1,80 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.repository.EmprestimoRepository;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Consulta de atrasados pelo banco versus pelo índice de vencimentos, e reconciliação após
+ * alterações feitas direto no banco
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=AtrasadosBenchmarkTest [-Dbenchmark.linhas=300000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AtrasadosBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AtrasadosBenchmarkTest.class);
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private EmprestimoRepository repository;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void bancoVersusIndice() {
+        int linhas = Integer.getInteger("benchmark.linhas", 300_000);
+        List<Long> leitorIds = leitorRepository.findAll().stream().map(Leitor::getId).toList();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, linhas);
+
+        // Inserções via JDBC não passam pelo serviço: a reconciliação encontra todas as abertas
+        int abertos = jdbc.queryForObject("SELECT COUNT(*) FROM emprestimos WHERE devolvido = FALSE", Integer.class);
+        int corrigidas = service.reconciliarIndiceVencimentos();
+        log.info("Reconciliação após carga via JDBC: {} entradas corrigidas ({} em aberto)",
+                corrigidas, abertos);
+        assertEquals(0, service.reconciliarIndiceVencimentos());
+
+        jdbc.update("UPDATE emprestimos SET devolvido = TRUE WHERE id IN "
+                + "(SELECT id FROM emprestimos WHERE devolvido = FALSE ORDER BY id FETCH FIRST 100 ROWS ONLY)");
+        jdbc.update("UPDATE emprestimos SET data_devolucao_prevista = data_devolucao_prevista + 1 WHERE id IN "
+                + "(SELECT id FROM emprestimos WHERE devolvido = FALSE ORDER BY id DESC FETCH FIRST 50 ROWS ONLY)");
+        assertEquals(150, service.reconciliarIndiceVencimentos());
+
+        int atrasados = service.listarAtrasados().size();
+        assertEquals(repository.findByDataDevolucaoPrevistaBeforeAndDevolvidoFalse(LocalDate.now()).size(), atrasados);
+
+        double bancoMs = MassaDeDados.medirMs(5,
+                () -> repository.findByDataDevolucaoPrevistaBeforeAndDevolvidoFalse(LocalDate.now()));
+        double indiceMs = MassaDeDados.medirMs(5, () -> service.listarAtrasados());
+        double reconciliacaoMs = MassaDeDados.medirMs(3, () -> service.reconciliarIndiceVencimentos());
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%d atrasados | banco %.1f ms | índice %.1f ms | reconciliação %.1f ms",
+                    atrasados, bancoMs, indiceMs, reconciliacaoMs));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.busca.TriePrefixos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memória e latência (p50/p99) do autocompletar com leituras concorrentes e escritas contínuas
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=AutocompleteBenchmarkTest [-Dbenchmark.linhas=1000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AutocompleteBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteBenchmarkTest.class);
+
+    private static final String[] PALAVRAS = {"Memórias", "Sertão", "Capitães", "Areia", "Vidas", "Secas",
+            "Cortiço", "Casmurro", "Dom", "Noite", "Mar", "Ação", "História", "Brasil", "Código", "Limpo",
+            "Arquitetura", "Coração", "Estrela", "Cidade", "Rio", "Sol", "Tempo", "Vento", "Sombra", "Pedra"};
+
+    private static final int LEITORES = 8;
+    private static final int CONSULTAS_POR_LEITOR = 50_000;
+
+    @Test
+    void memoriaELatenciaSobConcorrencia() throws Exception {
+        int linhas = Integer.getInteger("benchmark.linhas", 1_000_000);
+        String[] titulos = new String[linhas];
+        for (int i = 0; i < linhas; i++) {
+            titulos[i] = titulo(i);
+        }
+
+        long antes = memoriaUsada();
+        TriePrefixos trie = new TriePrefixos();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < linhas; i++) {
+            trie.adicionar(titulos[i], 1 + (i % 97));
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long depois = memoriaUsada();
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%d chaves em %.1f s; memória: %.1f MB por 100 mil chaves (textos incluídos)",
+                    trie.total(), segundos, (depois - antes) / 1e6 / (trie.total() / 100_000.0)));
+        }
+
+        AtomicBoolean executando = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(LEITORES + 1);
+        Future<?> escritor = executor.submit(() -> {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            while (executando.get()) {
+                String titulo = titulos[aleatorio.nextInt(linhas)];
+                trie.adicionar(titulo);
+                trie.remover(titulo);
+            }
+        });
+
+        List<Future<long[]>> leitores = new ArrayList<>();
+        for (int t = 0; t < LEITORES; t++) {
+            leitores.add(executor.submit(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                long[] tempos = new long[CONSULTAS_POR_LEITOR];
+                for (int i = 0; i < tempos.length; i++) {
+                    String titulo = titulos[aleatorio.nextInt(linhas)];
+                    String prefixo = titulo.substring(0, 1 + aleatorio.nextInt(Math.min(12, titulo.length())));
+                    long t0 = System.nanoTime();
+                    trie.sugerir(prefixo, TriePrefixos.CAPACIDADE);
+                    tempos[i] = System.nanoTime() - t0;
+                }
+                return tempos;
+            }));
+        }
+
+        long[] todos = new long[0];
+        for (Future<long[]> leitor : leitores) {
+            long[] tempos = leitor.get();
+            int tamanho = todos.length;
+            todos = Arrays.copyOf(todos, tamanho + tempos.length);
+            System.arraycopy(tempos, 0, todos, tamanho, tempos.length);
+        }
+        executando.set(false);
+        escritor.get();
+        executor.shutdown();
+
+        Arrays.sort(todos);
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%d consultas em %d threads (com escritas concorrentes): p50 %.3f ms | p99 %.3f ms | p99.9 %.3f ms",
+                    todos.length, LEITORES, percentil(todos, 0.50), percentil(todos, 0.99), percentil(todos, 0.999)));
+        }
+    }
+
+    private static String titulo(int i) {
+        return PALAVRAS[i % PALAVRAS.length] + " " + PALAVRAS[(i / 26) % PALAVRAS.length] + " "
+                + PALAVRAS[(i / 676) % PALAVRAS.length] + " vol. " + i;
+    }
+
+    private static double percentil(long[] ordenados, double p) {
+        return ordenados[(int) Math.min(ordenados.length - 1, p * ordenados.length)] / 1e6;
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
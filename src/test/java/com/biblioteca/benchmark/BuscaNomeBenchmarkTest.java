@@ -0,0 +1,52 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.busca.IndiceTrigramas;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latência do índice de trigramas de nomes com um milhão de pessoas
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=BuscaNomeBenchmarkTest [-Dbenchmark.linhas=1000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BuscaNomeBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaNomeBenchmarkTest.class);
+
+    private static final String[] PRENOMES = {"João", "Maria", "José", "Ana", "Antônio", "Francisca",
+            "Carlos", "Márcia", "Paulo", "Luíza", "Pedro", "Beatriz", "Lucas", "Fernanda", "Rafael", "Júlia"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Conceição", "Ribeiro", "Araújo", "Carvalho", "Guimarães", "Brandão"};
+    private static final String[] CONSULTAS = {"jo", "silva", "Conceicao", "maria jose", "araujo 4242", "xyz"};
+
+    @Test
+    void buscaPorTrechoDoNome() {
+        int linhas = Integer.getInteger("benchmark.linhas", 1_000_000);
+        IndiceTrigramas indice = new IndiceTrigramas();
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < linhas; i++) {
+            String nome = PRENOMES[i % PRENOMES.length] + " "
+                    + PRENOMES[(i / 16) % PRENOMES.length] + " "
+                    + SOBRENOMES[(i / 7) % SOBRENOMES.length] + " " + i;
+            indice.indexar((long) i + 1, nome);
+        }
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Índice com %d nomes montado em %.1f s", linhas, (System.nanoTime() - inicio) / 1e9));
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%14s | %14s | %18s", "consulta", "média (ms)", "página por ID (ms)"));
+        }
+        for (String consulta : CONSULTAS) {
+            double ms = MassaDeDados.medirMs(200, () -> indice.buscar(consulta, 200));
+            double pagina = MassaDeDados.medirMs(20, () -> indice.buscarAposId(consulta, linhas / 2, 51));
+            if (log.isInfoEnabled()) {
+                log.info(String.format("%14s | %14.3f | %18.3f", consulta, ms, pagina));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.repository.EmprestimoRepository;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+/**
+ * Latência da busca textual (Lucene) versus LIKE '%x%' no banco
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=BuscaTextualBenchmarkTest [-Dbenchmark.linhas=1000000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BuscaTextualBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaTextualBenchmarkTest.class);
+
+    private static final String[] CONSULTAS = {"Capitães da Areia vol. 999", "Machado", "sertao veredas"};
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private EmprestimoRepository repository;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void buscaTextualVersusLike() {
+        int linhas = Integer.getInteger("benchmark.linhas", 1_000_000);
+        List<Long> leitorIds = leitorRepository.findAll().stream().map(Leitor::getId).toList();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, linhas);
+
+        long inicio = System.nanoTime();
+        service.sincronizarIndiceTextual();
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Índice reconstruído com %d linhas em %.1f s",
+                    linhas, (System.nanoTime() - inicio) / 1e9));
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%28s | %16s | %16s | %14s",
+                    "consulta", "LIKE todos (ms)", "LIKE 50 (ms)", "Lucene 50 (ms)"));
+        }
+        for (String consulta : CONSULTAS) {
+            double likeTodos = MassaDeDados.medirMs(3,
+                    () -> repository.findByTituloLivroContainingIgnoreCase(consulta));
+            double like50 = MassaDeDados.medirMs(10, () -> jdbc.queryForList(
+                    "SELECT id FROM emprestimos WHERE UPPER(titulo_livro) LIKE UPPER(?) FETCH FIRST 50 ROWS ONLY",
+                    Long.class, "%" + consulta + "%"));
+            double lucene = MassaDeDados.medirMs(50, () -> service.buscarTexto(consulta, null, 50));
+
+            if (log.isInfoEnabled()) {
+                log.info(String.format("%28s | %16.2f | %16.2f | %14.3f", consulta, likeTodos, like50, lucene));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import com.biblioteca.service.LeitorService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Round-trips SQL por empréstimo (POST /emprestimos) e por busca de leitor por CPF
+ * com o cache de segundo nível vazio (esvaziado antes de cada operação) e aquecido
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=CacheSegundoNivelBenchmarkTest [-Dbenchmark.linhas=5000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.emprestimos.limite.bronze=100000",
+        "biblioteca.emprestimos.limite.prata=100000",
+        "biblioteca.emprestimos.limite.ouro=100000",
+        "biblioteca.emprestimos.limite.diamante=100000"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CacheSegundoNivelBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSegundoNivelBenchmarkTest.class);
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void emprestimosComCacheFrioVersusQuente() {
+        int linhas = Integer.getInteger("benchmark.linhas", 5_000);
+        List<Leitor> leitores = leitorRepository.findAll();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        medir("empréstimo, cache frio", linhas, estatisticas, i -> {
+            entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+            emprestimoService.incluir(novoEmprestimo(leitores, i));
+        });
+        medir("empréstimo, cache quente", linhas, estatisticas,
+                i -> emprestimoService.incluir(novoEmprestimo(leitores, i)));
+
+        medir("CPF, cache frio", linhas, estatisticas, i -> {
+            entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+            leitorService.buscarPorCpf(leitores.get(i % leitores.size()).getCpf());
+        });
+        medir("CPF, cache quente", linhas, estatisticas,
+                i -> leitorService.buscarPorCpf(leitores.get(i % leitores.size()).getCpf()));
+    }
+
+    private static void medir(String modo, int linhas, Statistics estatisticas, IntConsumer operacao) {
+        estatisticas.clear();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < linhas; i++) {
+            operacao.accept(i);
+        }
+        long nanos = System.nanoTime() - inicio;
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%-26s | %6d ops | %8.0f ops/s | %5.2f statements/op | L2 %d acertos / %d faltas"
+                            + " | natural-id %d acertos / %d faltas",
+                    modo, linhas, linhas / (nanos / 1e9),
+                    (double) estatisticas.getPrepareStatementCount() / linhas,
+                    estatisticas.getSecondLevelCacheHitCount(), estatisticas.getSecondLevelCacheMissCount(),
+                    estatisticas.getNaturalIdCacheHitCount(), estatisticas.getNaturalIdCacheMissCount()));
+        }
+    }
+
+    private static Emprestimo novoEmprestimo(List<Leitor> leitores, int i) {
+        Leitor leitor = new Leitor();
+        leitor.setId(leitores.get(i % leitores.size()).getId());
+        return new Emprestimo(leitor, "Livro de teste vol. " + i, "Autor " + (i % 100), null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.service.LeitorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vazão (leitores/s) da carga antiga, um incluir() por linha, versus a carga em blocos
+ * (incluirCarga, uma transação e uma verificação de CPF por bloco)
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=CargaInicialBenchmarkTest [-Dbenchmark.linhas=20000]
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=INFO"})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CargaInicialBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaInicialBenchmarkTest.class);
+
+    private static final int TAMANHO_BLOCO = 5_000;
+
+    @Autowired
+    private LeitorService service;
+
+    @Test
+    void umAUmVersusBlocos() {
+        int linhas = Integer.getInteger("benchmark.linhas", 20_000);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < linhas; i++) {
+            service.incluir(novoLeitor(i));
+        }
+        imprimir("um a um", linhas, 0, System.nanoTime() - inicio);
+
+        int rejeitados = 0;
+        inicio = System.nanoTime();
+        for (int bloco = 0; bloco < linhas; bloco += TAMANHO_BLOCO) {
+            List<Leitor> leitores = new ArrayList<>(TAMANHO_BLOCO);
+            for (int i = bloco; i < Math.min(bloco + TAMANHO_BLOCO, linhas); i++) {
+                leitores.add(novoLeitor(linhas + i));
+            }
+            Map<Integer, String> motivos = service.incluirCarga(leitores);
+            rejeitados += motivos.size();
+        }
+        imprimir("blocos de " + TAMANHO_BLOCO, linhas, rejeitados, System.nanoTime() - inicio);
+    }
+
+    private static Leitor novoLeitor(int i) {
+        Leitor leitor = new Leitor();
+        leitor.setNome("Leitor de Carga " + i);
+        leitor.setEmail("carga" + i + "@teste.com");
+        leitor.setCpf(String.format("%011d", 90_000_000_000L + i));
+        leitor.setMatricula("CARGA-" + i);
+        leitor.setFidelidade("BRONZE");
+        leitor.setLimiteCredito(500.0);
+        leitor.setAtivo(true);
+        return leitor;
+    }
+
+    private static void imprimir(String modo, int linhas, int rejeitados, long nanos) {
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%-16s | %8d leitores | %10.0f leitores/s | %d rejeitados",
+                    modo, linhas, linhas / (nanos / 1e9), rejeitados));
+        }
+    }
+}
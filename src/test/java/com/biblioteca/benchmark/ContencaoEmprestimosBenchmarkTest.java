@@ -0,0 +1,179 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vazão e taxa de conflito com 1, 8 e 64 clientes disputando poucos empréstimos:
+ * - renovação (UPDATE condicional que soma os dias no banco)
+ * - PUT com a versão lida (bloqueio otimista; o perdedor recebe 409)
+ * - renovação + devolução do mesmo empréstimo (só uma devolução vence, nenhuma renovação depois dela)
+ * Recusadas: conflito de versão (409) ou empréstimo que já estava devolvido (400).
+ * Ao final de cada rodada confere que nenhuma atualização foi perdida
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=ContencaoEmprestimosBenchmarkTest [-Dbenchmark.linhas=4000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.emprestimos.limite.bronze=100000",
+        "biblioteca.emprestimos.limite.prata=100000",
+        "biblioteca.emprestimos.limite.ouro=100000",
+        "biblioteca.emprestimos.limite.diamante=100000"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ContencaoEmprestimosBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContencaoEmprestimosBenchmarkTest.class);
+
+    private static final int EMPRESTIMOS_DISPUTADOS = 8;
+    private static final int[] CLIENTES = {1, 8, 64};
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    private interface Operacao {
+        // true: aplicada; false: recusada
+        boolean executar(int i, int indice, Long id);
+    }
+
+    @Test
+    void contencaoPorNumeroDeClientes() throws InterruptedException {
+        int operacoes = Integer.getInteger("benchmark.linhas", 4_000);
+        Leitor leitor = leitorRepository.findAll().get(0);
+
+        for (int clientes : CLIENTES) {
+            AtomicIntegerArray renovados = new AtomicIntegerArray(EMPRESTIMOS_DISPUTADOS);
+            List<Emprestimo> disputados = medir("renovação", clientes, operacoes, leitor, (i, indice, id) -> {
+                service.renovarEmprestimo(id, 1);
+                renovados.incrementAndGet(indice);
+                return true;
+            });
+            conferirPrazos(disputados, renovados);
+
+            AtomicIntegerArray alterados = new AtomicIntegerArray(EMPRESTIMOS_DISPUTADOS);
+            disputados = medir("PUT com versão", clientes, operacoes, leitor, (i, indice, id) -> {
+                Emprestimo lido = service.buscarPorId(id);
+                lido.setDataDevolucaoPrevista(lido.getDataDevolucaoPrevista().plusDays(1));
+                try {
+                    service.alterar(id, lido);
+                } catch (OptimisticLockingFailureException e) {
+                    return false;
+                }
+                alterados.incrementAndGet(indice);
+                return true;
+            });
+            conferirPrazos(disputados, alterados);
+
+            AtomicIntegerArray renovadosEmAberto = new AtomicIntegerArray(EMPRESTIMOS_DISPUTADOS);
+            AtomicIntegerArray devolvidos = new AtomicIntegerArray(EMPRESTIMOS_DISPUTADOS);
+            disputados = medir("renovação + devolução", clientes, operacoes, leitor, (i, indice, id) -> {
+                try {
+                    // A cada 20 operações do cliente, uma é devolução
+                    if (i % 20 == 19) {
+                        service.registrarDevolucao(id);
+                        devolvidos.incrementAndGet(indice);
+                    } else {
+                        service.renovarEmprestimo(id, 1);
+                        renovadosEmAberto.incrementAndGet(indice);
+                    }
+                    return true;
+                } catch (DadosInvalidosException e) {
+                    return false;
+                }
+            });
+            conferirPrazos(disputados, renovadosEmAberto);
+            for (int i = 0; i < EMPRESTIMOS_DISPUTADOS; i++) {
+                assertTrue(devolvidos.get(i) <= 1, "cada empréstimo é devolvido uma única vez");
+            }
+        }
+    }
+
+    private List<Emprestimo> medir(String modo, int clientes, int operacoes, Leitor leitor, Operacao operacao)
+            throws InterruptedException {
+        List<Emprestimo> disputados = novosEmprestimos(leitor);
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicLong recusadas = new AtomicLong();
+        int porCliente = Math.max(1, operacoes / clientes);
+
+        for (int c = 0; c < clientes; c++) {
+            int cliente = c;
+            executor.execute(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < porCliente; i++) {
+                    int indice = (cliente + i) % disputados.size();
+                    if (!operacao.executar(i, indice, disputados.get(indice).getId())) {
+                        recusadas.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        long nanos = System.nanoTime() - inicio;
+
+        long total = (long) porCliente * clientes;
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%-22s | %2d clientes | %6d ops | %8.0f ops/s | recusadas %5.1f%%",
+                    modo, clientes, total, total / (nanos / 1e9), 100.0 * recusadas.get() / total));
+        }
+        return disputados;
+    }
+
+    // Prazo final = prazo inicial + um dia por operação aplicada: nenhuma atualização perdida
+    private void conferirPrazos(List<Emprestimo> disputados, AtomicIntegerArray aplicadas) {
+        for (int i = 0; i < disputados.size(); i++) {
+            Emprestimo inicial = disputados.get(i);
+            Emprestimo atual = service.buscarPorId(inicial.getId());
+            assertEquals(aplicadas.get(i), ChronoUnit.DAYS.between(
+                    inicial.getDataDevolucaoPrevista(), atual.getDataDevolucaoPrevista()));
+        }
+    }
+
+    private List<Emprestimo> novosEmprestimos(Leitor leitor) {
+        List<Emprestimo> emprestimos = new ArrayList<>(EMPRESTIMOS_DISPUTADOS);
+        for (int i = 0; i < EMPRESTIMOS_DISPUTADOS; i++) {
+            Leitor referencia = new Leitor();
+            referencia.setId(leitor.getId());
+            emprestimos.add(service.incluir(new Emprestimo(referencia, "Livro disputado " + i, "Autor", null)));
+        }
+        return emprestimos;
+    }
+}
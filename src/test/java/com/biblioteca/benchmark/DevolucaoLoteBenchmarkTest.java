@@ -0,0 +1,91 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.DevolucaoLote;
+import com.biblioteca.dto.ResultadoDevolucao;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão (devoluções/min) do PATCH /emprestimos/{id}/devolver um a um versus PATCH /emprestimos/devolver em lote
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=DevolucaoLoteBenchmarkTest [-Dbenchmark.linhas=300000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DevolucaoLoteBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DevolucaoLoteBenchmarkTest.class);
+
+    private static final int AMOSTRA_UM_A_UM = 2_000;
+    private static final int TAMANHO_PEDIDO = 10_000;
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void umAUmVersusLote() {
+        int linhas = Integer.getInteger("benchmark.linhas", 300_000);
+        List<Long> leitorIds = leitorRepository.findAll().stream().map(Leitor::getId).toList();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, linhas);
+        List<Long> abertos = jdbc.queryForList(
+                "SELECT id FROM emprestimos WHERE devolvido = FALSE ORDER BY id", Long.class);
+
+        long inicio = System.nanoTime();
+        for (Long id : abertos.subList(0, AMOSTRA_UM_A_UM)) {
+            service.registrarDevolucao(id);
+        }
+        imprimir("um a um", AMOSTRA_UM_A_UM, System.nanoTime() - inicio);
+
+        // Pedidos em lote que repetem a amostra já devolvida e incluem IDs inexistentes
+        List<Long> ids = new ArrayList<>(abertos);
+        ids.add(-1L);
+        List<ResultadoDevolucao> resultados = new ArrayList<>();
+        inicio = System.nanoTime();
+        for (int de = 0; de < ids.size(); de += TAMANHO_PEDIDO) {
+            DevolucaoLote pedido = new DevolucaoLote();
+            pedido.setIds(ids.subList(de, Math.min(de + TAMANHO_PEDIDO, ids.size())));
+            resultados.addAll(service.registrarDevolucaoLote(pedido));
+        }
+        imprimir("lote de " + TAMANHO_PEDIDO, ids.size(), System.nanoTime() - inicio);
+
+        Map<ResultadoDevolucao.Situacao, Long> porSituacao = resultados.stream()
+                .collect(Collectors.groupingBy(ResultadoDevolucao::getSituacao, Collectors.counting()));
+        log.info("Situações: {}", porSituacao);
+        assertEquals(abertos.size() - AMOSTRA_UM_A_UM, porSituacao.get(ResultadoDevolucao.Situacao.DEVOLVIDO));
+        assertEquals(AMOSTRA_UM_A_UM, porSituacao.get(ResultadoDevolucao.Situacao.JA_DEVOLVIDO));
+        assertEquals(1L, porSituacao.get(ResultadoDevolucao.Situacao.NAO_ENCONTRADO));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM emprestimos WHERE devolvido = FALSE", Integer.class));
+    }
+
+    private static void imprimir(String modo, int itens, long nanos) {
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%-14s | %8d itens | %12.0f devoluções/min", modo, itens, itens / (nanos / 6e10)));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vazão (empréstimos/s) da inclusão um a um (POST /emprestimos) versus em lote (POST /emprestimos/lote)
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=EmprestimoLoteBenchmarkTest [-Dbenchmark.linhas=20000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "biblioteca.emprestimos.limite.bronze=100000",
+        "biblioteca.emprestimos.limite.prata=100000",
+        "biblioteca.emprestimos.limite.ouro=100000",
+        "biblioteca.emprestimos.limite.diamante=100000"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmprestimoLoteBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EmprestimoLoteBenchmarkTest.class);
+
+    private static final int TAMANHO_LOTE = 1_000;
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void umAUmVersusLote() {
+        int linhas = Integer.getInteger("benchmark.linhas", 20_000);
+        List<Long> leitorIds = leitorRepository.findAll().stream().map(Leitor::getId).toList();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        estatisticas.clear();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < linhas; i++) {
+            service.incluir(novoEmprestimo(leitorIds, i));
+        }
+        imprimir("um a um", linhas, System.nanoTime() - inicio, estatisticas);
+
+        estatisticas.clear();
+        inicio = System.nanoTime();
+        for (int lote = 0; lote < linhas; lote += TAMANHO_LOTE) {
+            List<Emprestimo> emprestimos = new ArrayList<>(TAMANHO_LOTE);
+            for (int i = lote; i < Math.min(lote + TAMANHO_LOTE, linhas); i++) {
+                emprestimos.add(novoEmprestimo(leitorIds, i));
+            }
+            service.incluirLote(emprestimos);
+        }
+        imprimir("lote de " + TAMANHO_LOTE, linhas, System.nanoTime() - inicio, estatisticas);
+    }
+
+    private static Emprestimo novoEmprestimo(List<Long> leitorIds, int i) {
+        Leitor leitor = new Leitor();
+        leitor.setId(leitorIds.get(i % leitorIds.size()));
+        return new Emprestimo(leitor, "Livro de teste vol. " + i, "Autor " + (i % 100), null);
+    }
+
+    private static void imprimir(String modo, int linhas, long nanos, Statistics estatisticas) {
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%-14s | %8d empréstimos | %10.0f empréstimos/s | %8d statements preparados",
+                    modo, linhas, linhas / (nanos / 1e9), estatisticas.getPrepareStatementCount()));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.ContagemMes;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.EstatisticaDevolucoes;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import com.biblioteca.service.EstatisticaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tempo de resposta das estatísticas agregadas no banco (GROUP BY) versus os
+ * mesmos números calculados em Java sobre findAll()
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=EstatisticasBenchmarkTest [-Dbenchmark.linhas=300000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EstatisticasBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasBenchmarkTest.class);
+
+    private static final int REPETICOES_AGREGADAS = 20;
+    private static final int REPETICOES_FIND_ALL = 3;
+
+    @Autowired
+    private EstatisticaService service;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void groupByVersusFindAll() {
+        int linhas = Integer.getInteger("benchmark.linhas", 300_000);
+        List<Long> leitorIds = leitorRepository.findAll().stream().map(Leitor::getId).toList();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, linhas);
+
+        // Os dois caminhos chegam aos mesmos números
+        List<Emprestimo> todos = emprestimoService.listarTodos();
+        assertEquals(porMes(todos), mapaMes(service.emprestimosPorMes()));
+        assertEquals(contar(todos, e -> e.getLeitor().getFidelidade()), mapa(service.emprestimosPorFidelidade()));
+        assertEquals(contar(todos, EstatisticasBenchmarkTest::cidade), mapa(service.emprestimosPorCidade()));
+        EstatisticaDevolucoes devolucoes = service.devolucoes();
+        long[] esperado = devolucoes(todos);
+        assertEquals(esperado[1], devolucoes.getDevolvidos());
+        assertEquals(esperado[0], devolucoes.getNoPrazo());
+        todos = null;
+
+        log.info("{} empréstimos", jdbc.queryForObject("SELECT COUNT(*) FROM emprestimos", Long.class));
+        imprimir("por mês", medirAposAlteracao(service::emprestimosPorMes),
+                MassaDeDados.medirMs(REPETICOES_FIND_ALL, () -> porMes(emprestimoService.listarTodos())));
+        imprimir("por fidelidade", medirAposAlteracao(service::emprestimosPorFidelidade),
+                MassaDeDados.medirMs(REPETICOES_FIND_ALL,
+                        () -> contar(emprestimoService.listarTodos(), e -> e.getLeitor().getFidelidade())));
+        imprimir("por cidade", medirAposAlteracao(service::emprestimosPorCidade),
+                MassaDeDados.medirMs(REPETICOES_FIND_ALL,
+                        () -> contar(emprestimoService.listarTodos(), EstatisticasBenchmarkTest::cidade)));
+        imprimir("devoluções", medirAposAlteracao(service::devolucoes),
+                MassaDeDados.medirMs(REPETICOES_FIND_ALL, () -> devolucoes(emprestimoService.listarTodos())));
+    }
+
+    /**
+     * Tempo médio da agregação com as duas tabelas alteradas antes de cada execução:
+     * o H2 reaproveita o resultado de uma consulta repetida sobre tabelas inalteradas
+     */
+    private double medirAposAlteracao(Runnable agregacao) {
+        long id = jdbc.queryForObject("SELECT MIN(id) FROM emprestimos", Long.class);
+        long totalNanos = 0;
+        for (int i = 0; i <= REPETICOES_AGREGADAS; i++) {
+            jdbc.update("UPDATE emprestimos SET versao = versao + 1 WHERE id = ?", id);
+            jdbc.update("UPDATE leitores SET versao = versao + 1 "
+                    + "WHERE id = (SELECT leitor_id FROM emprestimos WHERE id = ?)", id);
+            long inicio = System.nanoTime();
+            agregacao.run();
+            if (i > 0) {
+                totalNanos += System.nanoTime() - inicio;
+            }
+        }
+        return totalNanos / 1_000_000.0 / REPETICOES_AGREGADAS;
+    }
+
+    private static void imprimir(String estatistica, double agregadaMs, double findAllMs) {
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%-15s | GROUP BY %9.1f ms | findAll() %9.1f ms | %6.0fx",
+                    estatistica, agregadaMs, findAllMs, findAllMs / agregadaMs));
+        }
+    }
+
+    private static String cidade(Emprestimo e) {
+        return e.getLeitor().getEndereco() == null ? null : e.getLeitor().getEndereco().getCidade();
+    }
+
+    private static Map<String, Long> porMes(List<Emprestimo> emprestimos) {
+        return contar(emprestimos.stream().filter(e -> e.getDataEmprestimo() != null).toList(),
+                e -> e.getDataEmprestimo().getYear() + "-" + e.getDataEmprestimo().getMonthValue());
+    }
+
+    private static Map<String, Long> mapaMes(List<ContagemMes> contagens) {
+        Map<String, Long> mapa = new HashMap<>();
+        contagens.forEach(c -> mapa.put(c.getAno() + "-" + c.getMes(), c.getQuantidade()));
+        return mapa;
+    }
+
+    private static Map<String, Long> mapa(List<ContagemTexto> contagens) {
+        Map<String, Long> mapa = new HashMap<>();
+        contagens.forEach(c -> mapa.put(c.getTexto(), c.getQuantidade()));
+        return mapa;
+    }
+
+    private static Map<String, Long> contar(List<Emprestimo> emprestimos, Function<Emprestimo, String> chave) {
+        Map<String, Long> mapa = new HashMap<>();
+        emprestimos.forEach(e -> mapa.merge(chave.apply(e), 1L, Long::sum));
+        return mapa;
+    }
+
+    /**
+     * Devolvidos no prazo, devolvidos (com as datas preenchidas) e soma dos dias, para a duração média
+     */
+    private static long[] devolucoes(List<Emprestimo> emprestimos) {
+        long noPrazo = 0;
+        long devolvidos = 0;
+        long dias = 0;
+        for (Emprestimo e : emprestimos) {
+            if (Boolean.TRUE.equals(e.getDevolvido()) && e.getDataEmprestimo() != null
+                    && e.getDataDevolucaoEfetiva() != null && e.getDataDevolucaoPrevista() != null) {
+                devolvidos++;
+                dias += ChronoUnit.DAYS.between(e.getDataEmprestimo(), e.getDataDevolucaoEfetiva());
+                if (!e.getDataDevolucaoEfetiva().isAfter(e.getDataDevolucaoPrevista())) {
+                    noPrazo++;
+                }
+            }
+        }
+        return new long[]{noPrazo, devolvidos, dias};
+    }
+}
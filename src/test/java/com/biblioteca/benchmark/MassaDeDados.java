@@ -0,0 +1,70 @@
+package com.biblioteca.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geração de massa de dados sintética para os benchmarks
+ * Insere direto via JDBC em lotes para não distorcer as medições
+ */
+public final class MassaDeDados {
+
+    private static final String[][] LIVROS = {
+            {"Dom Casmurro", "Machado de Assis", "9788535911664"},
+            {"1984", "George Orwell", "9788535914849"},
+            {"O Cortiço", "Aluísio Azevedo", "9788508040414"},
+            {"Grande Sertão: Veredas", "João Guimarães Rosa", "9788535908770"},
+            {"Memórias Póstumas de Brás Cubas", "Machado de Assis", "9788525406576"},
+            {"Clean Code", "Robert C. Martin", "9780132350884"},
+            {"Vidas Secas", "Graciliano Ramos", "9788501005571"},
+            {"Capitães da Areia", "Jorge Amado", "9788535914061"}
+    };
+
+    private MassaDeDados() {}
+
+    /**
+     * Insere empréstimos sintéticos distribuídos entre os leitores informados
+     */
+    public static void inserirEmprestimos(JdbcTemplate jdbc, List<Long> leitorIds, int quantidade) {
+        String sql = "INSERT INTO emprestimos (leitor_id, titulo_livro, autor, isbn, data_emprestimo, "
+                + "data_devolucao_prevista, data_devolucao_efetiva, devolvido) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDate base = LocalDate.now().minusYears(2);
+        int lote = 5_000;
+
+        for (int inicio = 0; inicio < quantidade; inicio += lote) {
+            List<Object[]> linhas = new ArrayList<>(lote);
+            for (int i = inicio; i < Math.min(inicio + lote, quantidade); i++) {
+                String[] livro = LIVROS[i % LIVROS.length];
+                LocalDate emprestimo = base.plusDays(i % 700);
+                boolean devolvido = i % 3 != 0;
+                linhas.add(new Object[]{
+                        leitorIds.get(i % leitorIds.size()),
+                        livro[0] + " vol. " + (i % 1000),
+                        livro[1],
+                        livro[2],
+                        Date.valueOf(emprestimo),
+                        Date.valueOf(emprestimo.plusDays(14)),
+                        devolvido ? Date.valueOf(emprestimo.plusDays(10)) : null,
+                        devolvido
+                });
+            }
+            jdbc.batchUpdate(sql, linhas);
+        }
+    }
+
+    /**
+     * Mede o tempo médio (ms) de uma operação após aquecimento
+     */
+    public static double medirMs(int repeticoes, Runnable operacao) {
+        operacao.run();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            operacao.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / repeticoes;
+    }
+}
@@ -0,0 +1,82 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.ApuracaoMultas;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.domain.ParticaoApuracao;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.MultaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão da apuração de multas com 1, 4 e 8 partições sobre os mesmos atrasados,
+ * com a vazão de cada partição
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=MultasBenchmarkTest [-Dbenchmark.linhas=1500000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.biblioteca.service.MultaService=WARN",
+        "biblioteca.multas.threads=4"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MultasBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MultasBenchmarkTest.class);
+
+    @Autowired
+    private MultaService service;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void vazaoPorQuantidadeDeParticoes() {
+        int linhas = Integer.getInteger("benchmark.linhas", 1_500_000);
+        List<Long> leitorIds = leitorRepository.findAll().stream().map(Leitor::getId).toList();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, linhas);
+        LocalDate hoje = LocalDate.now();
+        Integer atrasados = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM emprestimos WHERE devolvido = FALSE AND data_devolucao_prevista < ?",
+                Integer.class, hoje);
+        log.info("{} empréstimos, {} atrasados em aberto", linhas, atrasados);
+
+        for (int particoes : new int[]{1, 4, 8}) {
+            jdbc.update("DELETE FROM multas");
+            jdbc.update("DELETE FROM particoes_apuracao");
+            jdbc.update("DELETE FROM apuracoes_multas");
+
+            long inicio = System.nanoTime();
+            ApuracaoMultas apuracao = service.apurar(hoje, particoes);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            assertEquals(ApuracaoMultas.Situacao.CONCLUIDA, apuracao.getSituacao());
+            assertEquals(atrasados.longValue(), apuracao.getEmprestimosProcessados());
+            if (log.isInfoEnabled()) {
+                log.info(String.format("%d partições | %6.2f s | %10.0f empréstimos/s | R$ %s lançados",
+                        particoes, segundos, atrasados / segundos, apuracao.getValorLancado()));
+                for (ParticaoApuracao particao : apuracao.getParticoes()) {
+                    log.info(String.format("  partição %d | %8d empréstimos | %6d ms | %10.0f empréstimos/s",
+                            particao.getNumero(), particao.getEmprestimosProcessados(), particao.getDuracaoMs(),
+                            particao.getEmprestimosPorSegundo()));
+                }
+            }
+        }
+    }
+}
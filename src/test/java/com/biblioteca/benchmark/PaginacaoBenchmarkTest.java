@@ -0,0 +1,67 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.service.EmprestimoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+/**
+ * Compara a listagem completa (findAll) com a paginação por cursor
+ * à medida que a tabela de empréstimos cresce
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=PaginacaoBenchmarkTest
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaginacaoBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaginacaoBenchmarkTest.class);
+
+    private static final int[] TAMANHOS_TABELA = {10_000, 50_000, 100_000, 200_000};
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void listarTodosVersusListarPagina() {
+        List<Long> leitorIds = leitorRepository.findAll().stream().map(Leitor::getId).toList();
+        int inseridos = 0;
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("%10s | %14s | %16s | %16s",
+                    "linhas", "findAll (ms)", "1ª página (ms)", "pág. meio (ms)"));
+        }
+        for (int alvo : TAMANHOS_TABELA) {
+            MassaDeDados.inserirEmprestimos(jdbc, leitorIds, alvo - inseridos);
+            inseridos = alvo;
+
+            Long cursorMeio = jdbc.queryForObject("SELECT MAX(id) / 2 FROM emprestimos", Long.class);
+            double todos = MassaDeDados.medirMs(3, () -> service.listarTodos());
+            double primeira = MassaDeDados.medirMs(50, () -> service.listarPagina(null, 50));
+            double meio = MassaDeDados.medirMs(50, () -> service.listarPagina(cursorMeio, 50));
+
+            if (log.isInfoEnabled()) {
+                log.info(String.format("%10d | %14.2f | %16.3f | %16.3f", alvo, todos, primeira, meio));
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.service.ExemplarService;
+import com.biblioteca.service.ReservaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão de reservas com 1, 8 e 64 clientes disputando poucos títulos populares
+ * (sem exemplar livre, todas entram na fila) e tempo da gravação em lotes das
+ * reservas pendentes. Ao final confere o tamanho de cada fila
+ *
+ * Execução: mvn test -Dbenchmark=true -Dtest=ReservasBenchmarkTest [-Dbenchmark.linhas=20000]
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.reservas.gravacao-intervalo=PT1H"
+})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReservasBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservasBenchmarkTest.class);
+
+    private static final int TITULOS = 4;
+    private static final int[] CLIENTES = {1, 8, 64};
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ExemplarService exemplarService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void reservasConcorrentesEmTitulosPopulares() throws InterruptedException {
+        int porRodada = Integer.getInteger("benchmark.linhas", 20_000);
+        List<Long> leitorIds = inserirLeitores(porRodada);
+
+        for (int clientes : CLIENTES) {
+            // Títulos novos por rodada, cada um com um exemplar já separado para a primeira reserva
+            List<String> isbns = new ArrayList<>(TITULOS);
+            for (int t = 0; t < TITULOS; t++) {
+                String isbn = "97800" + clientes + "0" + t;
+                exemplarService.incluir(isbn, new Exemplar(isbn, "BENCH-" + isbn, "Título Popular " + t, "Autor"));
+                isbns.add(isbn);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(clientes);
+            CountDownLatch largada = new CountDownLatch(1);
+            int porCliente = porRodada / clientes;
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                executor.execute(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < porCliente; i++) {
+                        int indice = cliente * porCliente + i;
+                        reservaService.reservar(isbns.get(indice % TITULOS), leitorIds.get(indice));
+                    }
+                });
+            }
+
+            long inicio = System.nanoTime();
+            largada.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+            long nanos = System.nanoTime() - inicio;
+
+            long inicioGravacao = System.nanoTime();
+            int gravadas = reservaService.gravarPendentes();
+            long nanosGravacao = System.nanoTime() - inicioGravacao;
+
+            long total = (long) porCliente * clientes;
+            if (log.isInfoEnabled()) {
+                log.info(String.format("%2d clientes | %6d reservas | %8.0f reservas/s | gravação em lotes: %5d em %6.0f ms",
+                        clientes, total, total / (nanos / 1e9), gravadas, nanosGravacao / 1e6));
+            }
+
+            assertEquals(total, gravadas);
+            for (String isbn : isbns) {
+                List<Reserva> fila = reservaService.listarPorIsbn(isbn);
+                assertEquals(total / TITULOS, fila.size());
+                assertEquals(Reserva.Situacao.DISPONIVEL, fila.get(0).getSituacao());
+            }
+        }
+    }
+
+    private List<Long> inserirLeitores(int quantidade) {
+        List<Object[]> linhas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            linhas.add(new Object[]{"Leitor Reserva " + i, String.format("8%010d", i), "RB" + i});
+        }
+        jdbc.batchUpdate("INSERT INTO leitores (nome, cpf, matricula, fidelidade, ativo) "
+                + "VALUES (?, ?, ?, 'BRONZE', TRUE)", linhas);
+        return jdbc.queryForList("SELECT id FROM leitores WHERE matricula LIKE 'RB%' ORDER BY id", Long.class);
+    }
+}
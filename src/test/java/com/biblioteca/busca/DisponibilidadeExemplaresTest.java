@@ -0,0 +1,69 @@
+package com.biblioteca.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisponibilidadeExemplaresTest {
+
+    @Test
+    void retiradasSimultaneasNuncaPassamDoTotal() throws InterruptedException {
+        DisponibilidadeExemplares disponibilidade = new DisponibilidadeExemplares();
+        disponibilidade.adicionarExemplares("9780000000001", 25);
+
+        AtomicInteger reservados = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int t = 0; t < 16; t++) {
+            executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 1_000; i++) {
+                    if (disponibilidade.reservar("9780000000001")) {
+                        reservados.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(reservados.get()).isEqualTo(25);
+        assertThat(disponibilidade.consultar("9780000000001").getDisponiveis()).isZero();
+    }
+
+    @Test
+    void liberarECorrigirPreservamAsQuantidades() {
+        DisponibilidadeExemplares disponibilidade = new DisponibilidadeExemplares();
+        assertThat(disponibilidade.controla("9780000000002")).isFalse();
+        assertThat(disponibilidade.reservar("9780000000002")).isFalse();
+
+        disponibilidade.adicionarExemplares("9780000000002", 2);
+        assertThat(disponibilidade.reservar("9780000000002")).isTrue();
+        assertThat(disponibilidade.reservar("9780000000002")).isTrue();
+        assertThat(disponibilidade.reservar("9780000000002")).isFalse();
+
+        disponibilidade.liberar("9780000000002");
+        disponibilidade.liberar("9780000000002");
+        disponibilidade.liberar("9780000000002");
+        assertThat(disponibilidade.consultar("9780000000002").getEmprestados()).isZero();
+
+        // Empréstimos gravados além do total (importação) aparecem, mas não deixam disponibilidade negativa
+        disponibilidade.ocupar("9780000000002");
+        disponibilidade.ocupar("9780000000002");
+        disponibilidade.ocupar("9780000000002");
+        assertThat(disponibilidade.consultar("9780000000002").getDisponiveis()).isZero();
+
+        disponibilidade.corrigir("9780000000002", 1, -1);
+        assertThat(disponibilidade.consultar("9780000000002").getExemplares()).isEqualTo(3);
+        assertThat(disponibilidade.consultar("9780000000002").getEmprestados()).isEqualTo(2);
+        assertThat(disponibilidade.consultar("9780000000002").getDisponiveis()).isEqualTo(1);
+    }
+}
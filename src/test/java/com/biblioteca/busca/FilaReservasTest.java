@@ -0,0 +1,102 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.domain.Reserva.Situacao;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilaReservasTest {
+
+    private static final String ISBN = "9780000000001";
+    private static final LocalDateTime AGORA = LocalDateTime.of(2026, 1, 10, 10, 0);
+
+    @Test
+    void atendeEmOrdemDeChegadaECancelaSemPerderAVez() {
+        FilaReservas fila = new FilaReservas();
+        FilaReservas.Entrada primeira = fila.adicionar(1, 10, ISBN, AGORA);
+        FilaReservas.Entrada segunda = fila.adicionar(2, 20, ISBN, AGORA);
+        FilaReservas.Entrada terceira = fila.adicionar(3, 30, ISBN, AGORA);
+        assertThat(fila.adicionar(4, 20, ISBN, AGORA)).isNull();
+        assertThat(fila.posicao(terceira)).isEqualTo(3);
+
+        assertThat(fila.encerrar(segunda, Situacao.AGUARDANDO, Situacao.CANCELADA, AGORA)).isTrue();
+        assertThat(fila.posicao(terceira)).isEqualTo(2);
+
+        assertThat(fila.separarProximo(ISBN, AGORA, AGORA.plusDays(3))).isSameAs(primeira);
+        assertThat(fila.separarProximo(ISBN, AGORA, AGORA.plusDays(3))).isSameAs(terceira);
+        assertThat(fila.separarProximo(ISBN, AGORA, AGORA.plusDays(3))).isNull();
+        assertThat(fila.listar(ISBN)).containsExactly(primeira, terceira);
+
+        // Retirada e expiração da mesma reserva: só uma transição vale
+        assertThat(fila.encerrar(primeira, Situacao.DISPONIVEL, Situacao.ATENDIDA, AGORA)).isTrue();
+        assertThat(fila.encerrar(primeira, Situacao.DISPONIVEL, Situacao.EXPIRADA, AGORA)).isFalse();
+        assertThat(fila.ativa(ISBN, 10L)).isNull();
+        fila.reabrir(primeira);
+        assertThat(fila.ativa(ISBN, 10L)).isSameAs(primeira);
+        assertThat(primeira.getSituacao()).isEqualTo(Situacao.DISPONIVEL);
+    }
+
+    @Test
+    void reservasEAtendimentosConcorrentesNaoPerdemNemRepetemReservas() throws InterruptedException {
+        FilaReservas fila = new FilaReservas();
+        AtomicLong ids = new AtomicLong();
+        AtomicInteger recusadas = new AtomicInteger();
+        Queue<FilaReservas.Entrada> incluidas = new ConcurrentLinkedQueue<>();
+        Set<Long> atendidas = ConcurrentHashMap.newKeySet();
+        AtomicInteger repetidas = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int t = 0; t < 16; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 2_000; i++) {
+                    // Cada leitor tenta reservar duas vezes, em threads diferentes
+                    FilaReservas.Entrada entrada = fila.adicionar(ids.incrementAndGet(),
+                            (thread % 8) * 2_000L + i, ISBN, AGORA);
+                    if (entrada == null) {
+                        recusadas.incrementAndGet();
+                    } else {
+                        incluidas.add(entrada);
+                    }
+                    if (thread % 2 == 0) {
+                        FilaReservas.Entrada separada = fila.separarProximo(ISBN, AGORA, AGORA.plusDays(3));
+                        if (separada != null && !atendidas.add(separada.getId())) {
+                            repetidas.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        FilaReservas.Entrada separada;
+        while ((separada = fila.separarProximo(ISBN, AGORA, AGORA.plusDays(3))) != null) {
+            if (!atendidas.add(separada.getId())) {
+                repetidas.incrementAndGet();
+            }
+        }
+
+        assertThat(incluidas).hasSize(16_000);
+        assertThat(recusadas.get()).isEqualTo(16_000);
+        assertThat(repetidas.get()).isZero();
+        assertThat(atendidas).hasSize(16_000);
+        assertThat(incluidas).allMatch(entrada -> entrada.getSituacao() == Situacao.DISPONIVEL);
+    }
+}
@@ -0,0 +1,28 @@
+package com.biblioteca.busca;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTest {
+
+    @Test
+    void semFalsosNegativosEFalsosPositivosPertoDaTaxa() {
+        FiltroBloom filtro = new FiltroBloom(100_000, 0.01);
+        for (long i = 0; i < 100_000; i++) {
+            filtro.adicionar(String.format("%011d", i * 7));
+        }
+
+        for (long i = 0; i < 100_000; i++) {
+            assertThat(filtro.talvezContenha(String.format("%011d", i * 7))).isTrue();
+        }
+        int falsosPositivos = 0;
+        for (long i = 0; i < 100_000; i++) {
+            if (filtro.talvezContenha(String.format("%011d", i * 7 + 1))) {
+                falsosPositivos++;
+            }
+        }
+        assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+        assertThat(filtro.funcoes()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,88 @@
+package com.biblioteca.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HyperLogLogTest {
+
+    // Quatro erros padrão com precisão 12 (1,6%)
+    private static final double TOLERANCIA = 4 * 1.04 / 64;
+
+    @Test
+    void estimativaPertoDoExatoEmVariasOrdensDeGrandeza() {
+        for (int distintos : new int[]{10, 100, 1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog hll = new HyperLogLog(12);
+            for (long id = 1; id <= distintos; id++) {
+                hll.adicionar(id);
+                hll.adicionar(id); // repetidos não contam
+            }
+            assertThat((double) Math.abs(hll.estimar() - distintos))
+                    .isLessThanOrEqualTo(Math.max(1, distintos * TOLERANCIA));
+
+            // Gravado e relido (lista de preenchidos ou vetor completo), estima o mesmo
+            assertThat(HyperLogLog.deBytes(hll.paraBytes()).estimar()).isEqualTo(hll.estimar());
+            assertThat(hll.paraBytes().length).isLessThanOrEqualTo(2 + 4096);
+        }
+    }
+
+    @Test
+    void periodosMescladosCoincidemComContagemExataEmRetiradasSinteticas() {
+        Random random = new Random(7);
+        LeitoresPorPeriodo leitores = new LeitoresPorPeriodo(12);
+        Map<String, Set<Long>> porTitulo = new HashMap<>();
+        Map<String, Set<Long>> porCidade = new HashMap<>();
+        YearMonth primeiro = YearMonth.of(2025, 1);
+
+        for (int i = 0; i < 300_000; i++) {
+            long leitor = 1 + random.nextInt(40_000);
+            String cidade = "Cidade " + (leitor % 25); // cidade fixa por leitor
+            String isbn = "isbn-" + (int) Math.floor(Math.pow(2_001, random.nextDouble()));
+            YearMonth mes = primeiro.plusMonths(random.nextInt(12));
+            leitores.registrar(LeitoresPorPeriodo.Dimensao.TITULO, isbn, mes, leitor);
+            leitores.registrar(LeitoresPorPeriodo.Dimensao.CIDADE, cidade, mes, leitor);
+            porTitulo.computeIfAbsent(isbn, k -> new HashSet<>()).add(leitor);
+            porCidade.computeIfAbsent(cidade, k -> new HashSet<>()).add(leitor);
+        }
+
+        YearMonth ultimo = primeiro.plusMonths(11);
+        Map<String, HyperLogLog> cidades =
+                leitores.periodoPorValor(LeitoresPorPeriodo.Dimensao.CIDADE, primeiro, ultimo);
+        assertThat(cidades.keySet()).isEqualTo(porCidade.keySet());
+        porCidade.forEach((cidade, exatos) -> assertThat(erroRelativo(cidades.get(cidade).estimar(), exatos.size()))
+                .isLessThanOrEqualTo(TOLERANCIA));
+
+        double somaErros = 0;
+        for (Map.Entry<String, Set<Long>> titulo : porTitulo.entrySet()) {
+            long estimativa = leitores.periodo(LeitoresPorPeriodo.Dimensao.TITULO, titulo.getKey(), primeiro, ultimo)
+                    .estimar();
+            int exatos = titulo.getValue().size();
+            assertThat((double) Math.abs(estimativa - exatos)).isLessThanOrEqualTo(Math.max(2, exatos * TOLERANCIA));
+            somaErros += erroRelativo(estimativa, exatos);
+        }
+        assertThat(somaErros / porTitulo.size()).isLessThan(0.02);
+
+        // Mês fora do período não conta; sem retiradas, zero
+        assertThat(leitores.periodo(LeitoresPorPeriodo.Dimensao.TITULO, "isbn-1", ultimo.plusMonths(1),
+                ultimo.plusMonths(3)).estimar()).isZero();
+
+        // Resumos pendentes gravados e carregados de novo: a união não muda as estimativas
+        LeitoresPorPeriodo recarregados = new LeitoresPorPeriodo(12);
+        leitores.retirarPendentes().forEach((chave, resumo) ->
+                recarregados.carregar(chave, HyperLogLog.deBytes(resumo.paraBytes())));
+        assertThat(leitores.retirarPendentes()).isEmpty();
+        assertThat(recarregados.periodo(LeitoresPorPeriodo.Dimensao.CIDADE, "Cidade 3", primeiro, ultimo).estimar())
+                .isEqualTo(cidades.get("Cidade 3").estimar());
+    }
+
+    private static double erroRelativo(long estimativa, int exatos) {
+        return Math.abs(estimativa - exatos) / (double) exatos;
+    }
+}
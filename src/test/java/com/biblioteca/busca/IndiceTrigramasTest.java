@@ -0,0 +1,56 @@
+package com.biblioteca.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndiceTrigramasTest {
+
+    @Test
+    void buscaParcialSemAcentosEMaiusculas() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.indexar(1L, "João Guimarães Rosa");
+        indice.indexar(2L, "Maria José da Silva");
+        indice.indexar(3L, "Joana Lima");
+
+        assertEquals(List.of(1L), indice.buscar("GUIMARAES", 10));
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("jo", 10));
+        assertEquals(List.of(2L), indice.buscar("josé  da", 10));
+        assertEquals(List.of(), indice.buscar("xyz", 10));
+    }
+
+    @Test
+    void alteracaoERemocaoRefletemNaBusca() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        for (long id = 1; id <= 3000; id++) {
+            indice.indexar(id, "Leitor " + id);
+        }
+        indice.indexar(7L, "Clarice Lispector");
+        for (long id = 100; id <= 3000; id++) {
+            indice.remover(id);
+        }
+
+        assertEquals(List.of(7L), indice.buscar("lispector", 10));
+        assertEquals(List.of(), indice.buscar("leitor 700", 10));
+        assertEquals(List.of(99L), indice.buscar("leitor 99", 10));
+        assertEquals(99, indice.total());
+    }
+
+    @Test
+    void buscaAposIdSegueOrdemDeIdMesmoDepoisDeAlteracoes() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        for (long id = 1; id <= 6; id++) {
+            indice.indexar(id, "Ana " + id);
+        }
+        // Alteração move o ID 2 para o fim da ordem de inclusão
+        indice.indexar(2L, "Ana Alterada");
+        indice.indexar(7L, "Bruno");
+
+        assertEquals(List.of(1L, 2L, 3L), indice.buscarAposId("ana", 0, 3));
+        assertEquals(List.of(4L, 5L, 6L), indice.buscarAposId("ana", 3, 3));
+        assertEquals(List.of(), indice.buscarAposId("ana", 6, 3));
+        assertEquals(List.of(3L, 4L), indice.buscarAposId("an", 2, 2));
+    }
+}
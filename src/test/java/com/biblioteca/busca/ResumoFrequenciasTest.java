@@ -0,0 +1,99 @@
+package com.biblioteca.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumoFrequenciasTest {
+
+    private static final int CHAVES = 5_000;
+    private static final int CAPACIDADE = 100;
+
+    @Test
+    void limitesValemEmFluxoAssimetricoEMesclado() {
+        Random random = new Random(42);
+        ResumoFrequencias unico = new ResumoFrequencias(CAPACIDADE);
+        List<ResumoFrequencias> porDia = new ArrayList<>();
+        Map<String, Long> reais = new HashMap<>();
+        for (int dia = 0; dia < 30; dia++) {
+            ResumoFrequencias resumoDia = new ResumoFrequencias(CAPACIDADE);
+            for (int i = 0; i < 5_000; i++) {
+                String chave = "isbn-" + zipf(random);
+                unico.registrar(chave, null, 1);
+                resumoDia.registrar(chave, null, 1);
+                reais.merge(chave, 1L, Long::sum);
+            }
+            porDia.add(resumoDia);
+        }
+
+        conferir(unico, reais);
+        conferir(ResumoFrequencias.mesclar(porDia, CAPACIDADE), reais);
+    }
+
+    @Test
+    void janelaSomaSoOsDiasDela() {
+        LocalDate hoje = LocalDate.of(2026, 3, 10);
+        TitulosMaisEmprestados titulos = new TitulosMaisEmprestados(10);
+        titulos.registrar("A", "Livro A", hoje, hoje, 3);
+        titulos.registrar("B", "Livro B", hoje.minusDays(5), hoje, 4);
+        titulos.registrar("C", "Livro C", hoje.minusDays(100), hoje, 9);
+        titulos.registrar("D", "Livro D", hoje.minusDays(400), hoje, 50);
+
+        assertThat(titulos.janela(1, hoje).maiores(5)).extracting(ResumoFrequencias.Estimativa::getChave)
+                .containsExactly("A");
+        assertThat(titulos.janela(7, hoje).maiores(5)).extracting(ResumoFrequencias.Estimativa::getChave)
+                .containsExactly("B", "A");
+        ResumoFrequencias ano = titulos.janela(365, hoje);
+        assertThat(ano.maiores(5)).extracting(ResumoFrequencias.Estimativa::getChave).containsExactly("C", "B", "A");
+        assertThat(ano.total()).isEqualTo(16);
+        assertThat(ano.maiores(1).get(0).getRotulo()).isEqualTo("Livro C");
+
+        // Retirada em um dia passado já mesclado entra na próxima consulta
+        titulos.registrar("A", "Livro A", hoje.minusDays(2), hoje, 5);
+        assertThat(titulos.janela(7, hoje).maiores(1).get(0).getContagem()).isEqualTo(8);
+
+        // Virando o dia, o que saiu da janela deixa de contar
+        assertThat(titulos.janela(7, hoje.plusDays(6)).maiores(5))
+                .extracting(ResumoFrequencias.Estimativa::getChave).containsExactly("A");
+    }
+
+    private static void conferir(ResumoFrequencias resumo, Map<String, Long> reais) {
+        long total = reais.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(resumo.total()).isEqualTo(total);
+
+        List<ResumoFrequencias.Estimativa> estimativas = resumo.maiores(CAPACIDADE);
+        Map<String, ResumoFrequencias.Estimativa> porChave = new HashMap<>();
+        for (ResumoFrequencias.Estimativa e : estimativas) {
+            long real = reais.getOrDefault(e.getChave(), 0L);
+            assertThat(e.getContagem()).isGreaterThanOrEqualTo(real);
+            assertThat(e.getContagem() - e.getErro()).isLessThanOrEqualTo(real);
+            porChave.put(e.getChave(), e);
+        }
+        reais.forEach((chave, real) -> {
+            if (!porChave.containsKey(chave)) {
+                assertThat(real).isLessThanOrEqualTo(resumo.limiteAusentes());
+            }
+        });
+
+        // As 10 chaves mais frequentes aparecem, com erro pequeno perto da contagem
+        reais.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(10)
+                .forEach(maior -> {
+                    assertThat(porChave).containsKey(maior.getKey());
+                    assertThat(porChave.get(maior.getKey()).getErro()).isLessThan(maior.getValue() / 2);
+                });
+    }
+
+    // Distribuição aproximadamente Zipf: poucos títulos concentram as retiradas
+    private static int zipf(Random random) {
+        return (int) Math.floor(Math.pow(CHAVES + 1, random.nextDouble())) - 1;
+    }
+}
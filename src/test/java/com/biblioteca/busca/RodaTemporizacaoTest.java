@@ -0,0 +1,37 @@
+package com.biblioteca.busca;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RodaTemporizacaoTest {
+
+    @Test
+    void venceNoTickDoPrazoInclusiveAlemDeUmaVolta() {
+        // Ticks de 10 ms em 8 slots: uma volta completa a cada 80 ms
+        RodaTemporizacao<String> roda = new RodaTemporizacao<>(10, 8, 1_000);
+        roda.agendar("a", 1_015);
+        roda.agendar("b", 1_020);
+        roda.agendar("c", 1_205);
+        roda.agendar("passado", 500);
+
+        assertThat(roda.avancar(1_010)).containsExactly("passado");
+        assertThat(roda.avancar(1_019)).isEmpty();
+        assertThat(roda.avancar(1_020)).containsExactlyInAnyOrder("a", "b");
+        // "c" divide o slot com ticks anteriores, mas só vence na sua volta
+        assertThat(roda.avancar(1_200)).isEmpty();
+        assertThat(roda.avancar(1_210)).containsExactly("c");
+    }
+
+    @Test
+    void pausaMaiorQueUmaVoltaEntregaTodosOsVencidos() {
+        RodaTemporizacao<Integer> roda = new RodaTemporizacao<>(10, 8, 0);
+        for (int i = 0; i < 100; i++) {
+            roda.agendar(i, i * 10L);
+        }
+
+        assertThat(roda.avancar(495)).hasSize(50);
+        assertThat(roda.avancar(10_000)).hasSize(50);
+        assertThat(roda.avancar(20_000)).isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package com.biblioteca.busca;
+
+import com.biblioteca.dto.Sugestao;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TriePrefixosTest {
+
+    @Test
+    void sugereOsMaisFrequentesComOPrefixo() {
+        TriePrefixos trie = new TriePrefixos();
+        trie.adicionar("Dom Casmurro", 5);
+        trie.adicionar("Dom Quixote", 8);
+        trie.adicionar("Dois Irmãos", 1);
+        trie.adicionar("Vidas Secas", 20);
+
+        assertEquals(List.of("Dom Quixote", "Dom Casmurro", "Dois Irmãos"), textos(trie.sugerir("do", 10)));
+        assertEquals(List.of("Dom Quixote"), textos(trie.sugerir("DOM", 1)));
+        assertEquals(List.of("Dois Irmãos"), textos(trie.sugerir("dois irma", 10)));
+        assertEquals(List.of(), textos(trie.sugerir("x", 10)));
+    }
+
+    @Test
+    void mantemOCacheDosNosAposAlteracoes() {
+        TriePrefixos trie = new TriePrefixos();
+        for (int i = 0; i < 500; i++) {
+            trie.adicionar("Livro " + i, i);
+        }
+        assertEquals(List.of("Livro 499", "Livro 498"), textos(trie.sugerir("livro", 2)));
+
+        for (int i = 0; i < 499; i++) {
+            trie.remover("Livro 499");
+        }
+        trie.adicionar("Livro 7", 1000);
+
+        assertEquals(List.of("Livro 7", "Livro 498"), textos(trie.sugerir("livro", 2)));
+        assertEquals(List.of("Livro 7", "Livro 79"), textos(trie.sugerir("livro 7", 2)));
+        assertEquals(498, trie.total());
+    }
+
+    private static List<String> textos(List<Sugestao> sugestoes) {
+        return sugestoes.stream().map(Sugestao::getTexto).toList();
+    }
+}
@@ -0,0 +1,87 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.service.EmprestimoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exportação NDJSON: resposta assíncrona com timeout próprio, um empréstimo por linha
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.exportacao.timeout=2m"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class EmprestimoExportacaoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportaUmEmprestimoPorLinhaComTimeoutDaExportacao() throws Exception {
+        MvcResult iniciado = mvc.perform(get("/emprestimos/exportar"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // O timeout global (30s) não vale para a exportação
+        assertThat(iniciado.getRequest().getAsyncContext().getTimeout()).isEqualTo(120_000L);
+
+        List<JsonNode> linhas = linhas(iniciado);
+        assertThat(linhas).extracting(linha -> linha.get("id").asLong())
+                .containsExactlyInAnyOrderElementsOf(service.listarTodos().stream().map(Emprestimo::getId).toList());
+    }
+
+    @Test
+    void filtraPorDevolucaoERecusaPeriodoIncompleto() throws Exception {
+        MvcResult iniciado = mvc.perform(get("/emprestimos/exportar").param("devolvido", "false"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<JsonNode> linhas = linhas(iniciado);
+        assertThat(linhas).hasSize(service.listarAtivos().size());
+        assertThat(linhas).allSatisfy(linha -> assertThat(linha.get("devolvido").asBoolean()).isFalse());
+
+        mvc.perform(get("/emprestimos/exportar").param("inicio", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<JsonNode> linhas(MvcResult iniciado) throws Exception {
+        MvcResult concluido = mvc.perform(asyncDispatch(iniciado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        List<JsonNode> linhas = new ArrayList<>();
+        for (String linha : concluido.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            if (!linha.isBlank()) {
+                linhas.add(objectMapper.readTree(linha));
+            }
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,151 @@
+package com.biblioteca.controller;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.service.BibliotecarioService;
+import com.biblioteca.service.EmprestimoService;
+import com.biblioteca.service.LeitorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETags e requisições condicionais: a ETag muda a cada escrita, If-None-Match
+ * igual responde 304, If-Match desatualizado responde 412 sem alterar a linha,
+ * e ETags que dependem do dia (atrasos, listagens) mudam à meia-noite
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class EtagsTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private BibliotecarioService bibliotecarioService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long leitorId;
+    private Long emprestimoId;
+
+    @BeforeEach
+    void incluir() {
+        Leitor leitor = new Leitor("Leitor ETag", "77900000001", null, null, null, "ETG-77900000001");
+        leitor.setFidelidade("BRONZE");
+        leitor.setLimiteCredito(100.0);
+        Leitor incluido = leitorService.incluir(leitor);
+        leitorId = incluido.getId();
+        emprestimoId = emprestimoService.incluir(new Emprestimo(incluido, "Livro com ETag", "Autor", null)).getId();
+    }
+
+    @AfterEach
+    void remover() {
+        emprestimoService.excluir(emprestimoId);
+        leitorService.excluir(leitorId);
+    }
+
+    @Test
+    void emprestimoMudaDeEtagAposEscritaERecusaIfMatchDesatualizado() throws Exception {
+        String url = "/emprestimos/" + emprestimoId;
+        String original = etag(get(url));
+        String listaOriginal = etag(get("/emprestimos"));
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, original)).andExpect(status().isNotModified());
+        mvc.perform(get("/emprestimos").header(HttpHeaders.IF_NONE_MATCH, listaOriginal))
+                .andExpect(status().isNotModified());
+
+        String renovado = etag(patch(url + "/renovar").param("dias", "7").header(HttpHeaders.IF_MATCH, original));
+        assertThat(renovado).isNotEqualTo(original);
+        assertThat(etag(get(url).header(HttpHeaders.IF_NONE_MATCH, original))).isEqualTo(renovado);
+        assertThat(etag(get("/emprestimos").header(HttpHeaders.IF_NONE_MATCH, listaOriginal)))
+                .isNotEqualTo(listaOriginal);
+
+        // Devolução com a ETag de antes da renovação: 412 e o empréstimo continua em aberto
+        mvc.perform(patch(url + "/devolver").header(HttpHeaders.IF_MATCH, original))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(jdbc.queryForObject("SELECT devolvido FROM emprestimos WHERE id = ?", Boolean.class, emprestimoId))
+                .isFalse();
+        mvc.perform(patch(url + "/devolver").header(HttpHeaders.IF_MATCH, renovado)).andExpect(status().isOk());
+    }
+
+    @Test
+    void leitorEBibliotecarioRecusamIfMatchDesatualizado() throws Exception {
+        String leitor = "/leitores/" + leitorId;
+        String original = etag(get(leitor));
+        mvc.perform(patch(leitor + "/fidelidade").param("novaFidelidade", "PRATA")
+                .header(HttpHeaders.IF_MATCH, original)).andExpect(status().isOk());
+        assertThat(etag(get(leitor))).isNotEqualTo(original);
+        mvc.perform(patch(leitor + "/fidelidade").param("novaFidelidade", "OURO")
+                .header(HttpHeaders.IF_MATCH, original)).andExpect(status().isPreconditionFailed());
+        assertThat(leitorService.buscarPorId(leitorId).getFidelidade()).isEqualTo("PRATA");
+
+        Long bibliotecarioId = bibliotecarioService.listarAtivos().get(0).getId();
+        String bibliotecario = "/bibliotecarios/" + bibliotecarioId;
+        String ativo = etag(get(bibliotecario));
+        String inativo = etag(patch(bibliotecario + "/inativar").header(HttpHeaders.IF_MATCH, ativo));
+        assertThat(inativo).isNotEqualTo(ativo);
+        mvc.perform(patch(bibliotecario + "/ativar").header(HttpHeaders.IF_MATCH, ativo))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(bibliotecarioService.buscarPorId(bibliotecarioId).getAtivo()).isFalse();
+        mvc.perform(patch(bibliotecario + "/ativar").header(HttpHeaders.IF_MATCH, inativo)).andExpect(status().isOk());
+    }
+
+    @Test
+    void etagsQueDependemDoDiaMudamAMeiaNoite() throws Exception {
+        LocalDate hoje = LocalDate.now();
+        String url = "/emprestimos/" + emprestimoId;
+
+        // Vence hoje: ainda não está atrasado
+        jdbc.update("UPDATE emprestimos SET data_devolucao_prevista = ? WHERE id = ?", hoje, emprestimoId);
+        String emDia = etag(get(url));
+        assertThat(emDia).doesNotContain("-atrasado");
+
+        // Mesmo prazo visto no dia seguinte (prazo de ontem), sem nenhuma escrita na versão
+        jdbc.update("UPDATE emprestimos SET data_devolucao_prevista = ? WHERE id = ?", hoje.minusDays(1), emprestimoId);
+        String atrasado = etag(get(url).header(HttpHeaders.IF_NONE_MATCH, emDia));
+        assertThat(atrasado).isEqualTo(emDia.substring(0, emDia.length() - 1) + "-atrasado\"");
+
+        // Listagem: a ETag emitida ontem para as mesmas tabelas não vale mais hoje
+        String lista = etag(get("/emprestimos/atrasados"));
+        assertThat(lista).contains(hoje.toString());
+        String deOntem = lista.replace(hoje.toString(), hoje.minusDays(1).toString());
+        assertThat(etag(get("/emprestimos/atrasados").header(HttpHeaders.IF_NONE_MATCH, deOntem))).isEqualTo(lista);
+    }
+
+    // Resposta 200 obrigatória: devolve a ETag dela
+    private String etag(RequestBuilder requisicao) throws Exception {
+        String etag = mvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+}
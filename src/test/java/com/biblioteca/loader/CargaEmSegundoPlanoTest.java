@@ -0,0 +1,149 @@
+package com.biblioteca.loader;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Carga em segundo plano: endpoints de dados com 503 + Retry-After e health fora
+ * de serviço enquanto ela roda; liberados só depois de concluída (com falha, 503
+ * sem Retry-After). Na carga síncrona, a falha é relançada para interromper a inicialização
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.carga.assincrona=true",
+        "biblioteca.carga.retry-after-segundos=7"
+})
+@AutoConfigureMockMvc
+@Import(CargaEmSegundoPlanoTest.CarregadorRetido.class)
+@DirtiesContext
+class CargaEmSegundoPlanoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CargaInicial cargaInicial;
+
+    @Autowired
+    private EstadoCarga estado;
+
+    @Autowired
+    private CarregadorRetido retido;
+
+    @Test
+    void bloqueiaEndpointsDeDadosAteACargaSerConcluida() throws Exception {
+        assertThat(retido.iniciado.await(30, TimeUnit.SECONDS)).isTrue();
+
+        mvc.perform(get("/leitores"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+        mvc.perform(get("/actuator/health"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"));
+
+        retido.liberar.countDown();
+        aguardar(estado::concluida);
+        mvc.perform(get("/leitores")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/health")).andExpect(jsonPath("$.status").value("UP"));
+
+        // Carga que falha: os dados continuam bloqueados, sem previsão de retorno
+        retido.falha = new IllegalStateException("arquivo corrompido");
+        cargaInicial.run(null);
+        aguardar(() -> !estado.concluida() && !estado.emAndamento());
+        mvc.perform(get("/leitores"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.message").value(containsString("arquivo corrompido")));
+        mvc.perform(get("/actuator/health")).andExpect(jsonPath("$.status").value("DOWN"));
+
+        retido.falha = null;
+        cargaInicial.run(null);
+        aguardar(estado::concluida);
+        mvc.perform(get("/leitores")).andExpect(status().isOk());
+
+        // Caminho síncrono (executado por run() com biblioteca.carga.assincrona=false)
+        IllegalStateException falha = new IllegalStateException("arquivo corrompido");
+        retido.falha = falha;
+        assertThatThrownBy(cargaInicial::carregar).isSameAs(falha);
+        assertThat(estado.erro()).contains("arquivo corrompido");
+        retido.falha = null;
+        cargaInicial.carregar();
+        assertThat(estado.concluida()).isTrue();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo de espera da carga").isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Primeiro loader da carga: segura a carga até o teste liberar e pode falhar sob demanda
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    static class CarregadorRetido extends CarregadorArquivo<Object> {
+
+        final CountDownLatch iniciado = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+        volatile RuntimeException falha;
+
+        @Override
+        public void carregar() {
+            iniciado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            if (falha != null) {
+                throw falha;
+            }
+        }
+
+        @Override
+        protected String arquivo() {
+            return "retido.txt";
+        }
+
+        @Override
+        protected String descricao() {
+            return "itens retidos";
+        }
+
+        @Override
+        protected Object converter(String[] dados) {
+            return dados;
+        }
+
+        @Override
+        protected Map<Integer, String> gravar(List<Object> itens) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.biblioteca.loader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinhasMapeadasTest {
+
+    private static final String CONTEUDO = "# comentário\r\n"
+            + "11122233344;Memórias Póstumas;Machado de Assis;978;2024-10-01;2024-10-15;null;TRUE\r\n"
+            + "\n"
+            + "22233344455;O Cortiço;Aluísio Azevedo;;2024-09-15;2024-09-29;2024-09-28;false\n"
+            + "33344455566;Vidas Secas;Graciliano Ramos;979;2024-11-01;2024-11-15;;false";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void separaCamposEmJanelasPequenas() throws IOException {
+        Path arquivo = escrever(CONTEUDO);
+        // Janela menor que uma linha completa força remapeamentos no meio do arquivo
+        try (LinhasMapeadas linhas = new LinhasMapeadas(arquivo, 0, 100)) {
+            assertTrue(linhas.proxima());
+            assertEquals(8, linhas.campos());
+            assertEquals(11122233344L, linhas.numero(0));
+            assertEquals("Memórias Póstumas", linhas.texto(1));
+            assertEquals(LocalDate.of(2024, 10, 15), linhas.data(5));
+            assertTrue(linhas.nulo(6));
+            assertTrue(linhas.booleano(7));
+
+            assertTrue(linhas.proxima());
+            assertEquals("Aluísio Azevedo", linhas.texto(2));
+            assertEquals("", linhas.texto(3));
+            assertEquals(LocalDate.of(2024, 9, 28), linhas.data(6));
+            assertFalse(linhas.booleano(7));
+
+            assertTrue(linhas.proxima());
+            assertTrue(linhas.nulo(6));
+            assertEquals(Files.size(arquivo), linhas.posicao());
+            assertFalse(linhas.proxima());
+        }
+    }
+
+    @Test
+    void retomaAPartirDaPosicaoRegistrada() throws IOException {
+        Path arquivo = escrever(CONTEUDO);
+        long posicao;
+        try (LinhasMapeadas linhas = new LinhasMapeadas(arquivo, 0)) {
+            linhas.proxima();
+            posicao = linhas.posicao();
+        }
+
+        List<String> titulos = new ArrayList<>();
+        try (LinhasMapeadas linhas = new LinhasMapeadas(arquivo, posicao, 100)) {
+            while (linhas.proxima()) {
+                titulos.add(linhas.texto(1));
+            }
+        }
+        assertEquals(List.of("O Cortiço", "Vidas Secas"), titulos);
+    }
+
+    @Test
+    void rejeitaCamposInvalidos() throws IOException {
+        Path arquivo = escrever("12a;Título;2024-13-01\n");
+        try (LinhasMapeadas linhas = new LinhasMapeadas(arquivo, 0)) {
+            assertTrue(linhas.proxima());
+            assertThrows(IllegalArgumentException.class, () -> linhas.numero(0));
+            assertThrows(RuntimeException.class, () -> linhas.data(2));
+            assertThrows(IllegalArgumentException.class, () -> linhas.texto(3));
+        }
+    }
+
+    private Path escrever(String conteudo) throws IOException {
+        return Files.write(diretorio.resolve("emprestimos.txt"), conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
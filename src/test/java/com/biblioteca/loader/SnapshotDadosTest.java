@@ -0,0 +1,170 @@
+package com.biblioteca.loader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Snapshot da carga inicial: gravado só depois de os loaders encherem um banco vazio,
+ * restaurado com os mesmos dados, e ignorado (volta aos loaders) quando o checksum
+ * dos arquivos ou as colunas das tabelas não batem
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        // Banco próprio: a carga deste contexto sempre começa vazia
+        "spring.datasource.url=jdbc:h2:mem:snapshotdb",
+        "biblioteca.snapshot.habilitado=true"
+})
+@DirtiesContext
+class SnapshotDadosTest {
+
+    private static final String[] TABELAS = {"bibliotecarios", "leitores", "emprestimos", "exemplares"};
+
+    @TempDir
+    static Path diretorio;
+
+    @DynamicPropertySource
+    static void configurar(DynamicPropertyRegistry registro) {
+        registro.add("biblioteca.snapshot.arquivo", () -> arquivo().toString());
+    }
+
+    @Autowired
+    private SnapshotDados snapshot;
+
+    @Autowired
+    private CargaInicial cargaInicial;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void cargaEmBancoVazioGravaSnapshotQueRestauraOsMesmosDados() {
+        assertThat(arquivo()).isRegularFile();
+        Map<String, List<Map<String, Object>>> carregados = conteudo();
+        assertThat(carregados.get("leitores")).isNotEmpty();
+
+        esvaziar();
+        assertThat(snapshot.restaurar()).isTrue();
+        assertThat(conteudo()).isEqualTo(carregados);
+
+        // Sequências ajustadas: novos IDs não colidem com os restaurados
+        Long maiorId = jdbc.queryForObject("SELECT MAX(id) FROM leitores", Long.class);
+        assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR leitores_seq", Long.class)).isGreaterThan(maiorId);
+    }
+
+    @Test
+    void checksumOuColunasDiferentesVoltamAosLoaders() throws IOException {
+        byte[] original = descompactar(Files.readAllBytes(arquivo()));
+
+        // Checksum dos arquivos de dados (logo após versão e tamanho) diferente
+        byte[] outroChecksum = original.clone();
+        outroChecksum[8] ^= 0x01;
+        gravar(outroChecksum);
+        esvaziar();
+        assertThat(snapshot.restaurar()).isFalse();
+        assertThat(totalLinhas()).isZero();
+
+        // Coluna de emprestimos renomeada: bibliotecários e leitores já inseridos são desfeitos
+        gravar(substituir(original, "titulo_livro", "titulo_livrX"));
+        assertThat(snapshot.restaurar()).isFalse();
+        assertThat(totalLinhas()).isZero();
+
+        // A carga volta aos arquivos texto e regrava um snapshot válido
+        cargaInicial.run(null);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM leitores", Long.class)).isPositive();
+        assertThat(descompactar(Files.readAllBytes(arquivo()))).isNotEqualTo(outroChecksum);
+        esvaziar();
+        assertThat(snapshot.restaurar()).isTrue();
+    }
+
+    @Test
+    void bancoComDadosNaoRegravaSnapshot() throws IOException {
+        if (totalLinhas() == 0) {
+            cargaInicial.run(null);
+        }
+        byte[] antes = Files.readAllBytes(arquivo());
+        gravar(substituir(descompactar(antes), "bibliotecarios", "bibliotecariox"));
+        byte[] marcado = Files.readAllBytes(arquivo());
+
+        // Loaders sobre banco já carregado: o snapshot não é tocado
+        cargaInicial.run(null);
+        assertThat(Files.readAllBytes(arquivo())).isEqualTo(marcado);
+        gravar(descompactar(antes));
+    }
+
+    private static Path arquivo() {
+        return diretorio.resolve("biblioteca.snapshot");
+    }
+
+    private void esvaziar() {
+        for (String tabela : new String[]{"emprestimos", "exemplares", "leitores", "bibliotecarios"}) {
+            jdbc.update("DELETE FROM " + tabela);
+        }
+    }
+
+    private long totalLinhas() {
+        long total = 0;
+        for (String tabela : TABELAS) {
+            total += jdbc.queryForObject("SELECT COUNT(*) FROM " + tabela, Long.class);
+        }
+        return total;
+    }
+
+    private Map<String, List<Map<String, Object>>> conteudo() {
+        Map<String, List<Map<String, Object>>> conteudo = new LinkedHashMap<>();
+        for (String tabela : TABELAS) {
+            conteudo.put(tabela, jdbc.queryForList("SELECT * FROM " + tabela + " ORDER BY id"));
+        }
+        return conteudo;
+    }
+
+    private static void gravar(byte[] descompactado) throws IOException {
+        try (OutputStream saida = new GZIPOutputStream(Files.newOutputStream(arquivo()))) {
+            saida.write(descompactado);
+        }
+    }
+
+    private static byte[] descompactar(byte[] compactado) throws IOException {
+        try (InputStream entrada = new GZIPInputStream(new java.io.ByteArrayInputStream(compactado));
+             ByteArrayOutputStream saida = new ByteArrayOutputStream()) {
+            entrada.transferTo(saida);
+            return saida.toByteArray();
+        }
+    }
+
+    // Troca a primeira ocorrência de um nome (mesmo tamanho) gravado no snapshot
+    private static byte[] substituir(byte[] conteudo, String de, String para) {
+        byte[] procurado = de.getBytes(StandardCharsets.UTF_8);
+        byte[] novo = para.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i <= conteudo.length - procurado.length; i++) {
+            if (Arrays.equals(conteudo, i, i + procurado.length, procurado, 0, procurado.length)) {
+                byte[] alterado = conteudo.clone();
+                System.arraycopy(novo, 0, alterado, i, novo.length);
+                return alterado;
+            }
+        }
+        throw new AssertionError(de + " não encontrado no snapshot");
+    }
+}
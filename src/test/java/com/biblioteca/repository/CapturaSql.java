@@ -0,0 +1,42 @@
+package com.biblioteca.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StatementInspector de teste que registra o SQL gerado pelo Hibernate
+ * Configurado via hibernate.session_factory.statement_inspector
+ */
+public class CapturaSql implements StatementInspector {
+
+    private static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        COMANDOS.add(sql);
+        return sql;
+    }
+
+    public static void limpar() {
+        COMANDOS.clear();
+    }
+
+    /**
+     * Comandos executados desde a última limpeza (cópia)
+     */
+    public static List<String> comandos() {
+        return List.copyOf(COMANDOS);
+    }
+
+    /**
+     * Primeiro comando executado sobre a tabela informada desde a última limpeza
+     */
+    public static String primeiroSobre(String tabela) {
+        return COMANDOS.stream()
+                .filter(sql -> sql.toLowerCase().contains("from " + tabela))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Nenhum SQL capturado sobre " + tabela));
+    }
+}
@@ -0,0 +1,128 @@
+package com.biblioteca.repository;
+
+import com.biblioteca.benchmark.MassaDeDados;
+import com.biblioteca.domain.Leitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica via EXPLAIN que as consultas do EmprestimoRepository usam índices
+ *
+ * O SQL real de cada query method é capturado pelo CapturaSql e submetido
+ * ao EXPLAIN do H2 com os mesmos parâmetros.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.biblioteca.repository.CapturaSql",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+@Transactional
+class EmprestimoRepositoryIndicesTest {
+
+    private static final LocalDate HOJE = LocalDate.now();
+
+    @Autowired
+    private EmprestimoRepository repository;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Leitor leitor;
+
+    @BeforeEach
+    void popularTabela() {
+        List<Leitor> leitores = leitorRepository.findAll();
+        leitor = leitores.get(0);
+        MassaDeDados.inserirEmprestimos(jdbc, leitores.stream().map(Leitor::getId).toList(), 20_000);
+        jdbc.execute("ANALYZE");
+        CapturaSql.limpar();
+    }
+
+    @Test
+    void consultasPorStatusEPrazoUsamIndiceDevolvidoPrevista() {
+        repository.findByDataDevolucaoPrevistaBeforeAndDevolvidoFalse(HOJE);
+        assertUsaIndice("idx_emprestimos_devolvido_prevista", HOJE);
+
+        repository.findByDevolvido(false);
+        assertUsaIndice("idx_emprestimos_devolvido_prevista", false);
+
+        try (Stream<?> s = repository.streamByDevolvidoOrderByIdAsc(false)) {
+            assertUsaIndice("idx_emprestimos_devolvido_prevista", false);
+        }
+    }
+
+    @Test
+    void consultasPorLeitorUsamIndiceLeitorDevolvido() {
+        repository.findByLeitorIdAndDevolvido(leitor.getId(), false);
+        assertUsaIndice("idx_emprestimos_leitor_devolvido", leitor.getId(), false);
+
+        // Apenas leitor_id: o H2 pode escolher o índice da FK, que também serve
+        repository.findByLeitorId(leitor.getId());
+        assertNaoVarreTabela(leitor.getId());
+
+        repository.findByLeitor(leitor);
+        assertNaoVarreTabela(leitor.getId());
+
+        repository.findByLeitorIdAndIdGreaterThanOrderByIdAsc(leitor.getId(), 0L, Limit.of(51));
+        assertNaoVarreTabela(leitor.getId(), 0L, 51);
+    }
+
+    @Test
+    void consultasPorPeriodoUsamIndiceDataEmprestimo() {
+        LocalDate inicio = HOJE.minusDays(30);
+
+        repository.findByDataEmprestimoBetween(inicio, HOJE);
+        assertUsaIndice("idx_emprestimos_data_emprestimo", inicio, HOJE);
+
+        try (Stream<?> s = repository.streamByDataEmprestimoBetweenOrderByIdAsc(inicio, HOJE)) {
+            assertUsaIndice("idx_emprestimos_data_emprestimo", inicio, HOJE);
+        }
+
+        // Período + status: qualquer um dos dois índices atende
+        try (Stream<?> s = repository.streamByDataEmprestimoBetweenAndDevolvidoOrderByIdAsc(inicio, HOJE, false)) {
+            assertNaoVarreTabela(inicio, HOJE, false);
+        }
+    }
+
+    @Test
+    void paginacaoPorCursorUsaChavePrimaria() {
+        repository.findByIdGreaterThanOrderByIdAsc(100L, Limit.of(51));
+        assertUsaIndice("primary_key", 100L, 51);
+    }
+
+    // findByTituloLivroContainingIgnoreCase (LIKE '%x%') e streamByOrderByIdAsc
+    // (exportação completa) percorrem a tabela inteira por definição.
+
+    private void assertUsaIndice(String indice, Object... parametros) {
+        assertThat(planoDaUltimaConsulta(parametros))
+                .doesNotContainIgnoringCase("EMPRESTIMOS.tableScan")
+                .containsIgnoringCase(indice);
+    }
+
+    private void assertNaoVarreTabela(Object... parametros) {
+        assertThat(planoDaUltimaConsulta(parametros))
+                .doesNotContainIgnoringCase("EMPRESTIMOS.tableScan");
+    }
+
+    private String planoDaUltimaConsulta(Object... parametros) {
+        String sql = CapturaSql.primeiroSobre("emprestimos");
+        CapturaSql.limpar();
+        return jdbc.queryForObject("EXPLAIN " + sql, String.class, parametros);
+    }
+}
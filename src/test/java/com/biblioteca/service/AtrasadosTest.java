@@ -0,0 +1,85 @@
+package com.biblioteca.service;
+
+import com.biblioteca.benchmark.MassaDeDados;
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.repository.EmprestimoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Índice de vencimentos: a listagem de atrasados coincide com a consulta ao banco,
+ * acompanha renovações e devoluções, e a reconciliação corrige o que mudou por fora
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class AtrasadosTest {
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private EmprestimoRepository repository;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void indiceAcompanhaServicoEReconciliacaoCorrigeAlteracoesExternas() {
+        List<Long> leitorIds = leitorService.listarTodos().stream().map(Leitor::getId).toList();
+        service.reconciliarIndiceVencimentos();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, 700);
+
+        // Inserções via JDBC não passam pelo serviço: a reconciliação encontra as abertas
+        long abertosInseridos = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM emprestimos WHERE devolvido = FALSE AND titulo_livro LIKE '% vol. %'", Long.class);
+        assertThat(service.reconciliarIndiceVencimentos()).isEqualTo(abertosInseridos);
+        assertThat(service.reconciliarIndiceVencimentos()).isZero();
+        assertThat(idsAtrasados()).containsExactlyInAnyOrderElementsOf(idsAtrasadosNoBanco());
+
+        // Renovado além de hoje, sai da lista; devolvido, também
+        Long renovado = jdbc.queryForObject("SELECT MIN(id) FROM emprestimos WHERE devolvido = FALSE "
+                + "AND data_devolucao_prevista BETWEEN ? AND ?", Long.class,
+                Date.valueOf(LocalDate.now().minusDays(25)), Date.valueOf(LocalDate.now().minusDays(1)));
+        assertThat(idsAtrasados()).contains(renovado);
+        service.renovarEmprestimo(renovado, 30);
+        assertThat(idsAtrasados()).doesNotContain(renovado);
+
+        Long devolvido = idsAtrasados().get(0);
+        service.registrarDevolucao(devolvido);
+        assertThat(idsAtrasados()).doesNotContain(devolvido);
+        assertThat(idsAtrasados()).containsExactlyInAnyOrderElementsOf(idsAtrasadosNoBanco());
+
+        // Alterações direto no banco: 10 devolvidos e 5 com novo prazo
+        jdbc.update("UPDATE emprestimos SET devolvido = TRUE WHERE id IN "
+                + "(SELECT id FROM emprestimos WHERE devolvido = FALSE ORDER BY id FETCH FIRST 10 ROWS ONLY)");
+        jdbc.update("UPDATE emprestimos SET data_devolucao_prevista = data_devolucao_prevista + 1 WHERE id IN "
+                + "(SELECT id FROM emprestimos WHERE devolvido = FALSE ORDER BY id DESC FETCH FIRST 5 ROWS ONLY)");
+        assertThat(service.reconciliarIndiceVencimentos()).isEqualTo(15);
+        assertThat(idsAtrasados()).containsExactlyInAnyOrderElementsOf(idsAtrasadosNoBanco());
+    }
+
+    private List<Long> idsAtrasados() {
+        return service.listarAtrasados().stream().map(Emprestimo::getId).toList();
+    }
+
+    private List<Long> idsAtrasadosNoBanco() {
+        return repository.findByDataDevolucaoPrevistaBeforeAndDevolvidoFalse(LocalDate.now()).stream()
+                .map(Emprestimo::getId).toList();
+    }
+}
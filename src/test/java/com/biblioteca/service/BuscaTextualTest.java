@@ -0,0 +1,95 @@
+package com.biblioteca.service;
+
+import com.biblioteca.benchmark.MassaDeDados;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.EmprestimoEncontrado;
+import com.biblioteca.dto.Pagina;
+import com.biblioteca.exception.DadosInvalidosException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Busca textual (Lucene): mesmos empréstimos que o LIKE no banco, sem diferenciar
+ * acentos, com paginação pelo ranking e remoção refletida no índice
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class BuscaTextualTest {
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void inserirMassa() {
+        if (jdbc.queryForObject("SELECT COUNT(*) FROM emprestimos WHERE titulo_livro LIKE '% vol. %'", Long.class) == 0) {
+            List<Long> leitorIds = leitorService.listarTodos().stream().map(Leitor::getId).toList();
+            MassaDeDados.inserirEmprestimos(jdbc, leitorIds, 400);
+            service.sincronizarIndiceTextual();
+        }
+    }
+
+    @Test
+    void encontraOsMesmosEmprestimosQueOLikePorAutorEIsbn() {
+        List<Long> doAutor = jdbc.queryForList(
+                "SELECT id FROM emprestimos WHERE LOWER(autor) LIKE '%machado%' OR LOWER(titulo_livro) LIKE '%machado%'",
+                Long.class);
+        assertThat(percorrer("Machado", 30)).containsExactlyInAnyOrderElementsOf(doAutor);
+
+        List<Long> doIsbn = jdbc.queryForList("SELECT id FROM emprestimos WHERE isbn = '9788535908770'", Long.class);
+        assertThat(percorrer("9788535908770", 50)).containsExactlyInAnyOrderElementsOf(doIsbn);
+    }
+
+    @Test
+    void ignoraAcentosEOrdenaPorRelevancia() {
+        Pagina<EmprestimoEncontrado> pagina = service.buscarTexto("sertao veredas", null, 20);
+        assertThat(pagina.getItens()).isNotEmpty();
+        assertThat(pagina.getItens()).allSatisfy(item ->
+                assertThat(item.getEmprestimo().getTituloLivro()).contains("Sertão"));
+        List<Float> relevancias = pagina.getItens().stream().map(EmprestimoEncontrado::getRelevancia).toList();
+        assertThat(relevancias).isSortedAccordingTo((a, b) -> Float.compare(b, a));
+    }
+
+    @Test
+    void emprestimoExcluidoSaiDoResultadoETextoVazioERecusado() {
+        Long id = jdbc.queryForObject(
+                "SELECT MIN(id) FROM emprestimos WHERE titulo_livro LIKE 'Vidas Secas vol.%'", Long.class);
+        assertThat(percorrer("Vidas Secas", 50)).contains(id);
+
+        service.excluir(id);
+        assertThat(percorrer("Vidas Secas", 50)).doesNotContain(id);
+
+        assertThatThrownBy(() -> service.buscarTexto("  ", null, 10)).isInstanceOf(DadosInvalidosException.class);
+    }
+
+    // IDs de todas as páginas do ranking, sem repetições
+    private List<Long> percorrer(String texto, int tamanho) {
+        List<Long> ids = new ArrayList<>();
+        Long cursor = null;
+        do {
+            Pagina<EmprestimoEncontrado> pagina = service.buscarTexto(texto, cursor, tamanho);
+            pagina.getItens().forEach(item -> ids.add(item.getEmprestimo().getId()));
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+        assertThat(ids).doesNotHaveDuplicates();
+        return ids;
+    }
+}
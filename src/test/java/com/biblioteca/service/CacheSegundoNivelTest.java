@@ -0,0 +1,109 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.domain.Leitor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de segundo nível e de natural-id: a segunda busca por ID ou CPF sai do
+ * cache sem nenhum SQL, e uma alteração pelo serviço aparece na busca seguinte
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class CacheSegundoNivelTest {
+
+    private static final String CPF = "77700000001";
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private BibliotecarioService bibliotecarioService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private Long leitorId;
+
+    @BeforeEach
+    void preparar() {
+        leitorId = leitorService.incluir(novoLeitor("Leitor em Cache")).getId();
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+    }
+
+    @AfterEach
+    void remover() {
+        leitorService.excluir(leitorId);
+    }
+
+    @Test
+    void segundaBuscaDeLeitorSaiDoCacheSemSql() {
+        leitorService.buscarPorId(leitorId);
+        estatisticas.clear();
+        assertThat(leitorService.buscarPorId(leitorId).getNome()).isEqualTo("Leitor em Cache");
+        assertThat(estatisticas.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+
+        leitorService.buscarPorCpf(CPF);
+        estatisticas.clear();
+        assertThat(leitorService.buscarPorCpf(CPF).getId()).isEqualTo(leitorId);
+        assertThat(estatisticas.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(estatisticas.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void segundaBuscaDeBibliotecarioSaiDoCacheSemSql() {
+        Bibliotecario bibliotecario = bibliotecarioService.listarTodos().get(0);
+
+        bibliotecarioService.buscarPorId(bibliotecario.getId());
+        estatisticas.clear();
+        bibliotecarioService.buscarPorId(bibliotecario.getId());
+        assertThat(estatisticas.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+
+        bibliotecarioService.buscarPorCpf(bibliotecario.getCpf());
+        estatisticas.clear();
+        assertThat(bibliotecarioService.buscarPorCpf(bibliotecario.getCpf()).getId()).isEqualTo(bibliotecario.getId());
+        assertThat(estatisticas.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void alteracaoPeloServicoApareceNaBuscaSeguinte() {
+        // Leitor já em cache antes da alteração
+        leitorService.buscarPorId(leitorId);
+        leitorService.buscarPorCpf(CPF);
+
+        leitorService.alterar(leitorId, novoLeitor("Leitor Alterado"));
+
+        assertThat(leitorService.buscarPorId(leitorId).getNome()).isEqualTo("Leitor Alterado");
+        assertThat(leitorService.buscarPorCpf(CPF).getNome()).isEqualTo("Leitor Alterado");
+
+        leitorService.atualizarLimiteCredito(leitorId, 250.0);
+        assertThat(leitorService.buscarPorId(leitorId).getLimiteCredito()).isEqualTo(250.0);
+    }
+
+    private static Leitor novoLeitor(String nome) {
+        Leitor leitor = new Leitor(nome, CPF, null, null, null, "CAC-" + CPF);
+        leitor.setFidelidade("BRONZE");
+        leitor.setLimiteCredito(100.0);
+        return leitor;
+    }
+}
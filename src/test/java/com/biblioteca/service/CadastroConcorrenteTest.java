@@ -0,0 +1,159 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.repository.BibliotecarioRepository;
+import com.biblioteca.repository.LeitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inclusões concorrentes com CPFs (e matrículas) repetidos entre as threads:
+ * cada valor é gravado uma única vez e os perdedores recebem DadosInvalidosException,
+ * nunca a DataIntegrityViolationException crua
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class CadastroConcorrenteTest {
+
+    private static final int THREADS = 16;
+    private static final int TENTATIVAS_POR_THREAD = 40;
+    private static final int VALORES_DISTINTOS = 64;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private BibliotecarioService bibliotecarioService;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private BibliotecarioRepository bibliotecarioRepository;
+
+    private final Queue<Long> leitoresIncluidos = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> bibliotecariosIncluidos = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void removerIncluidos() {
+        leitoresIncluidos.forEach(leitorService::excluir);
+        bibliotecariosIncluidos.forEach(bibliotecarioService::excluir);
+    }
+
+    @Test
+    void leitoresComCpfsRepetidos() throws InterruptedException {
+        Resultado resultado = disputar(tentativa -> {
+            Leitor leitor = new Leitor("Leitor Concorrente " + tentativa, cpf(tentativa % VALORES_DISTINTOS),
+                    null, null, null, "LC" + tentativa);
+            leitor.setFidelidade("BRONZE");
+            leitor.setLimiteCredito(100.0);
+            leitoresIncluidos.add(leitorService.incluir(leitor).getId());
+        });
+
+        assertThat(resultado.outrosErros).isEmpty();
+        assertThat(resultado.incluidos.get()).isEqualTo(VALORES_DISTINTOS);
+        assertThat(resultado.recusados.get()).isEqualTo(THREADS * TENTATIVAS_POR_THREAD - VALORES_DISTINTOS);
+        assertThat(resultado.mensagens).allMatch(mensagem -> mensagem.startsWith("CPF já cadastrado"));
+        assertThat(leitorRepository.buscarCpfsExistentes(cpfs())).hasSize(VALORES_DISTINTOS);
+    }
+
+    @Test
+    void bibliotecariosComMatriculasRepetidas() throws InterruptedException {
+        Resultado resultado = disputar(tentativa -> {
+            // CPF sempre novo (passa direto pelo filtro de Bloom); a matrícula se repete
+            Bibliotecario bibliotecario = new Bibliotecario("Bibliotecário Concorrente " + tentativa,
+                    cpf(1_000 + tentativa), null, null, null, "BC" + tentativa, "MANHA");
+            bibliotecario.setMatricula(matricula(tentativa % VALORES_DISTINTOS));
+            bibliotecario.setSalario(3000.0);
+            bibliotecariosIncluidos.add(bibliotecarioService.incluir(bibliotecario).getId());
+        });
+
+        assertThat(resultado.outrosErros).isEmpty();
+        assertThat(resultado.incluidos.get()).isEqualTo(VALORES_DISTINTOS);
+        assertThat(resultado.mensagens).allMatch(mensagem -> mensagem.startsWith("Matrícula já cadastrada"));
+        assertThat(bibliotecarioRepository.buscarMatriculasExistentes(matriculas())).hasSize(VALORES_DISTINTOS);
+    }
+
+    // ========== AUXILIARES ==========
+
+    private Resultado disputar(IntConsumer incluir) throws InterruptedException {
+        Resultado resultado = new Resultado();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < TENTATIVAS_POR_THREAD; i++) {
+                    int tentativa = thread * TENTATIVAS_POR_THREAD + i;
+                    try {
+                        incluir.accept(tentativa);
+                        resultado.incluidos.incrementAndGet();
+                    } catch (DadosInvalidosException e) {
+                        resultado.recusados.incrementAndGet();
+                        resultado.mensagens.add(e.getMessage());
+                    } catch (RuntimeException e) {
+                        resultado.outrosErros.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return resultado;
+    }
+
+    private static String matricula(int valor) {
+        return String.valueOf(90_000 + valor);
+    }
+
+    private static List<String> matriculas() {
+        List<String> matriculas = new ArrayList<>(VALORES_DISTINTOS);
+        for (int i = 0; i < VALORES_DISTINTOS; i++) {
+            matriculas.add(matricula(i));
+        }
+        return matriculas;
+    }
+
+    private static List<String> cpfs() {
+        List<String> cpfs = new ArrayList<>(VALORES_DISTINTOS);
+        for (int i = 0; i < VALORES_DISTINTOS; i++) {
+            cpfs.add(cpf(i));
+        }
+        return cpfs;
+    }
+
+    private static String cpf(int valor) {
+        return String.format("9%010d", valor);
+    }
+
+    private static class Resultado {
+        final AtomicInteger incluidos = new AtomicInteger();
+        final AtomicInteger recusados = new AtomicInteger();
+        final Queue<String> mensagens = new ConcurrentLinkedQueue<>();
+        final Queue<Throwable> outrosErros = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,74 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.repository.BibliotecarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga de bibliotecários em bloco: CPF, email, código de funcionário ou matrícula
+ * repetidos (no banco ou no próprio bloco) recusam só a linha em questão, e o
+ * restante do bloco é gravado
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class CargaBibliotecariosTest {
+
+    @Autowired
+    private BibliotecarioService service;
+
+    @Autowired
+    private BibliotecarioRepository repository;
+
+    @Test
+    void repetidosRecusamSoALinha() {
+        Bibliotecario cadastrado = service.listarTodos().get(0);
+        long antes = repository.count();
+
+        Map<Integer, String> rejeitados = service.incluirCarga(List.of(
+                bibliotecario("Primeiro", "91000000001", "primeiro@carga.com", "CB-1", "81001"),
+                bibliotecario("Mesmo CPF", "91000000001", "outro@carga.com", "CB-2", "81002"),
+                bibliotecario("Mesmo email", "91000000003", "primeiro@carga.com", "CB-3", "81003"),
+                bibliotecario("Mesmo código", "91000000004", "quarto@carga.com", "CB-1", "81004"),
+                bibliotecario("Mesma matrícula", "91000000005", "quinto@carga.com", "CB-5", "81001"),
+                bibliotecario("Email do banco", "91000000006", cadastrado.getEmail(), "CB-6", "81006"),
+                bibliotecario("Código do banco", "91000000007", "setimo@carga.com",
+                        cadastrado.getCodigoFuncionario(), "81007"),
+                bibliotecario("Último", "91000000008", "ultimo@carga.com", "CB-8", "81008")));
+
+        assertThat(rejeitados.keySet()).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(rejeitados.get(1)).startsWith("CPF já cadastrado");
+        assertThat(rejeitados.get(2)).startsWith("Email já cadastrado");
+        assertThat(rejeitados.get(3)).startsWith("Código de funcionário já cadastrado");
+        assertThat(rejeitados.get(4)).startsWith("Matrícula já cadastrada");
+        assertThat(rejeitados.get(5)).startsWith("Email já cadastrado");
+        assertThat(rejeitados.get(6)).startsWith("Código de funcionário já cadastrado");
+        assertThat(repository.count()).isEqualTo(antes + 2);
+        assertThat(repository.buscarCpfsExistentes(List.of("91000000001", "91000000008"))).hasSize(2);
+    }
+
+    @Test
+    void blocoSemEmailsEBlocoVazioSaoAceitos() {
+        Bibliotecario semEmail = bibliotecario("Sem email", "91000000100", null, "CB-100", "81100");
+        Bibliotecario outroSemEmail = bibliotecario("Outro sem email", "91000000101", null, "CB-101", "81101");
+        assertThat(service.incluirCarga(List.of(semEmail, outroSemEmail))).isEmpty();
+        assertThat(service.incluirCarga(List.of())).isEmpty();
+    }
+
+    private static Bibliotecario bibliotecario(String nome, String cpf, String email, String codigo, String matricula) {
+        Bibliotecario bibliotecario = new Bibliotecario(nome, cpf, email, null, null, codigo, "MANHA");
+        bibliotecario.setMatricula(matricula);
+        bibliotecario.setSalario(3000.0);
+        return bibliotecario;
+    }
+}
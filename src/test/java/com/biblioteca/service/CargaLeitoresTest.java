@@ -0,0 +1,69 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.repository.LeitorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga de leitores em bloco: CPF, email ou matrícula repetidos (no banco ou no
+ * próprio bloco) recusam só a linha em questão, e o restante do bloco é gravado
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class CargaLeitoresTest {
+
+    @Autowired
+    private LeitorService service;
+
+    @Autowired
+    private LeitorRepository repository;
+
+    @Test
+    void repetidosRecusamSoALinha() {
+        Leitor cadastrado = service.listarTodos().get(0);
+        long antes = repository.count();
+
+        Map<Integer, String> rejeitados = service.incluirCarga(List.of(
+                leitor("Primeiro", "90000000001", "primeiro@carga.com", "CG-1"),
+                leitor("Mesmo CPF", "90000000001", "outro@carga.com", "CG-2"),
+                leitor("Mesmo email", "90000000003", "primeiro@carga.com", "CG-3"),
+                leitor("Mesma matrícula", "90000000004", "quarto@carga.com", "CG-1"),
+                leitor("CPF do banco", cadastrado.getCpf(), "quinto@carga.com", "CG-5"),
+                leitor("Email do banco", "90000000006", cadastrado.getEmail(), "CG-6"),
+                leitor("Último", "90000000007", "ultimo@carga.com", "CG-7")));
+
+        assertThat(rejeitados.keySet()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(rejeitados.get(1)).startsWith("CPF já cadastrado");
+        assertThat(rejeitados.get(2)).startsWith("Email já cadastrado");
+        assertThat(rejeitados.get(3)).startsWith("Matrícula já cadastrada");
+        assertThat(rejeitados.get(4)).startsWith("CPF já cadastrado");
+        assertThat(repository.count()).isEqualTo(antes + 2);
+        assertThat(repository.buscarCpfsExistentes(List.of("90000000001", "90000000007"))).hasSize(2);
+    }
+
+    @Test
+    void blocoSemEmailsEBlocoVazioSaoAceitos() {
+        Leitor semEmail = leitor("Sem email", "90000000100", null, "CG-100");
+        Leitor outroSemEmail = leitor("Outro sem email", "90000000101", null, "CG-101");
+        assertThat(service.incluirCarga(List.of(semEmail, outroSemEmail))).isEmpty();
+        assertThat(service.incluirCarga(List.of())).isEmpty();
+    }
+
+    private static Leitor leitor(String nome, String cpf, String email, String matricula) {
+        Leitor leitor = new Leitor(nome, cpf, email, null, null, matricula);
+        leitor.setFidelidade("BRONZE");
+        leitor.setLimiteCredito(100.0);
+        return leitor;
+    }
+}
@@ -0,0 +1,119 @@
+package com.biblioteca.service;
+
+import com.biblioteca.benchmark.MassaDeDados;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.DevolucaoLote;
+import com.biblioteca.dto.ResultadoDevolucao;
+import com.biblioteca.exception.DadosInvalidosException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Devolução em lote: situação de cada item (devolvido, já devolvido, não encontrado)
+ * e data de devolução gravada só nos empréstimos em aberto
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class DevolucaoLoteTest {
+
+    private static final String ISBN_DOM_CASMURRO = "9788535911664";
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void devolvePorIdsInformandoASituacaoDeCadaItem() {
+        Leitor leitor = leitorService.listarTodos().get(0);
+        MassaDeDados.inserirEmprestimos(jdbc, List.of(leitor.getId()), 30);
+        List<Long> abertos = jdbc.queryForList(
+                "SELECT id FROM emprestimos WHERE devolvido = FALSE ORDER BY id", Long.class);
+        Long fechado = jdbc.queryForObject("SELECT MIN(id) FROM emprestimos WHERE devolvido = TRUE", Long.class);
+        Date devolucaoAnterior = jdbc.queryForObject(
+                "SELECT data_devolucao_efetiva FROM emprestimos WHERE id = ?", Date.class, fechado);
+
+        List<Long> ids = new ArrayList<>(abertos);
+        ids.add(fechado);
+        ids.add(-1L);
+        ids.add(abertos.get(0)); // repetido: conta uma vez
+        DevolucaoLote pedido = new DevolucaoLote();
+        pedido.setIds(ids);
+        List<ResultadoDevolucao> resultados = service.registrarDevolucaoLote(pedido);
+
+        assertThat(resultados).hasSize(abertos.size() + 2);
+        assertThat(porSituacao(resultados)).containsEntry(ResultadoDevolucao.Situacao.DEVOLVIDO, (long) abertos.size())
+                .containsEntry(ResultadoDevolucao.Situacao.JA_DEVOLVIDO, 1L)
+                .containsEntry(ResultadoDevolucao.Situacao.NAO_ENCONTRADO, 1L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM emprestimos WHERE devolvido = FALSE", Long.class)).isZero();
+        for (Long id : abertos) {
+            assertThat(jdbc.queryForObject("SELECT data_devolucao_efetiva FROM emprestimos WHERE id = ?",
+                    Date.class, id).toLocalDate()).isEqualTo(LocalDate.now());
+        }
+        // O já devolvido mantém a data original
+        assertThat(jdbc.queryForObject("SELECT data_devolucao_efetiva FROM emprestimos WHERE id = ?",
+                Date.class, fechado)).isEqualTo(devolucaoAnterior);
+    }
+
+    @Test
+    void devolvePorCpfEIsbnsOsEmprestimosEmAbertoDoLeitor() {
+        Leitor leitor = leitorService.listarTodos().get(1);
+        MassaDeDados.inserirEmprestimos(jdbc, List.of(leitor.getId()), 80);
+        Long abertosDoIsbn = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM emprestimos WHERE leitor_id = ? AND isbn = ? AND devolvido = FALSE",
+                Long.class, leitor.getId(), ISBN_DOM_CASMURRO);
+        assertThat(abertosDoIsbn).isPositive();
+
+        DevolucaoLote pedido = new DevolucaoLote();
+        pedido.setCpf(leitor.getCpf());
+        pedido.setIsbns(List.of(ISBN_DOM_CASMURRO, "0000000000000"));
+        Map<ResultadoDevolucao.Situacao, Long> situacoes = porSituacao(service.registrarDevolucaoLote(pedido));
+        assertThat(situacoes).containsEntry(ResultadoDevolucao.Situacao.DEVOLVIDO, abertosDoIsbn)
+                .containsEntry(ResultadoDevolucao.Situacao.NAO_ENCONTRADO, 1L);
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM emprestimos WHERE leitor_id = ? AND isbn = ? AND devolvido = FALSE",
+                Long.class, leitor.getId(), ISBN_DOM_CASMURRO)).isZero();
+
+        // Repetindo o pedido, o ISBN já não tem empréstimo em aberto
+        pedido.setIsbns(List.of(ISBN_DOM_CASMURRO));
+        assertThat(service.registrarDevolucaoLote(pedido)).singleElement()
+                .extracting(ResultadoDevolucao::getSituacao).isEqualTo(ResultadoDevolucao.Situacao.JA_DEVOLVIDO);
+    }
+
+    @Test
+    void recusaPedidoComIdsEIsbnsOuSemCpf() {
+        DevolucaoLote ambos = new DevolucaoLote();
+        ambos.setIds(List.of(1L));
+        ambos.setIsbns(List.of(ISBN_DOM_CASMURRO));
+        assertThatThrownBy(() -> service.registrarDevolucaoLote(ambos)).isInstanceOf(DadosInvalidosException.class);
+
+        DevolucaoLote semCpf = new DevolucaoLote();
+        semCpf.setIsbns(List.of(ISBN_DOM_CASMURRO));
+        assertThatThrownBy(() -> service.registrarDevolucaoLote(semCpf)).isInstanceOf(DadosInvalidosException.class);
+    }
+
+    private static Map<ResultadoDevolucao.Situacao, Long> porSituacao(List<ResultadoDevolucao> resultados) {
+        return resultados.stream()
+                .collect(Collectors.groupingBy(ResultadoDevolucao::getSituacao, Collectors.counting()));
+    }
+}
@@ -0,0 +1,225 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.repository.EmprestimoRepository;
+import com.biblioteca.repository.ExemplarRepository;
+import com.biblioteca.repository.LeitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Retiradas concorrentes do mesmo ISBN: só há tantos empréstimos em aberto quanto
+ * exemplares, os demais recebem DadosInvalidosException. Devolução e renovação do
+ * mesmo empréstimo são UPDATEs condicionais: só uma devolução vale e nenhuma
+ * renovação acontece depois dela
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.emprestimos.limite.bronze=100000",
+        "biblioteca.emprestimos.limite.prata=100000",
+        "biblioteca.emprestimos.limite.ouro=100000",
+        "biblioteca.emprestimos.limite.diamante=100000"
+})
+@DirtiesContext
+class EmprestimoConcorrenteTest {
+
+    private static final String ISBN = "9789999999990";
+    private static final int EXEMPLARES = 12;
+    private static final int THREADS = 16;
+    private static final int TENTATIVAS_POR_THREAD = 20;
+    private static final int RODADAS_DISPUTA = 30;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private ExemplarService exemplarService;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private ExemplarRepository exemplarRepository;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final Queue<Long> emprestimosIncluidos = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void removerIncluidos() {
+        emprestimosIncluidos.forEach(emprestimoService::excluir);
+        exemplarRepository.deleteAll(exemplarRepository.findByIsbnOrderByIdAsc(ISBN));
+        exemplarService.carregarDisponibilidade();
+    }
+
+    @Test
+    void retiradasSimultaneasNaoPassamDosExemplares() throws InterruptedException {
+        for (int i = 0; i < EXEMPLARES; i++) {
+            exemplarService.incluir(ISBN, new Exemplar(ISBN, "TESTE-" + i, "Livro Disputado", "Autor"));
+        }
+        Long leitorId = leitorRepository.findAll().get(0).getId();
+
+        AtomicInteger recusados = new AtomicInteger();
+        Queue<Throwable> outrosErros = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < TENTATIVAS_POR_THREAD; i++) {
+                    Leitor leitor = new Leitor();
+                    leitor.setId(leitorId);
+                    try {
+                        emprestimosIncluidos.add(emprestimoService.incluir(
+                                new Emprestimo(leitor, "Livro Disputado", "Autor", ISBN)).getId());
+                    } catch (DadosInvalidosException e) {
+                        recusados.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        outrosErros.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(outrosErros).isEmpty();
+        assertThat(emprestimosIncluidos).hasSize(EXEMPLARES);
+        assertThat(recusados.get()).isEqualTo(THREADS * TENTATIVAS_POR_THREAD - EXEMPLARES);
+        assertThat(emprestimoRepository.contarAbertosPorIsbnDoAcervo())
+                .filteredOn(contagem -> ISBN.equals(contagem.getTexto()))
+                .singleElement()
+                .satisfies(contagem -> assertThat(contagem.getQuantidade()).isEqualTo((long) EXEMPLARES));
+        assertThat(exemplarService.consultarDisponibilidade(ISBN).getDisponiveis()).isZero();
+        assertThat(exemplarService.reconciliarDisponibilidade()).isZero();
+
+        emprestimoService.registrarDevolucao(emprestimosIncluidos.peek());
+        assertThat(exemplarService.consultarDisponibilidade(ISBN).getDisponiveis()).isEqualTo(1);
+    }
+
+    @Test
+    void devolucaoERenovacaoSimultaneasNaoRenovamDepoisDaDevolucao() throws Exception {
+        Long leitorId = leitorRepository.findAll().get(0).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int rodada = 0; rodada < RODADAS_DISPUTA; rodada++) {
+                Long id = emprestar(leitorId, null);
+                LocalDate prevista = emprestimoRepository.findById(id).orElseThrow().getDataDevolucaoPrevista();
+
+                boolean[] sucesso = disputar(executor,
+                        () -> emprestimoService.registrarDevolucao(id),
+                        () -> emprestimoService.renovarEmprestimo(id, 7));
+
+                // A devolução sempre vale uma vez; a renovação só se chegou antes dela
+                Emprestimo depois = emprestimoRepository.findById(id).orElseThrow();
+                assertThat(sucesso[0]).isTrue();
+                assertThat(depois.getDevolvido()).isTrue();
+                assertThat(depois.getDataDevolucaoEfetiva()).isNotNull();
+                assertThat(depois.getDataDevolucaoPrevista()).isEqualTo(sucesso[1] ? prevista.plusDays(7) : prevista);
+                assertThat(depois.getVersao()).isEqualTo(sucesso[1] ? 2L : 1L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void renovacaoDeEmprestimoDevolvidoERecusada() {
+        Long id = emprestar(leitorRepository.findAll().get(0).getId(), null);
+        emprestimoService.registrarDevolucao(id);
+        LocalDate prevista = emprestimoRepository.findById(id).orElseThrow().getDataDevolucaoPrevista();
+
+        assertThatThrownBy(() -> emprestimoService.renovarEmprestimo(id, 7))
+                .isInstanceOf(DadosInvalidosException.class);
+        assertThat(jdbc.queryForObject("SELECT data_devolucao_prevista FROM emprestimos WHERE id = ?",
+                LocalDate.class, id)).isEqualTo(prevista);
+    }
+
+    @Test
+    void devolucaoEmDobroERecusadaSemLiberarOExemplarDuasVezes() throws Exception {
+        exemplarService.incluir(ISBN, new Exemplar(ISBN, "TESTE-0", "Livro Disputado", "Autor"));
+        Long leitorId = leitorRepository.findAll().get(0).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int rodada = 0; rodada < RODADAS_DISPUTA; rodada++) {
+                Long id = emprestar(leitorId, ISBN);
+                assertThat(exemplarService.consultarDisponibilidade(ISBN).getDisponiveis()).isZero();
+
+                boolean[] sucesso = disputar(executor,
+                        () -> emprestimoService.registrarDevolucao(id),
+                        () -> emprestimoService.registrarDevolucao(id));
+
+                assertThat(sucesso[0] ^ sucesso[1]).isTrue();
+                assertThat(exemplarService.consultarDisponibilidade(ISBN).getDisponiveis()).isEqualTo(1);
+            }
+            Long devolvido = emprestimosIncluidos.peek();
+            assertThatThrownBy(() -> emprestimoService.registrarDevolucao(devolvido))
+                    .isInstanceOf(DadosInvalidosException.class);
+            assertThat(exemplarService.consultarDisponibilidade(ISBN).getDisponiveis()).isEqualTo(1);
+            assertThat(exemplarService.reconciliarDisponibilidade()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long emprestar(Long leitorId, String isbn) {
+        Leitor leitor = new Leitor();
+        leitor.setId(leitorId);
+        Long id = emprestimoService.incluir(new Emprestimo(leitor, "Livro Disputado", "Autor", isbn)).getId();
+        emprestimosIncluidos.add(id);
+        return id;
+    }
+
+    /**
+     * Executa as duas operações ao mesmo tempo; true na posição de cada uma que não foi recusada
+     */
+    private static boolean[] disputar(ExecutorService executor, Callable<?> primeira, Callable<?> segunda)
+            throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        Callable<?>[] operacoes = {primeira, segunda};
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (Callable<?> operacao : operacoes) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    operacao.call();
+                    return true;
+                } catch (DadosInvalidosException e) {
+                    return false;
+                }
+            }));
+        }
+        largada.countDown();
+        return new boolean[]{resultados.get(0).get(1, TimeUnit.MINUTES), resultados.get(1).get(1, TimeUnit.MINUTES)};
+    }
+}
@@ -0,0 +1,105 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.exception.RecursoNaoEncontradoException;
+import com.biblioteca.repository.CapturaSql;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Inclusão em lote: IDs por sequência, INSERTs agrupados em lotes JDBC e
+ * nenhum item gravado quando um deles é inválido
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.biblioteca.repository.CapturaSql",
+        "biblioteca.emprestimos.limite.bronze=100000",
+        "biblioteca.emprestimos.limite.prata=100000",
+        "biblioteca.emprestimos.limite.ouro=100000",
+        "biblioteca.emprestimos.limite.diamante=100000",
+        "biblioteca.lote.tamanho-maximo=500"
+})
+@DirtiesContext
+class EmprestimoLoteTest {
+
+    private static final int ITENS = 120;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EmprestimoService service;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void gravaOLoteComInsertsAgrupados() {
+        List<Long> leitorIds = leitorService.listarTodos().stream().map(Leitor::getId).toList();
+        long antes = totalEmprestimos();
+
+        CapturaSql.limpar();
+        List<Emprestimo> salvos = service.incluirLote(lote(leitorIds, ITENS));
+
+        assertThat(salvos).hasSize(ITENS);
+        assertThat(salvos).extracting(Emprestimo::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(totalEmprestimos()).isEqualTo(antes + ITENS);
+        // Um comando preparado por lote JDBC, não um por empréstimo
+        long inserts = CapturaSql.comandos().stream()
+                .filter(sql -> sql.toLowerCase().replaceAll("\\s+", " ").contains("insert into emprestimos ")).count();
+        assertThat(inserts).isBetween(1L, (long) Math.ceil(ITENS / (double) BATCH_SIZE));
+
+        // Leitores resolvidos em uma só consulta
+        long consultasLeitores = CapturaSql.comandos().stream()
+                .filter(sql -> sql.toLowerCase().contains("from leitores")).count();
+        assertThat(consultasLeitores).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void itemInvalidoOuLeitorInexistenteNaoGravaNada() {
+        List<Long> leitorIds = leitorService.listarTodos().stream().map(Leitor::getId).toList();
+        long antes = totalEmprestimos();
+
+        List<Emprestimo> semTitulo = lote(leitorIds, 10);
+        semTitulo.get(2).setTituloLivro(" ");
+        assertThatThrownBy(() -> service.incluirLote(semTitulo))
+                .isInstanceOf(DadosInvalidosException.class)
+                .hasMessageStartingWith("Item 3:");
+
+        List<Emprestimo> leitorInexistente = lote(leitorIds, 10);
+        leitorInexistente.get(9).getLeitor().setId(Long.MAX_VALUE);
+        assertThatThrownBy(() -> service.incluirLote(leitorInexistente))
+                .isInstanceOf(RecursoNaoEncontradoException.class);
+
+        assertThatThrownBy(() -> service.incluirLote(lote(leitorIds, 501)))
+                .isInstanceOf(DadosInvalidosException.class);
+        assertThat(totalEmprestimos()).isEqualTo(antes);
+    }
+
+    private long totalEmprestimos() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM emprestimos", Long.class);
+    }
+
+    private static List<Emprestimo> lote(List<Long> leitorIds, int quantidade) {
+        List<Emprestimo> emprestimos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Leitor leitor = new Leitor();
+            leitor.setId(leitorIds.get(i % leitorIds.size()));
+            emprestimos.add(new Emprestimo(leitor, "Livro do lote vol. " + i, "Autor " + (i % 10), null));
+        }
+        return emprestimos;
+    }
+}
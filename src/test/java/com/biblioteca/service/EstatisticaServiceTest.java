@@ -0,0 +1,170 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.dto.ContagemMes;
+import com.biblioteca.dto.ContagemTexto;
+import com.biblioteca.dto.EstatisticaDevolucoes;
+import com.biblioteca.dto.EstimativaLeitores;
+import com.biblioteca.dto.RankingTitulos;
+import com.biblioteca.dto.TituloFrequente;
+import com.biblioteca.exception.DadosInvalidosException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * As agregações no banco coincidem com os mesmos números calculados a partir de todos os empréstimos
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class EstatisticaServiceTest {
+
+    @Autowired
+    private EstatisticaService service;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void agregacoesCoincidemComListaCompleta() {
+        List<Emprestimo> todos = emprestimoService.listarTodos();
+        assertThat(todos).isNotEmpty();
+
+        Map<String, Long> porMes = todos.stream()
+                .filter(e -> e.getDataEmprestimo() != null)
+                .collect(Collectors.groupingBy(
+                        e -> e.getDataEmprestimo().getYear() + "-" + e.getDataEmprestimo().getMonthValue(),
+                        Collectors.counting()));
+        assertThat(service.emprestimosPorMes().stream()
+                .collect(Collectors.toMap(m -> m.getAno() + "-" + m.getMes(), ContagemMes::getQuantidade)))
+                .isEqualTo(porMes);
+
+        assertThat(mapa(service.emprestimosPorFidelidade()))
+                .isEqualTo(contar(todos, e -> e.getLeitor().getFidelidade()));
+        assertThat(mapa(service.emprestimosPorCidade()))
+                .isEqualTo(contar(todos, e -> e.getLeitor().getEndereco() == null
+                        ? null : e.getLeitor().getEndereco().getCidade()));
+
+        List<Emprestimo> devolvidos = todos.stream()
+                .filter(e -> Boolean.TRUE.equals(e.getDevolvido()) && e.getDataEmprestimo() != null
+                        && e.getDataDevolucaoEfetiva() != null && e.getDataDevolucaoPrevista() != null)
+                .toList();
+        long noPrazo = devolvidos.stream()
+                .filter(e -> !e.getDataDevolucaoEfetiva().isAfter(e.getDataDevolucaoPrevista()))
+                .count();
+        double duracaoMedia = devolvidos.stream()
+                .mapToLong(e -> ChronoUnit.DAYS.between(e.getDataEmprestimo(), e.getDataDevolucaoEfetiva()))
+                .average().orElse(0);
+
+        EstatisticaDevolucoes devolucoes = service.devolucoes();
+        assertThat(devolucoes.getDevolvidos()).isEqualTo(devolvidos.size());
+        assertThat(devolucoes.getNoPrazo()).isEqualTo(noPrazo);
+        assertThat(devolucoes.getDuracaoMediaDias()).isCloseTo(duracaoMedia, within(0.05));
+    }
+
+    @Test
+    void topTitulosCoincideComContagemExataAbaixoDaCapacidade() {
+        Emprestimo modelo = emprestimoService.listarTodos().get(0);
+        Emprestimo novo = new Emprestimo();
+        novo.setLeitor(modelo.getLeitor());
+        novo.setTituloLivro("Livro do Ranking");
+        novo.setAutor("Autor");
+        novo.setIsbn("9780000000241");
+        novo.setDataEmprestimo(LocalDate.now());
+        novo.setDataDevolucaoPrevista(LocalDate.now().plusDays(14));
+        novo.setDataDevolucaoEfetiva(LocalDate.now());
+        novo.setDevolvido(true);
+        emprestimoService.incluir(novo);
+
+        LocalDate inicio = LocalDate.now().minusDays(364);
+        Map<String, Long> reais = emprestimoService.listarTodos().stream()
+                .filter(e -> e.getIsbn() != null && e.getDataEmprestimo() != null
+                        && !e.getDataEmprestimo().isBefore(inicio) && !e.getDataEmprestimo().isAfter(LocalDate.now()))
+                .collect(Collectors.groupingBy(Emprestimo::getIsbn, Collectors.counting()));
+
+        // Menos ISBNs que contadores: contagens exatas, sem erro
+        RankingTitulos ranking = service.topTitulos("365d", 200);
+        assertThat(ranking.getTotalEmprestimos()).isEqualTo(reais.values().stream().mapToLong(Long::longValue).sum());
+        assertThat(ranking.getLimiteAusentes()).isZero();
+        assertThat(ranking.getTitulos()).extracting(TituloFrequente::getErroMaximo).containsOnly(0L);
+        assertThat(ranking.getTitulos().stream()
+                .collect(Collectors.toMap(TituloFrequente::getIsbn, TituloFrequente::getQuantidade)))
+                .isEqualTo(reais);
+        assertThat(service.topTitulos("1d", 10).getTitulos())
+                .extracting(TituloFrequente::getIsbn).contains("9780000000241");
+
+        assertThatThrownBy(() -> service.topTitulos("366d", 10)).isInstanceOf(DadosInvalidosException.class);
+        assertThatThrownBy(() -> service.topTitulos("30", 10)).isInstanceOf(DadosInvalidosException.class);
+    }
+
+    @Test
+    void leitoresDistintosCoincidemComContagemExataEResistemARecarga() {
+        LocalDate inicio = YearMonth.now().minusMonths(23).atDay(1);
+        List<Emprestimo> periodo = emprestimoService.listarTodos().stream()
+                .filter(e -> e.getDataEmprestimo() != null && !e.getDataEmprestimo().isBefore(inicio)
+                        && !e.getDataEmprestimo().isAfter(LocalDate.now()))
+                .toList();
+        Map<String, Long> porCidade = periodo.stream()
+                .filter(e -> e.getLeitor().getEndereco() != null && e.getLeitor().getEndereco().getCidade() != null)
+                .collect(Collectors.groupingBy(e -> e.getLeitor().getEndereco().getCidade().trim(),
+                        Collectors.mapping(e -> e.getLeitor().getId(), Collectors.collectingAndThen(
+                                Collectors.toSet(), leitores -> (long) leitores.size()))));
+        Map<String, Long> porTitulo = periodo.stream()
+                .filter(e -> e.getIsbn() != null)
+                .collect(Collectors.groupingBy(Emprestimo::getIsbn,
+                        Collectors.mapping(e -> e.getLeitor().getId(), Collectors.collectingAndThen(
+                                Collectors.toSet(), leitores -> (long) leitores.size()))));
+        assertThat(porCidade).isNotEmpty();
+
+        // Poucos leitores: a contagem linear dos registradores é exata nesta faixa
+        assertThat(service.leitoresDistintosPorCidade(24).stream()
+                .collect(Collectors.toMap(EstimativaLeitores::getValor, EstimativaLeitores::getLeitores)))
+                .isEqualTo(porCidade);
+        porTitulo.forEach((isbn, leitores) ->
+                assertThat(service.leitoresDistintosPorTitulo(isbn, 24).getLeitores()).isEqualTo(leitores));
+        assertThat(service.leitoresDistintosPorTitulo("isbn-inexistente", 1).getLeitores()).isZero();
+        assertThatThrownBy(() -> service.leitoresDistintosPorCidade(25)).isInstanceOf(DadosInvalidosException.class);
+
+        // Gravados, os resumos voltam na inicialização sem contar ninguém duas vezes
+        assertThat(service.gravarLeitoresDistintos()).isPositive();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM leitores_distintos", Long.class)).isPositive();
+        assertThat(service.gravarLeitoresDistintos()).isZero();
+        service.carregarLeitoresDistintos();
+        assertThat(service.leitoresDistintosPorCidade(24).stream()
+                .collect(Collectors.toMap(EstimativaLeitores::getValor, EstimativaLeitores::getLeitores)))
+                .isEqualTo(porCidade);
+    }
+
+    private static Map<String, Long> mapa(List<ContagemTexto> contagens) {
+        Map<String, Long> mapa = new HashMap<>();
+        contagens.forEach(c -> mapa.put(c.getTexto(), c.getQuantidade()));
+        return mapa;
+    }
+
+    private static Map<String, Long> contar(List<Emprestimo> emprestimos, Function<Emprestimo, String> chave) {
+        Map<String, Long> mapa = new HashMap<>();
+        emprestimos.forEach(e -> mapa.merge(chave.apply(e), 1L, Long::sum));
+        return mapa;
+    }
+}
@@ -0,0 +1,183 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Importacao;
+import com.biblioteca.exception.DadosInvalidosException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Importação em massa: contagem de linhas rejeitadas (na leitura e no serviço),
+ * interrupção e retomada do ponto confirmado sem duplicar nem perder linhas
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.biblioteca.service.ImportacaoService=ERROR",
+        "biblioteca.carga.tamanho-bloco=500"
+})
+@DirtiesContext
+class ImportacaoServiceTest {
+
+    private static final String CPF = "11122233344";
+
+    @TempDir
+    static Path diretorio;
+
+    @DynamicPropertySource
+    static void configurar(DynamicPropertyRegistry registro) {
+        registro.add("biblioteca.importacao.diretorio", () -> diretorio.toString());
+    }
+
+    @Autowired
+    private ImportacaoService service;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void contaRejeitadasNaLeituraENoServico() throws Exception {
+        escrever("rejeicoes.txt", "Rejeicoes", 1_000, 30, 20, 10);
+
+        Importacao importacao = aguardarFim(service.iniciar("rejeicoes.txt").getId());
+
+        assertThat(importacao.getSituacao()).isEqualTo(Importacao.Situacao.CONCLUIDA);
+        assertThat(importacao.getLinhasImportadas()).isEqualTo(1_000);
+        assertThat(importacao.getLinhasRejeitadas()).isEqualTo(60);
+        assertThat(importacao.getPosicaoBytes()).isEqualTo(importacao.getTamanhoBytes());
+        assertThat(importacao.getUltimaRejeicao()).isNotBlank().hasSizeLessThanOrEqualTo(500);
+        assertThat(contar("Rejeicoes")).isEqualTo(1_000);
+    }
+
+    @Test
+    void interrompidaRetomaDoPontoConfirmadoEUmaPorVez() throws Exception {
+        escrever("grande.txt", "Grande", 60_000, 0, 0, 0);
+        escrever("outro.txt", "Outro", 10, 0, 0, 0);
+
+        Long id = service.iniciar("grande.txt").getId();
+        assertThatThrownBy(() -> service.iniciar("outro.txt"))
+                .isInstanceOf(DadosInvalidosException.class)
+                .hasMessageStartingWith("Já existe uma importação em andamento");
+        service.interromper(id);
+
+        Importacao interrompida = aguardarFim(id);
+        assertThat(interrompida.getSituacao()).isEqualTo(Importacao.Situacao.INTERROMPIDA);
+        assertThat(interrompida.getPosicaoBytes()).isLessThan(interrompida.getTamanhoBytes());
+        // Só blocos confirmados: o ponto de retomada e as linhas gravadas andam juntos
+        assertThat(contar("Grande")).isEqualTo(interrompida.getLinhasImportadas());
+
+        Importacao retomada = iniciarQuandoLivre("grande.txt");
+        assertThat(retomada.getId()).isEqualTo(id);
+        Importacao concluida = aguardarFim(id);
+        assertThat(concluida.getSituacao()).isEqualTo(Importacao.Situacao.CONCLUIDA);
+        assertThat(concluida.getLinhasImportadas()).isEqualTo(60_000);
+        assertThat(contar("Grande")).isEqualTo(60_000);
+    }
+
+    @Test
+    void leitorExcluidoDuranteAImportacaoRecusaSoAsLinhasDele() throws Exception {
+        String cpfExcluido = "11122233355";
+        jdbc.update("INSERT INTO leitores (nome, cpf, matricula, fidelidade, limite_credito, ativo, versao) "
+                + "VALUES ('Leitor Excluído na Importação', ?, 'IMP-EXC', 'BRONZE', 100.0, TRUE, 0)", cpfExcluido);
+        // Linhas do leitor excluído só nos dois últimos blocos
+        LocalDate retirada = LocalDate.now().minusDays(40);
+        try (BufferedWriter saida = Files.newBufferedWriter(diretorio.resolve("excluido.txt"), StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= 60_000; i++) {
+                String cpf = i > 59_000 && i % 100 == 0 ? cpfExcluido : CPF;
+                saida.write(cpf + ";Excluido vol. " + i + ";Autor;9788535911664;" + retirada + ";"
+                        + retirada.plusDays(14) + ";" + retirada.plusDays(10) + ";true\n");
+            }
+        }
+
+        Long id = iniciarQuandoLivre("excluido.txt").getId();
+        // Mapa CPF → ID já montado: o primeiro bloco foi gravado
+        long limite = System.nanoTime() + 60_000_000_000L;
+        while (service.buscarPorId(id).getLinhasImportadas() == 0 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(jdbc.update("DELETE FROM leitores WHERE cpf = ?", cpfExcluido)).isEqualTo(1);
+
+        Importacao importacao = aguardarFim(id);
+        assertThat(importacao.getSituacao()).isEqualTo(Importacao.Situacao.CONCLUIDA);
+        assertThat(importacao.getLinhasImportadas()).isEqualTo(59_990);
+        assertThat(importacao.getLinhasRejeitadas()).isEqualTo(10);
+        assertThat(importacao.getPosicaoBytes()).isEqualTo(importacao.getTamanhoBytes());
+        assertThat(importacao.getUltimaRejeicao()).contains("recusado pelo banco");
+        assertThat(contar("Excluido")).isEqualTo(59_990);
+    }
+
+    private long contar(String prefixo) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM emprestimos WHERE titulo_livro LIKE ?",
+                Long.class, prefixo + " vol.%");
+    }
+
+    /**
+     * Arquivo com "validas" linhas de títulos "prefixo vol. N", com uma inválida a cada
+     * 10 válidas: CPF desconhecido, data ilegível ou prazo anterior à retirada (recusado pelo serviço)
+     */
+    private static void escrever(String nome, String prefixo, int validas,
+                                 int cpfsDesconhecidos, int datasInvalidas, int prazosInvertidos) throws IOException {
+        LocalDate retirada = LocalDate.now().minusDays(40);
+        int[] pendentes = {cpfsDesconhecidos, datasInvalidas, prazosInvertidos};
+        String[] invalidas = {
+                "99999999999;Livro;Autor;isbn;2024-01-01;2024-01-15;null;true",
+                CPF + ";Livro;Autor;isbn;2024-13-01;2024-01-15;null;true",
+                CPF + ";Livro;Autor;isbn;2024-01-15;2024-01-01;null;true"};
+        int tipo = 0;
+        try (BufferedWriter saida = Files.newBufferedWriter(diretorio.resolve(nome), StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= validas; i++) {
+                saida.write(CPF + ";" + prefixo + " vol. " + i + ";Autor;9788535911664;" + retirada + ";"
+                        + retirada.plusDays(14) + ";" + retirada.plusDays(10) + ";true\n");
+                if (i % 10 == 0) {
+                    for (int tentativas = 0; tentativas < 3 && pendentes[tipo] == 0; tentativas++) {
+                        tipo = (tipo + 1) % 3;
+                    }
+                    if (pendentes[tipo] > 0) {
+                        pendentes[tipo]--;
+                        saida.write(invalidas[tipo] + "\n");
+                        tipo = (tipo + 1) % 3;
+                    }
+                }
+            }
+        }
+    }
+
+    private Importacao aguardarFim(Long id) throws InterruptedException {
+        long limite = System.nanoTime() + 60_000_000_000L;
+        Importacao importacao = service.buscarPorId(id);
+        while (importacao.getSituacao() == Importacao.Situacao.EM_ANDAMENTO && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            importacao = service.buscarPorId(id);
+        }
+        return importacao;
+    }
+
+    // A vaga de execução é liberada logo depois de a situação final ser gravada
+    private Importacao iniciarQuandoLivre(String arquivo) throws InterruptedException {
+        for (int tentativa = 0; ; tentativa++) {
+            try {
+                return service.iniciar(arquivo);
+            } catch (DadosInvalidosException e) {
+                if (tentativa == 100) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+}
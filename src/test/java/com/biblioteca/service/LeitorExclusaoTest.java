@@ -0,0 +1,132 @@
+package com.biblioteca.service;
+
+import com.biblioteca.busca.IndiceTextualEmprestimos;
+import com.biblioteca.busca.ResultadoBuscaTextual;
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.dto.Sugestao;
+import com.biblioteca.repository.ExemplarRepository;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.repository.ReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exclusão de leitor: os empréstimos removidos junto (cascade) saem das
+ * estruturas em memória, como se tivessem sido excluídos pelo serviço, e as
+ * reservas ativas do leitor são canceladas, repassando o exemplar separado
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class LeitorExclusaoTest {
+
+    private static final String ISBN_EMPRESTADO = "9789999999976";
+    private static final String ISBN_RESERVADO = "9789999999969";
+    private static final String TITULO = "Quixotescas Aventuras Extraviadas";
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private ExemplarService exemplarService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private IndiceTextualEmprestimos indiceTextual;
+
+    @Autowired
+    private ExemplarRepository exemplarRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    @AfterEach
+    void removerIncluidos() {
+        reservaService.gravarPendentes();
+        reservaRepository.deleteAll(reservaRepository.findAll().stream()
+                .filter(reserva -> ISBN_RESERVADO.equals(reserva.getIsbn())).toList());
+        for (String isbn : List.of(ISBN_EMPRESTADO, ISBN_RESERVADO)) {
+            exemplarRepository.deleteAll(exemplarRepository.findByIsbnOrderByIdAsc(isbn));
+        }
+        exemplarService.carregarDisponibilidade();
+        reservaService.carregarFilas();
+    }
+
+    @Test
+    void exclusaoTiraOsEmprestimosDoLeitorDasEstruturasEmMemoria() {
+        exemplarService.incluir(ISBN_EMPRESTADO, new Exemplar(ISBN_EMPRESTADO, "EXC-1", TITULO, "Autor"));
+        exemplarService.incluir(ISBN_EMPRESTADO, new Exemplar(ISBN_EMPRESTADO, "EXC-2", TITULO, "Autor"));
+        exemplarService.incluir(ISBN_RESERVADO, new Exemplar(ISBN_RESERVADO, "EXC-3", "Livro Reservado", "Autor"));
+
+        Leitor leitor = new Leitor("Leitor Excluído", "77600000001", null, null, null, "EXC-77600000001");
+        leitor.setFidelidade("BRONZE");
+        leitor.setLimiteCredito(100.0);
+        Long leitorId = leitorService.incluir(leitor).getId();
+        Long outroLeitorId = leitorRepository.findAll().get(0).getId();
+
+        // Empréstimo em aberto e atrasado
+        Emprestimo atrasado = new Emprestimo(leitor, TITULO, "Autor", ISBN_EMPRESTADO);
+        atrasado.setDataEmprestimo(LocalDate.now().minusDays(20));
+        atrasado.setDataDevolucaoPrevista(LocalDate.now().minusDays(6));
+        Long emprestimoId = emprestimoService.incluir(atrasado).getId();
+
+        // Exemplar separado para a reserva do leitor, com outro leitor aguardando
+        Reserva separada = reservaService.reservar(ISBN_RESERVADO, leitorId);
+        Reserva aguardando = reservaService.reservar(ISBN_RESERVADO, outroLeitorId);
+        assertThat(separada.getSituacao()).isEqualTo(Reserva.Situacao.DISPONIVEL);
+
+        assertThat(idsNaBusca()).contains(emprestimoId);
+        assertThat(titulosSugeridos()).contains(TITULO);
+        assertThat(emprestimoService.listarAtrasados()).extracting(Emprestimo::getId).contains(emprestimoId);
+        assertThat(exemplarService.consultarDisponibilidade(ISBN_EMPRESTADO).getDisponiveis()).isEqualTo(1);
+        assertThat(emprestimoService.contarAbertosDoLeitor(leitorId)).isEqualTo(1);
+
+        leitorService.excluir(leitorId);
+
+        assertThat(idsNaBusca()).doesNotContain(emprestimoId);
+        assertThat(titulosSugeridos()).doesNotContain(TITULO);
+        assertThat(emprestimoService.listarAtrasados()).extracting(Emprestimo::getId).doesNotContain(emprestimoId);
+        assertThat(emprestimoService.reconciliarIndiceVencimentos()).isZero();
+        assertThat(exemplarService.consultarDisponibilidade(ISBN_EMPRESTADO).getDisponiveis()).isEqualTo(2);
+        assertThat(emprestimoService.contarAbertosDoLeitor(leitorId)).isZero();
+        assertThat(reservaService.buscarPorId(separada.getId()).getSituacao()).isEqualTo(Reserva.Situacao.CANCELADA);
+        assertThat(reservaService.buscarPorId(aguardando.getId()).getSituacao()).isEqualTo(Reserva.Situacao.DISPONIVEL);
+        assertThat(exemplarService.consultarDisponibilidade(ISBN_RESERVADO).getDisponiveis()).isZero();
+        // Divergências só são corrigidas quando se repetem em duas rodadas; a
+        // reconciliação conta as reservas separadas no banco (gravação adiada)
+        reservaService.gravarPendentes();
+        exemplarService.reconciliarDisponibilidade();
+        assertThat(exemplarService.reconciliarDisponibilidade()).isZero();
+    }
+
+    private List<Long> idsNaBusca() {
+        return indiceTextual.buscar(TITULO, 0, 50).getAcertos().stream()
+                .map(ResultadoBuscaTextual.Acerto::getId)
+                .toList();
+    }
+
+    private List<String> titulosSugeridos() {
+        return emprestimoService.sugerirTitulos("Quixotescas", 10).stream().map(Sugestao::getTexto).toList();
+    }
+}
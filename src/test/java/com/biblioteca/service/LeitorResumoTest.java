@@ -0,0 +1,74 @@
+package com.biblioteca.service;
+
+import com.biblioteca.benchmark.MassaDeDados;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.LeitorResumo;
+import com.biblioteca.repository.CapturaSql;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resumos de leitores: os totais de empréstimos calculados pelo banco coincidem
+ * com a contagem linha a linha, e a listagem não carrega a coleção de empréstimos
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.biblioteca.repository.CapturaSql"
+})
+@DirtiesContext
+class LeitorResumoTest {
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void totaisDosResumosCoincidemComAContagemDosEmprestimos() {
+        List<Long> leitorIds = leitorService.listarTodos().stream().map(Leitor::getId).toList();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, 300);
+
+        // leitor -> {total, ativos, atrasados}
+        Map<Long, long[]> esperados = new HashMap<>();
+        LocalDate hoje = LocalDate.now();
+        jdbc.query("SELECT leitor_id, devolvido, data_devolucao_prevista FROM emprestimos", linha -> {
+            long[] totais = esperados.computeIfAbsent(linha.getLong(1), id -> new long[3]);
+            totais[0]++;
+            if (!linha.getBoolean(2)) {
+                totais[1]++;
+                Date prevista = linha.getDate(3);
+                if (prevista != null && prevista.toLocalDate().isBefore(hoje)) {
+                    totais[2]++;
+                }
+            }
+        });
+
+        CapturaSql.limpar();
+        List<LeitorResumo> resumos = leitorService.listarResumos();
+        assertThat(CapturaSql.comandos()).hasSize(1);
+
+        assertThat(resumos).extracting(LeitorResumo::getId).containsExactlyInAnyOrderElementsOf(leitorIds);
+        for (LeitorResumo resumo : resumos) {
+            long[] totais = esperados.getOrDefault(resumo.getId(), new long[3]);
+            assertThat(new long[]{resumo.getTotalEmprestimos(), resumo.getEmprestimosAtivos(),
+                    resumo.getEmprestimosAtrasados()}).as("leitor %d", resumo.getId()).containsExactly(totais);
+
+            LeitorResumo detalhe = leitorService.buscarResumoPorId(resumo.getId());
+            assertThat(detalhe.getTotalEmprestimos()).isEqualTo(totais[0]);
+            assertThat(leitorService.buscarResumoPorCpf(resumo.getCpf()).getId()).isEqualTo(resumo.getId());
+        }
+    }
+}
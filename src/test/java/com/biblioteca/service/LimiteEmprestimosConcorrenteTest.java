@@ -0,0 +1,138 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.repository.CapturaSql;
+import com.biblioteca.repository.EmprestimoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retiradas concorrentes do mesmo leitor: nunca passam do limite da fidelidade,
+ * e a conferência do limite não consulta o banco
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.biblioteca.repository.CapturaSql",
+        "biblioteca.emprestimos.limite.prata=5"
+})
+@DirtiesContext
+class LimiteEmprestimosConcorrenteTest {
+
+    private static final int LIMITE = 5;
+    private static final int THREADS = 16;
+    private static final int TENTATIVAS_POR_THREAD = 20;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final Queue<Long> emprestimosIncluidos = new ConcurrentLinkedQueue<>();
+    private Long leitorId;
+
+    @AfterEach
+    void removerIncluidos() {
+        emprestimosIncluidos.forEach(emprestimoService::excluir);
+        if (leitorId != null) {
+            leitorService.excluir(leitorId);
+        }
+    }
+
+    @Test
+    void retiradasSimultaneasNaoPassamDoLimite() throws InterruptedException {
+        Leitor novo = new Leitor("Leitor Limite", "77700000001", null, null, null, "LIM-1");
+        novo.setFidelidade("PRATA");
+        novo.setLimiteCredito(100.0);
+        leitorId = leitorService.incluir(novo).getId();
+        emprestar();
+
+        AtomicInteger recusados = new AtomicInteger();
+        Queue<Throwable> outrosErros = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < TENTATIVAS_POR_THREAD; i++) {
+                    try {
+                        emprestar();
+                    } catch (DadosInvalidosException e) {
+                        recusados.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        outrosErros.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(outrosErros).isEmpty();
+        assertThat(emprestimosIncluidos).hasSize(LIMITE);
+        assertThat(recusados.get()).isEqualTo(THREADS * TENTATIVAS_POR_THREAD - (LIMITE - 1));
+        assertThat(emprestimoRepository.findByLeitorIdAndDevolvido(leitorId, false)).hasSize(LIMITE);
+        assertThat(emprestimoService.contarAbertosDoLeitor(leitorId)).isEqualTo(LIMITE);
+
+        // A devolução abre uma vaga, e a nova retirada não conta os empréstimos no banco
+        emprestimoService.registrarDevolucao(emprestimosIncluidos.peek());
+        CapturaSql.limpar();
+        emprestar();
+        assertThat(CapturaSql.comandos()).noneMatch(sql -> sql.toLowerCase().contains("count("));
+        assertThat(emprestimoService.contarAbertosDoLeitor(leitorId)).isEqualTo(LIMITE);
+    }
+
+    @Test
+    void reconciliacaoCorrigeContadorQueDivergeEmDuasRodadas() {
+        Leitor novo = new Leitor("Leitor Reconciliado", "77700000002", null, null, null, "LIM-2");
+        novo.setFidelidade("PRATA");
+        novo.setLimiteCredito(100.0);
+        leitorId = leitorService.incluir(novo).getId();
+        emprestar();
+        emprestar();
+        assertThat(emprestimoService.reconciliarAbertosPorLeitor()).isZero();
+
+        // Devolução por SQL direto, sem passar pelo serviço
+        jdbc.update("UPDATE emprestimos SET devolvido = TRUE WHERE id = ?", emprestimosIncluidos.peek());
+        assertThat(emprestimoService.contarAbertosDoLeitor(leitorId)).isEqualTo(2);
+
+        // A primeira rodada só anota a divergência; a segunda, igual, corrige
+        assertThat(emprestimoService.reconciliarAbertosPorLeitor()).isZero();
+        assertThat(emprestimoService.contarAbertosDoLeitor(leitorId)).isEqualTo(2);
+        assertThat(emprestimoService.reconciliarAbertosPorLeitor()).isEqualTo(1);
+        assertThat(emprestimoService.contarAbertosDoLeitor(leitorId)).isEqualTo(1);
+        assertThat(emprestimoService.reconciliarAbertosPorLeitor()).isZero();
+    }
+
+    private void emprestar() {
+        Leitor leitor = new Leitor();
+        leitor.setId(leitorId);
+        emprestimosIncluidos.add(emprestimoService.incluir(
+                new Emprestimo(leitor, "Livro Limitado", "Autor", null)).getId());
+    }
+}
@@ -0,0 +1,156 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.ApuracaoMultas;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.domain.Multa;
+import com.biblioteca.domain.ParticaoApuracao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Apuração de multas: lançamentos só da diferença devida, débito no limite de
+ * crédito (sem ficar negativo) e retomada de partições sem cobrar de novo
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.multas.valor-diario=1.00",
+        "biblioteca.multas.tamanho-bloco=2"
+})
+@DirtiesContext
+class MultaServiceTest {
+
+    @Autowired
+    private MultaService multaService;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<Long> leitores = new ArrayList<>();
+
+    @AfterEach
+    void removerIncluidos() {
+        for (Long leitorId : leitores) {
+            jdbc.update("DELETE FROM multas WHERE leitor_id = ?", leitorId);
+            jdbc.update("DELETE FROM emprestimos WHERE leitor_id = ?", leitorId);
+            leitorService.excluir(leitorId);
+        }
+    }
+
+    @Test
+    void lancaDiferencaDevidaEDebitaLimite() {
+        LocalDate data = LocalDate.now().minusDays(5);
+        Long leitorId = incluirLeitor("77800000001", 100.0);
+        Long semCredito = incluirLeitor("77800000002", 1.0);
+        emprestar(leitorId, data.minusDays(10), false);
+        emprestar(leitorId, data.minusDays(3), false);
+        emprestar(leitorId, data.plusDays(5), false);
+        emprestar(leitorId, data.minusDays(20), true);
+        emprestar(semCredito, data.minusDays(10), false);
+        leitorService.buscarPorId(leitorId); // Leitor no cache de segundo nível
+
+        ApuracaoMultas apuracao = multaService.apurar(data, 4);
+
+        assertThat(apuracao.getSituacao()).isEqualTo(ApuracaoMultas.Situacao.CONCLUIDA);
+        assertThat(apuracao.getParticoes()).isNotEmpty().hasSizeLessThanOrEqualTo(4)
+                .allSatisfy(particao -> {
+                    assertThat(particao.getSituacao()).isEqualTo(ApuracaoMultas.Situacao.CONCLUIDA);
+                    assertThat(particao.getEmprestimosPorSegundo()).isNotNull();
+                });
+        assertThat(valores(leitorId)).containsExactly(new BigDecimal("10.00"), new BigDecimal("3.00"));
+        assertThat(leitorService.buscarPorId(leitorId).getLimiteCredito()).isEqualTo(87.0);
+        assertThat(valores(semCredito)).containsExactly(new BigDecimal("10.00"));
+        assertThat(leitorService.buscarPorId(semCredito).getLimiteCredito()).isEqualTo(0.0);
+
+        // Data já concluída: nada é executado
+        assertThat(multaService.apurar(data, null).getId()).isEqualTo(apuracao.getId());
+        assertThat(valores(leitorId)).hasSize(2);
+
+        // Partição do leitor reaberta do início: é apurada de novo sem cobrar duas vezes
+        ParticaoApuracao particao = particaoDe(apuracao, leitorId);
+        jdbc.update("UPDATE particoes_apuracao SET situacao = 'FALHOU', ultimo_emprestimo_id = 0 WHERE id = ?",
+                particao.getId());
+        jdbc.update("UPDATE apuracoes_multas SET situacao = 'FALHOU' WHERE id = ?", apuracao.getId());
+        ApuracaoMultas retomada = multaService.apurar(data, null);
+        assertThat(retomada.getId()).isEqualTo(apuracao.getId());
+        assertThat(retomada.getSituacao()).isEqualTo(ApuracaoMultas.Situacao.CONCLUIDA);
+        assertThat(valores(leitorId)).hasSize(2);
+        assertThat(leitorService.buscarPorId(leitorId).getLimiteCredito()).isEqualTo(87.0);
+
+        // Dois dias depois, só o acréscimo de cada atrasado
+        multaService.apurar(data.plusDays(2), null);
+        assertThat(valores(leitorId)).containsExactly(new BigDecimal("10.00"), new BigDecimal("3.00"),
+                new BigDecimal("2.00"), new BigDecimal("2.00"));
+        assertThat(leitorService.buscarPorId(leitorId).getLimiteCredito()).isEqualTo(83.0);
+    }
+
+    @Test
+    void debitoDescartaConsultasEmCacheComOLimite() {
+        LocalDate data = LocalDate.now();
+        Long leitorId = incluirLeitor("77800000003", 5.0, "OURO");
+        emprestar(leitorId, data.minusDays(10), false);
+
+        // Consultas por fidelidade no cache de consultas, ainda com o limite anterior
+        assertThat(leitorService.buscarPorFidelidadeELimite("OURO", 4.0)).extracting(Leitor::getId).contains(leitorId);
+        assertThat(limiteNoResumo(leitorId)).isEqualTo(5.0);
+
+        multaService.apurar(data, 2);
+
+        assertThat(leitorService.buscarPorFidelidadeELimite("OURO", 4.0)).extracting(Leitor::getId)
+                .doesNotContain(leitorId);
+        assertThat(limiteNoResumo(leitorId)).isEqualTo(0.0);
+    }
+
+    private Double limiteNoResumo(Long leitorId) {
+        return leitorService.buscarResumosPorFidelidade("OURO").stream()
+                .filter(resumo -> resumo.getId().equals(leitorId))
+                .findFirst()
+                .orElseThrow()
+                .getLimiteCredito();
+    }
+
+    private Long incluirLeitor(String cpf, double limiteCredito) {
+        return incluirLeitor(cpf, limiteCredito, "BRONZE");
+    }
+
+    private Long incluirLeitor(String cpf, double limiteCredito, String fidelidade) {
+        Leitor novo = new Leitor("Leitor Multa " + cpf, cpf, null, null, null, "MUL-" + cpf);
+        novo.setFidelidade(fidelidade);
+        novo.setLimiteCredito(limiteCredito);
+        Long id = leitorService.incluir(novo).getId();
+        leitores.add(id);
+        return id;
+    }
+
+    private void emprestar(Long leitorId, LocalDate prevista, boolean devolvido) {
+        jdbc.update("INSERT INTO emprestimos (leitor_id, titulo_livro, autor, isbn, data_emprestimo, "
+                        + "data_devolucao_prevista, data_devolucao_efetiva, devolvido) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                leitorId, "Livro Atrasado", "Autor", null, prevista.minusDays(14), prevista,
+                devolvido ? prevista : null, devolvido);
+    }
+
+    private List<BigDecimal> valores(Long leitorId) {
+        return multaService.listarPorLeitor(leitorId).stream().map(Multa::getValor).toList();
+    }
+
+    private static ParticaoApuracao particaoDe(ApuracaoMultas apuracao, Long leitorId) {
+        return apuracao.getParticoes().stream()
+                .filter(p -> p.getLeitorInicial() <= leitorId && leitorId <= p.getLeitorFinal())
+                .findFirst()
+                .orElseThrow();
+    }
+}
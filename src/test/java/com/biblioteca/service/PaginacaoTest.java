@@ -0,0 +1,134 @@
+package com.biblioteca.service;
+
+import com.biblioteca.benchmark.MassaDeDados;
+import com.biblioteca.domain.Bibliotecario;
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.dto.LeitorResumo;
+import com.biblioteca.dto.Pagina;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paginação por cursor: percorrendo as páginas até proximoCursor nulo, cada
+ * registro aparece uma única vez, na ordem do ID, e nenhuma página passa do tamanho
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@DirtiesContext
+class PaginacaoTest {
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LeitorService leitorService;
+
+    @Autowired
+    private BibliotecarioService bibliotecarioService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void paginasDeEmprestimosCobremATabelaSemRepetir() {
+        List<Long> leitorIds = leitorService.listarTodos().stream().map(Leitor::getId).toList();
+        MassaDeDados.inserirEmprestimos(jdbc, leitorIds, 237);
+
+        List<Long> esperados = ids(emprestimoService.listarTodos(), Emprestimo::getId);
+        for (int tamanho : new int[]{1, 7, 50, 500}) {
+            assertThat(percorrer(cursor -> emprestimoService.listarPagina(cursor, tamanho), tamanho, Emprestimo::getId))
+                    .containsExactlyElementsOf(esperados);
+        }
+
+        Long leitorId = leitorIds.get(0);
+        List<Long> doLeitor = ids(emprestimoService.listarPorLeitor(leitorId), Emprestimo::getId);
+        assertThat(percorrer(cursor -> emprestimoService.listarPaginaPorLeitor(leitorId, cursor, 5), 5,
+                Emprestimo::getId)).containsExactlyElementsOf(doLeitor);
+    }
+
+    @Test
+    void paginasDeLeitoresEBibliotecariosCobremATabela() {
+        assertThat(percorrer(cursor -> leitorService.listarPaginaResumos(cursor, 2), 2, LeitorResumo::getId))
+                .containsExactlyElementsOf(ids(leitorService.listarTodos(), Leitor::getId));
+        assertThat(percorrer(cursor -> bibliotecarioService.listarPagina(cursor, 1), 1, Bibliotecario::getId))
+                .containsExactlyElementsOf(ids(bibliotecarioService.listarTodos(), Bibliotecario::getId));
+    }
+
+    @Test
+    void buscaPorNomePaginaSemLimiteFixoEFiltraInativosAteCompletarAPagina() {
+        List<Long> incluidos = new ArrayList<>();
+        try {
+            for (int i = 0; i < 7; i++) {
+                Bibliotecario bibliotecario = new Bibliotecario("Zenóbia Quintanilha " + i,
+                        String.format("8%010d", i), null, null, null, "ZQ" + i, "MANHA");
+                bibliotecario.setMatricula(String.valueOf(77_700 + i));
+                bibliotecario.setSalario(3000.0);
+                incluidos.add(bibliotecarioService.incluir(bibliotecario).getId());
+            }
+            // Os primeiros IDs encontrados estão inativos: a página continua buscando além deles
+            for (Long id : incluidos.subList(0, 4)) {
+                bibliotecarioService.inativar(id);
+            }
+
+            assertThat(percorrer(cursor -> bibliotecarioService.buscarPorNome("zenobia", cursor, 2), 2,
+                    Bibliotecario::getId)).containsExactlyElementsOf(incluidos);
+            assertThat(percorrer(cursor -> bibliotecarioService.buscarPorNomeEAtivo("quintanilha", true, cursor, 2), 2,
+                    Bibliotecario::getId)).containsExactlyElementsOf(incluidos.subList(4, 7));
+            assertThat(bibliotecarioService.buscarPorNomeEAtivo("quintanilha", true, null, 3).getItens())
+                    .extracting(Bibliotecario::getId).containsExactlyElementsOf(incluidos.subList(4, 7));
+
+            List<Long> leitores = ids(leitorService.listarTodos(), Leitor::getId);
+            assertThat(percorrer(cursor -> leitorService.buscarResumosPorNome("a", cursor, 1), 1, LeitorResumo::getId))
+                    .isNotEmpty()
+                    .isSorted()
+                    .isSubsetOf(leitores);
+        } finally {
+            incluidos.forEach(bibliotecarioService::excluir);
+        }
+    }
+
+    @Test
+    void tamanhoENormalizadoECursorAlemDoFimDevolvePaginaVazia() {
+        Pagina<Emprestimo> padrao = emprestimoService.listarPagina(null, null);
+        assertThat(padrao.getTamanho()).isEqualTo(50);
+        assertThat(emprestimoService.listarPagina(null, 10_000).getTamanho()).isEqualTo(500);
+
+        Pagina<Emprestimo> vazia = emprestimoService.listarPagina(Long.MAX_VALUE, 10);
+        assertThat(vazia.getItens()).isEmpty();
+        assertThat(vazia.getProximoCursor()).isNull();
+    }
+
+    // Segue proximoCursor até o fim, conferindo o tamanho e o cursor de cada página
+    private static <T> List<Long> percorrer(Function<Long, Pagina<T>> buscar, int tamanho, Function<T, Long> extrairId) {
+        List<Long> vistos = new ArrayList<>();
+        Long cursor = null;
+        do {
+            Pagina<T> pagina = buscar.apply(cursor);
+            assertThat(pagina.getItens()).hasSizeLessThanOrEqualTo(tamanho);
+            pagina.getItens().forEach(item -> vistos.add(extrairId.apply(item)));
+            if (pagina.getProximoCursor() != null) {
+                assertThat(pagina.getItens()).hasSize(tamanho);
+                assertThat(pagina.getProximoCursor()).isEqualTo(vistos.get(vistos.size() - 1));
+            }
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+        return vistos;
+    }
+
+    private static <T> List<Long> ids(List<T> itens, Function<T, Long> extrairId) {
+        return itens.stream().map(extrairId).sorted(Comparator.naturalOrder()).toList();
+    }
+}
@@ -0,0 +1,124 @@
+package com.biblioteca.service;
+
+import com.biblioteca.domain.Emprestimo;
+import com.biblioteca.domain.Exemplar;
+import com.biblioteca.domain.Leitor;
+import com.biblioteca.domain.Reserva;
+import com.biblioteca.exception.DadosInvalidosException;
+import com.biblioteca.repository.ExemplarRepository;
+import com.biblioteca.repository.LeitorRepository;
+import com.biblioteca.repository.ReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fila de reservas de um título com um único exemplar: a devolução separa o
+ * exemplar para a próxima reserva, o leitor dela o retira, e uma reserva não
+ * retirada no prazo expira e devolve o exemplar aos disponíveis
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "biblioteca.reservas.prazo-retirada=PT1S",
+        "biblioteca.reservas.verificacao-intervalo=PT0.1S",
+        "biblioteca.emprestimos.limite.bronze=100000",
+        "biblioteca.emprestimos.limite.prata=100000",
+        "biblioteca.emprestimos.limite.ouro=100000",
+        "biblioteca.emprestimos.limite.diamante=100000"
+})
+@DirtiesContext
+class ReservaServiceTest {
+
+    private static final String ISBN = "9789999999983";
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private ExemplarService exemplarService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ExemplarRepository exemplarRepository;
+
+    @Autowired
+    private LeitorRepository leitorRepository;
+
+    private final List<Long> emprestimosIncluidos = new ArrayList<>();
+
+    @AfterEach
+    void removerIncluidos() {
+        emprestimosIncluidos.forEach(emprestimoService::excluir);
+        reservaService.gravarPendentes();
+        reservaRepository.deleteAll(reservaRepository.findAll().stream()
+                .filter(reserva -> ISBN.equals(reserva.getIsbn())).toList());
+        exemplarRepository.deleteAll(exemplarRepository.findByIsbnOrderByIdAsc(ISBN));
+        exemplarService.carregarDisponibilidade();
+        reservaService.carregarFilas();
+    }
+
+    @Test
+    void devolucaoAtendeAFilaEPrazoVencidoLiberaOExemplar() throws InterruptedException {
+        List<Leitor> leitores = leitorRepository.findAll();
+        Long primeiro = leitores.get(0).getId();
+        Long segundo = leitores.get(1).getId();
+        Long terceiro = leitores.get(2).getId();
+        exemplarService.incluir(ISBN, new Exemplar(ISBN, "RESERVA-1", "Livro Reservado", "Autor"));
+
+        Long emprestimo = emprestar(primeiro);
+        Reserva doSegundo = reservaService.reservar(ISBN, segundo);
+        Reserva doTerceiro = reservaService.reservar(ISBN, terceiro);
+        assertThat(doSegundo.getSituacao()).isEqualTo(Reserva.Situacao.AGUARDANDO);
+        assertThat(reservaService.buscarPorId(doTerceiro.getId()).getPosicao()).isEqualTo(2);
+        assertThatThrownBy(() -> reservaService.reservar(ISBN, segundo)).isInstanceOf(DadosInvalidosException.class);
+        assertThatThrownBy(() -> emprestar(terceiro)).isInstanceOf(DadosInvalidosException.class);
+
+        // A devolução separa o exemplar para o segundo leitor, que o retira
+        emprestimoService.registrarDevolucao(emprestimo);
+        assertThat(reservaService.buscarPorId(doSegundo.getId()).getSituacao()).isEqualTo(Reserva.Situacao.DISPONIVEL);
+        assertThat(exemplarService.consultarDisponibilidade(ISBN).getDisponiveis()).isZero();
+        assertThatThrownBy(() -> emprestar(terceiro)).isInstanceOf(DadosInvalidosException.class);
+        emprestimo = emprestar(segundo);
+        assertThat(reservaService.buscarPorId(doSegundo.getId()).getSituacao()).isEqualTo(Reserva.Situacao.ATENDIDA);
+
+        // O terceiro não retira no prazo: a reserva expira e o exemplar fica livre
+        emprestimoService.registrarDevolucao(emprestimo);
+        assertThat(reservaService.buscarPorId(doTerceiro.getId()).getSituacao()).isEqualTo(Reserva.Situacao.DISPONIVEL);
+        assertThat(reservaService.listarPorIsbn(ISBN)).hasSize(1);
+        for (int i = 0; i < 50 && exemplarService.consultarDisponibilidade(ISBN).getDisponiveis() == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(exemplarService.consultarDisponibilidade(ISBN).getDisponiveis()).isEqualTo(1);
+        assertThat(reservaService.buscarPorId(doTerceiro.getId()).getSituacao()).isEqualTo(Reserva.Situacao.EXPIRADA);
+
+        // Gravação em lotes: o banco fica com a situação final de cada reserva
+        reservaService.gravarPendentes();
+        assertThat(reservaRepository.findById(doSegundo.getId()))
+                .hasValueSatisfying(reserva -> assertThat(reserva.getSituacao()).isEqualTo(Reserva.Situacao.ATENDIDA));
+        assertThat(reservaRepository.findById(doTerceiro.getId()))
+                .hasValueSatisfying(reserva -> assertThat(reserva.getSituacao()).isEqualTo(Reserva.Situacao.EXPIRADA));
+        assertThat(exemplarService.reconciliarDisponibilidade()).isZero();
+    }
+
+    private Long emprestar(Long leitorId) {
+        Leitor leitor = new Leitor();
+        leitor.setId(leitorId);
+        Long id = emprestimoService.incluir(new Emprestimo(leitor, "Livro Reservado", "Autor", ISBN)).getId();
+        emprestimosIncluidos.add(id);
+        return id;
+    }
+}